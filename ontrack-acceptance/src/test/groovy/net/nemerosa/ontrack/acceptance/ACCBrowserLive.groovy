@@ -0,0 +1,58 @@
+package net.nemerosa.ontrack.acceptance
+
+import net.nemerosa.ontrack.acceptance.browser.pages.BranchPage
+import net.nemerosa.ontrack.acceptance.support.AcceptanceTestSuite
+import org.junit.Test
+import org.openqa.selenium.JavascriptExecutor
+
+import static net.nemerosa.ontrack.acceptance.browser.Browser.browser
+import static net.nemerosa.ontrack.acceptance.steps.BasicSteps.loginAsAdmin
+import static net.nemerosa.ontrack.test.TestUtils.uid
+
+/**
+ * GUI tests for the live events
+ */
+@AcceptanceTestSuite
+class ACCBrowserLive extends AcceptanceTestClient {
+
+    private static final String LIVE_SERVICE = "angular.element(document).injector().get('otLiveService')"
+
+    @Test
+    void 'Branch page subscribes to its events link without polling'() {
+        def projectName = uid('P')
+        ontrack.project(projectName) {
+            branch('B') {
+                build('1')
+            }
+        }
+        def branch = ontrack.branch(projectName, 'B')
+
+        // The events link of the branch is paginated
+        String eventsLink = ontrack.get("structure/branches/${branch.id}")._events
+        assert eventsLink.contains('?')
+
+        browser { browser ->
+            loginAsAdmin(browser)
+            goTo(BranchPage, [id: branch.id])
+            JavascriptExecutor js = browser.driver as JavascriptExecutor
+            // The branch view and its events share one accepted connection
+            browser.waitUntil("Live connection", 10) {
+                js.executeScript("return ${LIVE_SERVICE}.isConnected();" as String) as boolean
+            }
+            // Topic taken from the events link
+            assert js.executeScript("return ${LIVE_SERVICE}.entityTopic(arguments[0]);" as String, eventsLink) == "BRANCH/${branch.id}" as String
+            assert js.executeScript("return ${LIVE_SERVICE}.subscriptions.events.topics;" as String) == ["BRANCH/${branch.id}" as String]
+            // No subscription falls back to polling
+            assert js.executeScript("""\
+                var polling = [];
+                angular.forEach(${LIVE_SERVICE}.subscriptions, function (subscription) {
+                    if (subscription.polling) {
+                        polling.push(subscription.name);
+                    }
+                });
+                return polling;
+                """ as String) == []
+        }
+    }
+
+}
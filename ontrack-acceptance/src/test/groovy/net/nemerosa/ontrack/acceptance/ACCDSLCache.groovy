@@ -0,0 +1,141 @@
+package net.nemerosa.ontrack.acceptance
+
+import net.nemerosa.ontrack.acceptance.support.AcceptanceTestSuite
+import net.nemerosa.ontrack.dsl.Ontrack
+import net.nemerosa.ontrack.dsl.OntrackLogger
+import org.junit.Test
+
+import static net.nemerosa.ontrack.test.TestUtils.uid
+
+/**
+ * Acceptance tests for the cache of the DSL connection
+ */
+@AcceptanceTestSuite
+class ACCDSLCache extends AbstractACCDSL {
+
+    /**
+     * Messages logged by the cached connection
+     */
+    private final List<String> messages = []
+
+    private Ontrack getCachedOntrack() {
+        ontrackBuilder
+                .authenticate('admin', adminPassword)
+                .cache(100)
+                .logger({ String message -> messages << message } as OntrackLogger)
+                .build()
+    }
+
+    private int getCacheHits() {
+        messages.count { it.startsWith('[ontrack][cache]') } as int
+    }
+
+    @Test
+    void 'Cache hits'() {
+        def name = uid('P')
+        ontrack.project(name) {
+            branch('B1')
+        }
+        def cached = cachedOntrack
+
+        def project = cached.findProject(name)
+        assert project != null
+        assert cacheHits == 0
+
+        assert cached.findProject(name).id == project.id
+        assert cacheHits == 1
+
+        assert project.branches*.name == ['B1']
+        assert project.branches*.name == ['B1']
+        assert cacheHits == 2
+    }
+
+    @Test
+    void 'Cache is not cleared by the writes of other clients'() {
+        def name = uid('P')
+        ontrack.project(name) {
+            branch('B1')
+        }
+        def cached = cachedOntrack
+        def project = cached.findProject(name)
+        assert project.branches*.name == ['B1']
+
+        // Another client creates a branch
+        ontrack.project(name).branch('B2')
+
+        // Still the cached list
+        assert project.branches*.name == ['B1']
+
+        // Until the cached client writes
+        project.branch('B3')
+        assert project.branches*.name as Set == ['B1', 'B2', 'B3'] as Set
+    }
+
+    @Test
+    void 'Cache cleared on POST'() {
+        def name = uid('P')
+        ontrack.project(name)
+        def cached = cachedOntrack
+        def project = cached.findProject(name)
+        assert project.branches.empty
+
+        project.branch('B1')
+        assert project.branches*.name == ['B1']
+        assert cacheHits == 0
+    }
+
+    @Test
+    void 'Cache cleared on PUT'() {
+        def name = uid('P')
+        ontrack.project(name).config.autoValidationStamp(false)
+        def cached = cachedOntrack
+        def project = cached.findProject(name)
+        assert !project.config.autoValidationStamp
+
+        // The list of properties is taken from the cache before the update
+        project.config.autoValidationStamp()
+        assert cacheHits == 1
+
+        assert project.config.autoValidationStamp
+        assert cacheHits == 1
+    }
+
+    @Test
+    void 'Cache cleared on DELETE'() {
+        def name = uid('P')
+        ontrack.project(name) {
+            branch('B1')
+        }
+        def cached = cachedOntrack
+        def project = cached.findProject(name)
+        def branch = project.branch('B1', '', true)
+        assert project.branches*.name == ['B1']
+
+        branch.delete()
+        assert project.branches.empty
+        assert cacheHits == 0
+    }
+
+    @Test
+    void 'Not found entities are null and not cached'() {
+        def name = uid('P')
+        def cached = cachedOntrack
+        assert cached.findProject(name) == null
+
+        // Another client creates the project
+        ontrack.project(name) {
+            branch('B1')
+        }
+
+        // The 404 was not cached
+        def project = cached.findProject(name)
+        assert project != null
+        assert project.name == name
+
+        // Missing branch is created, existing one is returned
+        assert project.branch('B1', '', true).name == 'B1'
+        assert project.branch('B2', '', true).name == 'B2'
+        assert project.branches*.name as Set == ['B1', 'B2'] as Set
+    }
+
+}
@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.common.RunProfile;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Application context used by the benchmarks. It relies on the same embedded H2 database
+ * as the integration tests.
+ *
+ * @see net.nemerosa.ontrack.it.ITConfig
+ */
+@Configuration
+@Profile(RunProfile.UNIT_TEST)
+@ComponentScan("net.nemerosa.ontrack")
+public class BenchmarkConfig {
+}
@@ -0,0 +1,96 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Walking the build links, on a synthetic graph where each generated build uses
+ * {@link #linksPerBuild} random other builds. With the default data (1000 builds), this
+ * gives a graph of 100k links, with cycles.
+ * <p>
+ * The <code>naive</code> benchmark walks the same graph using one query per build, as a reference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BuildLinkGraphBenchmark {
+
+    /**
+     * Maximum number of builds in a graph
+     */
+    private static final int MAX_SIZE = 1000;
+
+    @Param("100")
+    public int linksPerBuild;
+
+    @Param({"2", "5"})
+    public int depth;
+
+    private StructureRepository structureRepository;
+    private StructureService structureService;
+    private List<ID> projectIds;
+
+    @Setup(Level.Trial)
+    public void setup(OntrackState state) {
+        structureRepository = state.getBean(StructureRepository.class);
+        structureService = state.getBean(StructureService.class);
+        projectIds = structureRepository.getProjectList().stream().map(Project::getId).collect(Collectors.toList());
+        // All the build IDs
+        List<ID> buildIds = new ArrayList<>();
+        structureRepository.getProjectList().forEach(project ->
+                structureRepository.builds(project, build -> buildIds.add(build.getId()))
+        );
+        // Random links
+        Random random = new Random(state.config.getSeed());
+        int count = Math.min(linksPerBuild, buildIds.size() - 1);
+        for (ID buildId : buildIds) {
+            Set<ID> targets = new HashSet<>();
+            while (targets.size() < count) {
+                ID target = buildIds.get(random.nextInt(buildIds.size()));
+                if (!target.equals(buildId)) {
+                    targets.add(target);
+                }
+            }
+            structureRepository.addBuildLinks(buildId, targets);
+        }
+    }
+
+    @Benchmark
+    public BuildLinkGraph downstream(OntrackState state) {
+        return structureRepository.getBuildLinkGraph(state.build, BuildLinkDirection.DOWNSTREAM, depth, MAX_SIZE, projectIds);
+    }
+
+    @Benchmark
+    public BuildLinkGraph upstream(OntrackState state) {
+        return structureRepository.getBuildLinkGraph(state.build, BuildLinkDirection.UPSTREAM, depth, MAX_SIZE, projectIds);
+    }
+
+    @Benchmark
+    public List<Build> buildsUsing(OntrackState state) {
+        return state.asAdmin(() -> structureService.getBuildsUsing(state.build, state.project.getName(), depth));
+    }
+
+    @Benchmark
+    public Set<ID> naive(OntrackState state) {
+        Set<ID> reached = new HashSet<>();
+        List<ID> frontier = Collections.singletonList(state.build.getId());
+        for (int level = 0; level < depth && !frontier.isEmpty() && reached.size() < MAX_SIZE; level++) {
+            List<ID> next = new ArrayList<>();
+            for (ID id : frontier) {
+                for (Build target : structureRepository.getBuildLinksFrom(id)) {
+                    if (reached.size() < MAX_SIZE && reached.add(target.getId())) {
+                        next.add(target.getId());
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return reached;
+    }
+
+}
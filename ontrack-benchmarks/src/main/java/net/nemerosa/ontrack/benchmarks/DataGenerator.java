@@ -0,0 +1,149 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.extension.general.*;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd;
+
+/**
+ * Generates a deterministic set of projects, branches, builds, runs and properties
+ * through the services, so that the events, the counters and the indexes are maintained
+ * like in a real instance.
+ * <p>
+ * The names are derived from the position of the entities (<code>P0</code>, <code>P0-B1</code>,
+ * <code>12</code>...) and the promotions and validation statuses are drawn from a seeded random
+ * generator, so that two generations with the same {@link DataGeneratorConfig} give the same data.
+ */
+@Component
+public class DataGenerator {
+
+    /**
+     * Fixed reference time for the builds
+     */
+    public static final LocalDateTime START = LocalDateTime.of(2016, 1, 1, 0, 0);
+
+    private final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    private final StructureService structureService;
+    private final PropertyService propertyService;
+    private final SecurityService securityService;
+
+    @Autowired
+    public DataGenerator(StructureService structureService, PropertyService propertyService, SecurityService securityService) {
+        this.structureService = structureService;
+        this.propertyService = propertyService;
+        this.securityService = securityService;
+    }
+
+    public static String projectName(int p) {
+        return "P" + p;
+    }
+
+    public static String branchName(int p, int b) {
+        return projectName(p) + "-B" + b;
+    }
+
+    public static String buildName(int n) {
+        return String.valueOf(n);
+    }
+
+    public void generate(DataGeneratorConfig config) {
+        logger.info("[benchmarks] Generating data with {}", config);
+        long start = System.currentTimeMillis();
+        Random random = new Random(config.getSeed());
+        securityService.asAdmin(() -> {
+            for (int p = 0; p < config.getProjects(); p++) {
+                generateProject(config, random, p);
+            }
+        });
+        logger.info("[benchmarks] Data generated in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void generateProject(DataGeneratorConfig config, Random random, int p) {
+        Project project = structureService.newProject(
+                Project.of(nd(projectName(p), "Benchmark project " + p))
+        );
+        for (int b = 0; b < config.getBranchesPerProject(); b++) {
+            generateBranch(config, random, project, p, b);
+        }
+    }
+
+    private void generateBranch(DataGeneratorConfig config, Random random, Project project, int p, int b) {
+        Branch branch = structureService.newBranch(
+                Branch.of(project, nd(branchName(p, b), "Benchmark branch " + b))
+        );
+        propertyService.editProperty(
+                branch,
+                MessagePropertyType.class,
+                new MessageProperty(MessageType.INFO, "Benchmark branch " + b)
+        );
+        List<PromotionLevel> promotionLevels = IntStream.range(0, config.getPromotionLevelsPerBranch())
+                .mapToObj(i -> structureService.newPromotionLevel(
+                        PromotionLevel.of(branch, nd("PL" + i, "Promotion level " + i))
+                ))
+                .collect(Collectors.toList());
+        List<ValidationStamp> validationStamps = IntStream.range(0, config.getValidationStampsPerBranch())
+                .mapToObj(i -> structureService.newValidationStamp(
+                        ValidationStamp.of(branch, nd("VS" + i, "Validation stamp " + i))
+                ))
+                .collect(Collectors.toList());
+        for (int n = 0; n < config.getBuildsPerBranch(); n++) {
+            generateBuild(config, random, branch, promotionLevels, validationStamps, n);
+        }
+    }
+
+    private void generateBuild(DataGeneratorConfig config, Random random, Branch branch, List<PromotionLevel> promotionLevels, List<ValidationStamp> validationStamps, int n) {
+        Signature signature = Signature.of(START.plusMinutes(n), "benchmark");
+        Build build = structureService.newBuild(
+                Build.of(branch, nd(buildName(n), "Benchmark build " + n), signature)
+        );
+        // Validations
+        for (ValidationStamp validationStamp : validationStamps) {
+            structureService.newValidationRun(
+                    ValidationRun.of(
+                            build,
+                            validationStamp,
+                            1,
+                            signature,
+                            random.nextDouble() < config.getFailureRate() ?
+                                    ValidationRunStatusID.STATUS_FAILED :
+                                    ValidationRunStatusID.STATUS_PASSED,
+                            ""
+                    )
+            );
+        }
+        // Promotions, in order, until one is not granted
+        for (PromotionLevel promotionLevel : promotionLevels) {
+            if (random.nextDouble() >= config.getPromotionRate()) {
+                break;
+            }
+            structureService.newPromotionRun(
+                    PromotionRun.of(build, promotionLevel, signature, "")
+            );
+        }
+        // Properties
+        if (config.getPropertiesPerBuild() > 0) {
+            propertyService.editProperty(
+                    build,
+                    MetaInfoPropertyType.class,
+                    new MetaInfoProperty(
+                            IntStream.range(0, config.getPropertiesPerBuild())
+                                    .mapToObj(i -> MetaInfoPropertyItem.of("name" + i, "value" + n))
+                                    .collect(Collectors.toList())
+                    )
+            );
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.Wither;
+
+/**
+ * Size and shape of the data generated by the {@link DataGenerator}.
+ * <p>
+ * Each option can be overridden using a <code>ontrack.benchmarks.&lt;option&gt;</code> system property.
+ */
+@Data
+@AllArgsConstructor
+@Wither
+public class DataGeneratorConfig {
+
+    public static final String PREFIX = "ontrack.benchmarks.";
+
+    /**
+     * Seed of the random generator. Two generations with the same configuration produce the same data.
+     */
+    private final long seed;
+    private final int projects;
+    private final int branchesPerProject;
+    private final int buildsPerBranch;
+    private final int promotionLevelsPerBranch;
+    private final int validationStampsPerBranch;
+    /**
+     * Number of meta information items set as a property on each build (0 for no property)
+     */
+    private final int propertiesPerBuild;
+    /**
+     * Probability for a build to be promoted to a given level, when promoted to the previous one
+     */
+    private final double promotionRate;
+    /**
+     * Probability for a validation run to fail
+     */
+    private final double failureRate;
+
+    public static DataGeneratorConfig defaults() {
+        return new DataGeneratorConfig(
+                1L,
+                2,
+                5,
+                100,
+                3,
+                5,
+                2,
+                0.3,
+                0.1
+        );
+    }
+
+    /**
+     * Default configuration, overridden by the system properties.
+     */
+    public static DataGeneratorConfig fromSystemProperties() {
+        DataGeneratorConfig d = defaults();
+        return new DataGeneratorConfig(
+                Long.getLong(PREFIX + "seed", d.seed),
+                Integer.getInteger(PREFIX + "projects", d.projects),
+                Integer.getInteger(PREFIX + "branchesPerProject", d.branchesPerProject),
+                Integer.getInteger(PREFIX + "buildsPerBranch", d.buildsPerBranch),
+                Integer.getInteger(PREFIX + "promotionLevelsPerBranch", d.promotionLevelsPerBranch),
+                Integer.getInteger(PREFIX + "validationStampsPerBranch", d.validationStampsPerBranch),
+                Integer.getInteger(PREFIX + "propertiesPerBuild", d.propertiesPerBuild),
+                getDouble(PREFIX + "promotionRate", d.promotionRate),
+                getDouble(PREFIX + "failureRate", d.failureRate)
+        );
+    }
+
+    private static double getDouble(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+}
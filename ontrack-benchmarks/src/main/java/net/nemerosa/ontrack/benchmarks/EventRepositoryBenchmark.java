@@ -0,0 +1,68 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.structure.Entity;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import net.nemerosa.ontrack.repository.EventRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pages of events returned by the {@link EventRepository}, including the loading
+ * of the entities they refer to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EventRepositoryBenchmark {
+
+    /**
+     * Size of a page of events
+     */
+    private static final int COUNT = 20;
+
+    private EventRepository eventRepository;
+    private EventFactory eventFactory;
+    private StructureService structureService;
+    private List<Integer> allowedProjects;
+
+    @Setup(Level.Trial)
+    public void setup(OntrackState state) {
+        eventRepository = state.getBean(EventRepository.class);
+        eventFactory = state.getBean(EventFactory.class);
+        structureService = state.getBean(StructureService.class);
+        allowedProjects = state.asAdmin(() ->
+                structureService.getProjectList().stream().map(Entity::id).collect(Collectors.toList())
+        );
+    }
+
+    @Benchmark
+    public List<Event> query(OntrackState state) {
+        return state.asAdmin(() -> eventRepository.query(
+                allowedProjects,
+                0,
+                COUNT,
+                (type, id) -> type.getEntityFn(structureService).apply(id),
+                eventFactory::toEventType
+        ));
+    }
+
+    @Benchmark
+    public List<Event> queryForBranch(OntrackState state) {
+        return state.asAdmin(() -> eventRepository.query(
+                allowedProjects,
+                ProjectEntityType.BRANCH,
+                state.branch.getId(),
+                0,
+                COUNT,
+                (type, id) -> type.getEntityFn(structureService).apply(id),
+                eventFactory::toEventType
+        ));
+    }
+
+}
@@ -0,0 +1,64 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nemerosa.ontrack.extension.general.MetaInfoProperty;
+import net.nemerosa.ontrack.extension.general.MetaInfoPropertyType;
+import net.nemerosa.ontrack.json.JsonUtils;
+import net.nemerosa.ontrack.json.ObjectMapperFactory;
+import net.nemerosa.ontrack.model.structure.BranchStatusView;
+import net.nemerosa.ontrack.model.structure.PropertyService;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON mapping using the object mapper of <code>ontrack-json</code>, on generated data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonMappingBenchmark {
+
+    private final ObjectMapper mapper = ObjectMapperFactory.create();
+
+    private List<BranchStatusView> branchStatusViews;
+    private byte[] branchStatusViewsJson;
+    private JsonNode metaInfoPropertyJson;
+
+    @Setup(Level.Trial)
+    public void setup(OntrackState state) throws JsonProcessingException {
+        StructureService structureService = state.getBean(StructureService.class);
+        PropertyService propertyService = state.getBean(PropertyService.class);
+        branchStatusViews = state.asAdmin(() -> structureService.getBranchStatusViews(state.project.getId()));
+        branchStatusViewsJson = mapper.writeValueAsBytes(branchStatusViews);
+        metaInfoPropertyJson = JsonUtils.format(
+                state.asAdmin(() -> propertyService.getProperty(state.build, MetaInfoPropertyType.class)).getValue()
+        );
+    }
+
+    @Benchmark
+    public byte[] writeBranchStatusViews() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(branchStatusViews);
+    }
+
+    @Benchmark
+    public JsonNode readBranchStatusViews() throws IOException {
+        return mapper.readTree(branchStatusViewsJson);
+    }
+
+    @Benchmark
+    public JsonNode formatBranchStatusViews() {
+        return JsonUtils.format(branchStatusViews);
+    }
+
+    @Benchmark
+    public MetaInfoProperty parseProperty() {
+        return JsonUtils.parse(metaInfoPropertyJson, MetaInfoProperty.class);
+    }
+
+}
@@ -0,0 +1,79 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.common.RunProfile;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.Branch;
+import net.nemerosa.ontrack.model.structure.Build;
+import net.nemerosa.ontrack.model.structure.Project;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Shared state of the benchmarks: application context started on an embedded H2 database,
+ * filled once per trial by the {@link DataGenerator}.
+ * <p>
+ * The targets of the benchmarks are the last generated project, its middle branch and
+ * the middle build of this branch.
+ */
+@State(Scope.Benchmark)
+public class OntrackState {
+
+    private AnnotationConfigApplicationContext context;
+    private SecurityService securityService;
+
+    public DataGeneratorConfig config;
+    public Project project;
+    public Branch branch;
+    public Build build;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles(RunProfile.UNIT_TEST);
+        context.register(BenchmarkConfig.class);
+        context.refresh();
+        securityService = getBean(SecurityService.class);
+        // Data
+        config = DataGeneratorConfig.fromSystemProperties();
+        if (config.getProjects() == 0 || config.getBranchesPerProject() == 0 || config.getBuildsPerBranch() == 0) {
+            throw new IllegalStateException("The benchmarks need at least one project, branch and build.");
+        }
+        getBean(DataGenerator.class).generate(config);
+        // Targets
+        StructureService structureService = getBean(StructureService.class);
+        int p = config.getProjects() - 1;
+        int b = config.getBranchesPerProject() / 2;
+        int n = config.getBuildsPerBranch() / 2;
+        asAdmin(() -> {
+            project = structureService.findProjectByName(DataGenerator.projectName(p))
+                    .orElseThrow(() -> new IllegalStateException("Cannot find generated project"));
+            branch = structureService.findBranchByName(project.getName(), DataGenerator.branchName(p, b))
+                    .orElseThrow(() -> new IllegalStateException("Cannot find generated branch"));
+            build = structureService.findBuildByName(project.getName(), branch.getName(), DataGenerator.buildName(n))
+                    .orElseThrow(() -> new IllegalStateException("Cannot find generated build"));
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Runs a call with full rights, as the services check the permissions of the current user.
+     */
+    public <T> T asAdmin(Supplier<T> supplier) {
+        return securityService.asAdmin(supplier);
+    }
+
+}
@@ -0,0 +1,85 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.extension.scm.support.PathPatterns;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Filtering of the files of a synthetic change log using ANT-like patterns.
+ * <p>
+ * The <code>regex</code> benchmark compiles one regular expression per pattern for each path, as
+ * the path filters used to do, as a reference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PathPatternsBenchmark {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "**/*.java",
+            "**/*.groovy",
+            "**/src/main/resources/**/*.sql",
+            "/docs/**",
+            "**/build.gradle",
+            "**/*.tpl.html"
+    );
+
+    private static final String[] EXTENSIONS = {"java", "groovy", "sql", "js", "html", "xml", "properties", "txt"};
+
+    @Param({"10000", "50000"})
+    public int fileCount;
+
+    private List<String> paths;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        paths = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            StringBuilder path = new StringBuilder();
+            int depth = 2 + random.nextInt(8);
+            for (int d = 0; d < depth; d++) {
+                path.append("/dir").append(random.nextInt(20));
+            }
+            path.append("/File").append(i).append('.').append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+            paths.add(path.toString());
+        }
+    }
+
+    @Benchmark
+    public int compiled() {
+        return count(PathPatterns.compile(PATTERNS));
+    }
+
+    @Benchmark
+    public int regex() {
+        return count(path -> PATTERNS.stream()
+                .map(pattern -> Pattern.compile(
+                        "^" + pattern
+                                .replace("**", "$MULTI$")
+                                .replace("*", "$SINGLE$")
+                                .replace("$SINGLE$", "[^\\/]+")
+                                .replace("$MULTI$", ".*") + "$"
+                ))
+                .anyMatch(pattern -> pattern.matcher(path).matches())
+        );
+    }
+
+    private int count(Predicate<String> filter) {
+        int count = 0;
+        for (String path : paths) {
+            if (filter.test(path)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
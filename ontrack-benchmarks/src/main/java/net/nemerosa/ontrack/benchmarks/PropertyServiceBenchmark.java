@@ -0,0 +1,44 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.extension.general.MessageProperty;
+import net.nemerosa.ontrack.extension.general.MessagePropertyType;
+import net.nemerosa.ontrack.extension.general.MetaInfoProperty;
+import net.nemerosa.ontrack.extension.general.MetaInfoPropertyType;
+import net.nemerosa.ontrack.model.structure.Property;
+import net.nemerosa.ontrack.model.structure.PropertyService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading of the properties through the {@link PropertyService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PropertyServiceBenchmark {
+
+    private PropertyService propertyService;
+
+    @Setup(Level.Trial)
+    public void setup(OntrackState state) {
+        propertyService = state.getBean(PropertyService.class);
+    }
+
+    @Benchmark
+    public List<Property<?>> getProperties(OntrackState state) {
+        return state.asAdmin(() -> propertyService.getProperties(state.build));
+    }
+
+    @Benchmark
+    public Property<MessageProperty> getBranchMessageProperty(OntrackState state) {
+        return state.asAdmin(() -> propertyService.getProperty(state.branch, MessagePropertyType.class));
+    }
+
+    @Benchmark
+    public Property<MetaInfoProperty> getBuildMetaInfoProperty(OntrackState state) {
+        return state.asAdmin(() -> propertyService.getProperty(state.build, MetaInfoPropertyType.class));
+    }
+
+}
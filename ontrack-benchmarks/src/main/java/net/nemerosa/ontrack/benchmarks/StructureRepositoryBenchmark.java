@@ -0,0 +1,61 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries of the {@link StructureRepository}, without any security or service overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StructureRepositoryBenchmark {
+
+    private StructureRepository structureRepository;
+    private ValidationRunStatusService validationRunStatusService;
+
+    @Setup(Level.Trial)
+    public void setup(OntrackState state) {
+        structureRepository = state.getBean(StructureRepository.class);
+        validationRunStatusService = state.getBean(ValidationRunStatusService.class);
+    }
+
+    @Benchmark
+    public List<Branch> getBranchesForProject(OntrackState state) {
+        return structureRepository.getBranchesForProject(state.project.getId());
+    }
+
+    @Benchmark
+    public Build getBuild(OntrackState state) {
+        return structureRepository.getBuild(state.build.getId());
+    }
+
+    @Benchmark
+    public Build getLastBuildForBranch(OntrackState state) {
+        return structureRepository.getLastBuildForBranch(state.branch);
+    }
+
+    @Benchmark
+    public int getBuildCount(OntrackState state) {
+        return structureRepository.getBuildCount(state.branch);
+    }
+
+    @Benchmark
+    public List<PromotionRun> getLastPromotionRunsForBuild(OntrackState state) {
+        return structureRepository.getLastPromotionRunsForBuild(state.build);
+    }
+
+    @Benchmark
+    public Map<ID, ValidationRunStatusID> getLastValidationRunStatusesForBuild(OntrackState state) {
+        return structureRepository.getLastValidationRunStatusesForBuild(
+                state.build,
+                validationRunStatusService::getValidationRunStatus
+        );
+    }
+
+}
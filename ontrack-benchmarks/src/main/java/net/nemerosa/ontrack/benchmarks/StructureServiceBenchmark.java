@@ -0,0 +1,30 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.structure.BranchStatusView;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregated views of the {@link StructureService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class StructureServiceBenchmark {
+
+    private StructureService structureService;
+
+    @Setup(Level.Trial)
+    public void setup(OntrackState state) {
+        structureService = state.getBean(StructureService.class);
+    }
+
+    @Benchmark
+    public List<BranchStatusView> getBranchStatusViews(OntrackState state) {
+        return state.asAdmin(() -> structureService.getBranchStatusViews(state.project.getId()));
+    }
+
+}
@@ -0,0 +1,59 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.extension.general.MessagePropertyType;
+import net.nemerosa.ontrack.extension.general.MetaInfoProperty;
+import net.nemerosa.ontrack.extension.general.MetaInfoPropertyType;
+import net.nemerosa.ontrack.it.AbstractServiceTestSupport;
+import net.nemerosa.ontrack.model.security.ProjectView;
+import net.nemerosa.ontrack.model.structure.*;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.Assert.*;
+
+public class DataGeneratorIT extends AbstractServiceTestSupport {
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Test
+    public void generate() throws Exception {
+        DataGeneratorConfig config = DataGeneratorConfig.defaults()
+                .withProjects(2)
+                .withBranchesPerProject(2)
+                .withBuildsPerBranch(10)
+                .withPromotionLevelsPerBranch(2)
+                .withValidationStampsPerBranch(3)
+                .withPropertiesPerBuild(2)
+                .withPromotionRate(1.0)
+                .withFailureRate(0.0);
+        dataGenerator.generate(config);
+
+        Project project = structureService.findProjectByName(DataGenerator.projectName(1)).orElse(null);
+        assertNotNull(project);
+        asUser().with(project, ProjectView.class).execute(() -> {
+            assertEquals(2, structureService.getBranchesForProject(project.getId()).size());
+            Branch branch = structureService.findBranchByName(project.getName(), DataGenerator.branchName(1, 1)).orElse(null);
+            assertNotNull(branch);
+            assertEquals(10, structureService.getBuildCount(branch));
+            assertEquals(2, structureService.getPromotionLevelListForBranch(branch.getId()).size());
+            assertEquals(3, structureService.getValidationStampListForBranch(branch.getId()).size());
+            assertFalse(propertyService.getProperty(branch, MessagePropertyType.class).isEmpty());
+
+            Build build = structureService.findBuildByName(project.getName(), branch.getName(), DataGenerator.buildName(5)).orElse(null);
+            assertNotNull(build);
+            assertEquals(DataGenerator.START.plusMinutes(5), build.getSignature().getTime());
+            // All validations passed, all promotions granted
+            assertEquals(3, structureService.getValidationRunsForBuild(build.getId()).size());
+            assertTrue(structureService.getValidationRunsForBuild(build.getId()).stream().allMatch(ValidationRun::isPassed));
+            assertEquals(2, structureService.getPromotionRunsForBuild(build.getId()).size());
+            MetaInfoProperty metaInfo = propertyService.getProperty(build, MetaInfoPropertyType.class).getValue();
+            assertEquals(2, metaInfo.getItems().size());
+            assertEquals("value5", metaInfo.getValue("name1").orElse(null));
+        });
+    }
+
+}
@@ -0,0 +1,144 @@
+package net.nemerosa.ontrack.common;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free ring buffer, keeping the most recent items.
+ * <p>
+ * Each item gets a sequence number when it is added, starting at 0. Writers never block each
+ * other and readers never block writers: a reader only returns the items whose slot still holds
+ * the expected sequence number, so items which are overwritten while being read, or which are
+ * not completely written yet, are skipped instead of being returned twice or out of order.
+ * <p>
+ * All read methods return the items from the most recent to the oldest. Clearing the buffer
+ * only hides the items added so far, so that it does not block the writers either.
+ *
+ * @param <T> Type of item
+ */
+public class RingBuffer<T> {
+
+    /**
+     * Item associated with its sequence number.
+     */
+    @Data
+    public static class Sequenced<T> {
+        private final long sequence;
+        private final T value;
+    }
+
+    private final int capacity;
+    private final AtomicReferenceArray<Sequenced<T>> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong firstSequence = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of the ring buffer must be > 0");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds an item, possibly overwriting the oldest one.
+     *
+     * @return Sequence number of the item
+     */
+    public long add(T value) {
+        long sequence = nextSequence.getAndIncrement();
+        Sequenced<T> item = new Sequenced<>(sequence, value);
+        int index = index(sequence);
+        while (true) {
+            Sequenced<T> current = slots.get(index);
+            if (current != null && current.sequence > sequence) {
+                // A more recent writer already went around the buffer - this item is obsolete
+                return sequence;
+            } else if (slots.compareAndSet(index, current, item)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Sequence number which will be given to the next item. This is also the total number
+     * of items which have been added to this buffer.
+     */
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Number of items currently held by this buffer
+     */
+    public int size() {
+        return (int) Math.min(nextSequence.get() - firstSequence.get(), capacity);
+    }
+
+    /**
+     * Removes all the items added so far. Items being added concurrently may or may not be kept.
+     */
+    public void clear() {
+        long next = nextSequence.get();
+        firstSequence.accumulateAndGet(next, Math::max);
+    }
+
+    /**
+     * Gets all the items
+     */
+    public List<Sequenced<T>> snapshot() {
+        return before(Long.MAX_VALUE, capacity);
+    }
+
+    /**
+     * Gets a page of items, starting from the most recent one.
+     *
+     * @param offset Number of items to skip
+     * @param count  Maximum number of items to return
+     */
+    public List<Sequenced<T>> page(int offset, int count) {
+        long last = nextSequence.get();
+        return collect(last - offset, last, count);
+    }
+
+    /**
+     * Gets the items whose sequence number is strictly lower than the given one. This allows
+     * stable pagination while new items are being added.
+     *
+     * @param sequence Exclusive upper bound of the sequence numbers
+     * @param count    Maximum number of items to return
+     */
+    public List<Sequenced<T>> before(long sequence, int count) {
+        long last = nextSequence.get();
+        return collect(Math.min(sequence, last), last, count);
+    }
+
+    private List<Sequenced<T>> collect(long from, long last, int count) {
+        long oldest = Math.max(firstSequence.get(), last - capacity);
+        if (from <= oldest || count <= 0) {
+            return Collections.emptyList();
+        }
+        List<Sequenced<T>> items = new ArrayList<>(Math.min(count, capacity));
+        for (long sequence = from - 1; sequence >= oldest && items.size() < count; sequence--) {
+            Sequenced<T> item = slots.get(index(sequence));
+            if (item != null && item.sequence == sequence) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+}
@@ -0,0 +1,193 @@
+package net.nemerosa.ontrack.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class RingBufferTest {
+
+    private static List<Long> sequences(List<RingBuffer.Sequenced<String>> items) {
+        return items.stream().map(RingBuffer.Sequenced::getSequence).collect(Collectors.toList());
+    }
+
+    private static List<String> values(List<RingBuffer.Sequenced<String>> items) {
+        return items.stream().map(RingBuffer.Sequenced::getValue).collect(Collectors.toList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacity_must_be_positive() {
+        new RingBuffer<String>(0);
+    }
+
+    @Test
+    public void empty() {
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.snapshot().isEmpty());
+        assertTrue(buffer.page(0, 10).isEmpty());
+        assertTrue(buffer.before(10, 10).isEmpty());
+    }
+
+    @Test
+    public void most_recent_first() {
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+        assertEquals(0, buffer.add("a"));
+        assertEquals(1, buffer.add("b"));
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.getNextSequence());
+        assertEquals(Arrays.asList("b", "a"), values(buffer.snapshot()));
+    }
+
+    @Test
+    public void clear() {
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+        buffer.add("a");
+        buffer.add("b");
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.snapshot().isEmpty());
+        buffer.add("c");
+        assertEquals(1, buffer.size());
+        assertEquals(2, buffer.getNextSequence());
+        assertEquals(Collections.singletonList("c"), values(buffer.snapshot()));
+    }
+
+    @Test
+    public void oldest_items_are_overwritten() {
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+        for (String value : new String[]{"a", "b", "c", "d", "e"}) {
+            buffer.add(value);
+        }
+        assertEquals(3, buffer.size());
+        assertEquals(5, buffer.getNextSequence());
+        assertEquals(Arrays.asList("e", "d", "c"), values(buffer.snapshot()));
+        assertEquals(Arrays.asList(4L, 3L, 2L), sequences(buffer.snapshot()));
+    }
+
+    @Test
+    public void page_by_offset() {
+        RingBuffer<String> buffer = new RingBuffer<>(10);
+        for (int i = 0; i < 8; i++) {
+            buffer.add("v" + i);
+        }
+        assertEquals(Arrays.asList("v7", "v6", "v5"), values(buffer.page(0, 3)));
+        assertEquals(Arrays.asList("v4", "v3", "v2"), values(buffer.page(3, 3)));
+        assertEquals(Arrays.asList("v1", "v0"), values(buffer.page(6, 3)));
+        assertTrue(buffer.page(8, 3).isEmpty());
+    }
+
+    @Test
+    public void page_by_sequence_is_stable() {
+        RingBuffer<String> buffer = new RingBuffer<>(10);
+        for (int i = 0; i < 6; i++) {
+            buffer.add("v" + i);
+        }
+        List<RingBuffer.Sequenced<String>> first = buffer.page(0, 3);
+        assertEquals(Arrays.asList("v5", "v4", "v3"), values(first));
+        // New items do not shift the next page
+        buffer.add("v6");
+        buffer.add("v7");
+        long last = first.get(first.size() - 1).getSequence();
+        assertEquals(Arrays.asList("v2", "v1", "v0"), values(buffer.before(last, 3)));
+    }
+
+    @Test
+    public void page_by_sequence_beyond_capacity() {
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+        for (int i = 0; i < 10; i++) {
+            buffer.add("v" + i);
+        }
+        // Items 0..6 are gone
+        assertEquals(Arrays.asList("v8", "v7"), values(buffer.before(9, 5)));
+        assertTrue(buffer.before(7, 5).isEmpty());
+        assertTrue(buffer.before(2, 5).isEmpty());
+    }
+
+    /**
+     * Several writers and readers working at the same time: the readers must always get
+     * distinct items, sorted from the most recent to the oldest, and the buffer must end
+     * up with the most recent items.
+     */
+    @Test
+    public void concurrent_writers_and_readers() throws Exception {
+        int capacity = 100;
+        int writers = 8;
+        int itemsPerWriter = 20000;
+        int readers = 4;
+        RingBuffer<String> buffer = new RingBuffer<>(capacity);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writerFutures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < itemsPerWriter; i++) {
+                        buffer.add(writer + ":" + i);
+                    }
+                    return null;
+                }));
+            }
+            List<Future<Integer>> readerFutures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                readerFutures.add(executor.submit(() -> {
+                    start.await();
+                    int reads = 0;
+                    while (writing.get()) {
+                        checkSnapshot(buffer.snapshot(), capacity);
+                        List<RingBuffer.Sequenced<String>> page = buffer.page(0, 10);
+                        checkSnapshot(page, 10);
+                        if (!page.isEmpty()) {
+                            checkSnapshot(buffer.before(page.get(page.size() - 1).getSequence(), 10), 10);
+                        }
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : writerFutures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<Integer> future : readerFutures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Final state
+        long total = (long) writers * itemsPerWriter;
+        assertEquals(total, buffer.getNextSequence());
+        assertEquals(capacity, buffer.size());
+        List<RingBuffer.Sequenced<String>> snapshot = buffer.snapshot();
+        assertEquals(capacity, snapshot.size());
+        for (int i = 0; i < capacity; i++) {
+            assertEquals(total - 1 - i, snapshot.get(i).getSequence());
+        }
+    }
+
+    private static void checkSnapshot(List<RingBuffer.Sequenced<String>> items, int maxSize) {
+        assertTrue(items.size() <= maxSize);
+        Set<String> values = new HashSet<>();
+        long previous = Long.MAX_VALUE;
+        for (RingBuffer.Sequenced<String> item : items) {
+            assertTrue("Items must be sorted from the most recent", item.getSequence() < previous);
+            assertTrue("Items must be distinct", values.add(item.getValue()));
+            previous = item.getSequence();
+        }
+    }
+
+}
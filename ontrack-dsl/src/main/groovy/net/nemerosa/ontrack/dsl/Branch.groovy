@@ -129,12 +129,12 @@ class Branch extends AbstractProjectResource {
 
     @DSLMethod(value = "Creates a promotion level for this branch.", count = 3)
     PromotionLevel promotionLevel(String name, String description = '', boolean getIfExists = false) {
-        def node = ontrack.get(link('promotionLevels')).resources.find { it.name == name }
+        def node = ontrack.findResource("structure/entity/promotionLevel/${this.project}/${this.name}/${name}")
         if (node) {
             if (getIfExists) {
                 new PromotionLevel(
                         ontrack,
-                        ontrack.get(node._self)
+                        node
                 )
             } else {
                 throw new ObjectAlreadyExistsException("Promotion level ${name} already exists.")
@@ -169,12 +169,12 @@ class Branch extends AbstractProjectResource {
 
     @DSLMethod(value = "Creates a validation stamp for this branch.", count = 3)
     ValidationStamp validationStamp(String name, String description = '', boolean getIfExists = false) {
-        def node = ontrack.get(link('validationStamps')).resources.find { it.name == name }
+        def node = ontrack.findResource("structure/entity/validationStamp/${this.project}/${this.name}/${name}")
         if (node) {
             if (getIfExists) {
                 new ValidationStamp(
                         ontrack,
-                        ontrack.get(node._self)
+                        node
                 )
             } else {
                 throw new ObjectAlreadyExistsException("Validation stamp ${name} already exists.")
@@ -199,8 +199,8 @@ class Branch extends AbstractProjectResource {
 
     @DSLMethod(value = "Creates a build for the branch", count = 3)
     Build build(String name, String description = '', boolean getIfExists = false) {
-        def builds = ontrack.project(this.project).search(branchName: this.name, buildName: name)
-        if (builds.empty) {
+        def node = ontrack.findResource("structure/entity/build/${this.project}/${this.name}/${name}")
+        if (!node) {
             new Build(
                     ontrack,
                     ontrack.post(link('createBuild'), [
@@ -211,7 +211,7 @@ class Branch extends AbstractProjectResource {
         } else if (getIfExists) {
             new Build(
                     ontrack,
-                    ontrack.get(builds[0].node._self)
+                    node
             )
         } else {
             throw new ObjectAlreadyExistsException("Build ${name} already exists.")
@@ -5,6 +5,7 @@ import groovy.json.JsonSlurper
 import net.nemerosa.ontrack.dsl.doc.DSL
 import net.nemerosa.ontrack.dsl.doc.DSLMethod
 import net.nemerosa.ontrack.dsl.http.OTHttpClient
+import net.nemerosa.ontrack.dsl.http.OTNotFoundException
 import org.apache.http.entity.ContentType
 import org.apache.http.entity.StringEntity
 
@@ -33,7 +34,7 @@ class Ontrack {
     @DSLMethod("Gets the list of projects")
     List<Project> getProjects() {
         return get('structure/projects').resources.collect {
-            new Project(this, get(it._self))
+            new Project(this, it)
         }
     }
 
@@ -44,11 +45,9 @@ class Ontrack {
      */
     @DSLMethod("Finds a project using its name. Returns null if not found.")
     Project findProject(String name) {
-        def projectNode = get("structure/projects").resources.find {
-            it.name == name
-        }
+        def projectNode = findResource("structure/entity/project/${name}")
         if (projectNode) {
-            return new Project(this, get(projectNode._self))
+            return new Project(this, projectNode)
         } else {
             return null
         }
@@ -143,6 +142,18 @@ class Ontrack {
         httpClient.get(url) { jsonSlurper.parseText(it) }
     }
 
+    /**
+     * Runs a GET request for a relative path and returns JSON, or <code>null</code> if the
+     * resource cannot be found.
+     */
+    protected def findResource(String url) {
+        try {
+            return get(url)
+        } catch (OTNotFoundException ignored) {
+            return null
+        }
+    }
+
     @DSLMethod(value = "Runs an arbitrary GET request for a relative path and returns text")
     def text(String url) {
         httpClient.get(url) { it }
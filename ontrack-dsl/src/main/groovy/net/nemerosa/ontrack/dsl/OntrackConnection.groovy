@@ -11,6 +11,7 @@ class OntrackConnection {
     private OntrackLogger logger
     private int maxTries = 1
     private int retryDelaySeconds = 10
+    private int cacheSize = 0
 
     private OntrackConnection(String url) {
         this.url = url
@@ -35,6 +36,16 @@ class OntrackConnection {
         this
     }
 
+    /**
+     * Caches up to <code>value</code> GET responses in this connection. Any write done through this
+     * connection clears the cache. The cache has no expiration: the changes done by other clients,
+     * including other connections in the same JVM, are not seen until this connection writes.
+     */
+    OntrackConnection cache(int value) {
+        this.cacheSize = value
+        this
+    }
+
     OntrackConnection logger(OntrackLogger logger) {
         this.logger = logger
         this
@@ -60,6 +71,10 @@ class OntrackConnection {
         if (maxTries > 1) {
             builder = builder.withMaxTries(maxTries).withRetryDelaySeconds(retryDelaySeconds)
         }
+        // Cache
+        if (cacheSize > 0) {
+            builder = builder.withCache(cacheSize)
+        }
         // Ontrack client
         new Ontrack(builder.build())
     }
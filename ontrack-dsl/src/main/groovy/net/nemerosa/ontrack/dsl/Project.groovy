@@ -26,12 +26,12 @@ class Project extends AbstractProjectResource {
 
     @DSLMethod(value = "Retrieves or creates a branch for the project", count = 3)
     Branch branch(String name, String description = '', boolean getIfExists = false) {
-        def node = ontrack.get(link('branches')).resources.find { it.name == name }
+        def node = ontrack.findResource("structure/entity/branch/${this.name}/${name}")
         if (node) {
             if (getIfExists) {
                 new Branch(
                         ontrack,
-                        ontrack.get(node._self)
+                        node
                 )
             } else {
                 throw new ObjectAlreadyExistsException("Branch ${name} already exists.")
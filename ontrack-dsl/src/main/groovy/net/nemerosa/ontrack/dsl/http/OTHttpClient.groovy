@@ -26,7 +26,17 @@ class OTHttpClient {
     private final Closure clientLogger
     private final RetryPolicy retryPolicy
 
+    /**
+     * Cache of the GET responses, indexed by URL, or <code>null</code> if the cache is disabled. The
+     * cache is cleared by any write done through this client, but not by the writes done by other clients.
+     */
+    private final Map<String, String> cache
+
     OTHttpClient(URL url, HttpHost host, Closure<CloseableHttpClient> httpClientSupplier, HttpClientContext httpContext, Closure clientLogger, int maxTries, int retryDelaySeconds) {
+        this(url, host, httpClientSupplier, httpContext, clientLogger, maxTries, retryDelaySeconds, 0)
+    }
+
+    OTHttpClient(URL url, HttpHost host, Closure<CloseableHttpClient> httpClientSupplier, HttpClientContext httpContext, Closure clientLogger, int maxTries, int retryDelaySeconds, int cacheSize) {
         this(
                 url,
                 host,
@@ -36,17 +46,48 @@ class OTHttpClient {
                 new RetryPolicy()
                     .retryOn(ConnectException.class)
                     .withDelay(retryDelaySeconds, TimeUnit.SECONDS)
-                    .withMaxRetries(maxTries)
+                    .withMaxRetries(maxTries),
+                cacheSize
         )
     }
 
     OTHttpClient(URL url, HttpHost host, Closure<CloseableHttpClient> httpClientSupplier, HttpClientContext httpContext, Closure clientLogger, RetryPolicy retryPolicy) {
+        this(url, host, httpClientSupplier, httpContext, clientLogger, retryPolicy, 0)
+    }
+
+    OTHttpClient(URL url, HttpHost host, Closure<CloseableHttpClient> httpClientSupplier, HttpClientContext httpContext, Closure clientLogger, RetryPolicy retryPolicy, int cacheSize) {
         this.url = url
         this.host = host
         this.httpClientSupplier = httpClientSupplier
         this.httpContext = httpContext
         this.clientLogger = clientLogger
         this.retryPolicy = retryPolicy
+        this.cache = cacheSize > 0 ? Collections.synchronizedMap(new LRUCache(cacheSize)) : null
+    }
+
+    /**
+     * Least recently used entries are removed first
+     */
+    private static class LRUCache extends LinkedHashMap<String, String> {
+
+        private final int maxSize
+
+        LRUCache(int maxSize) {
+            super(16, 0.75f, true)
+            this.maxSize = maxSize
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            size() > maxSize
+        }
+    }
+
+    /**
+     * Removes all the cached responses
+     */
+    void clearCache() {
+        cache?.clear()
     }
 
     URL getUrl() {
@@ -66,11 +107,24 @@ class OTHttpClient {
     }
 
     def get(String path, Closure responseParser) {
-        request(new HttpGet(getUrl(path)), responseParser)
+        String fullUrl = getUrl(path)
+        if (cache == null) {
+            return request(new HttpGet(fullUrl), responseParser)
+        }
+        String content = cache.get(fullUrl)
+        if (content == null) {
+            content = request(new HttpGet(fullUrl)) { it } as String
+            if (content != null) {
+                cache.put(fullUrl, content)
+            }
+        } else {
+            clientLogger "[ontrack][cache] ${fullUrl}"
+        }
+        return responseParser(content)
     }
 
     def delete(String path, Closure responseParser) {
-        request(new HttpDelete(getUrl(path)), responseParser);
+        write(new HttpDelete(getUrl(path)), responseParser);
     }
 
     def post(String path, HttpEntity data, Closure responseParser) {
@@ -78,7 +132,7 @@ class OTHttpClient {
         if (data != null) {
             post.entity = data;
         }
-        request(post, responseParser);
+        write(post, responseParser);
     }
 
     def put(String path, HttpEntity data, Closure responseParser) {
@@ -86,7 +140,18 @@ class OTHttpClient {
         if (data != null) {
             put.entity = data;
         }
-        request(put, responseParser);
+        write(put, responseParser);
+    }
+
+    /**
+     * Any write clears the cache, even when it fails
+     */
+    protected def write(HttpRequestBase httpRequest, Closure responseParser) {
+        try {
+            request(httpRequest, responseParser)
+        } finally {
+            clearCache()
+        }
     }
 
     def upload(String path, String name, String fileName, Document document, Closure responseParser) {
@@ -99,7 +164,7 @@ class OTHttpClient {
                 fileName
         ).build()
         // OK
-        request(post, responseParser);
+        write(post, responseParser);
     }
 
     Document download(String path) {
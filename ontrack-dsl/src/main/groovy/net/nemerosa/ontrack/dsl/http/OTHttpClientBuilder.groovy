@@ -36,6 +36,7 @@ class OTHttpClientBuilder {
     private String password
     private int maxTries = 1
     private int retryDelaySeconds = 10
+    private int cacheSize = 0
     private Closure clientLogger = { message -> println message }
 
     OTHttpClientBuilder(String url, boolean disableSsl) {
@@ -63,6 +64,14 @@ class OTHttpClientBuilder {
         return this
     }
 
+    /**
+     * Caches up to <code>value</code> GET responses, 0 to disable the cache.
+     */
+    OTHttpClientBuilder withCache(int value) {
+        this.cacheSize = value
+        return this
+    }
+
     OTHttpClientBuilder withCredentials(String username, String password) {
         this.username = username
         this.password = password
@@ -132,6 +141,6 @@ class OTHttpClientBuilder {
                     .setConnectionManager(new PoolingHttpClientConnectionManager(registry)).build()
         }
 
-        new OTHttpClient(url, host, httpClientSupplier, httpContext, clientLogger, maxTries, retryDelaySeconds)
+        new OTHttpClient(url, host, httpClientSupplier, httpContext, clientLogger, maxTries, retryDelaySeconds, cacheSize)
     }
 }
@@ -8,13 +8,29 @@ import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.support.*;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Storage of the configurations, with their passwords being encrypted.
+ * <p>
+ * The decrypted configurations are cached in memory, per name and as a whole list. The lookups of missing
+ * names are not cached, so that the cache cannot grow beyond the stored configurations. The cache is
+ * cleared each time a configuration is created, updated or deleted through this service, and once
+ * again when the enclosing transaction completes, so that a concurrent read cannot cache a value
+ * which is being replaced.
+ */
 public abstract class AbstractConfigurationService<T extends UserPasswordConfiguration<T>> implements ConfigurationService<T> {
 
     private final Class<T> configurationClass;
@@ -27,6 +43,11 @@ public abstract class AbstractConfigurationService<T extends UserPasswordConfigu
 
     private final List<ConfigurationServiceListener<T>> listeners = new LinkedList<>();
 
+    private final ConcurrentMap<String, T> cache = new ConcurrentHashMap<>();
+    private volatile List<T> cachedConfigurations;
+    private final Object cacheLock = new Object();
+    private long cacheGeneration;
+
     public AbstractConfigurationService(Class<T> configurationClass, ConfigurationRepository configurationRepository, SecurityService securityService, EncryptionService encryptionService, EventPostService eventPostService, EventFactory eventFactory, OntrackConfigProperties ontrackConfigProperties) {
         this.configurationClass = configurationClass;
         this.configurationRepository = configurationRepository;
@@ -46,9 +67,25 @@ public abstract class AbstractConfigurationService<T extends UserPasswordConfigu
 
     @Override
     public List<T> getConfigurations() {
-        return configurationRepository.list(configurationClass).stream()
-                .map(this::decrypt)
-                .collect(Collectors.toList());
+        if (!ontrackConfigProperties.isConfigurationCache()) {
+            return loadConfigurations();
+        }
+        List<T> configurations = cachedConfigurations;
+        if (configurations == null) {
+            configurations = loadInCache(
+                    this::loadConfigurations,
+                    list -> cachedConfigurations = list
+            );
+        }
+        return configurations;
+    }
+
+    private List<T> loadConfigurations() {
+        return Collections.unmodifiableList(
+                configurationRepository.list(configurationClass).stream()
+                        .map(this::decrypt)
+                        .collect(Collectors.toList())
+        );
     }
 
     @Override
@@ -65,6 +102,7 @@ public abstract class AbstractConfigurationService<T extends UserPasswordConfigu
         checkAccess();
         validateAndCheck(configuration);
         configurationRepository.save(encrypt(configuration));
+        invalidateCache();
         eventPostService.post(eventFactory.newConfiguration(configuration));
         listeners.forEach(listener -> listener.onNewConfiguration(configuration));
         return configuration.obfuscate();
@@ -72,17 +110,69 @@ public abstract class AbstractConfigurationService<T extends UserPasswordConfigu
 
     @Override
     public T getConfiguration(String name) {
-        return configurationRepository
-                .find(configurationClass, name)
-                .map(this::decrypt)
+        return getOptionalConfiguration(name)
                 .orElseThrow(() -> new ConfigurationNotFoundException(name));
     }
 
     @Override
     public Optional<T> getOptionalConfiguration(String name) {
+        if (!ontrackConfigProperties.isConfigurationCache()) {
+            return loadConfiguration(name);
+        }
+        T configuration = cache.get(name);
+        if (configuration != null) {
+            return Optional.of(configuration);
+        }
+        return loadInCache(
+                () -> loadConfiguration(name),
+                value -> value.ifPresent(it -> cache.put(name, it))
+        );
+    }
+
+    private Optional<T> loadConfiguration(String name) {
         return configurationRepository.find(configurationClass, name).map(this::decrypt);
     }
 
+    /**
+     * Loads a value and puts it in the cache, unless the cache has been cleared in the meantime.
+     */
+    private <V> V loadInCache(Supplier<V> loader, Consumer<V> store) {
+        long generation;
+        synchronized (cacheLock) {
+            generation = cacheGeneration;
+        }
+        V value = loader.get();
+        synchronized (cacheLock) {
+            if (generation == cacheGeneration) {
+                store.accept(value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Clears the cache of the configurations, now and when the current transaction completes.
+     */
+    protected void invalidateCache() {
+        clearCache();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    clearCache();
+                }
+            });
+        }
+    }
+
+    private void clearCache() {
+        synchronized (cacheLock) {
+            cacheGeneration++;
+            cache.clear();
+            cachedConfigurations = null;
+        }
+    }
+
     @Override
     public void deleteConfiguration(String name) {
         checkAccess();
@@ -93,6 +183,7 @@ public abstract class AbstractConfigurationService<T extends UserPasswordConfigu
         listeners.forEach(listener -> listener.onDeletedConfiguration(configuration));
         // Actual deletion
         configurationRepository.delete(configurationClass, name);
+        invalidateCache();
     }
 
     @Override
@@ -102,6 +193,7 @@ public abstract class AbstractConfigurationService<T extends UserPasswordConfigu
         T configToSave = injectCredentials(configuration);
         validateAndCheck(configToSave);
         configurationRepository.save(encrypt(configToSave));
+        invalidateCache();
         eventPostService.post(eventFactory.updateConfiguration(configuration));
         listeners.forEach(listener -> listener.onUpdatedConfiguration(configuration));
     }
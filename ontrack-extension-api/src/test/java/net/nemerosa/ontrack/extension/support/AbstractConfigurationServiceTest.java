@@ -0,0 +1,116 @@
+package net.nemerosa.ontrack.extension.support;
+
+import net.nemerosa.ontrack.extension.api.support.TestConfiguration;
+import net.nemerosa.ontrack.extension.api.support.TestConfigurationServiceImpl;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.events.EventPostService;
+import net.nemerosa.ontrack.model.security.EncryptionService;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.support.ConfigurationRepository;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class AbstractConfigurationServiceTest {
+
+    private ConfigurationRepository configurationRepository;
+    private OntrackConfigProperties ontrackConfigProperties;
+    private TestConfigurationServiceImpl service;
+
+    @Before
+    public void before() {
+        configurationRepository = mock(ConfigurationRepository.class);
+        EncryptionService encryptionService = mock(EncryptionService.class);
+        when(encryptionService.encrypt(anyString())).then(invocation -> "encrypted:" + invocation.getArguments()[0]);
+        when(encryptionService.decrypt(anyString())).then(invocation -> ((String) invocation.getArguments()[0]).substring("encrypted:".length()));
+        ontrackConfigProperties = new OntrackConfigProperties();
+        ontrackConfigProperties.setConfigurationTest(false);
+        service = new TestConfigurationServiceImpl(
+                configurationRepository,
+                mock(SecurityService.class),
+                encryptionService,
+                mock(EventPostService.class),
+                mock(EventFactory.class),
+                ontrackConfigProperties
+        );
+        when(configurationRepository.find(eq(TestConfiguration.class), anyString())).thenReturn(Optional.empty());
+        when(configurationRepository.find(TestConfiguration.class, "test")).thenReturn(
+                Optional.of(new TestConfiguration("test", "user", "encrypted:secret"))
+        );
+        when(configurationRepository.list(TestConfiguration.class)).thenReturn(
+                Collections.singletonList(new TestConfiguration("test", "user", "encrypted:secret"))
+        );
+    }
+
+    @Test
+    public void configuration_is_cached() {
+        assertEquals("secret", service.getConfiguration("test").getPassword());
+        assertEquals("secret", service.getConfiguration("test").getPassword());
+        assertTrue(service.getOptionalConfiguration("test").isPresent());
+        verify(configurationRepository, times(1)).find(TestConfiguration.class, "test");
+    }
+
+    @Test
+    public void missing_configuration_is_not_cached() {
+        assertFalse(service.getOptionalConfiguration("other").isPresent());
+        assertFalse(service.getOptionalConfiguration("other").isPresent());
+        verify(configurationRepository, times(2)).find(TestConfiguration.class, "other");
+    }
+
+    @Test
+    public void configuration_list_is_cached() {
+        assertEquals(1, service.getConfigurations().size());
+        assertEquals(1, service.getConfigurations().size());
+        verify(configurationRepository, times(1)).list(TestConfiguration.class);
+    }
+
+    @Test
+    public void no_cache() {
+        ontrackConfigProperties.setConfigurationCache(false);
+        service.getConfiguration("test");
+        service.getConfiguration("test");
+        service.getConfigurations();
+        service.getConfigurations();
+        verify(configurationRepository, times(2)).find(TestConfiguration.class, "test");
+        verify(configurationRepository, times(2)).list(TestConfiguration.class);
+    }
+
+    @Test
+    public void cache_cleared_on_new_configuration() {
+        assertFalse(service.getOptionalConfiguration("new").isPresent());
+        service.getConfigurations();
+        service.newConfiguration(new TestConfiguration("new", "user", "secret"));
+        when(configurationRepository.find(TestConfiguration.class, "new")).thenReturn(
+                Optional.of(new TestConfiguration("new", "user", "encrypted:secret"))
+        );
+        assertTrue(service.getOptionalConfiguration("new").isPresent());
+        service.getConfigurations();
+        verify(configurationRepository, times(2)).list(TestConfiguration.class);
+    }
+
+    @Test
+    public void cache_cleared_on_updated_configuration() {
+        service.getConfiguration("test");
+        service.updateConfiguration("test", new TestConfiguration("test", "user", "new"));
+        verify(configurationRepository).save(new TestConfiguration("test", "user", "encrypted:new"));
+        when(configurationRepository.find(TestConfiguration.class, "test")).thenReturn(
+                Optional.of(new TestConfiguration("test", "user", "encrypted:new"))
+        );
+        assertEquals("new", service.getConfiguration("test").getPassword());
+    }
+
+    @Test
+    public void cache_cleared_on_deleted_configuration() {
+        service.getConfiguration("test");
+        service.deleteConfiguration("test");
+        when(configurationRepository.find(TestConfiguration.class, "test")).thenReturn(Optional.empty());
+        assertFalse(service.getOptionalConfiguration("test").isPresent());
+    }
+
+}
@@ -1,6 +1,9 @@
 package net.nemerosa.ontrack.extension.issues.combined;
 
 import com.google.common.collect.Sets;
+import net.nemerosa.ontrack.common.TaskExecutionException;
+import net.nemerosa.ontrack.common.TaskInterruptedException;
+import net.nemerosa.ontrack.common.TaskTimeoutException;
 import net.nemerosa.ontrack.extension.api.model.IssueChangeLogExportRequest;
 import net.nemerosa.ontrack.extension.issues.IssueServiceExtension;
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry;
@@ -12,29 +15,71 @@ import net.nemerosa.ontrack.extension.issues.model.IssueServiceConfiguration;
 import net.nemerosa.ontrack.extension.support.AbstractExtension;
 import net.nemerosa.ontrack.model.support.MessageAnnotation;
 import net.nemerosa.ontrack.model.support.MessageAnnotator;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Component
 public class CombinedIssueServiceExtension extends AbstractExtension implements IssueServiceExtension {
 
     public static final String SERVICE = "combined";
+
+    /**
+     * Maximum number of calls waiting for a thread. Past this limit, the calls are run
+     * by the calling thread.
+     */
+    private static final int MAX_QUEUE_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(CombinedIssueServiceExtension.class);
+
     private final CombinedIssueServiceConfigurationService configurationService;
     private final IssueServiceRegistry issueServiceRegistry;
+    private final OntrackConfigProperties ontrackConfigProperties;
+    private final ExecutorService executor;
 
     @Autowired
     public CombinedIssueServiceExtension(
             CombinedIssueServiceExtensionFeature extensionFeature,
             IssueServiceRegistry issueServiceRegistry,
-            CombinedIssueServiceConfigurationService configurationService) {
+            CombinedIssueServiceConfigurationService configurationService,
+            OntrackConfigProperties ontrackConfigProperties) {
         super(extensionFeature);
         this.issueServiceRegistry = issueServiceRegistry;
         this.configurationService = configurationService;
+        this.ontrackConfigProperties = ontrackConfigProperties;
+        int threads = ontrackConfigProperties.getCombinedIssueServiceThreads();
+        // The security context of the caller is propagated to the threads
+        this.executor = new DelegatingSecurityContextExecutorService(
+                new ThreadPoolExecutor(
+                        threads, threads,
+                        60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(MAX_QUEUE_SIZE),
+                        new BasicThreadFactory.Builder()
+                                .daemon(true)
+                                .namingPattern("combined-issues-%s")
+                                .build(),
+                        new ThreadPoolExecutor.CallerRunsPolicy()
+                )
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
     /**
@@ -50,6 +95,123 @@ public class CombinedIssueServiceExtension extends AbstractExtension implements
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Calls all the associated issue services in parallel, each one having at most
+     * <code>ontrack.config.combinedIssueServiceTimeout</code> seconds to answer. This is meant for the calls
+     * to the remote issue trackers only.
+     * <p>
+     * A service which fails or does not answer in time is logged and ignored, so that the results of the
+     * other services are still returned. If all the services fail, the first error is thrown.
+     *
+     * @param issueServiceConfiguration Configuration of the combined issue service
+     * @param call                      Call to perform on each service
+     * @param stop                      Once a result matches this predicate, the next results are not waited for
+     * @return Non-null results, in the order of the services
+     */
+    protected <T> List<T> fanOut(IssueServiceConfiguration issueServiceConfiguration,
+                                 Function<ConfiguredIssueService, T> call,
+                                 Predicate<T> stop) {
+        List<ConfiguredIssueService> services = new ArrayList<>(getConfiguredIssueServices(issueServiceConfiguration));
+        // No need for a thread for zero or one service
+        if (services.size() <= 1) {
+            return callEach(services, call, stop);
+        }
+        List<T> results = new ArrayList<>();
+        // Launches all the calls
+        List<Future<T>> futures = services.stream()
+                .map(service -> executor.submit(() -> call.apply(service)))
+                .collect(Collectors.toList());
+        // Collects the results in order
+        int timeout = ontrackConfigProperties.getCombinedIssueServiceTimeout();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        RuntimeException firstError = null;
+        int errors = 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                String name = services.get(i).getIssueServiceConfiguration().getName();
+                try {
+                    T result = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (result != null) {
+                        results.add(result);
+                        if (stop.test(result)) {
+                            break;
+                        }
+                    }
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    logger.warn("[combined-issues] Error while accessing {}: {}", name, cause.getMessage());
+                    errors++;
+                    if (firstError == null) {
+                        firstError = cause instanceof RuntimeException ?
+                                (RuntimeException) cause :
+                                new TaskExecutionException(name, cause);
+                    }
+                } catch (TimeoutException ex) {
+                    logger.warn("[combined-issues] No answer from {} after {} seconds", name, timeout);
+                    errors++;
+                    if (firstError == null) {
+                        firstError = new TaskTimeoutException(name, timeout);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TaskInterruptedException(issueServiceConfiguration.getName());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        if (errors == services.size()) {
+            throw firstError;
+        }
+        return results;
+    }
+
+    /**
+     * Calls all the associated issue services one after the other, in the calling thread, for the calls which
+     * do not access the remote issue trackers. The errors are handled the same way as for
+     * {@link #fanOut(IssueServiceConfiguration, Function, Predicate)}.
+     *
+     * @param issueServiceConfiguration Configuration of the combined issue service
+     * @param call                      Call to perform on each service
+     * @param stop                      Once a result matches this predicate, the next services are not called
+     * @return Non-null results, in the order of the services
+     */
+    protected <T> List<T> sequential(IssueServiceConfiguration issueServiceConfiguration,
+                                     Function<ConfiguredIssueService, T> call,
+                                     Predicate<T> stop) {
+        return callEach(new ArrayList<>(getConfiguredIssueServices(issueServiceConfiguration)), call, stop);
+    }
+
+    private <T> List<T> callEach(List<ConfiguredIssueService> services,
+                                 Function<ConfiguredIssueService, T> call,
+                                 Predicate<T> stop) {
+        List<T> results = new ArrayList<>();
+        RuntimeException firstError = null;
+        int errors = 0;
+        for (ConfiguredIssueService service : services) {
+            try {
+                T result = call.apply(service);
+                if (result != null) {
+                    results.add(result);
+                    if (stop.test(result)) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("[combined-issues] Error while accessing {}: {}", service.getIssueServiceConfiguration().getName(), ex.getMessage());
+                errors++;
+                if (firstError == null) {
+                    firstError = ex;
+                }
+            }
+        }
+        // No service means no error
+        if (errors > 0 && errors == services.size()) {
+            throw firstError;
+        }
+        return results;
+    }
+
     @Override
     public String getId() {
         return SERVICE;
@@ -80,14 +242,15 @@ public class CombinedIssueServiceExtension extends AbstractExtension implements
 
     @Override
     public Set<String> extractIssueKeysFromMessage(IssueServiceConfiguration issueServiceConfiguration, String message) {
-        return getConfiguredIssueServices(issueServiceConfiguration).stream()
-                .map(
-                        configuredIssueService ->
-                                configuredIssueService.getIssueServiceExtension().extractIssueKeysFromMessage(
-                                        configuredIssueService.getIssueServiceConfiguration(),
-                                        message
-                                )
-                )
+        return sequential(
+                issueServiceConfiguration,
+                configuredIssueService ->
+                        configuredIssueService.getIssueServiceExtension().extractIssueKeysFromMessage(
+                                configuredIssueService.getIssueServiceConfiguration(),
+                                message
+                        ),
+                keys -> false
+        ).stream()
                 .collect(
                         Collectors.reducing(
                                 Collections.<String>emptySet(),
@@ -133,33 +296,36 @@ public class CombinedIssueServiceExtension extends AbstractExtension implements
         return null;
     }
 
+    /**
+     * The first issue found wins, in the order of the issue services.
+     */
     @Override
     public Issue getIssue(IssueServiceConfiguration issueServiceConfiguration, String issueKey) {
-        return getConfiguredIssueServices(issueServiceConfiguration).stream()
-                .map(
-                        configuredIssueService ->
-                                configuredIssueService.getIssueServiceExtension().getIssue(
-                                        configuredIssueService.getIssueServiceConfiguration(),
-                                        issueKey
-                                )
-                )
-                .filter(issue -> issue != null)
+        return fanOut(
+                issueServiceConfiguration,
+                configuredIssueService ->
+                        configuredIssueService.getIssueServiceExtension().getIssue(
+                                configuredIssueService.getIssueServiceConfiguration(),
+                                issueKey
+                        ),
+                issue -> true
+        ).stream()
                 .findFirst()
-                .orElse(null)
-                ;
+                .orElse(null);
     }
 
     @Override
     public boolean containsIssueKey(IssueServiceConfiguration issueServiceConfiguration, String key, Set<String> keys) {
-        return getConfiguredIssueServices(issueServiceConfiguration).stream()
-                .anyMatch(
-                        configuredIssueService ->
-                                configuredIssueService.getIssueServiceExtension().containsIssueKey(
-                                        configuredIssueService.getIssueServiceConfiguration(),
-                                        key,
-                                        keys
-                                )
-                );
+        return sequential(
+                issueServiceConfiguration,
+                configuredIssueService ->
+                        configuredIssueService.getIssueServiceExtension().containsIssueKey(
+                                configuredIssueService.getIssueServiceConfiguration(),
+                                key,
+                                keys
+                        ),
+                Boolean::booleanValue
+        ).contains(true);
     }
 
     @Override
@@ -205,6 +371,29 @@ public class CombinedIssueServiceExtension extends AbstractExtension implements
         );
     }
 
+    /**
+     * Each associated service writes its own export, one after the other. All the services must support
+     * the requested format, which is checked before anything is written.
+     */
+    @Override
+    public void exportIssues(IssueServiceConfiguration issueServiceConfiguration, List<? extends Issue> issues, IssueChangeLogExportRequest request, Writer writer) throws IOException {
+        Collection<ConfiguredIssueService> configuredIssueServices = getConfiguredIssueServices(issueServiceConfiguration);
+        // Checks the format is the same for all exports (it must)
+        boolean sameFormat = configuredIssueServices.stream().allMatch(
+                configuredIssueService -> configuredIssueService.getIssueServiceExtension()
+                        .exportFormats(configuredIssueService.getIssueServiceConfiguration())
+                        .stream()
+                        .anyMatch(exportFormat -> StringUtils.equals(exportFormat.getId(), request.getFormat()))
+        );
+        if (!sameFormat) {
+            throw new IllegalStateException("All exported issues must have the same export format");
+        }
+        // Writes the exports
+        for (ConfiguredIssueService configuredIssueService : configuredIssueServices) {
+            configuredIssueService.exportIssues(issues, request, writer);
+        }
+    }
+
     @Override
     public Optional<String> getIssueId(IssueServiceConfiguration issueServiceConfiguration, String token) {
         return getConfiguredIssueServices(issueServiceConfiguration).stream()
@@ -10,9 +10,13 @@ import net.nemerosa.ontrack.extension.issues.model.Issue
 import net.nemerosa.ontrack.extension.issues.support.MockIssueServiceConfiguration
 import net.nemerosa.ontrack.model.support.MessageAnnotation
 import net.nemerosa.ontrack.model.support.MessageAnnotator
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties
+import org.junit.After
 import org.junit.Before
 import org.junit.Test
+import org.mockito.stubbing.Answer
 
+import static org.mockito.Mockito.doAnswer
 import static org.mockito.Mockito.mock
 import static org.mockito.Mockito.when
 
@@ -28,10 +32,13 @@ class CombinedIssueServiceExtensionTest {
     void 'Setup'() {
         IssueServiceRegistry issueServiceRegistry = mock(IssueServiceRegistry)
         CombinedIssueServiceConfigurationService configurationService = mock(CombinedIssueServiceConfigurationService)
+        OntrackConfigProperties configProperties = new OntrackConfigProperties()
+        configProperties.combinedIssueServiceTimeout = 1
         service = new CombinedIssueServiceExtension(
                 new CombinedIssueServiceExtensionFeature(),
                 issueServiceRegistry,
-                configurationService
+                configurationService,
+                configProperties
         )
 
         configuration = new CombinedIssueServiceConfiguration(
@@ -61,6 +68,11 @@ class CombinedIssueServiceExtensionTest {
         )
     }
 
+    @After
+    void 'Shutdown'() {
+        service.shutdown()
+    }
+
     @Test
     void 'Extraction of issue keys'() {
         def message = 'ONTRACK-1 #1 A message'
@@ -100,6 +112,77 @@ class CombinedIssueServiceExtensionTest {
         assert service.getIssue(configuration, '1') == issue1
     }
 
+    @Test
+    void 'Issue found when the other service fails'() {
+        Issue issue2 = mock(Issue)
+        when(type1IssueService.getIssue(testConfiguration, '1')).thenThrow(new RuntimeException('Down'))
+        when(type2IssueService.getIssue(testConfiguration, '1')).thenReturn(issue2)
+        assert service.getIssue(configuration, '1') == issue2
+    }
+
+    @Test
+    void 'Issue found when the other service is too slow'() {
+        Issue issue1 = mock(Issue)
+        Issue issue2 = mock(Issue)
+        when(type1IssueService.getIssue(testConfiguration, '1')).thenAnswer({
+            Thread.sleep(5000)
+            issue1
+        } as Answer)
+        when(type2IssueService.getIssue(testConfiguration, '1')).thenReturn(issue2)
+        long start = System.currentTimeMillis()
+        assert service.getIssue(configuration, '1') == issue2
+        assert System.currentTimeMillis() - start < 4000
+    }
+
+    @Test(expected = IllegalStateException)
+    void 'Error when all services fail'() {
+        when(type1IssueService.getIssue(testConfiguration, '1')).thenThrow(new IllegalStateException('Down'))
+        when(type2IssueService.getIssue(testConfiguration, '1')).thenThrow(new IllegalStateException('Down'))
+        service.getIssue(configuration, '1')
+    }
+
+    @Test
+    void 'Extraction of issue keys when one service fails'() {
+        def message = 'ONTRACK-1 #1 A message'
+        when(type1IssueService.extractIssueKeysFromMessage(testConfiguration, message)).thenThrow(new RuntimeException('Down'))
+        when(type2IssueService.extractIssueKeysFromMessage(testConfiguration, message)).thenReturn(['1'] as Set)
+        assert service.extractIssueKeysFromMessage(configuration, message) == ['1'] as Set
+    }
+
+    @Test
+    void 'Contains issue key'() {
+        def keys = ['1'] as Set
+        when(type1IssueService.containsIssueKey(testConfiguration, '1', keys)).thenReturn(false)
+        when(type2IssueService.containsIssueKey(testConfiguration, '1', keys)).thenReturn(true)
+        assert service.containsIssueKey(configuration, '1', keys)
+        assert !service.containsIssueKey(configuration, '2', keys)
+    }
+
+    @Test
+    void 'No issue service'() {
+        def empty = new CombinedIssueServiceConfiguration('empty', [])
+        assert service.getIssue(empty, '1') == null
+        assert service.extractIssueKeysFromMessage(empty, '#1 A message') == [] as Set
+        assert !service.containsIssueKey(empty, '1', ['1'] as Set)
+    }
+
+    @Test
+    void 'Extraction of issue keys and key checks run in the calling thread'() {
+        def message = '#1 A message'
+        def keys = ['1'] as Set
+        def threads = [] as Set
+        Answer<Set<String>> extraction = { threads << Thread.currentThread(); ['1'] as Set } as Answer
+        Answer<Boolean> check = { threads << Thread.currentThread(); false } as Answer
+        when(type1IssueService.extractIssueKeysFromMessage(testConfiguration, message)).thenAnswer(extraction)
+        when(type2IssueService.extractIssueKeysFromMessage(testConfiguration, message)).thenAnswer(extraction)
+        when(type1IssueService.containsIssueKey(testConfiguration, '1', keys)).thenAnswer(check)
+        when(type2IssueService.containsIssueKey(testConfiguration, '1', keys)).thenAnswer(check)
+
+        assert service.extractIssueKeysFromMessage(configuration, message) == ['1'] as Set
+        assert !service.containsIssueKey(configuration, '1', keys)
+        assert threads == [Thread.currentThread()] as Set
+    }
+
     @Test
     void 'Getting the issue ID - not valid for both'() {
         when(type1IssueService.getIssueId(testConfiguration, 'X')).thenReturn(Optional.empty())
@@ -260,4 +343,44 @@ PRJ-2 Issue 2
 
     }
 
+    @Test
+    void 'Export issues into a writer'() {
+        def issues = [mock(Issue)]
+        def writer = new StringWriter()
+        def exportRequest = new IssueChangeLogExportRequest()
+        exportRequest.format = 'text'
+
+        when(type1IssueService.exportFormats(testConfiguration)).thenReturn([ExportFormat.TEXT])
+        when(type2IssueService.exportFormats(testConfiguration)).thenReturn([ExportFormat.HTML, ExportFormat.TEXT])
+        doAnswer({ writer.write('#1 Issue 1\n') } as Answer).when(type1IssueService).exportIssues(testConfiguration, issues, exportRequest, writer)
+        doAnswer({ writer.write('PRJ-2 Issue 2\n') } as Answer).when(type2IssueService).exportIssues(testConfiguration, issues, exportRequest, writer)
+
+        service.exportIssues(configuration, issues, exportRequest, writer)
+
+        assert writer.toString() == '''\
+#1 Issue 1
+PRJ-2 Issue 2
+'''
+    }
+
+    @Test
+    void 'Export issues into a writer checks the format of all services before writing'() {
+        def issues = [mock(Issue)]
+        def writer = new StringWriter()
+        def exportRequest = new IssueChangeLogExportRequest()
+        exportRequest.format = 'html'
+
+        when(type1IssueService.exportFormats(testConfiguration)).thenReturn([ExportFormat.HTML, ExportFormat.TEXT])
+        when(type2IssueService.exportFormats(testConfiguration)).thenReturn([ExportFormat.TEXT])
+        doAnswer({ writer.write('<p>#1 Issue 1</p>') } as Answer).when(type1IssueService).exportIssues(testConfiguration, issues, exportRequest, writer)
+
+        try {
+            service.exportIssues(configuration, issues, exportRequest, writer)
+            assert false: "Export should have failed"
+        } catch (IllegalStateException ex) {
+            assert ex.message == "All exported issues must have the same export format"
+        }
+        assert writer.toString() == ''
+    }
+
 }
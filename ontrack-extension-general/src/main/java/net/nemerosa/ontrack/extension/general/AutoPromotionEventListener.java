@@ -8,14 +8,16 @@ import net.nemerosa.ontrack.model.structure.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * When a new validation run is created with a Passed status, we check all auto promoted promotion levels
  * to know if each of their validation stamps is now passed.
+ * <p>
+ * The auto promotion rules of the branch are taken from the {@link AutoPromotionRuleIndex} and the statuses
+ * of all the validation stamps of the build are loaded at once, so that the number of queries does not
+ * depend on the number of promotion levels or validation stamps.
  */
 @Component
 public class AutoPromotionEventListener implements EventListener {
@@ -23,12 +25,14 @@ public class AutoPromotionEventListener implements EventListener {
     private final StructureService structureService;
     private final PropertyService propertyService;
     private final SecurityService securityService;
+    private final AutoPromotionRuleIndex autoPromotionRuleIndex;
 
     @Autowired
-    public AutoPromotionEventListener(StructureService structureService, PropertyService propertyService, SecurityService securityService) {
+    public AutoPromotionEventListener(StructureService structureService, PropertyService propertyService, SecurityService securityService, AutoPromotionRuleIndex autoPromotionRuleIndex) {
         this.structureService = structureService;
         this.propertyService = propertyService;
         this.securityService = securityService;
+        this.autoPromotionRuleIndex = autoPromotionRuleIndex;
     }
 
     @Override
@@ -83,54 +87,44 @@ public class AutoPromotionEventListener implements EventListener {
             Branch branch = event.getEntity(ProjectEntityType.BRANCH);
             // Build
             Build build = event.getEntity(ProjectEntityType.BUILD);
-            // Gets all promotion levels for this branch
-            List<PromotionLevel> promotionLevels = structureService.getPromotionLevelListForBranch(branch.getId());
-            // Gets all validation stamps for this branch
-            List<ValidationStamp> validationStamps = structureService.getValidationStampListForBranch(branch.getId());
-            // Gets the promotion levels which have an auto promotion property
-            promotionLevels.forEach(promotionLevel -> checkPromotionLevel(build, promotionLevel, validationStamps));
+            // Gets the compiled auto promotion rules for this branch
+            List<AutoPromotionRule> rules = autoPromotionRuleIndex.getRules(branch);
+            if (!rules.isEmpty()) {
+                checkPromotionLevels(build, rules);
+            }
         }
     }
 
-    protected void checkPromotionLevel(Build build, PromotionLevel promotionLevel, List<ValidationStamp> validationStamps) {
-        Optional<AutoPromotionProperty> oProperty = propertyService.getProperty(promotionLevel, AutoPromotionPropertyType.class).option();
-        if (oProperty.isPresent()) {
-            AutoPromotionProperty property = oProperty.get();
-            // Chek to be done only if the promotion level is not attributed yet
-            List<PromotionRun> runs = structureService.getPromotionRunsForBuildAndPromotionLevel(build, promotionLevel);
-            if (runs.isEmpty()) {
-                // Checks the status of each validation stamp
-                boolean allPassed = validationStamps.stream()
-                        // Keeps only the ones selectable for the autopromotion property
-                        .filter(property::contains)
-                                // They must all pass
-                        .allMatch(validationStamp -> isPassed(build, validationStamp));
-                if (allPassed) {
-                    // Promotes
-                    structureService.newPromotionRun(
+    protected void checkPromotionLevels(Build build, List<AutoPromotionRule> rules) {
+        // Last status of every validation stamp for this build, in one go
+        Map<ID, ValidationRunStatusID> statuses = structureService.getLastValidationRunStatusesForBuild(build);
+        // Rules whose validation stamps are all passed
+        List<AutoPromotionRule> passedRules = rules.stream()
+                .filter(rule -> rule.getValidationStampIds().stream()
+                        .allMatch(validationStampId -> isPassed(statuses.get(validationStampId))))
+                .collect(Collectors.toList());
+        if (!passedRules.isEmpty()) {
+            // Promotion levels already granted to this build
+            Set<ID> promotedLevels = structureService.getPromotionRunsForBuild(build.getId()).stream()
+                    .map(run -> run.getPromotionLevel().getId())
+                    .collect(Collectors.toSet());
+            // Promotes
+            passedRules.stream()
+                    .map(AutoPromotionRule::getPromotionLevel)
+                    .filter(promotionLevel -> !promotedLevels.contains(promotionLevel.getId()))
+                    .forEach(promotionLevel -> structureService.newPromotionRun(
                             PromotionRun.of(
                                     build,
                                     promotionLevel,
                                     securityService.getCurrentSignature(),
                                     "Auto promotion"
                             )
-                    );
-                }
-            }
+                    ));
         }
     }
 
-    protected boolean isPassed(Build build, ValidationStamp validationStamp) {
-        List<ValidationRun> runs = structureService.getValidationRunsForBuildAndValidationStamp(build.getId(), validationStamp.getId());
-        if (runs.isEmpty()) {
-            return false;
-        } else {
-            ValidationRun run = runs.get(0);
-            return Objects.equals(
-                    run.getLastStatus().getStatusID(),
-                    ValidationRunStatusID.STATUS_PASSED
-            );
-        }
+    protected boolean isPassed(ValidationRunStatusID status) {
+        return Objects.equals(status, ValidationRunStatusID.STATUS_PASSED);
     }
 
 }
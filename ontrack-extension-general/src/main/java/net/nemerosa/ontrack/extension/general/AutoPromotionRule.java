@@ -0,0 +1,35 @@
+package net.nemerosa.ontrack.extension.general;
+
+import lombok.Data;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.structure.PromotionLevel;
+import net.nemerosa.ontrack.model.structure.ValidationStamp;
+
+import java.util.Set;
+
+/**
+ * Compiled form of an {@link AutoPromotionProperty} for a promotion level: the
+ * explicit list and the include/exclude patterns are resolved once against the validation
+ * stamps of the branch.
+ */
+@Data
+public class AutoPromotionRule {
+
+    /**
+     * Promotion level to grant
+     */
+    private final PromotionLevel promotionLevel;
+
+    /**
+     * IDs of the validation stamps which must be passed for the promotion to be granted
+     */
+    private final Set<ID> validationStampIds;
+
+    /**
+     * Checks if this rule depends on the given validation stamp
+     */
+    public boolean contains(ValidationStamp validationStamp) {
+        return validationStampIds.contains(validationStamp.getId());
+    }
+
+}
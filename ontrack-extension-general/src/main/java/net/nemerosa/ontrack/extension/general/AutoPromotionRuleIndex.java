@@ -0,0 +1,33 @@
+package net.nemerosa.ontrack.extension.general;
+
+import net.nemerosa.ontrack.model.structure.Branch;
+
+import java.util.List;
+
+/**
+ * Gives access to the compiled auto promotion rules of a branch. The rules are cached
+ * and invalidated whenever the auto promotion properties, the promotion levels or the
+ * validation stamps of the branch change.
+ */
+public interface AutoPromotionRuleIndex {
+
+    /**
+     * Gets the auto promotion rules for a branch.
+     *
+     * @param branch Branch to get the rules for
+     * @return List of rules, one per promotion level having the auto promotion property, in the order
+     * of the promotion levels. The list is empty if the branch has no auto promoted promotion level.
+     */
+    List<AutoPromotionRule> getRules(Branch branch);
+
+    /**
+     * Removes the rules of a branch from the cache.
+     */
+    void invalidate(Branch branch);
+
+    /**
+     * Removes all the rules from the cache.
+     */
+    void invalidateAll();
+
+}
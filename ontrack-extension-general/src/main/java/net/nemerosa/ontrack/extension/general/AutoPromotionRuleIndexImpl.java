@@ -0,0 +1,143 @@
+package net.nemerosa.ontrack.extension.general;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.events.EventListener;
+import net.nemerosa.ontrack.model.events.EventType;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.NameValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the auto promotion rules, indexed by branch ID.
+ * <p>
+ * The cache is kept up to date by listening to the events which may change the rules
+ * of a branch: changes of the auto promotion property on a promotion level, and creation,
+ * update or deletion of promotion levels, validation stamps and branches. Since those events
+ * are received inside the transaction which changes the rules, the entries are evicted once
+ * again when this transaction completes, so that a concurrent read cannot keep the former rules.
+ * The entries also expire after some time, as a safety net.
+ */
+@Component
+public class AutoPromotionRuleIndexImpl implements AutoPromotionRuleIndex, EventListener {
+
+    /**
+     * Events which invalidate the rules of the branch they refer to.
+     */
+    private static final Set<EventType> BRANCH_EVENTS = new HashSet<>(Arrays.asList(
+            EventFactory.NEW_PROMOTION_LEVEL,
+            EventFactory.UPDATE_PROMOTION_LEVEL,
+            EventFactory.DELETE_PROMOTION_LEVEL,
+            EventFactory.REORDER_PROMOTION_LEVEL,
+            EventFactory.NEW_VALIDATION_STAMP,
+            EventFactory.UPDATE_VALIDATION_STAMP,
+            EventFactory.DELETE_VALIDATION_STAMP,
+            EventFactory.UPDATE_BRANCH
+    ));
+
+    private final StructureService structureService;
+    private final PropertyService propertyService;
+
+    private final Cache<ID, List<AutoPromotionRule>> cache = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    @Autowired
+    public AutoPromotionRuleIndexImpl(StructureService structureService, PropertyService propertyService) {
+        this.structureService = structureService;
+        this.propertyService = propertyService;
+    }
+
+    @Override
+    public List<AutoPromotionRule> getRules(Branch branch) {
+        try {
+            return cache.get(branch.getId(), () -> loadRules(branch));
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Cannot load the auto promotion rules for branch " + branch.getName(), ex.getCause());
+        }
+    }
+
+    @Override
+    public void invalidate(Branch branch) {
+        ID branchId = branch.getId();
+        evict(() -> cache.invalidate(branchId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        evict(cache::invalidateAll);
+    }
+
+    /**
+     * Runs an eviction now and when the current transaction completes, if any.
+     */
+    private void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    protected List<AutoPromotionRule> loadRules(Branch branch) {
+        List<AutoPromotionRule> rules = new ArrayList<>();
+        List<ValidationStamp> validationStamps = null;
+        for (PromotionLevel promotionLevel : structureService.getPromotionLevelListForBranch(branch.getId())) {
+            Optional<AutoPromotionProperty> oProperty = propertyService.getProperty(promotionLevel, AutoPromotionPropertyType.class).option();
+            if (oProperty.isPresent()) {
+                AutoPromotionProperty property = oProperty.get();
+                // Loads the validation stamps only once, and only if needed
+                if (validationStamps == null) {
+                    validationStamps = structureService.getValidationStampListForBranch(branch.getId());
+                }
+                rules.add(
+                        new AutoPromotionRule(
+                                promotionLevel,
+                                validationStamps.stream()
+                                        .filter(property::contains)
+                                        .map(ValidationStamp::getId)
+                                        .collect(Collectors.toSet())
+                        )
+                );
+            }
+        }
+        return Collections.unmodifiableList(rules);
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        EventType eventType = event.getEventType();
+        if (BRANCH_EVENTS.contains(eventType)) {
+            invalidate(event.getEntity(ProjectEntityType.BRANCH));
+        } else if (eventType == EventFactory.PROPERTY_CHANGE || eventType == EventFactory.PROPERTY_DELETE) {
+            NameValue property = event.getValues().get("property");
+            if (event.getRef() == ProjectEntityType.PROMOTION_LEVEL
+                    && property != null
+                    && AutoPromotionPropertyType.class.getName().equals(property.getName())) {
+                PromotionLevel promotionLevel = event.getEntity(ProjectEntityType.PROMOTION_LEVEL);
+                invalidate(promotionLevel.getBranch());
+            }
+        } else if (eventType == EventFactory.DELETE_BRANCH
+                || eventType == EventFactory.UPDATE_PROJECT
+                || eventType == EventFactory.DELETE_PROJECT) {
+            // The branch itself is not available in those events
+            invalidateAll();
+        }
+    }
+
+}
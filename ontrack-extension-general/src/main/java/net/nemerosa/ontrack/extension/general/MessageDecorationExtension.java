@@ -9,9 +9,7 @@ import net.nemerosa.ontrack.model.structure.PropertyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
 
 @Component
 public class MessageDecorationExtension extends AbstractExtension implements DecorationExtension<MessageProperty> {
@@ -46,4 +44,17 @@ public class MessageDecorationExtension extends AbstractExtension implements Dec
                 .orElse(Collections.<Decoration<MessageProperty>>emptyList());
     }
 
+    @Override
+    public Map<ProjectEntity, List<Decoration<MessageProperty>>> getDecorations(Collection<? extends ProjectEntity> entities) {
+        // Gets all the `message` properties at once
+        Map<ProjectEntity, List<Decoration<MessageProperty>>> decorations = new LinkedHashMap<>();
+        propertyService.getPropertyValues(entities, MessagePropertyType.class).forEach(
+                (entity, messageProperty) -> decorations.put(
+                        entity,
+                        Collections.singletonList(Decoration.of(this, messageProperty))
+                )
+        );
+        return decorations;
+    }
+
 }
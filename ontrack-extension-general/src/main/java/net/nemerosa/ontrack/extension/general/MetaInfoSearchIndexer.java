@@ -0,0 +1,115 @@
+package net.nemerosa.ontrack.extension.general;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import net.nemerosa.ontrack.json.JsonUtils;
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.NameValue;
+import net.nemerosa.ontrack.ui.controller.URIBuilder;
+import net.nemerosa.ontrack.ui.support.AbstractSearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Indexes the meta information items as <code>name:value</code> tokens.
+ */
+@Component
+public class MetaInfoSearchIndexer extends AbstractSearchIndexer {
+
+    public static final String CATEGORY = "meta-info";
+
+    private final PropertyService propertyService;
+    private final StructureService structureService;
+
+    @Autowired
+    public MetaInfoSearchIndexer(URIBuilder uriBuilder, PropertyService propertyService, StructureService structureService) {
+        super(uriBuilder);
+        this.propertyService = propertyService;
+        this.structureService = structureService;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public void indexAll(Consumer<SearchIndexEntry> consumer) {
+        propertyService.searchWithPropertyValue(
+                MetaInfoPropertyType.class,
+                (entityType, id) -> entityType.getEntityFn(structureService).apply(id),
+                metaInfoProperty -> true
+        ).forEach(entity -> getEntries(entity).forEach(consumer));
+    }
+
+    @Override
+    public void onEvent(Event event, SearchIndexService searchIndexService) {
+        if (event.getEventType() == EventFactory.PROPERTY_CHANGE || event.getEventType() == EventFactory.PROPERTY_DELETE) {
+            NameValue property = event.getValues().get("property");
+            if (property != null && MetaInfoPropertyType.class.getName().equals(property.getName())) {
+                ProjectEntity entity = event.getEntity(event.getRef());
+                // Removes all previous items
+                searchIndexService.removeAll(CATEGORY, getKeyPrefix(entity));
+                // Indexes the new ones
+                if (event.getEventType() == EventFactory.PROPERTY_CHANGE) {
+                    searchIndexService.index(getEntries(entity));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy) {
+        JsonNode data = entry.getData();
+        ProjectEntity entity = ProjectEntityType.valueOf(data.path("entityType").asText())
+                .getEntityFn(structureService)
+                .apply(ID.of(data.path("entityId").asInt()));
+        return Optional.of(toEntitySearchResult(entity, entry.getDescription(), accuracy));
+    }
+
+    @Override
+    public List<Optional<SearchResult>> toSearchResults(List<SearchIndexMatch> matches) {
+        return toEntitySearchResults(
+                structureService,
+                matches,
+                entry -> new ProjectEntityRef(
+                        ProjectEntityType.valueOf(entry.getData().path("entityType").asText()),
+                        entry.getData().path("entityId").asInt()
+                ),
+                (entry, entity) -> entry.getDescription()
+        );
+    }
+
+    protected List<SearchIndexEntry> getEntries(ProjectEntity entity) {
+        Property<MetaInfoProperty> property = propertyService.getProperty(entity, MetaInfoPropertyType.class);
+        if (property.isEmpty()) {
+            return Collections.emptyList();
+        } else {
+            return property.getValue().getItems().stream()
+                    .map(item -> new SearchIndexEntry(
+                            CATEGORY,
+                            getKeyPrefix(entity) + item.getName(),
+                            entity.getProject().getId(),
+                            String.format("%s:%s", item.getName(), item.getValue()),
+                            entity.getEntityDisplayName(),
+                            String.format("%s -> %s", item.getName(), item.getValue()),
+                            JsonUtils.object()
+                                    .with("entityType", entity.getProjectEntityType().name())
+                                    .with("entityId", entity.id())
+                                    .end()
+                    ))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String getKeyPrefix(ProjectEntity entity) {
+        return String.format("%s:%d:", entity.getProjectEntityType().name(), entity.id());
+    }
+}
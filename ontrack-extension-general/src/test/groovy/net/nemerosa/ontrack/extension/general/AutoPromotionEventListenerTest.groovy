@@ -0,0 +1,95 @@
+package net.nemerosa.ontrack.extension.general
+
+import net.nemerosa.ontrack.model.events.Event
+import net.nemerosa.ontrack.model.events.EventFactory
+import net.nemerosa.ontrack.model.security.SecurityService
+import net.nemerosa.ontrack.model.structure.*
+import org.junit.Before
+import org.junit.Test
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+import static org.mockito.Matchers.any
+import static org.mockito.Mockito.*
+
+class AutoPromotionEventListenerTest {
+
+    private StructureService structureService
+    private AutoPromotionRuleIndex index
+    private AutoPromotionEventListener listener
+
+    private final Branch branch = Branch.of(
+            Project.of(nd('P', '')).withId(ID.of(1)),
+            nd('B', '')
+    ).withId(ID.of(1))
+
+    private final Build build = Build.of(branch, nd('1', ''), Signature.of('test')).withId(ID.of(1))
+
+    private final PromotionLevel bronze = PromotionLevel.of(branch, nd('BRONZE', '')).withId(ID.of(1))
+
+    private final ValidationStamp ci1 = ValidationStamp.of(branch, nd('CI.1', '')).withId(ID.of(1))
+    private final ValidationStamp ci2 = ValidationStamp.of(branch, nd('CI.2', '')).withId(ID.of(2))
+
+    @Before
+    void 'Setup'() {
+        structureService = mock(StructureService)
+        index = mock(AutoPromotionRuleIndex)
+        SecurityService securityService = mock(SecurityService)
+        when(securityService.currentSignature).thenReturn(Signature.of('auto'))
+        listener = new AutoPromotionEventListener(structureService, mock(PropertyService), securityService, index)
+        when(index.getRules(branch)).thenReturn([
+                new AutoPromotionRule(bronze, [ci1.id, ci2.id] as Set)
+        ])
+        when(structureService.getPromotionRunsForBuild(build.id)).thenReturn([])
+    }
+
+    private static Event validationRunEvent(Build build, ValidationStamp stamp, ValidationRunStatusID status) {
+        Event.of(EventFactory.NEW_VALIDATION_RUN)
+                .withValidationRun(
+                ValidationRun.of(build, stamp, 1, Signature.of('test'), status, '').withId(ID.of(1))
+        )
+                .withValidationRunStatus(status)
+                .get()
+    }
+
+    @Test
+    void 'Promotion when all validation stamps are passed'() {
+        when(structureService.getLastValidationRunStatusesForBuild(build)).thenReturn([
+                (ci1.id): ValidationRunStatusID.STATUS_PASSED,
+                (ci2.id): ValidationRunStatusID.STATUS_PASSED,
+        ])
+        listener.onEvent(validationRunEvent(build, ci2, ValidationRunStatusID.STATUS_PASSED))
+        verify(structureService, times(1)).newPromotionRun(any(PromotionRun))
+        verify(structureService, never()).getValidationRunsForBuildAndValidationStamp(any(ID), any(ID))
+    }
+
+    @Test
+    void 'No promotion when one validation stamp is not passed'() {
+        when(structureService.getLastValidationRunStatusesForBuild(build)).thenReturn([
+                (ci2.id): ValidationRunStatusID.STATUS_PASSED,
+        ])
+        listener.onEvent(validationRunEvent(build, ci2, ValidationRunStatusID.STATUS_PASSED))
+        verify(structureService, never()).newPromotionRun(any(PromotionRun))
+        verify(structureService, never()).getPromotionRunsForBuild(build.id)
+    }
+
+    @Test
+    void 'No promotion when already promoted'() {
+        when(structureService.getLastValidationRunStatusesForBuild(build)).thenReturn([
+                (ci1.id): ValidationRunStatusID.STATUS_PASSED,
+                (ci2.id): ValidationRunStatusID.STATUS_PASSED,
+        ])
+        when(structureService.getPromotionRunsForBuild(build.id)).thenReturn([
+                PromotionRun.of(build, bronze, Signature.of('test'), '')
+        ])
+        listener.onEvent(validationRunEvent(build, ci2, ValidationRunStatusID.STATUS_PASSED))
+        verify(structureService, never()).newPromotionRun(any(PromotionRun))
+    }
+
+    @Test
+    void 'No check on failed validation run'() {
+        listener.onEvent(validationRunEvent(build, ci2, ValidationRunStatusID.STATUS_FAILED))
+        verify(index, never()).getRules(any(Branch))
+        verify(structureService, never()).getLastValidationRunStatusesForBuild(any(Build))
+    }
+
+}
@@ -0,0 +1,116 @@
+package net.nemerosa.ontrack.extension.general
+
+import net.nemerosa.ontrack.model.events.Event
+import net.nemerosa.ontrack.model.events.EventFactory
+import net.nemerosa.ontrack.model.structure.*
+import net.nemerosa.ontrack.model.support.NameValue
+import org.junit.Before
+import org.junit.Test
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+import static org.mockito.Mockito.*
+
+class AutoPromotionRuleIndexTest {
+
+    private StructureService structureService
+    private PropertyService propertyService
+    private AutoPromotionRuleIndexImpl index
+
+    private final Branch branch = Branch.of(
+            Project.of(nd('P', '')).withId(ID.of(1)),
+            nd('B', '')
+    ).withId(ID.of(1))
+
+    private final PromotionLevel bronze = PromotionLevel.of(branch, nd('BRONZE', '')).withId(ID.of(1))
+    private final PromotionLevel silver = PromotionLevel.of(branch, nd('SILVER', '')).withId(ID.of(2))
+
+    private final ValidationStamp ci1 = ValidationStamp.of(branch, nd('CI.1', '')).withId(ID.of(1))
+    private final ValidationStamp ci2 = ValidationStamp.of(branch, nd('CI.2', '')).withId(ID.of(2))
+    private final ValidationStamp qa = ValidationStamp.of(branch, nd('QA', '')).withId(ID.of(3))
+
+    @Before
+    void 'Setup'() {
+        structureService = mock(StructureService)
+        propertyService = mock(PropertyService)
+        index = new AutoPromotionRuleIndexImpl(structureService, propertyService)
+        AutoPromotionPropertyType type = new AutoPromotionPropertyType(new GeneralExtensionFeature(), structureService)
+        when(structureService.getPromotionLevelListForBranch(branch.id)).thenReturn([bronze, silver])
+        when(structureService.getValidationStampListForBranch(branch.id)).thenReturn([ci1, ci2, qa])
+        when(propertyService.getProperty(bronze, AutoPromotionPropertyType)).thenReturn(
+                Property.of(type, new AutoPromotionProperty([], 'CI.*', ''))
+        )
+        when(propertyService.getProperty(silver, AutoPromotionPropertyType)).thenReturn(
+                Property.empty(type)
+        )
+    }
+
+    @Test
+    void 'Rules are compiled against the validation stamps'() {
+        def rules = index.getRules(branch)
+        assert rules.size() == 1
+        assert rules[0].promotionLevel == bronze
+        assert rules[0].validationStampIds == [ci1.id, ci2.id] as Set
+        assert rules[0].contains(ci1)
+        assert !rules[0].contains(qa)
+    }
+
+    @Test
+    void 'Rules are cached'() {
+        index.getRules(branch)
+        index.getRules(branch)
+        verify(structureService, times(1)).getPromotionLevelListForBranch(branch.id)
+        verify(structureService, times(1)).getValidationStampListForBranch(branch.id)
+    }
+
+    @Test
+    void 'Rules are invalidated on new validation stamp'() {
+        index.getRules(branch)
+        index.onEvent(Event.of(EventFactory.NEW_VALIDATION_STAMP).withValidationStamp(qa).get())
+        index.getRules(branch)
+        verify(structureService, times(2)).getPromotionLevelListForBranch(branch.id)
+    }
+
+    @Test
+    void 'Rules are invalidated on auto promotion property change'() {
+        index.getRules(branch)
+        index.onEvent(Event.of(EventFactory.PROPERTY_CHANGE)
+                .withRef(silver)
+                .with('entity', silver.projectEntityType.displayName)
+                .with('property', new NameValue(AutoPromotionPropertyType.class.name, 'Auto promotion'))
+                .get())
+        index.getRules(branch)
+        verify(structureService, times(2)).getPromotionLevelListForBranch(branch.id)
+    }
+
+    @Test
+    void 'Rules are not invalidated on other property change'() {
+        index.getRules(branch)
+        index.onEvent(Event.of(EventFactory.PROPERTY_CHANGE)
+                .withRef(silver)
+                .with('entity', silver.projectEntityType.displayName)
+                .with('property', new NameValue('other.PropertyType', 'Other'))
+                .get())
+        index.getRules(branch)
+        verify(structureService, times(1)).getPromotionLevelListForBranch(branch.id)
+    }
+
+    @Test
+    void 'Rules loaded before the commit are invalidated after the commit'() {
+        TransactionSynchronizationManager.initSynchronization()
+        try {
+            index.onEvent(Event.of(EventFactory.NEW_VALIDATION_STAMP).withValidationStamp(qa).get())
+            // Concurrent read before the commit
+            index.getRules(branch)
+            TransactionSynchronizationManager.synchronizations.each {
+                it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+        index.getRules(branch)
+        verify(structureService, times(2)).getPromotionLevelListForBranch(branch.id)
+    }
+
+}
@@ -4,23 +4,27 @@ import net.nemerosa.ontrack.it.AbstractServiceTestSupport
 import net.nemerosa.ontrack.model.security.ProjectConfig
 import net.nemerosa.ontrack.model.security.ProjectView
 import net.nemerosa.ontrack.model.structure.PropertyService
+import net.nemerosa.ontrack.model.structure.SearchIndexService
+import net.nemerosa.ontrack.model.structure.SearchRequest
 import net.nemerosa.ontrack.model.structure.SearchResult
 import org.junit.Test
 import org.springframework.beans.factory.annotation.Autowired
 
 import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+import static net.nemerosa.ontrack.test.TestUtils.uid
 import static org.junit.Assert.assertEquals
 
-class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
+class MetaInfoSearchIndexerIT extends AbstractServiceTestSupport {
 
     @Autowired
-    private MetaInfoSearchExtension extension
+    private SearchIndexService searchIndexService
 
     @Autowired
     private PropertyService propertyService
 
     @Test
     void 'Searching on meta property - found one build'() {
+        def name = uid('N')
         // Creates a build
         def build = doCreateBuild()
         // Meta info on the build
@@ -29,18 +33,18 @@ class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
                     build,
                     MetaInfoPropertyType,
                     new MetaInfoProperty([
-                            MetaInfoPropertyItem.of("name", "value")
+                            MetaInfoPropertyItem.of(name, "value")
                     ])
             )
         }
         // Searching
         def results = asUser().with(build, ProjectView).call {
-            extension.search("name:val*")
+            searchIndexService.search(new SearchRequest("${name}:val*")).results
         }
         assert results == [
                 new SearchResult(
                         build.entityDisplayName,
-                        "name -> value",
+                        "${name} -> value" as String,
                         URI.create("urn:test:entity:BUILD:${build.id}"),
                         URI.create("urn:test:#:entity:BUILD:${build.id}"),
                         100
@@ -50,6 +54,7 @@ class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
 
     @Test
     void 'Searching on meta property - found two builds'() {
+        def name = uid('N')
         // Context
         def branch = doCreateBranch()
         def build1 = doCreateBuild(branch, nd("1", "Build 1"))
@@ -61,26 +66,26 @@ class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
                         build,
                         MetaInfoPropertyType,
                         new MetaInfoProperty([
-                                MetaInfoPropertyItem.of("name", "value${index + 1}")
+                                MetaInfoPropertyItem.of(name, "value${index + 1}")
                         ])
                 )
             }
         }
         // Searching
         def results = asUser().with(branch, ProjectView).call {
-            extension.search("name:val*")
+            searchIndexService.search(new SearchRequest("${name}:val*")).results
         }
         assertEquals([
                 new SearchResult(
                         build2.entityDisplayName,
-                        "name -> value2",
+                        "${name} -> value2" as String,
                         URI.create("urn:test:entity:BUILD:${build2.id}"),
                         URI.create("urn:test:#:entity:BUILD:${build2.id}"),
                         100
                 ),
                 new SearchResult(
                         build1.entityDisplayName,
-                        "name -> value1",
+                        "${name} -> value1" as String,
                         URI.create("urn:test:entity:BUILD:${build1.id}"),
                         URI.create("urn:test:#:entity:BUILD:${build1.id}"),
                         100
@@ -90,6 +95,7 @@ class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
 
     @Test
     void 'Searching on meta property - found one build among two ones'() {
+        def name = uid('N')
         // Context
         def branch = doCreateBranch()
         def build1 = doCreateBuild(branch, nd("1", "Build 1"))
@@ -101,19 +107,19 @@ class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
                         build,
                         MetaInfoPropertyType,
                         new MetaInfoProperty([
-                                MetaInfoPropertyItem.of("name", "value${index + 1}")
+                                MetaInfoPropertyItem.of(name, "value${index + 1}")
                         ])
                 )
             }
         }
         // Searching
         def results = asUser().with(branch, ProjectView).call {
-            extension.search("name:value1*")
+            searchIndexService.search(new SearchRequest("${name}:value1*")).results
         }
         assert results == [
                 new SearchResult(
                         build1.entityDisplayName,
-                        "name -> value1",
+                        "${name} -> value1" as String,
                         URI.create("urn:test:entity:BUILD:${build1.id}"),
                         URI.create("urn:test:#:entity:BUILD:${build1.id}"),
                         100
@@ -121,4 +127,40 @@ class MetaInfoSearchExtensionIT extends AbstractServiceTestSupport {
         ]
     }
 
+    @Test
+    void 'Searching on meta property - changed and removed items are not found any longer'() {
+        def name = uid('N')
+        def other = uid('O')
+        def build = doCreateBuild()
+        asUser().with(build, ProjectConfig).call {
+            propertyService.editProperty(
+                    build,
+                    MetaInfoPropertyType,
+                    new MetaInfoProperty([
+                            MetaInfoPropertyItem.of(name, "value"),
+                            MetaInfoPropertyItem.of(other, "value"),
+                    ])
+            )
+            // Removes one item
+            propertyService.editProperty(
+                    build,
+                    MetaInfoPropertyType,
+                    new MetaInfoProperty([
+                            MetaInfoPropertyItem.of(name, "value"),
+                    ])
+            )
+        }
+        asUser().with(build, ProjectView).call {
+            assert searchIndexService.search(new SearchRequest("${name}:value")).results.size() == 1
+            assert searchIndexService.search(new SearchRequest("${other}:value")).results.empty
+        }
+        // Removes the property
+        asUser().with(build, ProjectConfig).call {
+            propertyService.deleteProperty(build, MetaInfoPropertyType)
+        }
+        asUser().with(build, ProjectView).call {
+            assert searchIndexService.search(new SearchRequest("${name}:value")).results.empty
+        }
+    }
+
 }
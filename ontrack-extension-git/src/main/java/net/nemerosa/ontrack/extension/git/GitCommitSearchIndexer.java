@@ -0,0 +1,115 @@
+package net.nemerosa.ontrack.extension.git;
+
+import net.nemerosa.ontrack.extension.git.service.GitService;
+import net.nemerosa.ontrack.git.GitRepositoryClient;
+import net.nemerosa.ontrack.git.GitRepositoryClientFactory;
+import net.nemerosa.ontrack.git.model.GitCommit;
+import net.nemerosa.ontrack.json.JsonUtils;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.ui.controller.URIBuilder;
+import net.nemerosa.ontrack.ui.support.AbstractSearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
+
+/**
+ * Indexes the commits of the Git-configured branches, one entry per commit and project.
+ * <p>
+ * New commits are indexed after each synchronisation of the Git repositories.
+ */
+@Component
+public class GitCommitSearchIndexer extends AbstractSearchIndexer {
+
+    public static final String CATEGORY = "git-commit";
+
+    private final GitService gitService;
+    private final GitRepositoryClientFactory gitRepositoryClientFactory;
+    private final StructureService structureService;
+
+    @Autowired
+    public GitCommitSearchIndexer(URIBuilder uriBuilder, GitService gitService, GitRepositoryClientFactory gitRepositoryClientFactory, StructureService structureService) {
+        super(uriBuilder);
+        this.gitService = gitService;
+        this.gitRepositoryClientFactory = gitRepositoryClientFactory;
+        this.structureService = structureService;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public void indexAll(Consumer<SearchIndexEntry> consumer) {
+        // Commits already collected for their project
+        Set<String> keys = new HashSet<>();
+        gitService.forEachConfiguredBranch((branch, branchConfiguration) -> {
+            GitRepositoryClient client = gitRepositoryClientFactory.getClient(branchConfiguration.getConfiguration().getGitRepository());
+            gitService.scanCommits(branchConfiguration, revCommit -> {
+                String key = getKey(branch, client.getId(revCommit));
+                if (keys.add(key)) {
+                    consumer.accept(toEntry(branch, client.toCommit(revCommit)));
+                }
+                return false;
+            });
+        });
+    }
+
+    @Override
+    public Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy) {
+        Branch branch = structureService.getBranch(ID.of(entry.getData().path("branchId").asInt()));
+        return Optional.of(toSearchResult(branch, entry, accuracy));
+    }
+
+    @Override
+    public List<Optional<SearchResult>> toSearchResults(List<SearchIndexMatch> matches) {
+        // Loads all the branches at once
+        Map<ID, ProjectEntity> branches = structureService.getEntities(
+                ProjectEntityType.BRANCH,
+                matches.stream()
+                        .map(match -> ID.of(match.getEntry().getData().path("branchId").asInt()))
+                        .collect(Collectors.toSet())
+        );
+        return matches.stream()
+                .map(match -> Optional.ofNullable((Branch) branches.get(ID.of(match.getEntry().getData().path("branchId").asInt())))
+                        .map(branch -> toSearchResult(branch, match.getEntry(), match.getAccuracy())))
+                .collect(Collectors.toList());
+    }
+
+    private SearchResult toSearchResult(Branch branch, SearchIndexEntry entry, int accuracy) {
+        String commit = entry.getToken();
+        return new SearchResult(
+                entry.getTitle(),
+                entry.getDescription(),
+                uri(on(GitController.class).commitInfo(branch.getId(), commit)),
+                uriBuilder.page("extension/git/%d/commit/%s", branch.id(), commit),
+                accuracy
+        );
+    }
+
+    public static String getKey(Branch branch, String commit) {
+        return String.format("%d:%s", branch.projectId(), commit);
+    }
+
+    public static SearchIndexEntry toEntry(Branch branch, GitCommit commit) {
+        return new SearchIndexEntry(
+                CATEGORY,
+                getKey(branch, commit.getId()),
+                branch.getProjectId(),
+                commit.getId(),
+                String.format("[%s] %s %s",
+                        branch.getProject().getName(),
+                        commit.getId(),
+                        commit.getShortMessage()),
+                String.format("%s - %s",
+                        commit.getAuthor().getName(),
+                        commit.getFullMessage()),
+                JsonUtils.object().with("branchId", branch.id()).end()
+        );
+    }
+}
@@ -10,7 +10,6 @@ import net.nemerosa.ontrack.extension.git.service.GitConfigurationService;
 import net.nemerosa.ontrack.extension.git.service.GitService;
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry;
 import net.nemerosa.ontrack.extension.issues.export.ExportFormat;
-import net.nemerosa.ontrack.extension.issues.export.ExportedIssues;
 import net.nemerosa.ontrack.extension.issues.model.ConfiguredIssueService;
 import net.nemerosa.ontrack.extension.issues.model.Issue;
 import net.nemerosa.ontrack.extension.scm.model.SCMChangeLogIssue;
@@ -39,8 +38,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -227,7 +231,7 @@ public class GitController extends AbstractExtensionController<GitExtensionFeatu
      * Change log export
      */
     @RequestMapping(value = "changelog/export", method = RequestMethod.GET)
-    public ResponseEntity<String> changeLog(IssueChangeLogExportRequest request) {
+    public ResponseEntity<StreamingResponseBody> changeLog(IssueChangeLogExportRequest request) {
         // Gets the change log
         GitChangeLog changeLog = gitService.changeLog(request);
         // Gets the associated project
@@ -239,7 +243,7 @@ public class GitController extends AbstractExtensionController<GitExtensionFeatu
         String issueServiceConfigurationIdentifier = gitConfiguration.getIssueServiceConfigurationIdentifier();
         if (StringUtils.isBlank(issueServiceConfigurationIdentifier)) {
             return new ResponseEntity<>(
-                    "The branch is not configured for issues",
+                    out -> out.write("The branch is not configured for issues".getBytes(StandardCharsets.UTF_8)),
                     HttpStatus.NO_CONTENT
             );
         }
@@ -250,18 +254,21 @@ public class GitController extends AbstractExtensionController<GitExtensionFeatu
         List<Issue> issues = changeLogIssues.getList().stream()
                 .map(SCMChangeLogIssue::getIssue)
                 .collect(Collectors.toList());
-        // Exports the change log using the given format
-        ExportedIssues exportedChangeLogIssues = configuredIssueService.getIssueServiceExtension()
-                .exportIssues(
-                        configuredIssueService.getIssueServiceConfiguration(),
-                        issues,
-                        request
-                );
+        // Export format
+        ExportFormat exportFormat = configuredIssueService.getExportFormat(request.getFormat());
         // Content type
         HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.set("Content-Type", exportedChangeLogIssues.getFormat() + "; charset=utf-8");
-        // Body and headers
-        return new ResponseEntity<>(exportedChangeLogIssues.getContent(), responseHeaders, HttpStatus.OK);
+        responseHeaders.set("Content-Type", exportFormat.getType() + "; charset=utf-8");
+        // Exports the change log using the given format, directly into the response
+        return new ResponseEntity<>(
+                out -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                    configuredIssueService.exportIssues(issues, request, writer);
+                    writer.flush();
+                },
+                responseHeaders,
+                HttpStatus.OK
+        );
     }
 
     private GitChangeLog getChangeLog(String uuid) {
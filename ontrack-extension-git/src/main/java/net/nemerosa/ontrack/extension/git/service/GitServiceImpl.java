@@ -4,6 +4,7 @@ import com.google.common.collect.Lists;
 import net.nemerosa.ontrack.common.FutureUtils;
 import net.nemerosa.ontrack.extension.api.model.BuildDiffRequest;
 import net.nemerosa.ontrack.extension.api.model.BuildDiffRequestDifferenceProjectException;
+import net.nemerosa.ontrack.extension.git.GitCommitSearchIndexer;
 import net.nemerosa.ontrack.extension.git.model.*;
 import net.nemerosa.ontrack.extension.git.property.GitBranchConfigurationProperty;
 import net.nemerosa.ontrack.extension.git.property.GitBranchConfigurationPropertyType;
@@ -59,6 +60,11 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
     private static final JobType GIT_INDEXATION_JOB = GIT_JOB_CATEGORY.getType("git-indexation").withName("Git indexation");
     private static final JobType GIT_BUILD_SYNC_JOB = GIT_JOB_CATEGORY.getType("git-build-sync").withName("Git build synchronisation");
 
+    /**
+     * Number of scanned commits whose indexation is checked at once
+     */
+    private static final int INDEXATION_CHECK_BATCH = 50;
+
     private final Logger logger = LoggerFactory.getLogger(GitService.class);
 
     private final PropertyService propertyService;
@@ -71,6 +77,7 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
     private final BuildGitCommitLinkService buildGitCommitLinkService;
     private final Collection<GitConfigurator> gitConfigurators;
     private final SCMUtilsService scmService;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public GitServiceImpl(
@@ -84,7 +91,8 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
             GitRepositoryClientFactory gitRepositoryClientFactory,
             BuildGitCommitLinkService buildGitCommitLinkService,
             Collection<GitConfigurator> gitConfigurators,
-            SCMUtilsService scmService) {
+            SCMUtilsService scmService,
+            SearchIndexService searchIndexService) {
         super(structureService, propertyService);
         this.propertyService = propertyService;
         this.issueServiceRegistry = issueServiceRegistry;
@@ -96,6 +104,7 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         this.buildGitCommitLinkService = buildGitCommitLinkService;
         this.gitConfigurators = gitConfigurators;
         this.scmService = scmService;
+        this.searchIndexService = searchIndexService;
     }
 
     @Override
@@ -574,7 +583,7 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         AtomicReference<GitConfiguration> theConfiguration = new AtomicReference<>();
         // Data to collect
         Collection<BuildView> buildViews = new ArrayList<>();
-        Collection<BranchStatusView> branchStatusViews = new ArrayList<>();
+        List<Build> builds = new ArrayList<>();
         // For all configured branches
         forEachConfiguredBranch((branch, branchConfiguration) -> {
             GitConfiguration configuration = branchConfiguration.getConfiguration();
@@ -607,13 +616,13 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
                             BuildView buildView = structureService.getBuildView(build, true);
                             // Adds it to the list
                             buildViews.add(buildView);
-                            // Collects the promotions for the branch
-                            branchStatusViews.add(
-                                    structureService.getEarliestPromotionsAfterBuild(build)
-                            );
+                            // Collects the build, for the promotions
+                            builds.add(build);
                         });
             }
         });
+        // Collects the promotions for all the branches at once
+        Collection<BranchStatusView> branchStatusViews = structureService.getEarliestPromotionsAfterBuilds(builds);
 
         // OK
         if (theCommit.get() != null) {
@@ -928,6 +937,55 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         GitRepositoryClient client = gitRepositoryClientFactory.getClient(config.getGitRepository());
         // Launches the synchronisation
         client.sync(listener.logger());
+        // Indexation of the new commits
+        indexCommits(config, client, listener);
+    }
+
+    private void indexCommits(GitConfiguration config, GitRepositoryClient client, JobRunListener listener) {
+        forEachConfiguredBranch((branch, branchConfiguration) -> {
+            if (StringUtils.equals(config.getRemote(), branchConfiguration.getConfiguration().getRemote())) {
+                List<SearchIndexEntry> entries = new ArrayList<>();
+                List<RevCommit> pending = new ArrayList<>();
+                // From the newest commit, until an indexed one is met, checking the commits by batches
+                boolean found = client.scanCommits(branchConfiguration.getBranch(), revCommit -> {
+                    pending.add(revCommit);
+                    return pending.size() >= INDEXATION_CHECK_BATCH && collectNewCommits(branch, client, pending, entries);
+                });
+                if (!found) {
+                    collectNewCommits(branch, client, pending, entries);
+                }
+                if (!entries.isEmpty()) {
+                    searchIndexService.index(entries);
+                    listener.message("%d commits indexed for %s/%s", entries.size(), branch.getProject().getName(), branch.getName());
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the entries for the pending commits, until an indexed one is met.
+     *
+     * @return <code>true</code> if an indexed commit has been met
+     */
+    private boolean collectNewCommits(Branch branch, GitRepositoryClient client, List<RevCommit> pending, List<SearchIndexEntry> entries) {
+        Set<String> indexed = searchIndexService.getIndexedKeys(
+                GitCommitSearchIndexer.CATEGORY,
+                pending.stream()
+                        .map(revCommit -> GitCommitSearchIndexer.getKey(branch, client.getId(revCommit)))
+                        .collect(Collectors.toList())
+        );
+        try {
+            for (RevCommit revCommit : pending) {
+                if (indexed.contains(GitCommitSearchIndexer.getKey(branch, client.getId(revCommit)))) {
+                    return true;
+                } else {
+                    entries.add(GitCommitSearchIndexer.toEntry(branch, client.toCommit(revCommit)));
+                }
+            }
+            return false;
+        } finally {
+            pending.clear();
+        }
     }
 
     private JobRegistration getGitIndexationJobRegistration(GitConfiguration configuration) {
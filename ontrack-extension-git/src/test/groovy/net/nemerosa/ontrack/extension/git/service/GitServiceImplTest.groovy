@@ -56,7 +56,8 @@ class GitServiceImplTest {
                 mock(GitRepositoryClientFactory),
                 mock(BuildGitCommitLinkService),
                 [gitConfigurator],
-                mock(SCMUtilsService)
+                mock(SCMUtilsService),
+                mock(SearchIndexService)
         )
     }
 
@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.github;
 
+import net.nemerosa.ontrack.common.Time;
 import net.nemerosa.ontrack.extension.github.client.OntrackGitHubClient;
 import net.nemerosa.ontrack.extension.github.client.OntrackGitHubClientFactory;
 import net.nemerosa.ontrack.extension.github.model.GitHubEngineConfiguration;
@@ -38,7 +39,13 @@ public class GitHubHealthIndicator extends ConfigurationHealthIndicator<GitHubEn
             // Gets the list of repositories
             client.getRepositories();
             // OK
-            return Health.up().build();
+            Health.Builder health = Health.up();
+            client.getRateLimit().ifPresent(rateLimit -> health
+                    .withDetail("rateLimit", rateLimit.getLimit())
+                    .withDetail("rateLimitRemaining", rateLimit.getRemaining())
+                    .withDetail("rateLimitReset", Time.forStorage(rateLimit.getReset()))
+            );
+            return health.build();
         } catch (Exception ex) {
             return Health.down(ex).build();
         }
@@ -1,12 +1,28 @@
 package net.nemerosa.ontrack.extension.github.client;
 
 import net.nemerosa.ontrack.extension.github.model.GitHubEngineConfiguration;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one client per configuration name, so that the connections and the cached responses
+ * are shared between the calls. The client is replaced when its configuration changes.
+ */
 @Component
 public class DefaultGitHubClientFactoryImpl implements OntrackGitHubClientFactory {
+
+    private final ConcurrentMap<String, DefaultOntrackGitHubClient> clients = new ConcurrentHashMap<>();
+
     @Override
     public OntrackGitHubClient create(GitHubEngineConfiguration configuration) {
-        return new DefaultOntrackGitHubClient(configuration);
+        return clients.compute(
+                StringUtils.defaultString(configuration.getName()),
+                (name, client) -> client != null && client.getConfiguration().equals(configuration) ?
+                        client :
+                        new DefaultOntrackGitHubClient(configuration)
+        );
     }
 }
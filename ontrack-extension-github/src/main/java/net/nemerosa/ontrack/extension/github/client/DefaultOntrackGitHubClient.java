@@ -1,74 +1,119 @@
 package net.nemerosa.ontrack.extension.github.client;
 
+import com.google.common.io.CharStreams;
+import lombok.Data;
 import net.nemerosa.ontrack.common.Time;
 import net.nemerosa.ontrack.extension.github.model.*;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.egit.github.core.*;
-import org.eclipse.egit.github.core.client.GitHubClient;
-import org.eclipse.egit.github.core.client.RequestException;
-import org.eclipse.egit.github.core.service.IssueService;
-import org.eclipse.egit.github.core.service.RepositoryService;
+import org.eclipse.egit.github.core.client.GsonUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * Client for one GitHub configuration, meant to be kept for the lifetime of this configuration.
+ * <p>
+ * The responses are cached together with their <code>ETag</code>, and the next requests for the
+ * same resources are conditional, so that unchanged resources come back as <code>304</code>, which
+ * do not count against the rate limit of GitHub. The rate limit returned by each response is
+ * tracked: when it is about to be exhausted, the cached responses are returned without checking
+ * them, and the other calls fail without reaching GitHub, until the limit is reset.
+ * <p>
+ * The connections are kept alive and reused by the JDK as long as the responses are fully read.
+ */
 public class DefaultOntrackGitHubClient implements OntrackGitHubClient {
 
+    /**
+     * Maximum number of responses being cached
+     */
+    static final int CACHE_SIZE = 1000;
+
+    /**
+     * Number of requests kept in reserve before backing off
+     */
+    static final int RATE_LIMIT_RESERVE = 10;
+
+    private static final int TIMEOUT_MS = 30_000;
+
+    private static final String GITHUB_COM_API = "https://api.github.com";
+
+    private static final Pattern LINK_NEXT = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+
     private final Logger logger = LoggerFactory.getLogger(OntrackGitHubClient.class);
 
     private final GitHubEngineConfiguration configuration;
+    private final String apiUrl;
+    private final String authorization;
+    private final Map<String, CachedResponse> cache;
+    private volatile GitHubRateLimit rateLimit;
 
     public DefaultOntrackGitHubClient(GitHubEngineConfiguration configuration) {
+        this(configuration, CACHE_SIZE);
+    }
+
+    public DefaultOntrackGitHubClient(GitHubEngineConfiguration configuration, int cacheSize) {
         this.configuration = configuration;
+        this.apiUrl = getApiUrl(configuration.getUrl());
+        this.authorization = getAuthorization(configuration);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public GitHubEngineConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public Optional<GitHubRateLimit> getRateLimit() {
+        return Optional.ofNullable(rateLimit);
     }
 
     @Override
     public List<String> getRepositories() {
         // Logging
         logger.debug("[github] Getting repository list");
-        // Getting a client
-        GitHubClient client = createGitHubClient();
-        // Service
-        RepositoryService repositoryService = new RepositoryService(client);
-        // Gets the repository names
-        try {
-            return repositoryService.getRepositories().stream()
-                    .map(Repository::getName)
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new OntrackGitHubClientException(e);
+        // Goes through all the pages
+        List<String> names = new ArrayList<>();
+        String url = apiUrl + "/user/repos?per_page=100";
+        while (url != null) {
+            CachedResponse response = get(url);
+            if (response == null) {
+                throw new OntrackGitHubClientException("Cannot find the list of repositories at %s", url);
+            }
+            for (Repository repository : GsonUtils.fromJson(response.getBody(), Repository[].class)) {
+                names.add(repository.getName());
+            }
+            url = response.getNext();
         }
+        return names;
     }
 
     @Override
     public GitHubIssue getIssue(String repository, int id) {
         // Logging
         logger.debug("[github] Getting issue {}/{}", repository, id);
-        // Getting a client
-        GitHubClient client = createGitHubClient();
-        // Issue service using this client
-        IssueService service = new IssueService(client);
-        // Gets the repository for this project
-        String owner = StringUtils.substringBefore(repository, "/");
-        String name = StringUtils.substringAfter(repository, "/");
-        Issue issue;
-        try {
-            issue = service.getIssue(owner, name, id);
-        } catch (RequestException ex) {
-            if (ex.getStatus() == 404) {
-                return null;
-            } else {
-                throw new OntrackGitHubClientException(ex);
-            }
-        } catch (IOException e) {
-            throw new OntrackGitHubClientException(e);
+        // Gets the issue
+        CachedResponse response = get(String.format("%s/repos/%s/issues/%d", apiUrl, repository, id));
+        if (response == null) {
+            return null;
         }
+        Issue issue = GsonUtils.fromJson(response.getBody(), Issue.class);
         // Conversion
         return new GitHubIssue(
                 id,
@@ -86,28 +131,133 @@ public class DefaultOntrackGitHubClient implements OntrackGitHubClient {
         );
     }
 
-    protected GitHubClient createGitHubClient() {
-        // GitHub client (non authentified)
-        GitHubClient client = new GitHubClient() {
-            @Override
-            protected HttpURLConnection configureRequest(HttpURLConnection request) {
-                HttpURLConnection connection = super.configureRequest(request);
-                connection.setRequestProperty(HEADER_ACCEPT, "application/vnd.github.v3.full+json");
-                return connection;
+    /**
+     * Gets a resource, using the cached version if it has not changed.
+     *
+     * @param url URL of the resource
+     * @return Response, or <code>null</code> if the resource does not exist
+     */
+    protected CachedResponse get(String url) {
+        CachedResponse cached = cache.get(url);
+        // Backing off if the rate limit is about to be exhausted
+        GitHubRateLimit currentRateLimit = rateLimit;
+        if (currentRateLimit != null
+                && currentRateLimit.getRemaining() <= RATE_LIMIT_RESERVE
+                && currentRateLimit.getReset().isAfter(Time.now())) {
+            if (cached != null) {
+                logger.debug("[github] Rate limit reached, using cached response for {}", url);
+                return cached;
+            } else {
+                throw new OntrackGitHubClientException(
+                        "GitHub rate limit reached for %s, waiting until %s",
+                        configuration.getName(),
+                        currentRateLimit.getReset()
+                );
+            }
+        }
+        // Call
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Accept", "application/vnd.github.v3.full+json");
+            if (authorization != null) {
+                connection.setRequestProperty("Authorization", authorization);
+            }
+            if (cached != null) {
+                connection.setRequestProperty("If-None-Match", cached.getEtag());
             }
-        };
-        // Authentication
+            int code = connection.getResponseCode();
+            updateRateLimit(connection);
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                read(connection.getErrorStream());
+                return cached;
+            } else if (code == HttpURLConnection.HTTP_OK) {
+                CachedResponse response = new CachedResponse(
+                        connection.getHeaderField("ETag"),
+                        read(connection.getInputStream()),
+                        getNext(connection.getHeaderField("Link"))
+                );
+                if (response.getEtag() != null) {
+                    cache.put(url, response);
+                } else {
+                    cache.remove(url);
+                }
+                return response;
+            } else if (code == HttpURLConnection.HTTP_NOT_FOUND) {
+                read(connection.getErrorStream());
+                cache.remove(url);
+                return null;
+            } else {
+                throw new OntrackGitHubClientException(
+                        "GitHub returned %d for %s: %s",
+                        code,
+                        url,
+                        read(connection.getErrorStream())
+                );
+            }
+        } catch (IOException ex) {
+            throw new OntrackGitHubClientException(ex);
+        }
+    }
+
+    private void updateRateLimit(HttpURLConnection connection) {
+        int limit = connection.getHeaderFieldInt("X-RateLimit-Limit", -1);
+        int remaining = connection.getHeaderFieldInt("X-RateLimit-Remaining", -1);
+        long reset = connection.getHeaderFieldLong("X-RateLimit-Reset", -1);
+        if (limit >= 0 && remaining >= 0 && reset >= 0) {
+            rateLimit = new GitHubRateLimit(limit, remaining, Time.from(reset * 1000L));
+            if (remaining <= RATE_LIMIT_RESERVE) {
+                logger.warn("[github] Rate limit almost reached for {}: {}/{} until {}",
+                        configuration.getName(), remaining, limit, rateLimit.getReset());
+            }
+        }
+    }
+
+    /**
+     * Reads a response completely, so that the connection can be reused.
+     */
+    private static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        } else {
+            try (InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return CharStreams.toString(reader);
+            }
+        }
+    }
+
+    static String getNext(String link) {
+        if (StringUtils.isBlank(link)) {
+            return null;
+        } else {
+            Matcher m = LINK_NEXT.matcher(link);
+            return m.find() ? m.group(1) : null;
+        }
+    }
+
+    static String getApiUrl(String url) {
+        String root = StringUtils.removeEnd(url, "/");
+        if (StringUtils.equals(root, GitHubEngineConfiguration.GITHUB_COM)) {
+            return GITHUB_COM_API;
+        } else {
+            return root + "/api/v3";
+        }
+    }
+
+    private static String getAuthorization(GitHubEngineConfiguration configuration) {
         String oAuth2Token = configuration.getOauth2Token();
         if (StringUtils.isNotBlank(oAuth2Token)) {
-            client.setOAuth2Token(oAuth2Token);
+            return "token " + oAuth2Token;
         } else {
             String user = configuration.getUser();
-            String password = configuration.getPassword();
             if (StringUtils.isNotBlank(user)) {
-                client.setCredentials(user, password);
+                String credentials = user + ":" + StringUtils.defaultString(configuration.getPassword());
+                return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+            } else {
+                return null;
             }
         }
-        return client;
     }
 
     private LocalDateTime toDateTime(Date date) {
@@ -160,4 +310,14 @@ public class DefaultOntrackGitHubClient implements OntrackGitHubClient {
         }
     }
 
+    /**
+     * Body of a response, with its version and the link to the next page, if any.
+     */
+    @Data
+    protected static class CachedResponse {
+        private final String etag;
+        private final String body;
+        private final String next;
+    }
+
 }
@@ -0,0 +1,28 @@
+package net.nemerosa.ontrack.extension.github.client;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the rate limit of a GitHub client, as returned by the last response.
+ */
+@Data
+public class GitHubRateLimit {
+
+    /**
+     * Maximum number of requests per period
+     */
+    private final int limit;
+
+    /**
+     * Number of remaining requests in the current period
+     */
+    private final int remaining;
+
+    /**
+     * End of the current period (UTC)
+     */
+    private final LocalDateTime reset;
+
+}
@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.extension.github.client;
 import net.nemerosa.ontrack.extension.github.model.GitHubIssue;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Client used to connect to a GitHub engine from Ontrack.
@@ -23,4 +24,9 @@ public interface OntrackGitHubClient {
      */
     List<String> getRepositories();
 
+    /**
+     * Gets the rate limit returned by the last call, if any.
+     */
+    Optional<GitHubRateLimit> getRateLimit();
+
 }
@@ -8,4 +8,8 @@ public class OntrackGitHubClientException extends BaseException {
     public OntrackGitHubClientException(IOException e) {
         super(e, "Error while accessing GitHub: %s", e);
     }
+
+    public OntrackGitHubClientException(String pattern, Object... parameters) {
+        super(pattern, parameters);
+    }
 }
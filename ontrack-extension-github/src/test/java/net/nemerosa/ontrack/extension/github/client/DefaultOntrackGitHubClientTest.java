@@ -0,0 +1,166 @@
+package net.nemerosa.ontrack.extension.github.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.nemerosa.ontrack.extension.github.model.GitHubEngineConfiguration;
+import net.nemerosa.ontrack.extension.github.model.GitHubIssue;
+import net.nemerosa.ontrack.extension.github.model.GitHubState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the client against a local stub of the GitHub API.
+ */
+public class DefaultOntrackGitHubClientTest {
+
+    private static final String ISSUE = "{\"number\":1,\"html_url\":\"https://github.com/nemerosa/ontrack/issues/1\"," +
+            "\"title\":\"Issue 1\",\"body_text\":\"Text\",\"body_html\":\"<p>Text</p>\",\"state\":\"open\"," +
+            "\"labels\":[{\"name\":\"bug\",\"color\":\"ff0000\"}],\"created_at\":\"2016-01-01T10:00:00Z\"}";
+
+    private HttpServer server;
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private volatile int remaining = 5000;
+    private DefaultOntrackGitHubClient client;
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v3/repos/nemerosa/ontrack/issues/1", exchange -> {
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            requests.add(etag != null ? "conditional" : "full");
+            if ("\"v1\"".equals(etag)) {
+                send(exchange, 304, null);
+            } else {
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                send(exchange, 200, ISSUE);
+            }
+        });
+        server.createContext("/api/v3/repos/nemerosa/ontrack/issues/2", exchange -> {
+            requests.add("full");
+            send(exchange, 404, "{\"message\":\"Not Found\"}");
+        });
+        server.createContext("/api/v3/user/repos", exchange -> {
+            requests.add("full");
+            if (exchange.getRequestURI().getQuery().contains("page=2")) {
+                send(exchange, 200, "[{\"name\":\"ontrack\"}]");
+            } else {
+                exchange.getResponseHeaders().add("Link", String.format(
+                        "<%s/api/v3/user/repos?per_page=100&page=2>; rel=\"next\"", url()
+                ));
+                send(exchange, 200, "[{\"name\":\"gradle\"},{\"name\":\"jenkins\"}]");
+            }
+        });
+        server.start();
+        client = new DefaultOntrackGitHubClient(new GitHubEngineConfiguration("test", url(), null, null, "token"));
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void send(HttpExchange exchange, int code, String body) throws IOException {
+        exchange.getResponseHeaders().add("X-RateLimit-Limit", "5000");
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(remaining));
+        exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } else {
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+        }
+    }
+
+    @Test
+    public void issue() {
+        GitHubIssue issue = client.getIssue("nemerosa/ontrack", 1);
+        assertNotNull(issue);
+        assertEquals(1, issue.getId());
+        assertEquals("Issue 1", issue.getTitle());
+        assertEquals(GitHubState.open, issue.getState());
+        assertEquals("bug", issue.getLabels().get(0).getName());
+    }
+
+    @Test
+    public void issue_not_found() {
+        assertNull(client.getIssue("nemerosa/ontrack", 2));
+    }
+
+    @Test
+    public void unchanged_issue_is_requested_conditionally() {
+        GitHubIssue first = client.getIssue("nemerosa/ontrack", 1);
+        GitHubIssue second = client.getIssue("nemerosa/ontrack", 1);
+        assertEquals(first, second);
+        assertEquals(Arrays.asList("full", "conditional"), requests);
+    }
+
+    @Test
+    public void repositories_on_several_pages() {
+        assertEquals(Arrays.asList("gradle", "jenkins", "ontrack"), client.getRepositories());
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void rate_limit_is_tracked() {
+        assertFalse(client.getRateLimit().isPresent());
+        remaining = 4000;
+        client.getIssue("nemerosa/ontrack", 1);
+        GitHubRateLimit rateLimit = client.getRateLimit().orElse(null);
+        assertNotNull(rateLimit);
+        assertEquals(5000, rateLimit.getLimit());
+        assertEquals(4000, rateLimit.getRemaining());
+    }
+
+    @Test
+    public void backing_off_when_rate_limit_is_reached() {
+        remaining = DefaultOntrackGitHubClient.RATE_LIMIT_RESERVE;
+        client.getIssue("nemerosa/ontrack", 1);
+        // Cached resource is returned without any call
+        assertNotNull(client.getIssue("nemerosa/ontrack", 1));
+        assertEquals(Collections.singletonList("full"), requests);
+        // Other resources are not requested
+        try {
+            client.getIssue("nemerosa/ontrack", 2);
+            fail("The call should have been refused");
+        } catch (OntrackGitHubClientException ignored) {
+            // Expected
+        }
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void client_reused_per_configuration() {
+        DefaultGitHubClientFactoryImpl factory = new DefaultGitHubClientFactoryImpl();
+        GitHubEngineConfiguration configuration = new GitHubEngineConfiguration("test", url(), null, null, "token");
+        OntrackGitHubClient client = factory.create(configuration);
+        assertSame(client, factory.create(new GitHubEngineConfiguration("test", url(), null, null, "token")));
+        assertNotSame(client, factory.create(new GitHubEngineConfiguration("test", url(), null, null, "other")));
+    }
+
+    @Test
+    public void api_url() {
+        assertEquals("https://api.github.com", DefaultOntrackGitHubClient.getApiUrl("https://github.com"));
+        assertEquals("https://github.acme.com/api/v3", DefaultOntrackGitHubClient.getApiUrl("https://github.acme.com/"));
+    }
+
+}
@@ -19,7 +19,7 @@ abstract class AbstractTextIssueExportService implements IssueExportService {
 
     @Override
     ExportedIssues export(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues) {
-        StringBuilder s = new StringBuilder()
+        StringWriter s = new StringWriter()
         exportAsText(issueServiceExtension, issueServiceConfiguration, groupedIssues, s)
         new ExportedIssues(
                 exportFormat.type,
@@ -27,5 +27,14 @@ abstract class AbstractTextIssueExportService implements IssueExportService {
         )
     }
 
-    abstract void exportAsText(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, StringBuilder s)
+    @Override
+    void export(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, Writer writer) throws IOException {
+        exportAsText(issueServiceExtension, issueServiceConfiguration, groupedIssues, writer)
+        writer.flush()
+    }
+
+    /**
+     * Writes the issues, group after group.
+     */
+    abstract void exportAsText(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, Writer s)
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ class HTMLIssueExportService extends AbstractTextIssueExportService {
     }
 
     @Override
-    void exportAsText(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, StringBuilder s) {
+    void exportAsText(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, Writer s) {
         groupedIssues.each { groupName, issues ->
             // One section per group
             s << '<section class="ontrack-issue-group">\n'
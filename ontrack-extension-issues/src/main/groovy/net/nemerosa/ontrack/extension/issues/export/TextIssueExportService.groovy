@@ -13,7 +13,7 @@ class TextIssueExportService extends AbstractTextIssueExportService {
     }
 
     @Override
-    void exportAsText(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, StringBuilder s) {
+    void exportAsText(IssueServiceExtension issueServiceExtension, IssueServiceConfiguration issueServiceConfiguration, Map<String, List<Issue>> groupedIssues, Writer s) {
         groupedIssues.each { groupName, issues ->
             // Group header
             if (groupName) {
@@ -9,6 +9,8 @@ import net.nemerosa.ontrack.extension.issues.model.IssueServiceConfiguration;
 import net.nemerosa.ontrack.model.structure.Project;
 import net.nemerosa.ontrack.model.support.MessageAnnotator;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 
 /**
@@ -109,6 +111,23 @@ public interface IssueServiceExtension extends Extension {
      */
     ExportedIssues exportIssues(IssueServiceConfiguration issueServiceConfiguration, List<? extends Issue> issues, IssueChangeLogExportRequest request);
 
+    /**
+     * Exports a list of issues for a given <code>format</code>, writing the result as it is produced, so
+     * that the export does not have to be held in memory.
+     * <p>
+     * By default, the export is done in memory using
+     * {@link #exportIssues(IssueServiceConfiguration, List, IssueChangeLogExportRequest)}.
+     *
+     * @param issueServiceConfiguration Configuration for the service
+     * @param issues                    List of issues to export
+     * @param request                   Specification for the export
+     * @param writer                    Output to write the export into
+     * @throws net.nemerosa.ontrack.extension.issues.model.IssueExportFormatNotFoundException If the format is not supported.
+     */
+    default void exportIssues(IssueServiceConfiguration issueServiceConfiguration, List<? extends Issue> issues, IssueChangeLogExportRequest request, Writer writer) throws IOException {
+        writer.write(exportIssues(issueServiceConfiguration, issues, request).getContent());
+    }
+
     /**
      * Normalises a string into a valid issue key if possible, in order for it to be useable in a search. This allows
      * for services to adjust the token for cases where the <i>representation</i> of an issue might be different
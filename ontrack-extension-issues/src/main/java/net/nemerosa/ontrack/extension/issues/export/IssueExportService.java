@@ -4,6 +4,8 @@ import net.nemerosa.ontrack.extension.issues.IssueServiceExtension;
 import net.nemerosa.ontrack.extension.issues.model.Issue;
 import net.nemerosa.ontrack.extension.issues.model.IssueServiceConfiguration;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 
@@ -17,4 +19,13 @@ public interface IssueExportService {
             IssueServiceExtension issueServiceExtension,
             IssueServiceConfiguration issueServiceConfiguration,
             Map<String, List<Issue>> groupedIssues);
+
+    /**
+     * Writes the export of the issues as it is produced.
+     */
+    void export(
+            IssueServiceExtension issueServiceExtension,
+            IssueServiceConfiguration issueServiceConfiguration,
+            Map<String, List<Issue>> groupedIssues,
+            Writer writer) throws IOException;
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package net.nemerosa.ontrack.extension.issues.model;
 
 import lombok.Data;
+import net.nemerosa.ontrack.extension.api.model.IssueChangeLogExportRequest;
 import net.nemerosa.ontrack.extension.issues.IssueServiceExtension;
+import net.nemerosa.ontrack.extension.issues.export.ExportFormat;
 import net.nemerosa.ontrack.model.structure.Project;
 import net.nemerosa.ontrack.model.support.MessageAnnotationUtils;
 import net.nemerosa.ontrack.model.support.MessageAnnotator;
+import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 
 /**
@@ -58,4 +63,22 @@ public class ConfiguredIssueService {
     public Collection<? extends Issue> getLinkedIssues(Project project, Issue issue) {
         return issueServiceExtension.getLinkedIssues(project, issueServiceConfiguration, issue);
     }
+
+    /**
+     * Gets an export format supported by this service.
+     *
+     * @param format ID of the format
+     * @return Export format
+     * @throws IssueExportFormatNotFoundException If the format is not supported
+     */
+    public ExportFormat getExportFormat(String format) {
+        return issueServiceExtension.exportFormats(issueServiceConfiguration).stream()
+                .filter(exportFormat -> StringUtils.equals(format, exportFormat.getId()))
+                .findFirst()
+                .orElseThrow(() -> new IssueExportFormatNotFoundException(format));
+    }
+
+    public void exportIssues(List<? extends Issue> issues, IssueChangeLogExportRequest request, Writer writer) throws IOException {
+        issueServiceExtension.exportIssues(issueServiceConfiguration, issues, request, writer);
+    }
 }
@@ -11,6 +11,8 @@ import net.nemerosa.ontrack.extension.issues.model.Issue;
 import net.nemerosa.ontrack.extension.issues.model.IssueServiceConfiguration;
 import net.nemerosa.ontrack.extension.support.AbstractExtension;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,6 +87,26 @@ public abstract class AbstractIssueServiceExtension extends AbstractExtension im
         );
     }
 
+    @Override
+    public void exportIssues(IssueServiceConfiguration issueServiceConfiguration, List<? extends Issue> issues, IssueChangeLogExportRequest request, Writer writer) throws IOException {
+        // Grouping of issues (or not)
+        Map<String, List<Issue>> groupedIssues = groupIssues(
+                issueServiceConfiguration,
+                issues,
+                request,
+                this::getIssueTypes
+        );
+        // Export service
+        IssueExportService exportService = issueExportServiceFactory.getIssueExportService(request.getFormat());
+        // Exporting
+        exportService.export(
+                this,
+                issueServiceConfiguration,
+                groupedIssues,
+                writer
+        );
+    }
+
     protected abstract Set<String> getIssueTypes(IssueServiceConfiguration issueServiceConfiguration, Issue issue);
 
 }
@@ -1,5 +1,8 @@
 package net.nemerosa.ontrack.extension.issues.export
 
+import net.nemerosa.ontrack.extension.issues.support.MockIssue
+import net.nemerosa.ontrack.extension.issues.support.MockIssueServiceConfiguration
+import net.nemerosa.ontrack.extension.issues.support.MockIssueStatus
 import org.junit.Test
 
 class TextIssueExportServiceTest {
@@ -13,4 +16,28 @@ class TextIssueExportServiceTest {
         assert format.type == 'text/plain'
     }
 
+    @Test
+    void 'Export written into a writer'() {
+        TextIssueExportService service = new TextIssueExportService()
+        def groupedIssues = [
+                'Bugs'    : [new MockIssue(1, MockIssueStatus.OPEN, 'bug'), new MockIssue(2, MockIssueStatus.OPEN, 'bug')],
+                'Features': [new MockIssue(3, MockIssueStatus.CLOSED, 'feature')],
+        ]
+        def configuration = new MockIssueServiceConfiguration('test')
+        StringWriter writer = new StringWriter()
+        service.export(null, configuration, groupedIssues, writer)
+        assert writer.toString() == '''\
+Bugs
+
+* #1 Issue #1
+* #2 Issue #2
+
+Features
+
+* #3 Issue #3
+
+'''
+        assert service.export(null, configuration, groupedIssues).content == writer.toString()
+    }
+
 }
@@ -18,6 +18,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,6 +31,7 @@ public class LDAPAuthenticationProvider extends AbstractUserDetailsAuthenticatio
     private final LDAPAuthenticationSourceProvider ldapAuthenticationSourceProvider;
     private final SecurityService securityService;
     private final ApplicationLogService applicationLogService;
+    private final LDAPCache ldapCache;
 
     private final Map<String, AccountUserDetails> cache = new ConcurrentHashMap<>();
 
@@ -39,12 +41,14 @@ public class LDAPAuthenticationProvider extends AbstractUserDetailsAuthenticatio
             LDAPProviderFactory ldapProviderFactory,
             LDAPAuthenticationSourceProvider ldapAuthenticationSourceProvider,
             SecurityService securityService,
-            ApplicationLogService applicationLogService) {
+            ApplicationLogService applicationLogService,
+            LDAPCache ldapCache) {
         this.accountService = accountService;
         this.ldapProviderFactory = ldapProviderFactory;
         this.ldapAuthenticationSourceProvider = ldapAuthenticationSourceProvider;
         this.securityService = securityService;
         this.applicationLogService = applicationLogService;
+        this.ldapCache = ldapCache;
     }
 
     protected Optional<AuthenticatedAccount> findUser(String username, UsernamePasswordAuthenticationToken authentication) {
@@ -56,23 +60,13 @@ public class LDAPAuthenticationProvider extends AbstractUserDetailsAuthenticatio
         }
         // LDAP connection
         else {
-            Authentication ldapAuthentication;
-            try {
-                ldapAuthentication = ldapAuthenticationProvider.authenticate(authentication);
-            } catch (Exception ex) {
-                // Cannot use the LDAP, logs the error
-                applicationLogService.log(
-                        ApplicationLogEntry.error(
-                                ex,
-                                NameDescription.nd(
-                                        "ldap-authentication",
-                                        "LDAP Authentication problem"
-                                ),
-                                authentication.getName()
-                        )
-                );
-                // Rejects the authentication
-                return Optional.empty();
+            String password = Objects.toString(authentication.getCredentials(), "");
+            Authentication ldapAuthentication = ldapCache.get(username, password).orElse(null);
+            if (ldapAuthentication == null) {
+                ldapAuthentication = authenticate(ldapAuthenticationProvider, authentication);
+                if (ldapAuthentication != null && ldapAuthentication.isAuthenticated()) {
+                    ldapCache.put(username, password, ldapAuthentication);
+                }
             }
             if (ldapAuthentication != null && ldapAuthentication.isAuthenticated()) {
                 // Gets the account name
@@ -150,6 +144,26 @@ public class LDAPAuthenticationProvider extends AbstractUserDetailsAuthenticatio
         }
     }
 
+    private Authentication authenticate(LdapAuthenticationProvider ldapAuthenticationProvider, UsernamePasswordAuthenticationToken authentication) {
+        try {
+            return ldapAuthenticationProvider.authenticate(authentication);
+        } catch (Exception ex) {
+            // Cannot use the LDAP, logs the error
+            applicationLogService.log(
+                    ApplicationLogEntry.error(
+                            ex,
+                            NameDescription.nd(
+                                    "ldap-authentication",
+                                    "LDAP Authentication problem"
+                            ),
+                            authentication.getName()
+                    )
+            );
+            // Rejects the authentication
+            return null;
+        }
+    }
+
     @Override
     protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
     }
@@ -172,6 +186,7 @@ public class LDAPAuthenticationProvider extends AbstractUserDetailsAuthenticatio
     @Override
     public void onLogout(String username) {
         cache.remove(username);
+        ldapCache.invalidate(username);
     }
     
 }
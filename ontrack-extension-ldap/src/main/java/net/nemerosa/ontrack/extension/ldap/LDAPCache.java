@@ -1,9 +1,144 @@
 package net.nemerosa.ontrack.extension.ldap;
 
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the successful LDAP authentications, including the user details and the groups
+ * which were read from the directory, so that repeated authentications of the same user
+ * (like API calls using basic authentication) do not bind and search the directory again.
+ * <p>
+ * Entries expire after a given time and the number of entries is bounded. The password is
+ * never stored: each entry only keeps a salted hash of the credentials, and the entry is
+ * used only if the credentials of the authentication match this hash. In any other case,
+ * the entry is discarded and the directory is queried again.
+ *
+ * @see LDAPConfProperties
+ */
+@Component
 public class LDAPCache {
 
+    private static final int SALT_LENGTH = 16;
+
+    /**
+     * Cache entry for the authentication of a user
+     */
+    @Data
+    private static class Entry {
+        private final byte[] salt;
+        private final byte[] hash;
+        private final Authentication authentication;
+    }
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public LDAPCache(LDAPConfProperties config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    LDAPCache(LDAPConfProperties config, Ticker ticker) {
+        this.enabled = config.isCacheEnabled() && config.getCacheTtl() > 0 && config.getCacheMaxSize() > 0;
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(config.getCacheTtl(), TimeUnit.SECONDS)
+                .maximumSize(config.getCacheMaxSize())
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Gets the cached authentication of a user.
+     *
+     * @param username Name of the user
+     * @param password Password provided by the user
+     * @return Cached authentication if any and if the password matches the one which was used
+     * for the cached authentication
+     */
+    public Optional<Authentication> get(String username, String password) {
+        if (!enabled || StringUtils.isEmpty(password)) {
+            return Optional.empty();
+        }
+        Entry entry = cache.getIfPresent(username);
+        if (entry == null) {
+            return Optional.empty();
+        } else if (MessageDigest.isEqual(entry.getHash(), hash(entry.getSalt(), username, password))) {
+            return Optional.of(entry.getAuthentication());
+        } else {
+            // Different credentials - the directory must be queried again
+            cache.invalidate(username);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Caches a successful authentication. Authentications without any password are never cached.
+     *
+     * @param username       Name of the user
+     * @param password       Password used for the authentication
+     * @param authentication Successful authentication
+     */
+    public void put(String username, String password, Authentication authentication) {
+        if (enabled && StringUtils.isNotEmpty(password)) {
+            byte[] salt = new byte[SALT_LENGTH];
+            random.nextBytes(salt);
+            // The credentials of the authentication are not kept
+            Authentication cached = new UsernamePasswordAuthenticationToken(
+                    authentication.getPrincipal(),
+                    null,
+                    authentication.getAuthorities()
+            );
+            cache.put(username, new Entry(salt, hash(salt, username, password), cached));
+        }
+    }
+
     /**
-     * Cache entry for the
+     * Removes a user from the cache
      */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Removes all users from the cache
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Approximate number of users in the cache
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private static byte[] hash(byte[] salt, String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
 
 }
@@ -0,0 +1,30 @@
+package net.nemerosa.ontrack.extension.ldap;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the LDAP extension.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ontrack.extension.ldap")
+public class LDAPConfProperties {
+
+    /**
+     * Caching the successful LDAP authentications
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Time (in seconds) during which a successful LDAP authentication is kept in the cache
+     */
+    private int cacheTtl = 300;
+
+    /**
+     * Maximum number of users kept in the cache
+     */
+    private int cacheMaxSize = 1000;
+
+}
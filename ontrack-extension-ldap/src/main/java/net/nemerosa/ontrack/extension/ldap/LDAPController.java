@@ -24,18 +24,21 @@ public class LDAPController extends AbstractExtensionController<LDAPExtensionFea
     private final SecurityService securityService;
     private final AccountService accountService;
     private final AccountGroupMappingService accountGroupMappingService;
+    private final LDAPCache ldapCache;
 
     @Autowired
     public LDAPController(
             LDAPExtensionFeature feature,
             SecurityService securityService,
             AccountService accountService,
-            AccountGroupMappingService accountGroupMappingService
+            AccountGroupMappingService accountGroupMappingService,
+            LDAPCache ldapCache
     ) {
         super(feature);
         this.securityService = securityService;
         this.accountService = accountService;
         this.accountGroupMappingService = accountGroupMappingService;
+        this.ldapCache = ldapCache;
     }
 
     @Override
@@ -54,6 +57,27 @@ public class LDAPController extends AbstractExtensionController<LDAPExtensionFea
                 ;
     }
 
+    /**
+     * Removes all the users from the LDAP authentication cache, forcing them to be
+     * authenticated against the LDAP directory again.
+     */
+    @RequestMapping(value = "cache", method = RequestMethod.DELETE)
+    public Ack clearCache() {
+        securityService.checkGlobalFunction(AccountManagement.class);
+        ldapCache.invalidateAll();
+        return Ack.OK;
+    }
+
+    /**
+     * Removes a user from the LDAP authentication cache
+     */
+    @RequestMapping(value = "cache/{username:.*}", method = RequestMethod.DELETE)
+    public Ack clearCache(@PathVariable String username) {
+        securityService.checkGlobalFunction(AccountManagement.class);
+        ldapCache.invalidate(username);
+        return Ack.OK;
+    }
+
     /**
      * Gets the list of mappings
      */
@@ -70,6 +94,11 @@ public class LDAPController extends AbstractExtensionController<LDAPExtensionFea
                         uri(on(getClass()).getMappingCreationForm()),
                         securityService.isGlobalFunctionGranted(AccountGroupManagement.class)
                 )
+                .with(
+                        "_clearCache",
+                        uri(on(getClass()).clearCache()),
+                        securityService.isGlobalFunctionGranted(AccountManagement.class)
+                )
                 ;
     }
 
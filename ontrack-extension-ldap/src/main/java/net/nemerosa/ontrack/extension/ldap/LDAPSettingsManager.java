@@ -20,18 +20,22 @@ public class LDAPSettingsManager extends AbstractSettingsManager<LDAPSettings> {
     private final SettingsRepository settingsRepository;
     private final EncryptionService encryptionService;
     private final LDAPProviderFactory ldapProviderFactory;
+    private final LDAPCache ldapCache;
 
     @Autowired
-    public LDAPSettingsManager(CachedSettingsService cachedSettingsService, SecurityService securityService, SettingsRepository settingsRepository, EncryptionService encryptionService, LDAPProviderFactory ldapProviderFactory) {
+    public LDAPSettingsManager(CachedSettingsService cachedSettingsService, SecurityService securityService, SettingsRepository settingsRepository, EncryptionService encryptionService, LDAPProviderFactory ldapProviderFactory, LDAPCache ldapCache) {
         super(LDAPSettings.class, cachedSettingsService, securityService);
         this.settingsRepository = settingsRepository;
         this.encryptionService = encryptionService;
         this.ldapProviderFactory = ldapProviderFactory;
+        this.ldapCache = ldapCache;
     }
 
     @Override
     protected void doSaveSettings(LDAPSettings settings) {
         ldapProviderFactory.invalidate();
+        // Authentications made against the previous directory are no longer valid
+        ldapCache.invalidateAll();
         settingsRepository.setBoolean(LDAPSettings.class, "enabled", settings.isEnabled());
         if (settings.isEnabled()) {
             settingsRepository.setString(LDAPSettings.class, "url", settings.getUrl());
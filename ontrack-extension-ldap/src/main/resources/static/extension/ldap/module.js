@@ -26,6 +26,15 @@ angular.module('ontrack.extension.ldap', [])
                             otFormService.create($scope.mappingResources._create, "Mapping creation").then(loadMappings);
                         }
                     },
+                    {
+                        id: 'ldap-cache-clear',
+                        name: "Clear LDAP cache",
+                        cls: 'ot-command-delete',
+                        condition: function () {
+                            return mappingResources._clearCache;
+                        },
+                        action: clearCache
+                    },
                     ot.viewApiCommand(mappingResources._self),
                     ot.viewCloseCommand('/admin-accounts')
                 ];
@@ -34,6 +43,16 @@ angular.module('ontrack.extension.ldap', [])
 
         loadMappings();
 
+        // Clearing the LDAP authentication cache
+        function clearCache() {
+            otAlertService.confirm({
+                title: "LDAP cache",
+                message: "Do you really want to clear the LDAP authentication cache? All users will be authenticated against the LDAP directory again."
+            }).then(function () {
+                ot.pageCall($http.delete($scope.mappingResources._clearCache));
+            });
+        }
+
         // Updating a mapping
         $scope.updateMapping = function (mapping) {
             otFormService.update(mapping._update, "Updating mapping").then(loadMappings);
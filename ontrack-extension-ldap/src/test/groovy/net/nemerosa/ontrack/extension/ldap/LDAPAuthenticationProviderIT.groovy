@@ -0,0 +1,159 @@
+package net.nemerosa.ontrack.extension.ldap
+
+import net.nemerosa.ontrack.model.security.AccountService
+import net.nemerosa.ontrack.model.security.SecurityService
+import net.nemerosa.ontrack.model.settings.CachedSettingsService
+import net.nemerosa.ontrack.model.support.ApplicationLogService
+import org.junit.AfterClass
+import org.junit.Before
+import org.junit.BeforeClass
+import org.junit.Test
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+import org.springframework.ldap.core.LdapTemplate
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
+import org.springframework.security.ldap.DefaultSpringSecurityContextSource
+import org.springframework.security.ldap.authentication.LdapAuthenticationProvider
+import org.springframework.security.ldap.server.ApacheDSContainer
+
+import javax.naming.directory.BasicAttribute
+import javax.naming.directory.DirContext
+import javax.naming.directory.ModificationItem
+import java.util.function.Supplier
+
+import static org.mockito.Matchers.any
+import static org.mockito.Mockito.*
+
+/**
+ * Authentication against an in-process LDAP server.
+ */
+class LDAPAuthenticationProviderIT {
+
+    private static final String ROOT = "dc=nemerosa,dc=net"
+
+    private static ApacheDSContainer server
+    private static String url
+
+    private LdapAuthenticationProvider ldapAuthenticationProvider
+    private LDAPCache ldapCache
+    private LDAPAuthenticationProvider provider
+
+    @BeforeClass
+    static void startServer() {
+        int port = new ServerSocket(0).withCloseable { it.localPort }
+        url = "ldap://localhost:${port}/${ROOT}"
+        server = new ApacheDSContainer(ROOT, "classpath:ldap-test.ldif")
+        server.port = port
+        server.afterPropertiesSet()
+    }
+
+    @AfterClass
+    static void stopServer() {
+        server?.destroy()
+    }
+
+    @Before
+    void before() {
+        // LDAP settings for the embedded server
+        CachedSettingsService cachedSettingsService = mock(CachedSettingsService)
+        when(cachedSettingsService.getCachedSettings(LDAPSettings)).thenReturn(new LDAPSettings(
+                true,
+                url,
+                "ou=people",
+                "(uid={0})",
+                "uid=admin,ou=system",
+                "secret",
+                "cn",
+                "",
+                "",
+                ""
+        ))
+        // Spying the calls to the LDAP
+        ldapAuthenticationProvider = spy(new LDAPProviderFactoryImpl(cachedSettingsService).provider)
+        LDAPProviderFactory ldapProviderFactory = mock(LDAPProviderFactory)
+        when(ldapProviderFactory.provider).thenReturn(ldapAuthenticationProvider)
+        // Accounts
+        LDAPAuthenticationSourceProvider ldapAuthenticationSourceProvider = new LDAPAuthenticationSourceProvider()
+        AccountService accountService = mock(AccountService)
+        when(accountService.findUserByNameAndSource(any(String), any(LDAPAuthenticationSourceProvider))).thenReturn(Optional.empty())
+        SecurityService securityService = mock(SecurityService)
+        when(securityService.asAdmin(any(Supplier) as Supplier)).then(new Answer<Object>() {
+            @Override
+            Object answer(InvocationOnMock invocation) throws Throwable {
+                Supplier<?> supplier = invocation.arguments[0] as Supplier<?>
+                return supplier.get()
+            }
+        })
+        // Provider
+        ldapCache = new LDAPCache(new LDAPConfProperties())
+        provider = new LDAPAuthenticationProvider(
+                accountService,
+                ldapProviderFactory,
+                ldapAuthenticationSourceProvider,
+                securityService,
+                mock(ApplicationLogService),
+                ldapCache
+        )
+    }
+
+    private boolean authenticate(String username, String password) {
+        provider.findUser(username, new UsernamePasswordAuthenticationToken(username, password)).present
+    }
+
+    private static void changePassword(String username, String password) {
+        def contextSource = new DefaultSpringSecurityContextSource(url)
+        contextSource.userDn = "uid=admin,ou=system"
+        contextSource.password = "secret"
+        contextSource.afterPropertiesSet()
+        new LdapTemplate(contextSource).modifyAttributes(
+                "uid=${username},ou=people" as String,
+                [new ModificationItem(DirContext.REPLACE_ATTRIBUTE, new BasicAttribute("userPassword", password))] as ModificationItem[]
+        )
+    }
+
+    @Test
+    void 'Authentication is cached'() {
+        assert authenticate("user1", "verysecret")
+        assert authenticate("user1", "verysecret")
+        assert authenticate("user1", "verysecret")
+        verify(ldapAuthenticationProvider, times(1)).authenticate(any(UsernamePasswordAuthenticationToken))
+    }
+
+    @Test
+    void 'Cached details'() {
+        assert provider.findUser("user1", new UsernamePasswordAuthenticationToken("user1", "verysecret")).get().account.fullName == "User 1"
+        assert provider.findUser("user1", new UsernamePasswordAuthenticationToken("user1", "verysecret")).get().account.fullName == "User 1"
+        verify(ldapAuthenticationProvider, times(1)).authenticate(any(UsernamePasswordAuthenticationToken))
+    }
+
+    @Test
+    void 'Wrong password is never accepted from the cache'() {
+        assert authenticate("user1", "verysecret")
+        assert !authenticate("user1", "wrong")
+        verify(ldapAuthenticationProvider, times(2)).authenticate(any(UsernamePasswordAuthenticationToken))
+    }
+
+    @Test
+    void 'Password change in the directory'() {
+        try {
+            assert authenticate("user2", "verysecret")
+            changePassword("user2", "changed")
+            // New password accepted by the directory
+            assert authenticate("user2", "changed")
+            // Old password is no longer valid
+            assert !authenticate("user2", "verysecret")
+            verify(ldapAuthenticationProvider, times(3)).authenticate(any(UsernamePasswordAuthenticationToken))
+        } finally {
+            changePassword("user2", "verysecret")
+        }
+    }
+
+    @Test
+    void 'Admin eviction'() {
+        assert authenticate("user1", "verysecret")
+        ldapCache.invalidateAll()
+        assert authenticate("user1", "verysecret")
+        verify(ldapAuthenticationProvider, times(2)).authenticate(any(UsernamePasswordAuthenticationToken))
+    }
+
+}
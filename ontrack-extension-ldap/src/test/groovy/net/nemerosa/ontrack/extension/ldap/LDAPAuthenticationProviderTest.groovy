@@ -13,8 +13,7 @@ import org.springframework.security.ldap.authentication.LdapAuthenticationProvid
 import java.util.function.Supplier
 
 import static org.mockito.Matchers.any
-import static org.mockito.Mockito.mock
-import static org.mockito.Mockito.when
+import static org.mockito.Mockito.*
 
 class LDAPAuthenticationProviderTest {
 
@@ -24,6 +23,7 @@ class LDAPAuthenticationProviderTest {
     private LDAPAuthenticationSourceProvider ldapAuthenticationSourceProvider
     private SecurityService securityService
     private AccountService accountService
+    private LDAPCache ldapCache
 
     @Before
     void before() {
@@ -33,12 +33,14 @@ class LDAPAuthenticationProviderTest {
         securityService = mock(SecurityService)
         ldapAuthenticationProvider = mock(LdapAuthenticationProvider)
         ApplicationLogService applicationLogService = mock(ApplicationLogService)
+        ldapCache = new LDAPCache(new LDAPConfProperties())
         provider = new LDAPAuthenticationProvider(
                 accountService,
                 ldapProviderFactory,
                 ldapAuthenticationSourceProvider,
                 securityService,
-                applicationLogService
+                applicationLogService,
+                ldapCache
         )
 
         when(securityService.asAdmin(any(Supplier) as Supplier)).then(new Answer<Object>() {
@@ -198,4 +200,56 @@ class LDAPAuthenticationProviderTest {
         assert authAccount.get().account == account
     }
 
-}
\ No newline at end of file
+    private void ldapUser(String username, String password) {
+        when(ldapProviderFactory.provider).thenReturn(ldapAuthenticationProvider)
+        when(ldapAuthenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(username, password))).thenReturn(
+                new UsernamePasswordAuthenticationToken(username, password, [])
+        )
+        when(accountService.findUserByNameAndSource(username, ldapAuthenticationSourceProvider)).thenReturn(
+                Optional.empty()
+        )
+    }
+
+    @Test
+    void 'LDAP authentication success is cached'() {
+        ldapUser("test", "secret")
+        def authentication = new UsernamePasswordAuthenticationToken("test", "secret")
+        assert provider.findUser("test", authentication).present
+        assert provider.findUser("test", authentication).present
+        verify(ldapAuthenticationProvider, times(1)).authenticate(authentication)
+        assert ldapCache.size() == 1
+    }
+
+    @Test
+    void 'LDAP authentication with another password is not taken from the cache'() {
+        ldapUser("test", "secret")
+        assert provider.findUser("test", new UsernamePasswordAuthenticationToken("test", "secret")).present
+        // Wrong password
+        def wrong = new UsernamePasswordAuthenticationToken("test", "wrong")
+        assert !provider.findUser("test", wrong).present
+        verify(ldapAuthenticationProvider, times(1)).authenticate(wrong)
+        // The entry has been discarded
+        assert ldapCache.size() == 0
+    }
+
+    @Test
+    void 'LDAP authentication failure is not cached'() {
+        when(ldapProviderFactory.provider).thenReturn(ldapAuthenticationProvider)
+        def authentication = new UsernamePasswordAuthenticationToken("test", "wrong")
+        assert !provider.findUser("test", authentication).present
+        assert !provider.findUser("test", authentication).present
+        verify(ldapAuthenticationProvider, times(2)).authenticate(authentication)
+        assert ldapCache.size() == 0
+    }
+
+    @Test
+    void 'Logout removes the user from the cache'() {
+        ldapUser("test", "secret")
+        def authentication = new UsernamePasswordAuthenticationToken("test", "secret")
+        assert provider.findUser("test", authentication).present
+        provider.onLogout("test")
+        assert provider.findUser("test", authentication).present
+        verify(ldapAuthenticationProvider, times(2)).authenticate(authentication)
+    }
+
+}
@@ -0,0 +1,116 @@
+package net.nemerosa.ontrack.extension.ldap
+
+import com.google.common.base.Ticker
+import org.junit.Before
+import org.junit.Test
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
+import org.springframework.security.core.Authentication
+
+import java.util.concurrent.TimeUnit
+
+class LDAPCacheTest {
+
+    private LDAPConfProperties config
+    private long nanos
+    private LDAPCache cache
+
+    @Before
+    void before() {
+        config = new LDAPConfProperties()
+        config.cacheTtl = 60
+        config.cacheMaxSize = 2
+        nanos = 0
+        cache = createCache()
+    }
+
+    private LDAPCache createCache() {
+        new LDAPCache(config, new Ticker() {
+            @Override
+            long read() {
+                return nanos
+            }
+        })
+    }
+
+    private static Authentication authentication(String username) {
+        new UsernamePasswordAuthenticationToken(username, "secret", [])
+    }
+
+    @Test
+    void 'Cached authentication'() {
+        cache.put("user", "secret", authentication("user"))
+        def cached = cache.get("user", "secret")
+        assert cached.present
+        assert cached.get().name == "user"
+        assert cached.get().authenticated
+    }
+
+    @Test
+    void 'Credentials are not kept'() {
+        cache.put("user", "secret", authentication("user"))
+        assert cache.get("user", "secret").get().credentials == null
+    }
+
+    @Test
+    void 'Not cached'() {
+        assert !cache.get("user", "secret").present
+    }
+
+    @Test
+    void 'Other password discards the entry'() {
+        cache.put("user", "secret", authentication("user"))
+        assert !cache.get("user", "changed").present
+        assert !cache.get("user", "secret").present
+    }
+
+    @Test
+    void 'No caching without password'() {
+        cache.put("user", "", authentication("user"))
+        assert cache.size() == 0
+        assert !cache.get("user", "").present
+    }
+
+    @Test
+    void 'Expiration'() {
+        cache.put("user", "secret", authentication("user"))
+        nanos += TimeUnit.SECONDS.toNanos(59)
+        assert cache.get("user", "secret").present
+        nanos += TimeUnit.SECONDS.toNanos(2)
+        assert !cache.get("user", "secret").present
+    }
+
+    @Test
+    void 'Maximum size'() {
+        cache.put("user1", "secret", authentication("user1"))
+        cache.put("user2", "secret", authentication("user2"))
+        cache.put("user3", "secret", authentication("user3"))
+        assert cache.size() == 2
+        assert cache.get("user3", "secret").present
+    }
+
+    @Test
+    void 'Eviction of one user'() {
+        cache.put("user1", "secret", authentication("user1"))
+        cache.put("user2", "secret", authentication("user2"))
+        cache.invalidate("user1")
+        assert !cache.get("user1", "secret").present
+        assert cache.get("user2", "secret").present
+    }
+
+    @Test
+    void 'Eviction of all users'() {
+        cache.put("user1", "secret", authentication("user1"))
+        cache.put("user2", "secret", authentication("user2"))
+        cache.invalidateAll()
+        assert cache.size() == 0
+    }
+
+    @Test
+    void 'Cache disabled'() {
+        config.cacheEnabled = false
+        cache = createCache()
+        cache.put("user", "secret", authentication("user"))
+        assert !cache.get("user", "secret").present
+    }
+
+}
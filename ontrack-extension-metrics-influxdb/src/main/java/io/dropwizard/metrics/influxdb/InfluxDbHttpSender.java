@@ -2,39 +2,154 @@ package io.dropwizard.metrics.influxdb;
 
 import io.dropwizard.metrics.influxdb.data.InfluxDbPoint;
 import io.dropwizard.metrics.influxdb.data.InfluxDbWriteObject;
-import io.dropwizard.metrics.influxdb.utils.InfluxDbWriteObjectSerializer;
-import org.apache.http.HttpResponse;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.ResponseHandler;
+import io.dropwizard.metrics.influxdb.utils.InfluxDbLineProtocol;
+import org.apache.http.HttpHeaders;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.net.URL;
-import java.util.HashSet;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * An implementation of InfluxDbSender that writes to InfluxDb via http.
+ * An implementation of InfluxDbSender that writes to InfluxDb via http, using the line protocol.
+ * <p>
+ * The points of a report are handed over to a bounded queue and are written by a background
+ * thread, so that the reporter is never blocked by a slow InfluxDB. When the queue is full, the
+ * points of the report are dropped and accounted for in {@link #getDroppedPoints()}. The background
+ * thread writes the points in requests whose body does not exceed a given size, optionally
+ * compressed using gzip, over pooled connections.
  */
-public class InfluxDbHttpSender implements InfluxDbSender {
+public class InfluxDbHttpSender implements InfluxDbSender, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InfluxDbHttpSender.class);
+
+    /**
+     * Time to wait for the pending points to be written when closing
+     */
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    public static final class Builder {
+        private final String hostname;
+        private final int port;
+        private String database;
+        private String username;
+        private String password;
+        private TimeUnit timePrecision = TimeUnit.MILLISECONDS;
+        private int maxRequestSize = 1024 * 1024;
+        private int queueSize = 10;
+        private boolean compress = true;
+        private int connectTimeout = 1000;
+        private int readTimeout = 10000;
+
+        private Builder(String hostname, int port) {
+            this.hostname = hostname;
+            this.port = port;
+        }
+
+        /**
+         * Database to write to.
+         */
+        public Builder database(String database) {
+            this.database = database;
+            return this;
+        }
+
+        /**
+         * Credentials used to connect to InfluxDB. No authentication is used if they are blank.
+         */
+        public Builder credentials(String username, String password) {
+            this.username = username;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * Time precision of the metrics.
+         */
+        public Builder timePrecision(TimeUnit timePrecision) {
+            this.timePrecision = timePrecision;
+            return this;
+        }
+
+        /**
+         * Maximum size (in bytes, before compression) of the body of one request. A report
+         * which does not fit is written using several requests.
+         */
+        public Builder maxRequestSize(int maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of reports waiting to be written.
+         */
+        public Builder queueSize(int queueSize) {
+            this.queueSize = queueSize;
+            return this;
+        }
+
+        /**
+         * Compressing the requests using gzip.
+         */
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        /**
+         * Connection and read timeouts, in milliseconds.
+         */
+        public Builder timeouts(int connectTimeout, int readTimeout) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public InfluxDbHttpSender build() throws URISyntaxException {
+            return new InfluxDbHttpSender(this);
+        }
+    }
+
+    private final URI uri;
+    private final String authorization;
+    private final String database;
+    private final TimeUnit timePrecision;
+    private final int maxRequestSize;
+    private final boolean compress;
     private final CloseableHttpClient closeableHttpClient;
-    private final URL url;
-    private final String username;
-    private final String password;
-    private final InfluxDbWriteObject influxDbWriteObject;
-    private final InfluxDbWriteObjectSerializer influxDbWriteObjectSerializer;
+    private final BlockingQueue<InfluxDbWriteObject> queue;
+    private final Thread writer;
+    private final AtomicLong writtenPoints = new AtomicLong();
+    private final AtomicLong droppedPoints = new AtomicLong();
+    private final AtomicLong failedPoints = new AtomicLong();
+    private volatile boolean closed;
+    private Map<String, String> tags = Collections.emptyMap();
+    private InfluxDbWriteObject influxDbWriteObject;
 
     /**
      * Creates a new http sender given connection details.
@@ -44,7 +159,7 @@ public class InfluxDbHttpSender implements InfluxDbSender {
      * @param database   the influxDb database to write to
      * @param username   the username used to connect to influxDb
      * @param password   the password used to connect to influxDb
-     * @throws Exception exception while creating the influxDb sender(MalformedURLException)
+     * @throws Exception exception while creating the influxDb sender(URISyntaxException)
      */
     public InfluxDbHttpSender(final String hostname, final int port, final String database, final String username, final String password) throws Exception {
         this(hostname, port, database, username, password, TimeUnit.MILLISECONDS);
@@ -59,21 +174,62 @@ public class InfluxDbHttpSender implements InfluxDbSender {
      * @param username      the influxDb username
      * @param password      the influxDb password
      * @param timePrecision the time precision of the metrics
-     * @throws Exception exception while creating the influxDb sender(MalformedURLException)
+     * @throws Exception exception while creating the influxDb sender(URISyntaxException)
      */
     public InfluxDbHttpSender(final String hostname, final int port, final String database, final String username, final String password,
                               final TimeUnit timePrecision) throws Exception {
-        this.url = new URL("http", hostname, port, "/write");
-        this.closeableHttpClient = HttpClients.createDefault();
-        this.username = username;
-        this.password = password;
+        this(forServer(hostname, port).database(database).credentials(username, password).timePrecision(timePrecision));
+    }
+
+    private InfluxDbHttpSender(Builder builder) throws URISyntaxException {
+        this.database = builder.database;
+        this.timePrecision = builder.timePrecision;
         this.influxDbWriteObject = new InfluxDbWriteObject(database, timePrecision);
-        this.influxDbWriteObjectSerializer = new InfluxDbWriteObjectSerializer();
+        this.uri = new URIBuilder()
+                .setScheme("http")
+                .setHost(builder.hostname)
+                .setPort(builder.port)
+                .setPath("/write")
+                .setParameter("db", database)
+                .setParameter("precision", influxDbWriteObject.getPrecision())
+                .build();
+        this.authorization = getAuthorization(builder.username, builder.password);
+        this.maxRequestSize = builder.maxRequestSize;
+        this.compress = builder.compress;
+        // Only one thread is writing, but the connection is kept between the reports
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(1);
+        connectionManager.setDefaultMaxPerRoute(1);
+        this.closeableHttpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(builder.connectTimeout)
+                        .setConnectionRequestTimeout(builder.connectTimeout)
+                        .setSocketTimeout(builder.readTimeout)
+                        .build())
+                .build();
+        this.queue = new ArrayBlockingQueue<>(builder.queueSize);
+        this.writer = new Thread(this::writeLoop, "influxDb-sender");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static Builder forServer(String hostname, int port) {
+        return new Builder(hostname, port);
+    }
+
+    private static String getAuthorization(String username, String password) {
+        if (username != null && !username.isEmpty() && password != null && !password.isEmpty()) {
+            String credentials = username + ":" + password;
+            return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        } else {
+            return null;
+        }
     }
 
     @Override
     public void flush() {
-        influxDbWriteObject.setPoints(new HashSet<InfluxDbPoint>());
+        influxDbWriteObject = newWriteObject();
     }
 
     @Override
@@ -88,66 +244,163 @@ public class InfluxDbHttpSender implements InfluxDbSender {
         }
     }
 
-    private RequestConfig getRequestConfig() {
-        return RequestConfig
-            .custom()
-            .setConnectTimeout(1000)
-            .setConnectionRequestTimeout(1000)
-            .build();
+    /**
+     * Hands the current points over to the background writer.
+     *
+     * @return {@link HttpURLConnection#HTTP_ACCEPTED}, since the points are written asynchronously
+     */
+    @Override
+    public int writeData() {
+        InfluxDbWriteObject report = influxDbWriteObject;
+        influxDbWriteObject = newWriteObject();
+        if (closed || !queue.offer(report)) {
+            int count = report.getPoints().size();
+            droppedPoints.addAndGet(count);
+            LOGGER.warn("InfluxDB writer is late, dropping {} points ({} dropped in total)", count, droppedPoints.get());
+        }
+        return HttpURLConnection.HTTP_ACCEPTED;
     }
 
-    private HttpClientContext getHttpClientContext() {
-        HttpClientContext httpClientContext = null;
-        if (username != null && !username.isEmpty() && password != null && !password.isEmpty())
-        {
-            httpClientContext = HttpClientContext.create();
-            AuthScope authScope = new AuthScope(url.getHost(), url.getPort());
-            UsernamePasswordCredentials usernamePasswordCredentials = new UsernamePasswordCredentials(username, password);
-            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-            credentialsProvider.setCredentials(authScope, usernamePasswordCredentials);
-            httpClientContext.setCredentialsProvider(credentialsProvider);
+    @Override
+    public void setTags(final Map<String, String> tags) {
+        if (tags != null) {
+            this.tags = Collections.unmodifiableMap(new HashMap<>(tags));
+            influxDbWriteObject.setTags(this.tags);
         }
+    }
 
-        return httpClientContext;
+    /**
+     * Number of points written successfully into InfluxDB
+     */
+    public long getWrittenPoints() {
+        return writtenPoints.get();
+    }
+
+    /**
+     * Number of points dropped because the queue was full
+     */
+    public long getDroppedPoints() {
+        return droppedPoints.get();
     }
 
+    /**
+     * Number of points which could not be written because of an error
+     */
+    public long getFailedPoints() {
+        return failedPoints.get();
+    }
+
+    /**
+     * Number of reports waiting to be written
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting new points, waits for the pending ones to be written for a while, and
+     * releases the connections.
+     */
     @Override
-    public int writeData() throws Exception {
-        final String json = influxDbWriteObjectSerializer.getJsonString(influxDbWriteObject);
-
-        HttpPost httpPost = new HttpPost(this.url.toURI());
-        httpPost.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-
-        httpPost.setConfig(getRequestConfig());
-
-        Integer responseCode = closeableHttpClient.execute(httpPost, new ResponseHandler<Integer>()
-        {
-            @Override
-            public Integer handleResponse(HttpResponse httpResponse)
-                throws ClientProtocolException, IOException
-            {
-                int statusCode = httpResponse.getStatusLine().getStatusCode();
-                EntityUtils.consumeQuietly(httpResponse.getEntity());
-                if (statusCode >= 200 && statusCode < 300) {
-                    return statusCode;
-                }
-                else {
-                    throw new ClientProtocolException("Server returned HTTP response code: " + statusCode
-                                                          + "for URL: " + url
-                                                          + " with content :'"
-                                                          + httpResponse.getStatusLine().getReasonPhrase() + "'" );
-                }
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer.interrupt();
+        closeableHttpClient.close();
+    }
 
+    private InfluxDbWriteObject newWriteObject() {
+        InfluxDbWriteObject writeObject = new InfluxDbWriteObject(database, timePrecision);
+        writeObject.setTags(tags);
+        return writeObject;
+    }
+
+    private void writeLoop() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                InfluxDbWriteObject report = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (report != null) {
+                    long handled = writtenPoints.get() + failedPoints.get();
+                    try {
+                        write(report);
+                    } catch (RuntimeException ex) {
+                        // The points of the report which have not been written or failed yet are lost,
+                        // but the writer must go on with the next reports
+                        long lost = report.getPoints().size() - (writtenPoints.get() + failedPoints.get() - handled);
+                        failedPoints.addAndGet(lost);
+                        LOGGER.error("Unable to write {} points to InfluxDB at {}", lost, uri, ex);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            int count = queue.stream().mapToInt(report -> report.getPoints().size()).sum();
+            if (count > 0) {
+                droppedPoints.addAndGet(count);
+                LOGGER.warn("InfluxDB writer stopped, dropping {} points", count);
             }
-        }, getHttpClientContext());
+        }
+    }
 
-        return responseCode;
+    /**
+     * Writes the points of a report using as many requests as needed to stay below the maximum request size.
+     */
+    void write(InfluxDbWriteObject report) {
+        StringBuilder lines = new StringBuilder();
+        int count = 0;
+        for (InfluxDbPoint point : report.getPoints()) {
+            int mark = lines.length();
+            if (InfluxDbLineProtocol.append(point, report.getTags(), lines)) {
+                if (lines.length() > maxRequestSize && mark > 0) {
+                    String line = lines.substring(mark);
+                    lines.setLength(mark);
+                    post(lines, count);
+                    lines.setLength(0);
+                    lines.append(line);
+                    count = 0;
+                }
+                count++;
+            }
+        }
+        if (count > 0) {
+            post(lines, count);
+        }
     }
 
-    @Override
-    public void setTags(final Map<String, String> tags) {
-        if (tags != null) {
-            influxDbWriteObject.setTags(tags);
+    private void post(CharSequence lines, int count) {
+        try {
+            HttpPost httpPost = new HttpPost(uri);
+            if (authorization != null) {
+                httpPost.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            byte[] body = lines.toString().getBytes(StandardCharsets.UTF_8);
+            if (compress) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+                try (OutputStream out = new GZIPOutputStream(compressed)) {
+                    out.write(body);
+                }
+                body = compressed.toByteArray();
+                httpPost.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            httpPost.setEntity(new ByteArrayEntity(body, ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8)));
+            try (CloseableHttpResponse response = closeableHttpClient.execute(httpPost)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                // Consuming the response so that the connection can be reused
+                String content = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
+                if (statusCode >= 200 && statusCode < 300) {
+                    writtenPoints.addAndGet(count);
+                } else {
+                    failedPoints.addAndGet(count);
+                    LOGGER.warn("Server returned HTTP response code: {} for URL: {} with content: '{}'. {} points are lost.",
+                            statusCode, uri, content, count);
+                }
+            }
+        } catch (IOException ex) {
+            failedPoints.addAndGet(count);
+            LOGGER.warn("Unable to write {} points to InfluxDB at {}", count, uri, ex);
         }
     }
 }
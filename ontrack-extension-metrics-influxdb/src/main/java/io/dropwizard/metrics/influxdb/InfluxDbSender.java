@@ -25,7 +25,8 @@ public interface InfluxDbSender {
     /**
      * Writes buffer data to InfluxDb.
      *
-     * @return the response code for the request sent to InfluxDb.
+     * @return the response code for the request sent to InfluxDb, or 202 (accepted) if the data is
+     * written asynchronously.
      *
      * @throws Exception exception while writing to InfluxDb api
      */
@@ -0,0 +1,116 @@
+package io.dropwizard.metrics.influxdb.utils;
+
+import io.dropwizard.metrics.influxdb.data.InfluxDbPoint;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes points using the InfluxDB line protocol, one line per point:
+ * <pre>
+ * measurement,tag=value,... field=value,... timestamp
+ * </pre>
+ * Tags are sorted by key, as recommended by InfluxDB. Fields which cannot be represented
+ * (<code>null</code>, <code>NaN</code> or infinite values) are skipped, and a point without
+ * any remaining field is skipped altogether.
+ */
+public final class InfluxDbLineProtocol {
+
+    private InfluxDbLineProtocol() {
+    }
+
+    /**
+     * Appends one point to a buffer.
+     *
+     * @param point      Point to write
+     * @param commonTags Tags to add to the point. The tags of the point take precedence.
+     * @param out        Buffer to write into
+     * @return <code>true</code> if the point has been written, <code>false</code> if it has been skipped
+     */
+    public static boolean append(InfluxDbPoint point, Map<String, String> commonTags, StringBuilder out) {
+        int start = out.length();
+        escape(point.getMeasurement(), out, false);
+        // Tags
+        Map<String, String> tags = new TreeMap<>(commonTags);
+        tags.putAll(point.getTags());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            // Empty tag values are not allowed
+            if (tag.getValue() != null && !tag.getValue().isEmpty()) {
+                out.append(',');
+                escape(tag.getKey(), out, true);
+                out.append('=');
+                escape(tag.getValue(), out, true);
+            }
+        }
+        // Fields
+        char separator = ' ';
+        for (Map.Entry<String, Object> field : point.getFields().entrySet()) {
+            int fieldStart = out.length();
+            out.append(separator);
+            escape(field.getKey(), out, true);
+            out.append('=');
+            if (appendValue(field.getValue(), out)) {
+                separator = ',';
+            } else {
+                out.setLength(fieldStart);
+            }
+        }
+        if (separator == ' ') {
+            out.setLength(start);
+            return false;
+        }
+        // Timestamp
+        if (point.getTimestamp() != null) {
+            out.append(' ').append(point.getTimestamp());
+        }
+        out.append('\n');
+        return true;
+    }
+
+    private static boolean appendValue(Object value, StringBuilder out) {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                return false;
+            }
+            out.append(d);
+        } else if (value instanceof Number) {
+            out.append(((Number) value).longValue()).append('i');
+        } else if (value instanceof Boolean) {
+            out.append(value);
+        } else {
+            out.append('"');
+            String s = value.toString();
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.append('\\');
+                }
+                out.append(c);
+            }
+            out.append('"');
+        }
+        return true;
+    }
+
+    /**
+     * Escapes commas and spaces, and also equal signs for the keys and values.
+     */
+    private static void escape(String s, StringBuilder out, boolean equals) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == ' ' || (equals && c == '=')) {
+                out.append('\\');
+            } else if (c == '\n') {
+                // New lines cannot be escaped
+                c = ' ';
+                out.append('\\');
+            }
+            out.append(c);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.metrics.influxdb;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
 import io.dropwizard.metrics.influxdb.InfluxDbHttpSender;
@@ -36,13 +37,19 @@ public class InfluxdbMetricsConfig {
 
     @Bean
     public InfluxDbSender influxdb() throws Exception {
-        return new InfluxDbHttpSender(
-                config.getHost(),
-                config.getPort(),
-                config.getDatabase(),
-                config.getUser(),
-                config.getPassword()
-        );
+        InfluxDbHttpSender sender = InfluxDbHttpSender.forServer(config.getHost(), config.getPort())
+                .database(config.getDatabase())
+                .credentials(config.getUser(), config.getPassword())
+                .maxRequestSize(config.getMaxRequestSize())
+                .queueSize(config.getQueueSize())
+                .compress(config.isCompress())
+                .build();
+        // Accounting of the points
+        registry.register("gauge.influxdb.points.written", (Gauge<Long>) sender::getWrittenPoints);
+        registry.register("gauge.influxdb.points.dropped", (Gauge<Long>) sender::getDroppedPoints);
+        registry.register("gauge.influxdb.points.failed", (Gauge<Long>) sender::getFailedPoints);
+        registry.register("gauge.influxdb.queue", (Gauge<Integer>) sender::getQueueSize);
+        return sender;
     }
 
     @Bean
@@ -52,4 +52,19 @@ public class InfluxdbMetricsConfigProperties {
      */
     private int period = 60;
 
+    /**
+     * Maximum size of one write request (in bytes, before compression)
+     */
+    private int maxRequestSize = 1024 * 1024;
+
+    /**
+     * Maximum number of reports waiting to be written. The next reports are dropped.
+     */
+    private int queueSize = 10;
+
+    /**
+     * Compressing the write requests using gzip
+     */
+    private boolean compress = true;
+
 }
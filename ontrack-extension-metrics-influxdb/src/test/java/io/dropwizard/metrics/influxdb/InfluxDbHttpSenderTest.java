@@ -0,0 +1,225 @@
+package io.dropwizard.metrics.influxdb;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.metrics.influxdb.data.InfluxDbPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the sender against a local stub of the InfluxDB write API.
+ */
+public class InfluxDbHttpSenderTest {
+
+    private HttpServer server;
+    private final List<Request> requests = Collections.synchronizedList(new ArrayList<>());
+    private volatile int status = HttpURLConnection.HTTP_NO_CONTENT;
+    private volatile CountDownLatch blocker;
+    private InfluxDbHttpSender sender;
+
+    private static class Request {
+        private final String query;
+        private final String authorization;
+        private final String encoding;
+        private final String body;
+
+        Request(String query, String authorization, String encoding, String body) {
+            this.query = query;
+            this.authorization = authorization;
+            this.encoding = encoding;
+            this.body = body;
+        }
+    }
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/write", this::write);
+        server.start();
+    }
+
+    @After
+    public void stop() throws IOException {
+        if (sender != null) {
+            sender.close();
+        }
+        server.stop(0);
+    }
+
+    private void write(HttpExchange exchange) throws IOException {
+        CountDownLatch latch = blocker;
+        if (latch != null) {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        byte[] bytes = ByteStreams.toByteArray(exchange.getRequestBody());
+        if ("gzip".equals(encoding)) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                bytes = ByteStreams.toByteArray(in);
+            }
+        }
+        String body = new String(bytes, StandardCharsets.UTF_8);
+        requests.add(new Request(
+                exchange.getRequestURI().getQuery(),
+                exchange.getRequestHeaders().getFirst("Authorization"),
+                encoding,
+                body
+        ));
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private InfluxDbHttpSender.Builder sender() {
+        return InfluxDbHttpSender.forServer("localhost", server.getAddress().getPort())
+                .database("ontrack")
+                .credentials("user", "secret");
+    }
+
+    private static InfluxDbPoint point(String name, long value) {
+        return new InfluxDbPoint(name, "1000", Collections.singletonMap("count", value));
+    }
+
+    private static void waitFor(LongSupplier count, long expected) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (count.getAsLong() < expected && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count.getAsLong());
+    }
+
+    @Test
+    public void points_written_using_line_protocol() throws Exception {
+        sender = sender().build();
+        sender.setTags(Collections.singletonMap("src", "ontrack"));
+        sender.appendPoints(point("builds", 10));
+        assertTrue(sender.hasSeriesData());
+        assertEquals(HttpURLConnection.HTTP_ACCEPTED, sender.writeData());
+        assertFalse(sender.hasSeriesData());
+        waitFor(sender::getWrittenPoints, 1);
+
+        assertEquals(1, requests.size());
+        Request request = requests.get(0);
+        assertEquals("db=ontrack&precision=ms", request.query);
+        assertEquals("Basic " + Base64.getEncoder().encodeToString("user:secret".getBytes(StandardCharsets.UTF_8)), request.authorization);
+        assertEquals("gzip", request.encoding);
+        assertEquals("builds,src=ontrack count=10i 1000\n", request.body);
+    }
+
+    @Test
+    public void points_written_without_compression() throws Exception {
+        sender = sender().compress(false).build();
+        sender.appendPoints(point("builds", 10));
+        sender.writeData();
+        waitFor(sender::getWrittenPoints, 1);
+        assertNull(requests.get(0).encoding);
+        assertEquals("builds count=10i 1000\n", requests.get(0).body);
+    }
+
+    @Test
+    public void report_split_into_several_requests() throws Exception {
+        sender = sender().maxRequestSize(100).build();
+        for (int i = 0; i < 20; i++) {
+            sender.appendPoints(point("metric" + i, i));
+        }
+        sender.writeData();
+        waitFor(sender::getWrittenPoints, 20);
+
+        assertTrue(requests.size() > 1);
+        Set<String> lines = new HashSet<>();
+        for (Request request : requests) {
+            assertTrue(request.body.length() <= 100);
+            lines.addAll(Arrays.asList(request.body.split("\n")));
+        }
+        assertEquals(20, lines.size());
+        assertTrue(lines.contains("metric7 count=7i 1000"));
+    }
+
+    @Test
+    public void reports_dropped_when_the_queue_is_full() throws Exception {
+        blocker = new CountDownLatch(1);
+        sender = sender().queueSize(1).build();
+        for (int i = 0; i < 5; i++) {
+            sender.appendPoints(point("builds", i));
+            sender.appendPoints(point("branches", i));
+            // The reporter is never blocked
+            assertEquals(HttpURLConnection.HTTP_ACCEPTED, sender.writeData());
+            if (i == 0) {
+                // Waits for the first report to be taken by the writer
+                waitFor(() -> sender.getQueueSize() == 0 ? 1 : 0, 1);
+            }
+        }
+        // One report being written, one in the queue, the others are dropped
+        blocker.countDown();
+        waitFor(sender::getWrittenPoints, 4);
+        assertEquals(6, sender.getDroppedPoints());
+        assertEquals(0, sender.getFailedPoints());
+        assertEquals(0, sender.getQueueSize());
+    }
+
+    @Test
+    public void failed_points() throws Exception {
+        status = HttpURLConnection.HTTP_BAD_REQUEST;
+        sender = sender().build();
+        sender.appendPoints(point("builds", 10));
+        sender.writeData();
+        waitFor(sender::getFailedPoints, 1);
+        assertEquals(0, sender.getWrittenPoints());
+        // The next reports are still written
+        status = HttpURLConnection.HTTP_NO_CONTENT;
+        sender.appendPoints(point("builds", 11));
+        sender.writeData();
+        waitFor(sender::getWrittenPoints, 1);
+    }
+
+    @Test
+    public void writer_still_running_after_an_unexpected_error() throws Exception {
+        sender = sender().build();
+        // A null tag key cannot be written
+        Map<String, String> tags = new HashMap<>();
+        tags.put(null, "value");
+        sender.appendPoints(new InfluxDbPoint("builds", tags, "1000", Collections.singletonMap("count", 10)));
+        sender.appendPoints(point("branches", 10));
+        sender.writeData();
+        waitFor(sender::getFailedPoints, 2);
+        // The next reports are still written
+        sender.appendPoints(point("builds", 11));
+        assertEquals(HttpURLConnection.HTTP_ACCEPTED, sender.writeData());
+        waitFor(sender::getWrittenPoints, 1);
+        assertEquals(0, sender.getDroppedPoints());
+    }
+
+    @Test
+    public void pending_points_written_on_close() throws Exception {
+        sender = sender().build();
+        sender.appendPoints(point("builds", 10));
+        sender.writeData();
+        sender.close();
+        assertEquals(1, sender.getWrittenPoints());
+        // No more points accepted
+        sender.appendPoints(point("builds", 11));
+        sender.writeData();
+        assertEquals(1, sender.getDroppedPoints());
+        sender = null;
+    }
+
+}
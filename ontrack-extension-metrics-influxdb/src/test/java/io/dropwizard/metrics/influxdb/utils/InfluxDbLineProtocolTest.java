@@ -0,0 +1,81 @@
+package io.dropwizard.metrics.influxdb.utils;
+
+import io.dropwizard.metrics.influxdb.data.InfluxDbPoint;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InfluxDbLineProtocolTest {
+
+    private static String line(InfluxDbPoint point, Map<String, String> commonTags) {
+        StringBuilder out = new StringBuilder();
+        InfluxDbLineProtocol.append(point, commonTags, out);
+        return out.toString();
+    }
+
+    @Test
+    public void field_types() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("count", 10L);
+        fields.put("mean", 1.5);
+        fields.put("ok", true);
+        fields.put("status", "say \"hello\"");
+        assertEquals(
+                "job count=10i,mean=1.5,ok=true,status=\"say \\\"hello\\\"\" 1000\n",
+                line(new InfluxDbPoint("job", "1000", fields), Collections.emptyMap())
+        );
+    }
+
+    @Test
+    public void tags_sorted_and_merged() {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("type", "sync");
+        tags.put("src", "job");
+        assertEquals(
+                "job,app=ontrack,src=job,type=sync count=1i 1000\n",
+                line(
+                        new InfluxDbPoint("job", tags, "1000", Collections.singletonMap("count", 1)),
+                        Collections.singletonMap("app", "ontrack")
+                )
+        );
+    }
+
+    @Test
+    public void escaping() {
+        assertEquals(
+                "my\\ job\\,1,my\\ tag=a\\=b my\\=field=1i 1000\n",
+                line(
+                        new InfluxDbPoint("my job,1", Collections.singletonMap("my tag", "a=b"), "1000", Collections.singletonMap("my=field", 1)),
+                        Collections.emptyMap()
+                )
+        );
+    }
+
+    @Test
+    public void invalid_fields_skipped() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("nan", Double.NaN);
+        fields.put("count", 1);
+        fields.put("none", null);
+        assertEquals(
+                "job count=1i 1000\n",
+                line(new InfluxDbPoint("job", "1000", fields), Collections.emptyMap())
+        );
+    }
+
+    @Test
+    public void point_without_fields_skipped() {
+        StringBuilder out = new StringBuilder("previous\n");
+        assertFalse(InfluxDbLineProtocol.append(
+                new InfluxDbPoint("job", "1000", Collections.singletonMap("value", Double.NaN)),
+                Collections.emptyMap(),
+                out
+        ));
+        assertEquals("previous\n", out.toString());
+    }
+
+}
@@ -16,6 +16,13 @@ public interface SCMUtilsService {
 
     <T extends SCMChangeLogFile> String diff(List<T> changeLogFiles, List<String> patterns, Function<T, String> diffFn);
 
+    /**
+     * Compiles a list of ANT-like patterns into a filter on paths.
+     *
+     * @param patterns Patterns to compile - if empty, all paths are accepted
+     * @return Filter, to be reused for all the paths to test
+     * @see net.nemerosa.ontrack.extension.scm.support.PathPatterns
+     */
     Predicate<String> getPathFilter(List<String> patterns);
 
     /**
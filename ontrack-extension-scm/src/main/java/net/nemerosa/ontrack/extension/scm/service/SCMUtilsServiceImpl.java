@@ -2,6 +2,7 @@ package net.nemerosa.ontrack.extension.scm.service;
 
 import net.nemerosa.ontrack.extension.scm.model.SCMChangeLogFile;
 import net.nemerosa.ontrack.extension.scm.model.SCMIssueCommitBranchInfo;
+import net.nemerosa.ontrack.extension.scm.support.PathPatterns;
 import net.nemerosa.ontrack.model.structure.Build;
 import net.nemerosa.ontrack.model.structure.BuildView;
 import net.nemerosa.ontrack.model.structure.StructureService;
@@ -12,7 +13,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,24 +42,7 @@ public class SCMUtilsServiceImpl implements SCMUtilsService {
 
     @Override
     public Predicate<String> getPathFilter(List<String> patterns) {
-        if (patterns == null || patterns.isEmpty()) {
-            return path -> true;
-        } else {
-            return path -> patterns.stream()
-                    .map(pattern ->
-                                    Pattern.compile(
-                                            "^" +
-                                                    pattern
-                                                            .replace("**", "$MULTI$")
-                                                            .replace("*", "$SINGLE$")
-                                                            .replace("$SINGLE$", "[^\\/]+")
-                                                            .replace("$MULTI$", ".*") +
-                                                    "$"
-                                    )
-                    ).anyMatch(
-                            pattern -> pattern.matcher(path).matches()
-                    );
-        }
+        return PathPatterns.compile(patterns);
     }
 
     @Override
@@ -0,0 +1,209 @@
+package net.nemerosa.ontrack.extension.scm.support;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Compiled matcher for a list of ANT-like path patterns, where <code>**</code> matches any sequence
+ * of characters, <code>*</code> matches at least one character in a path segment and all the other
+ * characters are matched literally.
+ * <p>
+ * All the patterns are compiled into one automaton, which is determinised lazily while paths are
+ * tested, so that a path is read only once, whatever the number of patterns. The number of
+ * cached states is bounded: past this limit, the automaton is still evaluated, but without
+ * caching any new state.
+ * <p>
+ * Instances are thread safe and are meant to be reused for all the paths of a change log.
+ */
+public final class PathPatterns implements Predicate<String> {
+
+    /**
+     * Maximum number of deterministic states being cached
+     */
+    static final int MAX_STATES = 1000;
+
+    private static final int ASCII = 128;
+
+    private static final byte LITERAL = 0;
+    private static final byte ONE_IN_SEGMENT = 1;
+    private static final byte ANY_IN_SEGMENT = 2;
+    private static final byte ANY = 3;
+    private static final byte ACCEPT = 4;
+
+    private final byte[] kinds;
+    private final char[] literals;
+    private final BitSet accepting;
+    private final ConcurrentMap<BitSet, State> states = new ConcurrentHashMap<>();
+    private final State initial;
+
+    private PathPatterns(Collection<String> patterns) {
+        int size = patterns.stream().mapToInt(pattern -> 2 * pattern.length() + 1).sum();
+        byte[] kinds = new byte[size];
+        char[] literals = new char[size];
+        BitSet starts = new BitSet(size);
+        BitSet accepting = new BitSet(size);
+        int index = 0;
+        for (String pattern : patterns) {
+            starts.set(index);
+            int length = pattern.length();
+            for (int i = 0; i < length; i++) {
+                char c = pattern.charAt(i);
+                if (c == '*') {
+                    if (i + 1 < length && pattern.charAt(i + 1) == '*') {
+                        kinds[index++] = ANY;
+                        i++;
+                    } else {
+                        kinds[index++] = ONE_IN_SEGMENT;
+                        kinds[index++] = ANY_IN_SEGMENT;
+                    }
+                } else {
+                    kinds[index] = LITERAL;
+                    literals[index++] = c;
+                }
+            }
+            accepting.set(index);
+            kinds[index++] = ACCEPT;
+        }
+        this.kinds = kinds;
+        this.literals = literals;
+        this.accepting = accepting;
+        this.initial = state(closure(starts));
+    }
+
+    /**
+     * Compiles a list of patterns.
+     *
+     * @param patterns Patterns to compile
+     * @return Filter which accepts a path if it matches at least one pattern. If no pattern
+     * is given, all paths are accepted.
+     */
+    public static Predicate<String> compile(Collection<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            return path -> true;
+        } else {
+            return new PathPatterns(patterns);
+        }
+    }
+
+    @Override
+    public boolean test(String path) {
+        State state = initial;
+        int length = path.length();
+        for (int i = 0; i < length && !state.dead; i++) {
+            state = state.next(path.charAt(i));
+        }
+        return state.accepting;
+    }
+
+    /**
+     * Number of cached states, for test purposes
+     */
+    int getStateCount() {
+        return states.size();
+    }
+
+    private State state(BitSet positions) {
+        State state = states.get(positions);
+        if (state == null) {
+            if (states.size() < MAX_STATES) {
+                State candidate = new State(positions, true);
+                state = states.putIfAbsent(positions, candidate);
+                if (state == null) {
+                    state = candidate;
+                }
+            } else {
+                state = new State(positions, false);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Adds the positions which can be reached without reading any character. Those
+     * transitions only go forward, so one pass is enough.
+     */
+    private BitSet closure(BitSet positions) {
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            if (kinds[i] == ANY || kinds[i] == ANY_IN_SEGMENT) {
+                positions.set(i + 1);
+            }
+        }
+        return positions;
+    }
+
+    private BitSet step(BitSet positions, char c) {
+        BitSet next = new BitSet(kinds.length);
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            switch (kinds[i]) {
+                case LITERAL:
+                    if (literals[i] == c) {
+                        next.set(i + 1);
+                    }
+                    break;
+                case ONE_IN_SEGMENT:
+                    if (c != '/') {
+                        next.set(i + 1);
+                    }
+                    break;
+                case ANY_IN_SEGMENT:
+                    if (c != '/') {
+                        next.set(i);
+                    }
+                    break;
+                case ANY:
+                    next.set(i);
+                    break;
+                default:
+                    // Accepting position, nothing more to read
+                    break;
+            }
+        }
+        return closure(next);
+    }
+
+    /**
+     * Deterministic state, defined by the set of positions reached in the patterns.
+     */
+    private final class State {
+
+        private final BitSet positions;
+        private final boolean cached;
+        private final boolean accepting;
+        private final boolean dead;
+        private final AtomicReferenceArray<State> asciiTransitions;
+        private final ConcurrentMap<Character, State> otherTransitions;
+
+        State(BitSet positions, boolean cached) {
+            this.positions = positions;
+            this.cached = cached;
+            this.accepting = positions.intersects(PathPatterns.this.accepting);
+            this.dead = positions.isEmpty();
+            this.asciiTransitions = cached ? new AtomicReferenceArray<>(ASCII) : null;
+            this.otherTransitions = cached ? new ConcurrentHashMap<>() : null;
+        }
+
+        State next(char c) {
+            if (!cached) {
+                return state(step(positions, c));
+            }
+            State next = c < ASCII ? asciiTransitions.get(c) : otherTransitions.get(c);
+            if (next == null) {
+                next = state(step(positions, c));
+                // Only transitions between cached states are kept, to bound the memory
+                if (next.cached) {
+                    if (c < ASCII) {
+                        asciiTransitions.set(c, next);
+                    } else {
+                        otherTransitions.put(c, next);
+                    }
+                }
+            }
+            return next;
+        }
+    }
+
+}
@@ -141,15 +141,77 @@ angular.module('ontrack.extension.scm', [
             localStorage.setItem("fileChangeFilters_" + project.id, JSON.stringify(store));
         }
 
-        function patternMatch(pattern, path) {
-            var re = pattern
-                .replace(/\*\*/g, '$MULTI$')
-                .replace(/\*/g, '$SINGLE$')
-                .replace(/\$SINGLE\$/g, '[^\/]+')
-                .replace(/\$MULTI\$/g, '.*');
-            re = '^' + re + '$';
-            var rx = new RegExp(re);
-            return rx.test(path);
+        /**
+         * Compiles an ANT-like pattern the same way as the server (see PathPatterns): `**` matches any
+         * sequence of characters, `*` matches at least one character in a path segment and all the
+         * other characters are matched literally.
+         */
+        function patternCompile(pattern) {
+            var tokens = [];
+            for (var i = 0; i < pattern.length; i++) {
+                var c = pattern.charAt(i);
+                if (c == '*') {
+                    if (pattern.charAt(i + 1) == '*') {
+                        tokens.push({kind: 'any'});
+                        i++;
+                    } else {
+                        tokens.push({kind: 'one-in-segment'});
+                        tokens.push({kind: 'any-in-segment'});
+                    }
+                } else {
+                    tokens.push({kind: 'literal', c: c});
+                }
+            }
+            return tokens;
+        }
+
+        /**
+         * Adds the positions which can be reached without reading any character
+         */
+        function patternClosure(tokens, positions) {
+            for (var i = 0; i < tokens.length; i++) {
+                if (positions[i] && (tokens[i].kind == 'any' || tokens[i].kind == 'any-in-segment')) {
+                    positions[i + 1] = true;
+                }
+            }
+            return positions;
+        }
+
+        /**
+         * Reads the path once, keeping the set of positions reached in the pattern
+         */
+        function patternMatch(tokens, path) {
+            var positions = patternClosure(tokens, {0: true});
+            for (var p = 0; p < path.length; p++) {
+                var c = path.charAt(p);
+                var next = {};
+                var alive = false;
+                for (var i = 0; i < tokens.length; i++) {
+                    if (positions[i]) {
+                        var token = tokens[i];
+                        if (token.kind == 'literal') {
+                            if (token.c == c) {
+                                next[i + 1] = alive = true;
+                            }
+                        } else if (token.kind == 'one-in-segment') {
+                            if (c != '/') {
+                                next[i + 1] = alive = true;
+                            }
+                        } else if (token.kind == 'any-in-segment') {
+                            if (c != '/') {
+                                next[i] = alive = true;
+                            }
+                        } else {
+                            next[i] = alive = true;
+                        }
+                    }
+                }
+                if (!alive) {
+                    return false;
+                }
+                positions = patternClosure(tokens, next);
+            }
+            return positions[tokens.length] === true;
         }
 
         self.initFilterConfig = function () {
@@ -243,10 +305,11 @@ angular.module('ontrack.extension.scm', [
         };
 
         self.filterFunction = function (patterns) {
+            var compiledPatterns = patterns ? patterns.map(patternCompile) : undefined;
             return function (path) {
-                if (patterns) {
-                    return patterns.some(function (pattern) {
-                        return patternMatch(pattern, path);
+                if (compiledPatterns) {
+                    return compiledPatterns.some(function (tokens) {
+                        return patternMatch(tokens, path);
                     });
                 } else {
                     return true;
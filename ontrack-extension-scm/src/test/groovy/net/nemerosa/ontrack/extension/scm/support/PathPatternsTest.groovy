@@ -0,0 +1,77 @@
+package net.nemerosa.ontrack.extension.scm.support
+
+import org.junit.Test
+
+class PathPatternsTest {
+
+    @Test
+    void 'No pattern accepts everything'() {
+        def filter = PathPatterns.compile([])
+        assert filter.test('')
+        assert filter.test('/root/package/File.java')
+    }
+
+    @Test
+    void 'Any sequence'() {
+        def filter = PathPatterns.compile(['**/*.java'])
+        assert filter.test('/root/package/File.java')
+        assert filter.test('/File.java')
+        assert !filter.test('File.java')
+        assert !filter.test('/root/package/File.groovy')
+        assert !filter.test('/root/package/File.javax')
+    }
+
+    @Test
+    void 'Single star does not cross segments'() {
+        def filter = PathPatterns.compile(['/root/*/File.java'])
+        assert filter.test('/root/package/File.java')
+        assert !filter.test('/root/package/sub/File.java')
+        assert !filter.test('/root//File.java')
+    }
+
+    @Test
+    void 'Characters are matched literally'() {
+        def filter = PathPatterns.compile(['**/*.sql'])
+        assert filter.test('/db/update.sql')
+        assert !filter.test('/db/update_sql')
+        assert PathPatterns.compile(['/a+b/[x]']).test('/a+b/[x]')
+    }
+
+    @Test
+    void 'Several patterns'() {
+        def filter = PathPatterns.compile(['**/*.java', '**/*.groovy', '/build.gradle'])
+        assert filter.test('/root/package/File.java')
+        assert filter.test('/root/package/File.groovy')
+        assert filter.test('/build.gradle')
+        assert !filter.test('/sub/build.gradle')
+        assert !filter.test('/root/package/File.sql')
+    }
+
+    @Test
+    void 'Non ASCII characters'() {
+        def filter = PathPatterns.compile(['**/é*.txt'])
+        assert filter.test('/docs/été.txt')
+        assert !filter.test('/docs/ete.txt')
+    }
+
+    @Test
+    void 'Many patterns give the same result as regular expressions'() {
+        def patterns = (1..50).collect { "**/${it}/**/*.${it}".toString() }
+        def filter = PathPatterns.compile(patterns) as PathPatterns
+        def paths = (1..2000).collect { "/a/${it % 60}/b/${it}/c.${it % 70}".toString() }
+        def expected = paths.collect { path -> patterns.any { pattern -> matches(pattern, path) } }
+        // Twice, to go through the cached states
+        2.times {
+            assert paths.collect { filter.test(it) } == expected
+        }
+        assert filter.stateCount <= PathPatterns.MAX_STATES
+    }
+
+    private static boolean matches(String pattern, String path) {
+        def regex = pattern.split(/\*\*/, -1).collect { part ->
+            part.split(/\*/, -1).collect { java.util.regex.Pattern.quote(it) }.join('[^/]+')
+        }.join('.*')
+        path ==~ regex
+    }
+
+}
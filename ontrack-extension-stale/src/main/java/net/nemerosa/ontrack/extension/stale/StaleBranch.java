@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.extension.stale;
+
+import lombok.Data;
+import net.nemerosa.ontrack.model.structure.Branch;
+
+import java.time.LocalDateTime;
+
+/**
+ * Branch which has been detected as stale, with the action to apply on it.
+ */
+@Data
+public class StaleBranch {
+
+    private final Branch branch;
+    private final LocalDateTime lastActivityTime;
+    private final StaleBranchAction action;
+
+}
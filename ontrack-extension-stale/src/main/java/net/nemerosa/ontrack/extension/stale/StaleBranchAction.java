@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.extension.stale;
+
+/**
+ * Action to apply on a stale branch.
+ */
+public enum StaleBranchAction {
+
+    /**
+     * The branch must be disabled
+     */
+    DISABLE,
+
+    /**
+     * The branch must be deleted
+     */
+    DELETE
+
+}
@@ -0,0 +1,52 @@
+package net.nemerosa.ontrack.extension.stale;
+
+import net.nemerosa.ontrack.extension.support.AbstractExtensionController;
+import net.nemerosa.ontrack.model.extension.ExtensionFeatureDescription;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import net.nemerosa.ontrack.ui.resource.Resource;
+import net.nemerosa.ontrack.ui.resource.Resources;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+
+import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
+
+@RequestMapping("extension/stale")
+@RestController
+public class StaleController extends AbstractExtensionController<StaleExtensionFeature> {
+
+    private final StaleJobService staleJobService;
+    private final StructureService structureService;
+
+    @Autowired
+    public StaleController(StaleExtensionFeature feature, StaleJobService staleJobService, StructureService structureService) {
+        super(feature);
+        this.staleJobService = staleJobService;
+        this.structureService = structureService;
+    }
+
+    @Override
+    @RequestMapping(value = "", method = RequestMethod.GET)
+    public Resource<ExtensionFeatureDescription> getDescription() {
+        return Resource.of(
+                feature.getFeatureDescription(),
+                uri(MvcUriComponentsBuilder.on(getClass()).getDescription())
+        );
+    }
+
+    /**
+     * Dry run report: list of branches of a project which would be disabled or deleted
+     */
+    @RequestMapping(value = "project/{projectId}/report", method = RequestMethod.GET)
+    public Resources<StaleBranch> getStaleBranches(@PathVariable ID projectId) {
+        return Resources.of(
+                staleJobService.getStaleBranches(structureService.getProject(projectId)),
+                uri(on(getClass()).getStaleBranches(projectId))
+        );
+    }
+
+}
@@ -2,11 +2,12 @@ package net.nemerosa.ontrack.extension.stale;
 
 import net.nemerosa.ontrack.job.JobRunListener;
 import net.nemerosa.ontrack.job.orchestrator.JobOrchestratorSupplier;
-import net.nemerosa.ontrack.model.structure.Branch;
+import net.nemerosa.ontrack.model.structure.BranchActivity;
 import net.nemerosa.ontrack.model.structure.Project;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface StaleJobService extends JobOrchestratorSupplier {
 
@@ -19,14 +20,24 @@ public interface StaleJobService extends JobOrchestratorSupplier {
     void detectAndManageStaleBranches(JobRunListener runListener, Project project);
 
     /**
-     * Applies the given retention times to the branch.
+     * Gets the list of stale branches for a project and the actions to apply on them, without
+     * applying them (dry run).
      *
-     * @param branch           Branch to manage
-     * @param disablingTime    Time before which the branch must be disabled (null if not applicable)
-     * @param deletionTime     Time before which the branch must be deleted (null if not applicable)
-     * @param promotionsToKeep List of promotions to keep (if the branch has one of those promotions, it cannot be
-     *                         disabled or removed). Note that the list might be null or empty.
+     * @param project Project to scan
+     * @return List of affected branches (empty if the project is not configured for stale branches)
      */
-    void detectAndManageStaleBranch(Branch branch, LocalDateTime disablingTime, LocalDateTime deletionTime, List<String> promotionsToKeep);
+    List<StaleBranch> getStaleBranches(Project project);
+
+    /**
+     * Computes the action to apply to a branch according to the given retention times.
+     *
+     * @param activity      Activity indicators for the branch to manage. Its <code>promoted</code> flag
+     *                      is set if the branch has one of the promotions to keep, in which case it cannot be
+     *                      disabled or removed.
+     * @param disablingTime Time before which the branch must be disabled
+     * @param deletionTime  Time before which the branch must be deleted (null if not applicable)
+     * @return Action to apply, empty if the branch must not be touched
+     */
+    Optional<StaleBranchAction> getStaleBranchAction(BranchActivity activity, LocalDateTime disablingTime, LocalDateTime deletionTime);
 
 }
@@ -1,10 +1,8 @@
 package net.nemerosa.ontrack.extension.stale;
 
+import com.google.common.collect.Lists;
 import net.nemerosa.ontrack.common.Time;
 import net.nemerosa.ontrack.job.*;
-import net.nemerosa.ontrack.model.events.Event;
-import net.nemerosa.ontrack.model.events.EventFactory;
-import net.nemerosa.ontrack.model.events.EventQueryService;
 import net.nemerosa.ontrack.model.structure.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +10,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
@@ -20,19 +21,22 @@ public class StaleJobServiceImpl implements StaleJobService {
 
     private final Logger logger = LoggerFactory.getLogger(StaleJobServiceImpl.class);
 
+    /**
+     * Maximum number of branches to disable or delete at once
+     */
+    private static final int BATCH_SIZE = 100;
+
     public static final JobType STALE_BRANCH_JOB =
             JobCategory.of("cleanup").withName("Cleanup")
                     .getType("stale-branches").withName("Stale branches cleanup");
 
     private final StructureService structureService;
     private final PropertyService propertyService;
-    private final EventQueryService eventQueryService;
 
     @Autowired
-    public StaleJobServiceImpl(StructureService structureService, PropertyService propertyService, EventQueryService eventQueryService) {
+    public StaleJobServiceImpl(StructureService structureService, PropertyService propertyService) {
         this.structureService = structureService;
         this.propertyService = propertyService;
-        this.eventQueryService = eventQueryService;
     }
 
     @Override
@@ -93,100 +97,107 @@ public class StaleJobServiceImpl implements StaleJobService {
 
     @Override
     public void detectAndManageStaleBranches(JobRunListener runListener, Project project) {
+        // Gets the stale branches for the project
+        runListener.message("Scanning %s project for stale branches", project.getName());
+        List<StaleBranch> staleBranches = getStaleBranches(project);
+        // Deletions
+        List<Branch> branchesToDelete = getBranches(staleBranches, StaleBranchAction.DELETE);
+        Lists.partition(branchesToDelete, BATCH_SIZE).forEach(branches -> {
+            runListener.message("Deleting %d stale branches in %s", branches.size(), project.getName());
+            structureService.deleteBranches(branches);
+        });
+        // Disabling
+        List<Branch> branchesToDisable = getBranches(staleBranches, StaleBranchAction.DISABLE);
+        Lists.partition(branchesToDisable, BATCH_SIZE).forEach(branches -> {
+            runListener.message("Disabling %d stale branches in %s", branches.size(), project.getName());
+            structureService.disableBranches(branches);
+        });
+    }
+
+    private List<Branch> getBranches(List<StaleBranch> staleBranches, StaleBranchAction action) {
+        return staleBranches.stream()
+                .filter(staleBranch -> staleBranch.getAction() == action)
+                .map(StaleBranch::getBranch)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<StaleBranch> getStaleBranches(Project project) {
         // Gets the stale property for the project
-        propertyService.getProperty(project, StalePropertyType.class).option().ifPresent(property -> {
-            // Disabling and deletion times
-            int disablingDuration = property.getDisablingDuration();
-            int deletionDuration = property.getDeletingDuration();
-            List<String> promotionsToKeep = property.getPromotionsToKeep();
-            if (disablingDuration <= 0) {
-                trace(project, "No disabling time being set - exiting.");
-            } else {
-                // Current time
-                LocalDateTime now = Time.now();
-                // Disabling time
-                LocalDateTime disablingTime = now.minusDays(disablingDuration);
-                // Deletion time
-                Optional<LocalDateTime> deletionTime =
-                        Optional.ofNullable(
-                                deletionDuration > 0 ?
-                                        disablingTime.minusDays(deletionDuration) :
-                                        null
-                        );
-                // Logging
-                trace(project, "Disabling time: %s", disablingTime);
-                trace(project, "Deletion time: %s", deletionTime);
-                // Going on with the scan of the project
-                runListener.message("Scanning %s project for stale branches", project.getName());
-                trace(project, "Scanning project for stale branches");
-                structureService.getBranchesForProject(project.getId()).forEach(
-                        branch -> detectAndManageStaleBranch(branch, disablingTime, deletionTime.orElse(null), promotionsToKeep)
+        return propertyService.getProperty(project, StalePropertyType.class).option()
+                .map(property -> getStaleBranches(project, property))
+                .orElse(Collections.emptyList());
+    }
+
+    protected List<StaleBranch> getStaleBranches(Project project, StaleProperty property) {
+        // Disabling and deletion times
+        int disablingDuration = property.getDisablingDuration();
+        int deletionDuration = property.getDeletingDuration();
+        List<String> promotionsToKeep = property.getPromotionsToKeep();
+        if (disablingDuration <= 0) {
+            trace(project, "No disabling time being set - exiting.");
+            return Collections.emptyList();
+        }
+        // Current time
+        LocalDateTime now = Time.now();
+        // Disabling time
+        LocalDateTime disablingTime = now.minusDays(disablingDuration);
+        // Deletion time
+        Optional<LocalDateTime> deletionTime =
+                Optional.ofNullable(
+                        deletionDuration > 0 ?
+                                disablingTime.minusDays(deletionDuration) :
+                                null
                 );
-            }
-        });
+        // Logging
+        trace(project, "Disabling time: %s", disablingTime);
+        trace(project, "Deletion time: %s", deletionTime);
+        // Going on with the scan of the project, all branches at once
+        trace(project, "Scanning project for stale branches");
+        return structureService.getBranchActivities(
+                project,
+                promotionsToKeep != null ? promotionsToKeep : Collections.emptyList()
+        ).stream()
+                .map(activity -> getStaleBranchAction(activity, disablingTime, deletionTime.orElse(null))
+                        .map(action -> new StaleBranch(activity.getBranch(), activity.getLastActivityTime(), action))
+                )
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
     }
 
     @Override
-    public void detectAndManageStaleBranch(Branch branch, LocalDateTime disablingTime, LocalDateTime deletionTime, List<String> promotionsToKeep) {
+    public Optional<StaleBranchAction> getStaleBranchAction(BranchActivity activity, LocalDateTime disablingTime, LocalDateTime deletionTime) {
+        Branch branch = activity.getBranch();
         trace(branch.getProject(), "[%s] Scanning branch for staleness", branch.getName());
         // Templates are excluded
         if (branch.getType() == BranchType.TEMPLATE_DEFINITION) {
             trace(branch.getProject(), "[%s] Branch templates are not eligible for staleness", branch.getName());
-            return;
-        }
-        // Indexation of promotion levels to protect
-        Set<String> promotionsToProtect;
-        if (promotionsToKeep != null) {
-            promotionsToProtect = new HashSet<>(promotionsToKeep);
-        } else {
-            promotionsToProtect = Collections.emptySet();
+            return Optional.empty();
         }
-        // Gets the last promotions for this branch
-        List<PromotionView> lastPromotions = structureService.getBranchStatusView(branch).getPromotions();
-        boolean isProtected = lastPromotions.stream()
-                .anyMatch(promotionView -> promotionView.getPromotionRun() != null
-                        && promotionsToProtect.contains(promotionView.getPromotionLevel().getName()));
-        if (isProtected) {
+        // Promoted branches are protected
+        if (activity.isPromoted()) {
             trace(branch.getProject(), "[%s] Branch is promoted and is not eligible for staleness", branch.getName());
-            return;
+            return Optional.empty();
         }
         // Last date
-        LocalDateTime lastTime;
-        // Last build on this branch
-        Optional<Build> oBuild = structureService.getLastBuild(branch.getId());
-        if (!oBuild.isPresent()) {
-            trace(branch.getProject(), "[%s] No available build - taking branch's creation time", branch.getName());
-            // Takes the branch creation time
-            List<Event> events = eventQueryService.getEvents(
-                    ProjectEntityType.BRANCH,
-                    branch.getId(),
-                    EventFactory.NEW_BRANCH,
-                    0,
-                    1
-            );
-            if (events.isEmpty()) {
-                trace(branch.getProject(), "[%s] No available branch creation date - keeping the branch", branch.getName());
-                lastTime = Time.now();
-            } else {
-                lastTime = events.get(0).getSignature().getTime();
-            }
-        } else {
-            Build build = oBuild.get();
-            lastTime = build.getSignature().getTime();
+        LocalDateTime lastTime = activity.getLastActivityTime();
+        if (lastTime == null) {
+            trace(branch.getProject(), "[%s] No available build or branch creation date - keeping the branch", branch.getName());
+            return Optional.empty();
         }
         // Logging
-        trace(branch.getProject(), "[%s] Branch last build activity: %s", branch.getName(), lastTime);
+        trace(branch.getProject(), "[%s] Branch last activity: %s", branch.getName(), lastTime);
         // Deletion?
         if (deletionTime != null && deletionTime.compareTo(lastTime) > 0) {
             trace(branch.getProject(), "[%s] Branch due for deletion", branch.getName());
-            structureService.deleteBranch(branch.getId());
+            return Optional.of(StaleBranchAction.DELETE);
         } else if (disablingTime.compareTo(lastTime) > 0 && !branch.isDisabled()) {
             trace(branch.getProject(), "[%s] Branch due for staleness - disabling", branch.getName());
-            structureService.saveBranch(
-                    branch.withDisabled(true)
-            );
+            return Optional.of(StaleBranchAction.DISABLE);
         } else {
             trace(branch.getProject(), "[%s] Not touching the branch", branch.getName());
+            return Optional.empty();
         }
     }
 }
@@ -3,9 +3,6 @@ package net.nemerosa.ontrack.extension.stale
 import net.nemerosa.ontrack.job.JobRegistration
 import net.nemerosa.ontrack.job.JobRunListener
 import net.nemerosa.ontrack.job.JobScheduler
-import net.nemerosa.ontrack.model.events.Event
-import net.nemerosa.ontrack.model.events.EventFactory
-import net.nemerosa.ontrack.model.events.EventQueryService
 import net.nemerosa.ontrack.model.structure.*
 import org.junit.Before
 import org.junit.Test
@@ -23,7 +20,6 @@ class StaleBranchesJobTest {
     private StalePropertyType propertyType
     private StructureService structureService
     private PropertyService propertyService
-    private EventQueryService eventQueryService
     private JobScheduler jobScheduler
     private Project project
     private Branch branch
@@ -35,7 +31,6 @@ class StaleBranchesJobTest {
     void before() {
         structureService = mock(StructureService)
         propertyService = mock(PropertyService)
-        eventQueryService = mock(EventQueryService)
         jobScheduler = mock(JobScheduler)
         propertyType = new StalePropertyType(
                 new StaleExtensionFeature()
@@ -43,8 +38,7 @@ class StaleBranchesJobTest {
 
         staleJobService = new StaleJobServiceImpl(
                 structureService,
-                propertyService,
-                eventQueryService
+                propertyService
         )
 
         project = Project.of(nd('P', '')).withId(ID.of(1))
@@ -53,18 +47,8 @@ class StaleBranchesJobTest {
         // Structure
         when(structureService.getProjectList()).thenReturn([project])
 
-        // By default, no build
-        when(structureService.getLastBuild(any(ID))).thenReturn(Optional.empty())
-
-        // Last promotions
-        when(structureService.getBranchStatusView(branch)).thenReturn(
-                new BranchStatusView(
-                        branch,
-                        [],
-                        null,
-                        []
-                )
-        )
+        // By default, no branch
+        when(structureService.getBranchActivities(any(Project), any(Collection))).thenReturn([])
 
         // Times
         now = LocalDateTime.now()
@@ -77,23 +61,17 @@ class StaleBranchesJobTest {
         // Branch template
         branch = branch.withType(BranchType.TEMPLATE_DEFINITION)
         // Branch creation for deletion (normally)
-        configureBranchCreationEvent(11)
+        def activity = branchCreation(11)
 
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
-
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService, never()).saveBranch(any(Branch))
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
     void 'Deleting a branch using last build time'() {
         // Last build for deletion
-        configureBuild(11)
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        def activity = lastBuild(11)
 
-        verify(structureService).deleteBranch(branch.id)
-        verify(structureService, never()).saveBranch(any(Branch))
+        assert staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime) == Optional.of(StaleBranchAction.DELETE)
     }
 
     @Test
@@ -101,149 +79,90 @@ class StaleBranchesJobTest {
         // Deletion time is not set
         deletingTime = null
         // Last build for deletion
-        configureBuild(11)
+        def activity = lastBuild(11)
 
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
-
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService).saveBranch(branch.withDisabled(true))
+        assert staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime) == Optional.of(StaleBranchAction.DISABLE)
     }
 
     @Test
     void 'Disabling a branch using last build time'() {
         // Last build for disabling
-        configureBuild(6)
+        def activity = lastBuild(6)
 
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        assert staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime) == Optional.of(StaleBranchAction.DISABLE)
+    }
 
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService).saveBranch(branch.withDisabled(true))
+    @Test
+    void 'Not disabling an already disabled branch'() {
+        // Disabled branch
+        branch = branch.withDisabled(true)
+        // Last build for disabling
+        def activity = lastBuild(6)
+
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
     void 'Not touching a branch using last build time'() {
         // Last build still OK
-        configureBuild(4)
+        def activity = lastBuild(4)
 
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
+    }
 
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService, never()).saveBranch(any(Branch))
+    @Test
+    void 'Last build time has precedence over the branch creation time'() {
+        // Old branch, recent build
+        def activity = new BranchActivity(branch, now.minusDays(4), now.minusDays(11), false)
+
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
     void 'Deleting a branch using branch creation time'() {
         // Configure branch for deletion
-        configureBranchCreationEvent(11)
+        def activity = branchCreation(11)
 
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
-
-        verify(structureService).deleteBranch(branch.id)
-        verify(structureService, never()).saveBranch(any(Branch))
+        assert staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime) == Optional.of(StaleBranchAction.DELETE)
     }
 
     @Test
     void 'Disabling a branch using branch creation time'() {
         // Configure branch for disabling
-        configureBranchCreationEvent(6)
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        def activity = branchCreation(6)
 
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService).saveBranch(branch.withDisabled(true))
+        assert staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime) == Optional.of(StaleBranchAction.DISABLE)
     }
 
     @Test
     void 'Not disabling a branch because of promotions'() {
-        // Configure branch for disabling
-        configureBranchCreationEvent(6)
-        // Promotion
-        configureBranchForPromotion()
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, ['PRODUCTION'])
-
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService, never()).saveBranch(any(Branch))
-    }
+        // Configure branch for disabling, with promotion
+        def activity = branchCreation(6, true)
 
-    @Test
-    void 'Disabling a branch even if promoted when not configured'() {
-        // Configure branch for disabling
-        configureBranchCreationEvent(6)
-        // Promotion
-        configureBranchForPromotion()
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
-
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService).saveBranch(branch.withDisabled(true))
-    }
-
-    public void configureBranchForPromotion() {
-        def production = PromotionLevel.of(branch, nd('PRODUCTION', ''))
-        when(structureService.getBranchStatusView(branch)).thenReturn(
-                new BranchStatusView(
-                        branch,
-                        [],
-                        null,
-                        [
-                                new PromotionView(
-                                        production,
-                                        PromotionRun.of(
-                                                Build.of(branch, nd('1', ''), Signature.of('test')),
-                                                production,
-                                                Signature.of('test'),
-                                                ''
-                                        )
-                                )
-                        ]
-                )
-        )
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
     void 'Not deleting a branch because of promotions'() {
-        // Configure branch for deletion
-        configureBranchCreationEvent(11)
-        // Promotion
-        configureBranchForPromotion()
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, ['PRODUCTION'])
-
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService, never()).saveBranch(any(Branch))
-    }
-
-    @Test
-    void 'Deleting a branch even if promoted when not configured'() {
-        // Configure branch for deletion
-        configureBranchCreationEvent(11)
-        // Promotion
-        configureBranchForPromotion()
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        // Configure branch for deletion, with promotion
+        def activity = branchCreation(11, true)
 
-        verify(structureService).deleteBranch(branch.id)
-        verify(structureService, never()).saveBranch(any(Branch))
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
     void 'Not touching a branch using branch creation time'() {
         // Configure branch for OK
-        configureBranchCreationEvent(4)
-
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        def activity = branchCreation(4)
 
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService, never()).saveBranch(any(Branch))
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
     void 'Not touching a branch when no branch creation time'() {
-        staleJobService.detectAndManageStaleBranch(branch, disablingTime, deletingTime, [])
+        def activity = new BranchActivity(branch, null, null, false)
 
-        verify(structureService, never()).deleteBranch(any(ID))
-        verify(structureService, never()).saveBranch(any(Branch))
+        assert !staleJobService.getStaleBranchAction(activity, disablingTime, deletingTime).present
     }
 
     @Test
@@ -253,7 +172,7 @@ class StaleBranchesJobTest {
         // Call
         staleJobService.detectAndManageStaleBranches({ println it } as JobRunListener, project)
         // Check
-        verify(structureService, never()).getBranchesForProject(any(ID))
+        verify(structureService, never()).getBranchActivities(any(Project), any(Collection))
     }
 
     @Test
@@ -263,7 +182,7 @@ class StaleBranchesJobTest {
         // Call
         staleJobService.detectAndManageStaleBranches({ println it } as JobRunListener, project)
         // Check
-        verify(structureService, never()).getBranchesForProject(any(ID))
+        verify(structureService, never()).getBranchActivities(any(Project), any(Collection))
     }
 
     @Test
@@ -273,7 +192,62 @@ class StaleBranchesJobTest {
         // Call
         staleJobService.detectAndManageStaleBranches(JobRunListener.out(), project)
         // Check
-        verify(structureService).getBranchesForProject(project.id)
+        verify(structureService).getBranchActivities(project, [])
+    }
+
+    @Test
+    void 'Scan for project using the promotions to keep'() {
+        // Configuration
+        configureProject(StaleProperty.create().withDisablingDuration(1).withPromotionsToKeep(['PRODUCTION']))
+        // Call
+        staleJobService.detectAndManageStaleBranches(JobRunListener.out(), project)
+        // Check
+        verify(structureService).getBranchActivities(project, ['PRODUCTION'])
+    }
+
+    @Test
+    void 'Dry run report for a project'() {
+        // Configuration
+        configureProject(StaleProperty.create().withDisablingDuration(5).withDeletingDuration(5))
+        // Branches
+        def toDelete = Branch.of(project, nd('B1', '')).withId(ID.of(1))
+        def toDisable = Branch.of(project, nd('B2', '')).withId(ID.of(2))
+        def toKeep = Branch.of(project, nd('B3', '')).withId(ID.of(3))
+        when(structureService.getBranchActivities(project, [])).thenReturn([
+                new BranchActivity(toDelete, now.minusDays(11), null, false),
+                new BranchActivity(toDisable, now.minusDays(6), null, false),
+                new BranchActivity(toKeep, now.minusDays(4), null, false),
+        ])
+        // Report
+        def report = staleJobService.getStaleBranches(project)
+        assert report.collect { it.branch.name } == ['B1', 'B2']
+        assert report.collect { it.action } == [StaleBranchAction.DELETE, StaleBranchAction.DISABLE]
+        // Dry run only
+        verify(structureService, never()).deleteBranches(any(List))
+        verify(structureService, never()).disableBranches(any(List))
+    }
+
+    @Test
+    void 'Stale branches are managed in batches'() {
+        // Configuration
+        configureProject(StaleProperty.create().withDisablingDuration(5).withDeletingDuration(5))
+        // Branches
+        def activities = (1..250).collect {
+            new BranchActivity(
+                    Branch.of(project, nd("B${it}", '')).withId(ID.of(it)),
+                    now.minusDays(it % 2 == 0 ? 11 : 6),
+                    null,
+                    false
+            )
+        }
+        when(structureService.getBranchActivities(project, [])).thenReturn(activities)
+        // Call
+        staleJobService.detectAndManageStaleBranches(JobRunListener.out(), project)
+        // Check: 125 branches to delete and 125 to disable, by batches of 100
+        verify(structureService, times(2)).deleteBranches(any(List))
+        verify(structureService, times(2)).disableBranches(any(List))
+        verify(structureService, never()).deleteBranch(any(ID))
+        verify(structureService, never()).saveBranch(any(Branch))
     }
 
     @Test
@@ -343,32 +317,12 @@ class StaleBranchesJobTest {
         when(propertyService.hasProperty(project, StalePropertyType)).thenReturn(property != null)
     }
 
-    protected def configureBranchCreationEvent(int branchAge) {
-        when(eventQueryService.getEvents(ProjectEntityType.BRANCH, branch.id, EventFactory.NEW_BRANCH, 0, 1)).thenReturn([
-                new Event(
-                        EventFactory.NEW_BRANCH,
-                        Signature.of(
-                                now.minusDays(branchAge),
-                                'test'
-                        ),
-                        [:],
-                        null,
-                        [:]
-                )
-        ])
+    protected BranchActivity branchCreation(int branchAge, boolean promoted = false) {
+        new BranchActivity(branch, null, now.minusDays(branchAge), promoted)
     }
 
-    protected def configureBuild(int buildAge) {
-        when(structureService.getLastBuild(branch.id)).thenReturn(Optional.of(
-                Build.of(
-                        branch,
-                        nd('1', ''),
-                        Signature.of(
-                                now.minusDays(buildAge),
-                                'test'
-                        )
-                )
-        ))
+    protected BranchActivity lastBuild(int buildAge) {
+        new BranchActivity(branch, now.minusDays(buildAge), null, false)
     }
 
 }
@@ -7,7 +7,6 @@ import net.nemerosa.ontrack.extension.api.model.FileDiffChangeLogRequest;
 import net.nemerosa.ontrack.extension.api.model.IssueChangeLogExportRequest;
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry;
 import net.nemerosa.ontrack.extension.issues.export.ExportFormat;
-import net.nemerosa.ontrack.extension.issues.export.ExportedIssues;
 import net.nemerosa.ontrack.extension.issues.model.ConfiguredIssueService;
 import net.nemerosa.ontrack.extension.issues.model.Issue;
 import net.nemerosa.ontrack.extension.scm.model.SCMChangeLogIssue;
@@ -38,7 +37,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -256,14 +260,14 @@ public class SVNController extends AbstractExtensionController<SVNExtensionFeatu
      * Change log export
      */
     @RequestMapping(value = "changelog/export", method = RequestMethod.GET)
-    public ResponseEntity<String> changeLog(IssueChangeLogExportRequest request) {
+    public ResponseEntity<StreamingResponseBody> changeLog(IssueChangeLogExportRequest request) {
         // Gets the change log
         SVNChangeLog changeLog = changeLogService.changeLog(request);
         // Gets the issue service
         ConfiguredIssueService configuredIssueService = changeLog.getRepository().getConfiguredIssueService();
         if (configuredIssueService == null) {
             return new ResponseEntity<>(
-                    "The branch is not configured for issues",
+                    out -> out.write("The branch is not configured for issues".getBytes(StandardCharsets.UTF_8)),
                     HttpStatus.NO_CONTENT
             );
         }
@@ -273,18 +277,21 @@ public class SVNController extends AbstractExtensionController<SVNExtensionFeatu
         List<Issue> issues = changeLogIssues.getList().stream()
                 .map(SCMChangeLogIssue::getIssue)
                 .collect(Collectors.toList());
-        // Exports the change log using the given format
-        ExportedIssues exportedChangeLogIssues = configuredIssueService.getIssueServiceExtension()
-                .exportIssues(
-                        configuredIssueService.getIssueServiceConfiguration(),
-                        issues,
-                        request
-                );
+        // Export format
+        ExportFormat exportFormat = configuredIssueService.getExportFormat(request.getFormat());
         // Content type
         HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.set("Content-Type", exportedChangeLogIssues.getFormat());
-        // Body and headers
-        return new ResponseEntity<>(exportedChangeLogIssues.getContent(), responseHeaders, HttpStatus.OK);
+        responseHeaders.set("Content-Type", exportFormat.getType() + "; charset=utf-8");
+        // Exports the change log using the given format, directly into the response
+        return new ResponseEntity<>(
+                out -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                    configuredIssueService.exportIssues(issues, request, writer);
+                    writer.flush();
+                },
+                responseHeaders,
+                HttpStatus.OK
+        );
     }
 
     /**
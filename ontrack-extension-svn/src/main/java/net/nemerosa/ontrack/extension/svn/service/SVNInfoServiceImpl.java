@@ -170,7 +170,7 @@ public class SVNInfoServiceImpl implements SVNInfoService {
 
         // Data to collect
         Collection<BuildView> buildViews = new ArrayList<>();
-        Collection<BranchStatusView> branchStatusViews = new ArrayList<>();
+        List<Build> builds = new ArrayList<>();
         // Loops over all authorised branches
         for (Project project : structureService.getProjectList()) {
             // Filter on SVN configuration: must be present and equal to the one the revision info is looked into
@@ -190,16 +190,17 @@ public class SVNInfoServiceImpl implements SVNInfoService {
                             BuildView buildView = structureService.getBuildView(build.get(), true);
                             // Adds it to the list
                             buildViews.add(buildView);
-                            // Collects the promotions for the branch
-                            branchStatusViews.add(
-                                    structureService.getEarliestPromotionsAfterBuild(build.get())
-                            );
+                            // Collects the build, for the promotions
+                            builds.add(build.get());
                         }
                     }
                 }
             }
         }
 
+        // Collects the promotions for all the branches at once
+        Collection<BranchStatusView> branchStatusViews = structureService.getEarliestPromotionsAfterBuilds(builds);
+
         // OK
         return new OntrackSVNRevisionInfo(
                 repository.getConfiguration(),
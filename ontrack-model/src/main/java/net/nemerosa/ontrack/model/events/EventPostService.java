@@ -1,5 +1,7 @@
 package net.nemerosa.ontrack.model.events;
 
+import java.util.function.Supplier;
+
 /**
  * Service used to save events.
  */
@@ -10,4 +12,17 @@ public interface EventPostService {
      */
     void post(Event event);
 
+    /**
+     * Runs some code while holding back the events it posts. At the end of the code, the events
+     * are recorded all at once and then dispatched to the listeners, in the order they were posted.
+     * If the code fails, its events are discarded.
+     * <p>
+     * Nested calls run within the outermost one.
+     *
+     * @param code Code to run
+     * @param <T>  Type of result
+     * @return Result of the code
+     */
+    <T> T batch(Supplier<T> code);
+
 }
@@ -0,0 +1,41 @@
+package net.nemerosa.ontrack.model.events;
+
+import lombok.Data;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+
+/**
+ * Notification sent to the clients connected to the live channel. It does not carry any data: the
+ * clients are expected to reload the resources they display, using their own credentials.
+ */
+@Data
+public class LiveEvent {
+
+    /**
+     * Topic for the changes in the jobs
+     */
+    public static final String JOBS = "jobs";
+
+    /**
+     * Topic for the new entries in the application log
+     */
+    public static final String LOGS = "logs";
+
+    /**
+     * Topic of the event, like <code>BRANCH/12</code> for the events about a branch or
+     * {@link #JOBS} for the job status changes.
+     */
+    private final String topic;
+
+    /**
+     * Type of event, like <code>new_build</code> or <code>job_start</code>
+     */
+    private final String type;
+
+    /**
+     * Topic of the events about a project entity
+     */
+    public static String topic(ProjectEntityType type, int id) {
+        return type.name() + "/" + id;
+    }
+
+}
@@ -0,0 +1,33 @@
+package net.nemerosa.ontrack.model.events;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Dispatching of the {@link LiveEvent live events} to the clients which have subscribed to their topics.
+ */
+public interface LiveEventService {
+
+    /**
+     * Publishes a live event. When called within a transaction, the event is dispatched only
+     * once the transaction has been committed. The dispatching itself is asynchronous.
+     */
+    void publish(LiveEvent event);
+
+    /**
+     * Subscribes to a list of topics.
+     *
+     * @param topics    Topics to listen to
+     * @param listener  Receives the events
+     * @param onDropped Called when the subscription is dropped by this service, because its listener
+     *                  fails or does not keep up with the events
+     * @return Subscription, to be cancelled when the client is gone
+     */
+    LiveEventSubscription subscribe(Collection<String> topics, Consumer<LiveEvent> listener, Runnable onDropped);
+
+    /**
+     * Number of active subscriptions
+     */
+    int getSubscriptionCount();
+
+}
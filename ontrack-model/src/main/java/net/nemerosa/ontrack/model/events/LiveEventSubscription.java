@@ -0,0 +1,14 @@
+package net.nemerosa.ontrack.model.events;
+
+/**
+ * Subscription to some {@link LiveEvent live events}.
+ */
+@FunctionalInterface
+public interface LiveEventSubscription {
+
+    /**
+     * Stops listening to the events
+     */
+    void cancel();
+
+}
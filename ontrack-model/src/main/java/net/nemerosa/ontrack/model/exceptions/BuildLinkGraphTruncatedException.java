@@ -0,0 +1,7 @@
+package net.nemerosa.ontrack.model.exceptions;
+
+public class BuildLinkGraphTruncatedException extends InputException {
+    public BuildLinkGraphTruncatedException(String project, String build, int maxSize) {
+        super("Builds of %s using %s cannot be all found within the maximum of %d build links. Reduce the depth.", project, build, maxSize);
+    }
+}
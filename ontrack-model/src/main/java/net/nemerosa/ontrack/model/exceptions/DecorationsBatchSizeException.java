@@ -0,0 +1,7 @@
+package net.nemerosa.ontrack.model.exceptions;
+
+public class DecorationsBatchSizeException extends InputException {
+    public DecorationsBatchSizeException(int size, int max) {
+        super("Decorations cannot be requested for %d entities at once, the maximum being %d.", size, max);
+    }
+}
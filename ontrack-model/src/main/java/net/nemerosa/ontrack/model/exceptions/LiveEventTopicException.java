@@ -0,0 +1,7 @@
+package net.nemerosa.ontrack.model.exceptions;
+
+public class LiveEventTopicException extends InputException {
+    public LiveEventTopicException(String topic) {
+        super("Unknown live event topic: %s", topic);
+    }
+}
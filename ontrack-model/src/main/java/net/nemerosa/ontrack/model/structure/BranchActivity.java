@@ -0,0 +1,35 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activity indicators for a branch, as used to detect stale branches.
+ */
+@Data
+public class BranchActivity {
+
+    private final Branch branch;
+    /**
+     * Creation time of the last build of the branch, <code>null</code> if the branch has no build.
+     */
+    private final LocalDateTime lastBuildTime;
+    /**
+     * Creation time of the branch, <code>null</code> if not available.
+     */
+    private final LocalDateTime creationTime;
+    /**
+     * <code>true</code> if the branch has been promoted to at least one of the requested promotion levels.
+     */
+    private final boolean promoted;
+
+    /**
+     * Time of the last activity on the branch: the last build creation time if any, or
+     * the branch creation time. Returns <code>null</code> if none is available.
+     */
+    public LocalDateTime getLastActivityTime() {
+        return lastBuildTime != null ? lastBuildTime : creationTime;
+    }
+
+}
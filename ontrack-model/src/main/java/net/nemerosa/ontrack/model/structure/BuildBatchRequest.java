@@ -0,0 +1,42 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.beans.ConstructorProperties;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Request data for the creation of a build together with all its attached records:
+ * properties, links to other builds, validation runs and promotion runs.</p>
+ * <p>If the build already exists in the branch, it is completed with the given records,
+ * so that the different steps of a pipeline can report on the same build.</p>
+ */
+@Data
+public class BuildBatchRequest {
+
+    @NotNull(message = "The build name is required.")
+    @Pattern(regexp = NameDescription.NAME, message = "The build name " + NameDescription.NAME_MESSAGE_SUFFIX)
+    private final String name;
+    private final String description;
+    private final List<PropertyCreationRequest> properties;
+    private final List<BuildLinkFormItem> links;
+    private final List<ValidationRunRequest> validationRuns;
+    private final List<PromotionRunRequest> promotionRuns;
+
+    @ConstructorProperties({"name", "description", "properties", "links", "validationRuns", "promotionRuns"})
+    public BuildBatchRequest(String name, String description, List<PropertyCreationRequest> properties, List<BuildLinkFormItem> links, List<ValidationRunRequest> validationRuns, List<PromotionRunRequest> promotionRuns) {
+        this.name = name;
+        this.description = description;
+        this.properties = properties != null ? properties : Collections.emptyList();
+        this.links = links != null ? links : Collections.emptyList();
+        this.validationRuns = validationRuns != null ? validationRuns : Collections.emptyList();
+        this.promotionRuns = promotionRuns != null ? promotionRuns : Collections.emptyList();
+    }
+
+    public NameDescription asNameDescription() {
+        return new NameDescription(name, description);
+    }
+}
@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.model.structure;
+
+/**
+ * Direction to follow when walking the build links.
+ */
+public enum BuildLinkDirection {
+
+    /**
+     * From a build to the builds it uses (links from the build)
+     */
+    DOWNSTREAM,
+
+    /**
+     * From a build to the builds which use it (links to the build)
+     */
+    UPSTREAM
+
+}
@@ -0,0 +1,41 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Builds which can be reached from a build by following the build links in one direction,
+ * up to a given depth.
+ */
+@Data
+public class BuildLinkGraph {
+
+    /**
+     * Origin of the graph
+     */
+    private final Build build;
+
+    private final BuildLinkDirection direction;
+
+    /**
+     * Maximum depth which has been explored
+     */
+    private final int depth;
+
+    /**
+     * Reached builds, sorted by depth, not including the origin
+     */
+    private final List<BuildLinkGraphNode> nodes;
+
+    /**
+     * Links between the origin and the reached builds
+     */
+    private final List<BuildLinkGraphEdge> edges;
+
+    /**
+     * <code>true</code> if the exploration has been stopped because the maximum number of links was reached
+     */
+    private final boolean truncated;
+
+}
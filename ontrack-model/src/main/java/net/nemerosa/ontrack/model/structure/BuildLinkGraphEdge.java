@@ -0,0 +1,15 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+/**
+ * Link between two builds of a {@link BuildLinkGraph}: the <code>from</code> build uses the <code>to</code> build,
+ * whatever the direction of the graph.
+ */
+@Data
+public class BuildLinkGraphEdge {
+
+    private final ID from;
+    private final ID to;
+
+}
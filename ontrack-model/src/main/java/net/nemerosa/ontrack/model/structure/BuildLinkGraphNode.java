@@ -0,0 +1,14 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+/**
+ * Build reached when walking the build links, with its distance to the origin.
+ */
+@Data
+public class BuildLinkGraphNode {
+
+    private final Build build;
+    private final int depth;
+
+}
@@ -1,6 +1,8 @@
 package net.nemerosa.ontrack.model.structure;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DecorationService {
 
@@ -12,4 +14,13 @@ public interface DecorationService {
      */
     List<Decoration<?>> getDecorations(ProjectEntity entity);
 
+    /**
+     * Gets the decorations for several entities at once, each decorator getting all the entities
+     * it applies to in one call.
+     *
+     * @param entities Entities to decorate
+     * @return Decorations per entity, in the order of the entities
+     */
+    Map<ProjectEntity, List<Decoration<?>>> getDecorations(Collection<? extends ProjectEntity> entities);
+
 }
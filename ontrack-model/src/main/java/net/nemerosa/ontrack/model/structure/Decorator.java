@@ -2,7 +2,10 @@ package net.nemerosa.ontrack.model.structure;
 
 import net.nemerosa.ontrack.model.extension.Extension;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Produces decorations
@@ -19,4 +22,21 @@ public interface Decorator<T> extends Extension {
      */
     List<Decoration<T>> getDecorations(ProjectEntity entity);
 
+    /**
+     * Gets the decorations for several entities at once.
+     * <p>
+     * By default, the entities are decorated one by one. Decorators which can get what they need
+     * for all the entities in one go should override this method.
+     *
+     * @param entities Entities to decorate
+     * @return Decorations per entity - the entities without any decoration can be omitted
+     */
+    default Map<ProjectEntity, List<Decoration<T>>> getDecorations(Collection<? extends ProjectEntity> entities) {
+        Map<ProjectEntity, List<Decoration<T>>> decorations = new LinkedHashMap<>();
+        for (ProjectEntity entity : entities) {
+            decorations.put(entity, getDecorations(entity));
+        }
+        return decorations;
+    }
+
 }
@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.model.structure;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Function;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -31,6 +32,11 @@ public interface EntityDataService {
      */
     void store(ProjectEntity entity, String key, Object value);
 
+    /**
+     * Stores several string data at once
+     */
+    void storeAll(ProjectEntity entity, Map<String, String> values);
+
     /**
      * Retrieves data as boolean
      */
@@ -0,0 +1,17 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Decorations of an entity, when several entities are decorated at once.
+ */
+@Data
+public class EntityDecorations {
+
+    private final ProjectEntityType type;
+    private final int id;
+    private final List<Decoration<?>> decorations;
+
+}
@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+/**
+ * Reference to a project entity, using its type and its ID.
+ */
+@Data
+public class ProjectEntityRef {
+
+    private final ProjectEntityType type;
+    private final int id;
+
+    public static ProjectEntityRef of(ProjectEntity entity) {
+        return new ProjectEntityRef(entity.getProjectEntityType(), entity.id());
+    }
+
+}
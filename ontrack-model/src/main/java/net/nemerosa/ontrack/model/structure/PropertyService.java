@@ -7,6 +7,7 @@ import net.nemerosa.ontrack.model.form.Form;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -109,6 +110,16 @@ public interface PropertyService {
         return deleteProperty(entity, propertyType.getName());
     }
 
+    /**
+     * Gets the values of a property for several entities at once. The entities which do not support
+     * this property, for which it cannot be seen or for which it is not defined are not part of the result.
+     *
+     * @param entities          Entities to get the property for
+     * @param propertyTypeClass Class of the property to get
+     * @return Values of the property per entity
+     */
+    <T> Map<ProjectEntity, T> getPropertyValues(Collection<? extends ProjectEntity> entities, Class<? extends PropertyType<T>> propertyTypeClass);
+
     /**
      * Searches for all entities with the corresponding property value.
      */
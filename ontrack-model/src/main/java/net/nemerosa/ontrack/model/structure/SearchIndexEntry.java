@@ -0,0 +1,42 @@
+package net.nemerosa.ontrack.model.structure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * Entry in the search index.
+ */
+@Data
+public class SearchIndexEntry {
+
+    /**
+     * Category of the entry, as defined by its {@link SearchIndexer}
+     */
+    private final String category;
+    /**
+     * Key of the entry, unique within its category
+     */
+    private final String key;
+    /**
+     * Project the entry belongs to, used to filter the entries the current user is authorised to see.
+     * <code>null</code> if the entry is not associated with any project.
+     */
+    private final ID projectId;
+    /**
+     * Value to search on
+     */
+    private final String token;
+    /**
+     * Display title
+     */
+    private final String title;
+    /**
+     * Display description
+     */
+    private final String description;
+    /**
+     * Additional data used by the indexer to build the search result. Can be <code>null</code>.
+     */
+    private final JsonNode data;
+
+}
@@ -0,0 +1,14 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+/**
+ * Entry of the search index matching a search token, with the accuracy of the match.
+ */
+@Data
+public class SearchIndexMatch {
+
+    private final SearchIndexEntry entry;
+    private final int accuracy;
+
+}
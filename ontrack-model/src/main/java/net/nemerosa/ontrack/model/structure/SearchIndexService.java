@@ -0,0 +1,52 @@
+package net.nemerosa.ontrack.model.structure;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Management of the local search index.
+ */
+public interface SearchIndexService {
+
+    /**
+     * Creates or updates an entry of the index
+     */
+    void index(SearchIndexEntry entry);
+
+    /**
+     * Creates or updates entries of the index, in one batch
+     */
+    void index(Collection<SearchIndexEntry> entries);
+
+    /**
+     * Among the given keys, gets the ones which are indexed in a category
+     */
+    Set<String> getIndexedKeys(String category, Collection<String> keys);
+
+    /**
+     * Removes an entry from the index
+     */
+    void remove(String category, String key);
+
+    /**
+     * Removes all the entries of a category whose key starts with the given prefix
+     */
+    void removeAll(String category, String keyPrefix);
+
+    /**
+     * Searches the index, the most accurate results first.
+     *
+     * @param request Token to search for and page to return. The number of results to return is
+     *                capped to {@link SearchRequest#MAX_COUNT}.
+     * @return Results the current user is authorised to see
+     */
+    SearchResults search(SearchRequest request);
+
+    /**
+     * Rebuilds the whole index from the indexers.
+     *
+     * @return Number of indexed entries
+     */
+    int rebuild();
+
+}
@@ -0,0 +1,69 @@
+package net.nemerosa.ontrack.model.structure;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.exceptions.NotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Defines a category of items to put in the search index.
+ * <p>
+ * Implementations must be declared as beans.
+ */
+public interface SearchIndexer {
+
+    /**
+     * Category of the indexed items
+     */
+    String getCategory();
+
+    /**
+     * Collects all the entries for this category, when the index is rebuilt.
+     *
+     * @param consumer Receives the entries to index
+     */
+    void indexAll(Consumer<SearchIndexEntry> consumer);
+
+    /**
+     * Updates the index after an event. Does nothing by default.
+     *
+     * @param event              Event which has been posted
+     * @param searchIndexService Service used to update the index
+     */
+    default void onEvent(Event event, SearchIndexService searchIndexService) {
+    }
+
+    /**
+     * Converts an entry of the index into a search result.
+     *
+     * @param entry    Indexed entry
+     * @param accuracy Accuracy of the match
+     * @return Search result or empty if the indexed item is not available any longer
+     */
+    Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy);
+
+    /**
+     * Converts several entries of the index into search results. By default, the entries are
+     * converted one by one using {@link #toSearchResult(SearchIndexEntry, int)}, and indexers
+     * are expected to load their items at once when possible.
+     *
+     * @param matches Matching entries of this category
+     * @return Search results, in the same order as the matches, empty for the indexed items
+     * which are not available any longer
+     */
+    default List<Optional<SearchResult>> toSearchResults(List<SearchIndexMatch> matches) {
+        return matches.stream()
+                .map(match -> {
+                    try {
+                        return toSearchResult(match.getEntry(), match.getAccuracy());
+                    } catch (NotFoundException ignored) {
+                        return Optional.<SearchResult>empty();
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+}
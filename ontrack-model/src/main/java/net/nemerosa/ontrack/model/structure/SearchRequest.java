@@ -5,6 +5,21 @@ import lombok.Data;
 @Data
 public class SearchRequest {
 
+    /**
+     * Maximum number of indexed results which can be returned at once
+     */
+    public static final int MAX_COUNT = 100;
+
     private final String token;
 
+    /**
+     * Number of indexed results to skip
+     */
+    private int offset = 0;
+
+    /**
+     * Maximum number of indexed results to return, up to {@link #MAX_COUNT}
+     */
+    private int count = 50;
+
 }
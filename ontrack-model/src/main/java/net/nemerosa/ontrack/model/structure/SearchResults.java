@@ -0,0 +1,20 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Page of search results.
+ */
+@Data
+public class SearchResults {
+
+    private final List<SearchResult> results;
+
+    /**
+     * <code>true</code> if more results can be found on the next page
+     */
+    private final boolean hasMore;
+
+}
@@ -1,9 +1,7 @@
 package net.nemerosa.ontrack.model.structure;
 
-import java.util.Collection;
-
 public interface SearchService {
 
-    Collection<SearchResult> search(SearchRequest request);
+    SearchResults search(SearchRequest request);
 
 }
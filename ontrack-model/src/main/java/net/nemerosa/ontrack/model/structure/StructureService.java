@@ -4,7 +4,9 @@ import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.buildfilter.BuildFilter;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -44,18 +46,65 @@ public interface StructureService {
 
     Ack deleteBranch(ID branchId);
 
+    /**
+     * Gets the activity indicators of all the branches of a project, computed in one go.
+     *
+     * @param project             Project to scan
+     * @param promotionLevelNames Names of the promotion levels to check for each branch (can be empty)
+     * @return List of activity indicators, one per branch
+     */
+    List<BranchActivity> getBranchActivities(Project project, Collection<String> promotionLevelNames);
+
+    /**
+     * Disables a list of branches in one go.
+     */
+    void disableBranches(List<Branch> branches);
+
+    /**
+     * Deletes a list of branches in one go.
+     */
+    Ack deleteBranches(List<Branch> branches);
+
     // Builds
 
     Build newBuild(Build build);
 
+    /**
+     * Creates a build if it does not exist yet in the branch, and records its properties, links,
+     * validation runs and promotion runs, in one transaction. The events are recorded and
+     * dispatched at the end.
+     *
+     * @param branch  Branch of the build
+     * @param request Build and its attached records
+     * @return Created or existing build
+     */
+    Build newBuildBatch(Branch branch, BuildBatchRequest request);
+
     Build saveBuild(Build build);
 
     Build getBuild(ID buildId);
 
     Optional<Build> findBuildByName(String project, String branch, String build);
 
+    /**
+     * Gets all the builds with the given name among all the projects the current user can see.
+     *
+     * @param buildName Exact name of the builds
+     * @return List of builds, the newest first
+     */
+    List<Build> findBuildsByName(String buildName);
+
     BranchStatusView getEarliestPromotionsAfterBuild(Build build);
 
+    /**
+     * Same as {@link #getEarliestPromotionsAfterBuild(Build)} for several builds at once, possibly on
+     * different branches. The promotions of all the builds are collected together.
+     *
+     * @param builds Builds to get the promotions for
+     * @return Branch status views, in the same order as the builds
+     */
+    List<BranchStatusView> getEarliestPromotionsAfterBuilds(List<Build> builds);
+
     /**
      * Finds a build on a branch whose name is the closest. It assumes that build names
      * are in a numeric format.
@@ -100,6 +149,28 @@ public interface StructureService {
 
     boolean isLinkedTo(Build build, String project, String buildPattern);
 
+    /**
+     * Gets the builds which can be reached from a build by following its links in one direction.
+     * Only the builds the current user can see are collected and followed.
+     *
+     * @param build     Origin of the graph
+     * @param direction Direction of the links to follow
+     * @param depth     Maximum number of levels to explore, bounded by the configuration
+     * @return Graph of builds, whose size is bounded by the configuration
+     */
+    BuildLinkGraph getBuildLinkGraph(Build build, BuildLinkDirection direction, int depth);
+
+    /**
+     * Gets the builds of a project which use a given build, directly or through builds of other projects.
+     *
+     * @param build   Build being used
+     * @param project Name of the project to get the builds from
+     * @param depth   Maximum number of levels to explore, bounded by the configuration
+     * @return List of builds, the closest first
+     * @throws net.nemerosa.ontrack.model.exceptions.BuildLinkGraphTruncatedException If the maximum number of links is reached
+     */
+    List<Build> getBuildsUsing(Build build, String project, int depth);
+
     /**
      * Looks for the first build which matches a given predicate.
      *
@@ -198,6 +269,15 @@ public interface StructureService {
 
     List<ValidationRun> getValidationRunsForBuildAndValidationStamp(ID buildId, ID validationStampId);
 
+    /**
+     * Gets the last status of the last validation run of each validation stamp which has been run for a build.
+     *
+     * @param build Build to get the statuses for
+     * @return Map of validation stamp IDs to the status of their last run. Validation stamps which have not been
+     * run for this build are not present in the map.
+     */
+    Map<ID, ValidationRunStatusID> getLastValidationRunStatusesForBuild(Build build);
+
     List<ValidationRun> getValidationRunsForValidationStamp(ID validationStampId, int offset, int count);
 
     ValidationRun newValidationRunStatus(ValidationRun validationRun, ValidationRunStatus runStatus);
@@ -207,4 +287,16 @@ public interface StructureService {
     Optional<Project> findProjectByName(String project);
 
     Optional<Branch> findBranchByName(String project, String branch);
+
+    // Entities
+
+    /**
+     * Loads a list of entities of the same type in bulk.
+     *
+     * @param type Type of the entities to load
+     * @param ids  IDs of the entities to load
+     * @return Map of the loaded entities, indexed by ID. Entities which do not exist or which the current
+     * user is not allowed to see are not present in the map.
+     */
+    Map<ID, ProjectEntity> getEntities(ProjectEntityType type, Collection<ID> ids);
 }
@@ -37,6 +37,11 @@ public class ApplicationLogEntry {
     @Wither(AccessLevel.PRIVATE)
     @Getter(AccessLevel.PRIVATE)
     private final Map<String, String> details;
+    /**
+     * Sequence number of the entry in the log, set when the entry is logged
+     */
+    @Wither
+    private final long sequence;
 
     public static ApplicationLogEntry error(Throwable exception, NameDescription type, String information) {
         return new ApplicationLogEntry(
@@ -46,7 +51,8 @@ public class ApplicationLogEntry {
                 type,
                 information,
                 null,
-                Collections.emptyMap()
+                Collections.emptyMap(),
+                0L
         ).withException(exception);
     }
 
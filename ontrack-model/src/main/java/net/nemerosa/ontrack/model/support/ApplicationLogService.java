@@ -19,6 +19,13 @@ public interface ApplicationLogService {
      */
     List<ApplicationLogEntry> getLogEntries(Page page);
 
+    /**
+     * List of messages whose {@linkplain ApplicationLogEntry#getSequence() sequence number} is
+     * strictly lower than the given one, the most recent first. Contrary to the offset based
+     * {@link #getLogEntries(Page)}, pages are not shifted by new messages.
+     */
+    List<ApplicationLogEntry> getLogEntriesBefore(long sequence, int count);
+
     /**
      * Logs an entry
      */
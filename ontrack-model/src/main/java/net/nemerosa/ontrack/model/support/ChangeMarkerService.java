@@ -0,0 +1,25 @@
+package net.nemerosa.ontrack.model.support;
+
+/**
+ * Provides a cheap marker of the state of Ontrack, which changes each time something which
+ * is visible through the REST resources may have changed.
+ * <p>
+ * The marker is based on the last posted event, so most changes are taken into account
+ * without any further notification. The services whose changes do not post any event
+ * must call {@link #changed()}.
+ */
+public interface ChangeMarkerService {
+
+    /**
+     * Gets the current marker
+     */
+    String getMarker();
+
+    /**
+     * Notifies a change which is not recorded as an event. When called inside a transaction,
+     * the marker changes again once this transaction completes, so that a marker read before
+     * the commit is never associated with the former state.
+     */
+    void changed();
+
+}
@@ -38,6 +38,63 @@ public class OntrackConfigProperties {
      */
     private boolean configurationTest = true;
 
+    /**
+     * Caching the decrypted configurations in memory
+     */
+    private boolean configurationCache = true;
+
+    /**
+     * Timing of the SQL statements issued by the repositories
+     */
+    private boolean sqlMonitoring = true;
+
+    /**
+     * Duration (in milliseconds) above which a SQL statement is kept in the slow query log
+     */
+    private long sqlSlowQueryThreshold = 500;
+
+    /**
+     * Maximum number of entries in the slow query log
+     */
+    private int sqlSlowQueryMaxEntries = 100;
+
+    /**
+     * ETags and conditional requests for the main REST resources
+     */
+    private boolean etag = true;
+
+    /**
+     * Period (in seconds) after which the ETags are renewed even if nothing has changed in Ontrack,
+     * so that the decorations computed from external systems get refreshed. 0 to disable.
+     */
+    private int etagPeriod = 60;
+
+    /**
+     * Maximum depth when walking the build links
+     */
+    private int buildLinkGraphMaxDepth = 10;
+
+    /**
+     * Maximum number of links, and therefore of builds, returned when walking the build links
+     */
+    private int buildLinkGraphMaxSize = 1000;
+
+    /**
+     * Duration (in seconds) after which a connection to the live events is closed. The clients
+     * reconnect automatically.
+     */
+    private int liveEventsTimeout = 600;
+
+    /**
+     * Maximum time (in seconds) to wait for each of the issue services of a combined issue service
+     */
+    private int combinedIssueServiceTimeout = 30;
+
+    /**
+     * Number of threads used to query the issue services of the combined issue services in parallel
+     */
+    private int combinedIssueServiceThreads = 8;
+
     /**
      * Job configuration
      */
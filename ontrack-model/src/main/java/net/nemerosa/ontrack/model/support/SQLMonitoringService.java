@@ -0,0 +1,26 @@
+package net.nemerosa.ontrack.model.support;
+
+import java.util.List;
+
+/**
+ * Access to the log of the SQL statements which took longer than the
+ * {@linkplain OntrackConfigProperties#getSqlSlowQueryThreshold() configured threshold}.
+ */
+public interface SQLMonitoringService {
+
+    /**
+     * Number of entries in the slow query log
+     */
+    int getSlowQueriesTotal();
+
+    /**
+     * Slow queries, the most recent first
+     */
+    List<SlowQuery> getSlowQueries(Page page);
+
+    /**
+     * Clears the slow query log
+     */
+    void clearSlowQueries();
+
+}
@@ -0,0 +1,20 @@
+package net.nemerosa.ontrack.model.support;
+
+/**
+ * Receives the execution time of the SQL statements issued by the JDBC repositories.
+ * <p>
+ * This is called synchronously, in the thread which executed the statement, so
+ * implementations must be cheap.
+ */
+public interface SQLStatementMonitor {
+
+    /**
+     * Records the execution of a statement.
+     *
+     * @param repository    Class of the repository which issued the statement
+     * @param sql           SQL of the statement, <code>null</code> if not available
+     * @param durationNanos Execution time, in nanoseconds
+     */
+    void record(Class<?> repository, String sql, long durationNanos);
+
+}
@@ -0,0 +1,21 @@
+package net.nemerosa.ontrack.model.support;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry in the slow query log.
+ */
+@Data
+public class SlowQuery {
+
+    /**
+     * Identifier of the statement, as <code>Repository.method</code>
+     */
+    private final String statement;
+    private final String sql;
+    private final long durationMs;
+    private final LocalDateTime timestamp;
+
+}
@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.model.support;
 import com.fasterxml.jackson.databind.JsonNode;
 import net.nemerosa.ontrack.json.JsonUtils;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +23,14 @@ public interface StorageService {
      */
     void storeJson(String store, String key, JsonNode node);
 
+    /**
+     * Stores several JSON data at once
+     *
+     * @param store Store (typically an extension class name)
+     * @param data  Data to store, indexed by key (null values to delete)
+     */
+    void storeAllJson(String store, Map<String, JsonNode> data);
+
     /**
      * Retrieves some JSON using a key
      *
@@ -56,6 +65,18 @@ public interface StorageService {
         storeJson(store, key, JsonUtils.format(data));
     }
 
+    /**
+     * Stores several objects at once after having formatted them in JSON
+     *
+     * @param store Store (typically an extension class name)
+     * @param data  Data to store, indexed by key (null values to delete)
+     */
+    default void storeAll(String store, Map<String, ?> data) {
+        Map<String, JsonNode> nodes = new LinkedHashMap<>();
+        data.forEach((key, value) -> nodes.put(key, JsonUtils.format(value)));
+        storeAllJson(store, nodes);
+    }
+
     /**
      * Retrieves some data using a key
      *
@@ -3,9 +3,11 @@ package net.nemerosa.ontrack.repository;
 import net.nemerosa.ontrack.model.structure.ProjectEntity;
 import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -18,33 +20,38 @@ public class EntityDataJdbcRepository extends AbstractJdbcRepository implements
 
     @Override
     public void store(ProjectEntity entity, String key, String value) {
-        // Existing?
-        Optional<Integer> existingId = getOptional(
-                String.format(
-                        "SELECT ID FROM ENTITY_DATA WHERE %s = :entityId AND NAME = :name",
-                        entity.getProjectEntityType().name()
-                ),
-                params("entityId", entity.id()).addValue("name", key),
-                Integer.class
+        getNamedParameterJdbcTemplate().update(
+                getMergeSql(entity),
+                params("entityId", entity.id())
+                        .addValue("name", key)
+                        .addValue("value", value)
         );
-        if (existingId.isPresent()) {
-            getNamedParameterJdbcTemplate().update(
-                    "UPDATE ENTITY_DATA SET VALUE = :value WHERE ID = :id",
-                    params("id", existingId.get()).addValue("value", value)
-            );
-        } else {
-            getNamedParameterJdbcTemplate().update(
-                    String.format(
-                            "INSERT INTO ENTITY_DATA(%s, NAME, VALUE) VALUES (:entityId, :name, :value)",
-                            entity.getProjectEntityType().name()
-                    ),
-                    params("entityId", entity.id())
-                            .addValue("name", key)
-                            .addValue("value", value)
+    }
+
+    @Override
+    public void storeAll(ProjectEntity entity, Map<String, String> values) {
+        if (!values.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(
+                    getMergeSql(entity),
+                    values.entrySet().stream()
+                            .map(entry -> params("entityId", entity.id())
+                                    .addValue("name", entry.getKey())
+                                    .addValue("value", entry.getValue())
+                            )
+                            .toArray(MapSqlParameterSource[]::new)
             );
         }
     }
 
+    private String getMergeSql(ProjectEntity entity) {
+        String column = entity.getProjectEntityType().name();
+        return String.format(
+                "MERGE INTO ENTITY_DATA(%s, NAME, VALUE) KEY (%s, NAME) VALUES (:entityId, :name, :value)",
+                column,
+                column
+        );
+    }
+
     @Override
     public Optional<String> retrieve(ProjectEntity entity, String key) {
         return getOptional(
@@ -32,32 +32,61 @@ public class EventJdbcRepository extends AbstractJdbcRepository implements Event
 
     @Override
     public void post(Event event) {
+        getNamedParameterJdbcTemplate().update(
+                getInsertSql(event),
+                getInsertParams(event)
+        );
+    }
+
+    @Override
+    public void post(List<Event> events) {
+        // Consecutive events sharing the same statement are inserted in one batch,
+        // so that the order of the events is preserved
+        int start = 0;
+        while (start < events.size()) {
+            String sql = getInsertSql(events.get(start));
+            int end = start + 1;
+            while (end < events.size() && sql.equals(getInsertSql(events.get(end)))) {
+                end++;
+            }
+            if (end - start == 1) {
+                getNamedParameterJdbcTemplate().update(sql, getInsertParams(events.get(start)));
+            } else {
+                getNamedParameterJdbcTemplate().batchUpdate(
+                        sql,
+                        events.subList(start, end).stream()
+                                .map(this::getInsertParams)
+                                .toArray(MapSqlParameterSource[]::new)
+                );
+            }
+            start = end;
+        }
+    }
+
+    private String getInsertSql(Event event) {
         StringBuilder sql = new StringBuilder("INSERT INTO EVENTS(EVENT_VALUES, EVENT_TIME, EVENT_USER, EVENT_TYPE, REF");
+        for (ProjectEntityType type : event.getEntities().keySet()) {
+            sql.append(", ").append(type.name());
+        }
+        sql.append(") VALUES (:eventValues, :eventTime, :eventUser, :eventType, :ref");
+        for (ProjectEntityType type : event.getEntities().keySet()) {
+            sql.append(", :").append(type.name().toLowerCase());
+        }
+        sql.append(")");
+        return sql.toString();
+    }
 
+    private MapSqlParameterSource getInsertParams(Event event) {
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("eventValues", writeJson(event.getValues()));
         params.addValue("eventTime", dateTimeForDB(event.getSignature().getTime()));
         params.addValue("eventUser", event.getSignature().getUser().getName());
         params.addValue("eventType", event.getEventType().getId());
         params.addValue("ref", event.getRef() != null ? event.getRef().name() : null);
-
-        for (ProjectEntityType type : event.getEntities().keySet()) {
-            sql.append(", ").append(type.name());
-        }
-        sql.append(") VALUES (:eventValues, :eventTime, :eventUser, :eventType, :ref");
         for (Map.Entry<ProjectEntityType, ProjectEntity> entry : event.getEntities().entrySet()) {
-            ProjectEntityType type = entry.getKey();
-            ProjectEntity entity = entry.getValue();
-            String typeEntry = type.name().toLowerCase();
-            sql.append(", :").append(typeEntry);
-            params.addValue(typeEntry, entity.id());
+            params.addValue(entry.getKey().name().toLowerCase(), entry.getValue().id());
         }
-        sql.append(")");
-
-        getNamedParameterJdbcTemplate().update(
-                sql.toString(),
-                params
-        );
+        return params;
     }
 
     @Override
@@ -131,6 +160,12 @@ public class EventJdbcRepository extends AbstractJdbcRepository implements Event
         );
     }
 
+    @Override
+    public int getLastEventId() {
+        Integer id = getFirstItem("SELECT MAX(ID) FROM EVENTS", noParams(), Integer.class);
+        return id != null ? id : 0;
+    }
+
     private Event toEvent(ResultSet rs,
                           BiFunction<ProjectEntityType, ID, ProjectEntity> entityLoader,
                           Function<String, EventType> eventTypeLoader) throws SQLException {
@@ -16,8 +16,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Repository
 public class PropertyJdbcRepository extends AbstractJdbcRepository implements PropertyRepository {
@@ -39,6 +42,21 @@ public class PropertyJdbcRepository extends AbstractJdbcRepository implements Pr
         );
     }
 
+    @Override
+    public List<TProperty> loadProperties(String typeName, ProjectEntityType entityType, Collection<ID> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return getNamedParameterJdbcTemplate().query(
+                String.format(
+                        "SELECT * FROM PROPERTIES WHERE TYPE = :type AND %s IN (:entityIds)",
+                        entityType.name()
+                ),
+                params("type", typeName).addValue("entityIds", entityIds.stream().map(ID::get).collect(Collectors.toSet())),
+                (rs, rowNum) -> toProperty(rs)
+        );
+    }
+
     @Override
     public void saveProperty(String typeName, ProjectEntityType entityType, ID entityId, JsonNode data, String searchKey) {
         MapSqlParameterSource params = params("type", typeName).addValue("entityId", entityId.getValue());
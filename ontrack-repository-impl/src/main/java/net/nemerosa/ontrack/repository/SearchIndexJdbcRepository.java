@@ -0,0 +1,185 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.structure.SearchIndexEntry;
+import net.nemerosa.ontrack.model.structure.SearchIndexMatch;
+import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public class SearchIndexJdbcRepository extends AbstractJdbcRepository implements SearchIndexRepository {
+
+    private static final int ACCURACY_EXACT = 100;
+    private static final int ACCURACY_PREFIX = 80;
+
+    @Autowired
+    public SearchIndexJdbcRepository(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public void save(Collection<SearchIndexEntry> entries, int generation) {
+        if (!entries.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(
+                    "MERGE INTO SEARCH_INDEX(CATEGORY, ENTRY_KEY, PROJECTID, TOKEN, TITLE, DESCRIPTION, DATA, GENERATION) " +
+                            "KEY (CATEGORY, ENTRY_KEY) " +
+                            "VALUES (:category, :key, :projectId, :token, :title, :description, :data, :generation)",
+                    entries.stream()
+                            .map(entry -> params("category", entry.getCategory())
+                                    .addValue("key", entry.getKey())
+                                    .addValue("projectId", entry.getProjectId() != null ? entry.getProjectId().get() : null)
+                                    .addValue("token", StringUtils.abbreviate(StringUtils.lowerCase(entry.getToken()), 400))
+                                    .addValue("title", StringUtils.abbreviate(entry.getTitle(), 400))
+                                    .addValue("description", StringUtils.abbreviate(entry.getDescription(), 500))
+                                    .addValue("data", entry.getData() != null ? writeJson(entry.getData()) : null)
+                                    .addValue("generation", generation)
+                            )
+                            .toArray(MapSqlParameterSource[]::new)
+            );
+        }
+    }
+
+    @Override
+    public int getLastGeneration() {
+        return getJdbcTemplate().queryForObject("SELECT COALESCE(MAX(GENERATION), 0) FROM SEARCH_INDEX", Integer.class);
+    }
+
+    @Override
+    public void deleteOlderGenerations(String category, int generation) {
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM SEARCH_INDEX WHERE CATEGORY = :category AND GENERATION < :generation",
+                params("category", category).addValue("generation", generation)
+        );
+    }
+
+    @Override
+    public boolean exists(String category, String key) {
+        return getFirstItem(
+                "SELECT ID FROM SEARCH_INDEX WHERE CATEGORY = :category AND ENTRY_KEY = :key",
+                params("category", category).addValue("key", key),
+                Integer.class
+        ) != null;
+    }
+
+    @Override
+    public Set<String> getExistingKeys(String category, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(
+                getNamedParameterJdbcTemplate().queryForList(
+                        "SELECT ENTRY_KEY FROM SEARCH_INDEX WHERE CATEGORY = :category AND ENTRY_KEY IN (:keys)",
+                        params("category", category).addValue("keys", keys),
+                        String.class
+                )
+        );
+    }
+
+    @Override
+    public void delete(String category, String key) {
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM SEARCH_INDEX WHERE CATEGORY = :category AND ENTRY_KEY = :key",
+                params("category", category).addValue("key", key)
+        );
+    }
+
+    @Override
+    public void deleteByKeyPrefix(String category, String keyPrefix) {
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM SEARCH_INDEX WHERE CATEGORY = :category AND ENTRY_KEY LIKE :prefix",
+                params("category", category).addValue("prefix", escapeLike(keyPrefix) + "%")
+        );
+    }
+
+    @Override
+    public void deleteCategory(String category) {
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM SEARCH_INDEX WHERE CATEGORY = :category",
+                params("category", category)
+        );
+    }
+
+    @Override
+    public int count() {
+        return getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM SEARCH_INDEX", Integer.class);
+    }
+
+    @Override
+    public List<SearchIndexMatch> search(String token, Collection<Integer> projectIds, int offset, int count) {
+        // Leading wildcards would prevent the use of the index
+        String normalizedToken = StringUtils.stripStart(StringUtils.lowerCase(StringUtils.trim(token)), "*");
+        if (StringUtils.isEmpty(normalizedToken)) {
+            return Collections.emptyList();
+        }
+        // The fixed part of the token gives the range of the index to scan
+        String prefix = StringUtils.substringBefore(normalizedToken, "*");
+        String pattern = toLikePattern(normalizedToken);
+        MapSqlParameterSource params = params("from", prefix)
+                .addValue("to", prefix + Character.MAX_VALUE)
+                .addValue("exact", pattern)
+                .addValue("prefix", pattern + "%")
+                .addValue("offset", offset)
+                .addValue("count", count);
+        StringBuilder sql = new StringBuilder(
+                "SELECT *, " +
+                        String.format("CASE WHEN TOKEN LIKE :exact THEN %d ELSE %d END AS ACCURACY ", ACCURACY_EXACT, ACCURACY_PREFIX) +
+                        "FROM SEARCH_INDEX " +
+                        "WHERE TOKEN >= :from AND TOKEN <= :to AND TOKEN LIKE :prefix"
+        );
+        if (projectIds.isEmpty()) {
+            sql.append(" AND PROJECTID IS NULL");
+        } else {
+            sql.append(" AND (PROJECTID IS NULL OR PROJECTID IN (:projectIds))");
+            params.addValue("projectIds", projectIds);
+        }
+        sql.append(" ORDER BY ACCURACY DESC, ID DESC LIMIT :count OFFSET :offset");
+        return getNamedParameterJdbcTemplate().query(
+                sql.toString(),
+                params,
+                (rs, num) -> new SearchIndexMatch(
+                        toSearchIndexEntry(rs),
+                        rs.getInt("ACCURACY")
+                )
+        );
+    }
+
+    private SearchIndexEntry toSearchIndexEntry(ResultSet rs) throws SQLException {
+        int projectId = rs.getInt("PROJECTID");
+        boolean noProject = rs.wasNull();
+        return new SearchIndexEntry(
+                rs.getString("CATEGORY"),
+                rs.getString("ENTRY_KEY"),
+                noProject ? null : id(projectId),
+                rs.getString("TOKEN"),
+                rs.getString("TITLE"),
+                rs.getString("DESCRIPTION"),
+                readJson(rs, "DATA")
+        );
+    }
+
+    /**
+     * Escapes the LIKE special characters of the token and converts the <code>*</code> wildcards.
+     */
+    private static String toLikePattern(String token) {
+        return escapeLike(token).replace("*", "%");
+    }
+
+    private static String escapeLike(String value) {
+        return StringUtils.defaultString(value)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+}
@@ -2,13 +2,34 @@ package net.nemerosa.ontrack.repository;
 
 import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Repository
 public class StatsJdbcRepository extends AbstractJdbcRepository implements StatsRepository {
 
+    /**
+     * Tables having a counter in <code>ENTITY_COUNTS</code>
+     */
+    private static final List<String> COUNTED_TABLES = Arrays.asList(
+            "PROJECTS",
+            "BRANCHES",
+            "BUILDS",
+            "PROMOTION_LEVELS",
+            "PROMOTION_RUNS",
+            "VALIDATION_STAMPS",
+            "VALIDATION_RUNS",
+            "VALIDATION_RUN_STATUSES",
+            "PROPERTIES",
+            "EVENTS"
+    );
+
     @Autowired
     public StatsJdbcRepository(DataSource dataSource) {
         super(dataSource);
@@ -16,80 +37,83 @@ public class StatsJdbcRepository extends AbstractJdbcRepository implements Stats
 
     @Override
     public int getProjectCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM PROJECTS",
-                Integer.class
-        );
+        return getCount("PROJECTS");
     }
 
     @Override
     public int getBranchCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM BRANCHES",
-                Integer.class
-        );
+        return getCount("BRANCHES");
     }
 
     @Override
     public int getBuildCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM BUILDS",
-                Integer.class
-        );
+        return getCount("BUILDS");
     }
 
     @Override
     public int getPromotionLevelCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM PROMOTION_LEVELS",
-                Integer.class
-        );
+        return getCount("PROMOTION_LEVELS");
     }
 
     @Override
     public int getPromotionRunCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM PROMOTION_RUNS",
-                Integer.class
-        );
+        return getCount("PROMOTION_RUNS");
     }
 
     @Override
     public int getValidationStampCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM VALIDATION_STAMPS",
-                Integer.class
-        );
+        return getCount("VALIDATION_STAMPS");
     }
 
     @Override
     public int getValidationRunCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM VALIDATION_RUNS",
-                Integer.class
-        );
+        return getCount("VALIDATION_RUNS");
     }
 
     @Override
     public int getValidationRunStatusCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM VALIDATION_RUN_STATUSES",
-                Integer.class
-        );
+        return getCount("VALIDATION_RUN_STATUSES");
     }
 
     @Override
     public int getPropertyCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM PROPERTIES",
-                Integer.class
-        );
+        return getCount("PROPERTIES");
     }
 
     @Override
     public int getEventCount() {
-        return getJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM EVENTS",
+        return getCount("EVENTS");
+    }
+
+    @Override
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        //noinspection RedundantCast
+        getJdbcTemplate().query(
+                "SELECT NAME, SUM(COUNTER) AS TOTAL FROM ENTITY_COUNTS GROUP BY NAME",
+                (RowCallbackHandler) rs -> counts.put(rs.getString("NAME"), rs.getInt("TOTAL"))
+        );
+        return counts;
+    }
+
+    @Override
+    public void reconcileCounts() {
+        for (String table : COUNTED_TABLES) {
+            // One statement per table, so that the counter is never seen partially reset
+            getNamedParameterJdbcTemplate().update(
+                    String.format(
+                            "UPDATE ENTITY_COUNTS SET COUNTER = CASE WHEN SLOT = 0 THEN (SELECT COUNT(*) FROM %s) ELSE 0 END WHERE NAME = :name",
+                            table
+                    ),
+                    params("name", table)
+            );
+        }
+    }
+
+    private int getCount(String table) {
+        return getNamedParameterJdbcTemplate().queryForObject(
+                "SELECT COALESCE(SUM(COUNTER), 0) FROM ENTITY_COUNTS WHERE NAME = :name",
+                params("name", table),
                 Integer.class
         );
     }
@@ -8,6 +8,7 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,9 @@ import java.util.Optional;
 @Repository
 public class StorageJdbcRepository extends AbstractJdbcRepository implements StorageRepository {
 
+    private static final String MERGE_SQL = "MERGE INTO STORAGE(STORE, NAME, DATA) KEY (STORE, NAME) VALUES (:store, :key, :data)";
+    private static final String DELETE_SQL = "DELETE FROM STORAGE WHERE STORE = :store AND NAME = :key";
+
     @Autowired
     public StorageJdbcRepository(DataSource dataSource) {
         super(dataSource);
@@ -24,17 +28,36 @@ public class StorageJdbcRepository extends AbstractJdbcRepository implements Sto
     @Override
     public void storeJson(String store, String key, JsonNode node) {
         MapSqlParameterSource params = params("store", store).addValue("key", key);
-        // Deleting first
-        getNamedParameterJdbcTemplate().update(
-                "DELETE FROM STORAGE WHERE STORE = :store AND NAME = :key",
-                params
-        );
-        // Inserting if not null
         if (node != null) {
             getNamedParameterJdbcTemplate().update(
-                    "INSERT INTO STORAGE(STORE, NAME, DATA) VALUES (:store, :key, :data)",
+                    MERGE_SQL,
                     params.addValue("data", writeJson(node))
             );
+        } else {
+            getNamedParameterJdbcTemplate().update(
+                    DELETE_SQL,
+                    params
+            );
+        }
+    }
+
+    @Override
+    public void storeAllJson(String store, Map<String, JsonNode> data) {
+        List<MapSqlParameterSource> merges = new ArrayList<>();
+        List<MapSqlParameterSource> deletions = new ArrayList<>();
+        data.forEach((key, node) -> {
+            MapSqlParameterSource params = params("store", store).addValue("key", key);
+            if (node != null) {
+                merges.add(params.addValue("data", writeJson(node)));
+            } else {
+                deletions.add(params);
+            }
+        });
+        if (!merges.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(MERGE_SQL, merges.toArray(new MapSqlParameterSource[merges.size()]));
+        }
+        if (!deletions.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(DELETE_SQL, deletions.toArray(new MapSqlParameterSource[deletions.size()]));
         }
     }
 
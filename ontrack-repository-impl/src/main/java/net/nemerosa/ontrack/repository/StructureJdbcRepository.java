@@ -2,6 +2,7 @@ package net.nemerosa.ontrack.repository;
 
 import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.model.Ack;
+import net.nemerosa.ontrack.model.events.EventFactory;
 import net.nemerosa.ontrack.model.exceptions.*;
 import net.nemerosa.ontrack.model.structure.*;
 import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
@@ -9,20 +10,37 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 @Repository
 public class StructureJdbcRepository extends AbstractJdbcRepository implements StructureRepository {
 
+    /**
+     * Number of attempts to insert a validation run when its run order is taken concurrently.
+     */
+    private static final int MAX_RUN_ORDER_ATTEMPTS = 3;
+
     private final BranchTemplateRepository branchTemplateRepository;
 
     @Autowired
@@ -178,6 +196,95 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public List<BranchActivity> getBranchActivities(Project project, Collection<String> promotionLevelNames) {
+        boolean checkPromotions = promotionLevelNames != null && !promotionLevelNames.isEmpty();
+        MapSqlParameterSource params = params("projectId", project.id())
+                .addValue("newBranch", EventFactory.NEW_BRANCH.getId());
+        if (checkPromotions) {
+            params.addValue("promotionLevelNames", promotionLevelNames);
+        }
+        return getNamedParameterJdbcTemplate().query(
+                "SELECT BR.*, " +
+                        "BTD.BRANCHID AS TEMPLATE_DEFINITION, " +
+                        "BTI.BRANCHID AS TEMPLATE_INSTANCE, " +
+                        "LB.CREATION AS LAST_BUILD_CREATION, " +
+                        "EV.EVENT_TIME AS BRANCH_CREATION, " +
+                        (checkPromotions ? "PRB.BRANCHID AS PROMOTED " : "NULL AS PROMOTED ") +
+                        "FROM BRANCHES BR " +
+                        "LEFT JOIN BRANCH_TEMPLATE_DEFINITIONS BTD ON BTD.BRANCHID = BR.ID " +
+                        "LEFT JOIN BRANCH_TEMPLATE_INSTANCES BTI ON BTI.BRANCHID = BR.ID " +
+                        // Last build per branch
+                        "LEFT JOIN (" +
+                        "  SELECT B.BRANCHID, MAX(B.ID) AS BUILDID FROM BUILDS B " +
+                        "  INNER JOIN BRANCHES BB ON BB.ID = B.BRANCHID " +
+                        "  WHERE BB.PROJECTID = :projectId " +
+                        "  GROUP BY B.BRANCHID" +
+                        ") LBI ON LBI.BRANCHID = BR.ID " +
+                        "LEFT JOIN BUILDS LB ON LB.ID = LBI.BUILDID " +
+                        // Branch creation event
+                        "LEFT JOIN (" +
+                        "  SELECT E.BRANCH, MAX(E.ID) AS EVENTID FROM EVENTS E " +
+                        "  INNER JOIN BRANCHES EB ON EB.ID = E.BRANCH " +
+                        "  WHERE EB.PROJECTID = :projectId AND E.EVENT_TYPE = :newBranch " +
+                        "  GROUP BY E.BRANCH" +
+                        ") EVI ON EVI.BRANCH = BR.ID " +
+                        "LEFT JOIN EVENTS EV ON EV.ID = EVI.EVENTID " +
+                        // Promoted branches
+                        (checkPromotions ?
+                                "LEFT JOIN (" +
+                                        "  SELECT DISTINCT PL.BRANCHID FROM PROMOTION_RUNS PR " +
+                                        "  INNER JOIN PROMOTION_LEVELS PL ON PL.ID = PR.PROMOTIONLEVELID " +
+                                        "  INNER JOIN BRANCHES PB ON PB.ID = PL.BRANCHID " +
+                                        "  WHERE PB.PROJECTID = :projectId AND PL.NAME IN (:promotionLevelNames)" +
+                                        ") PRB ON PRB.BRANCHID = BR.ID " :
+                                "") +
+                        "WHERE BR.PROJECTID = :projectId " +
+                        "ORDER BY BR.NAME",
+                params,
+                (rs, rowNum) -> {
+                    BranchType type;
+                    if (rs.getObject("template_definition") != null) {
+                        type = BranchType.TEMPLATE_DEFINITION;
+                    } else if (rs.getObject("template_instance") != null) {
+                        type = BranchType.TEMPLATE_INSTANCE;
+                    } else {
+                        type = BranchType.CLASSIC;
+                    }
+                    return new BranchActivity(
+                            toBranch(rs, id -> project, type),
+                            dateTimeFromDB(rs.getString("last_build_creation")),
+                            dateTimeFromDB(rs.getString("branch_creation")),
+                            rs.getObject("promoted") != null
+                    );
+                }
+        );
+    }
+
+    @Override
+    public void disableBranches(Collection<ID> branchIds) {
+        if (!branchIds.isEmpty()) {
+            getNamedParameterJdbcTemplate().update(
+                    "UPDATE BRANCHES SET DISABLED = TRUE WHERE ID IN (:ids)",
+                    params("ids", branchIds.stream().map(ID::get).collect(Collectors.toList()))
+            );
+        }
+    }
+
+    @Override
+    public Ack deleteBranches(Collection<ID> branchIds) {
+        if (branchIds.isEmpty()) {
+            return Ack.OK;
+        } else {
+            return Ack.validate(
+                    getNamedParameterJdbcTemplate().update(
+                            "DELETE FROM BRANCHES WHERE ID IN (:ids)",
+                            params("ids", branchIds.stream().map(ID::get).collect(Collectors.toList()))
+                    ) == branchIds.size()
+            );
+        }
+    }
+
     @Override
     public void builds(Branch branch, Predicate<Build> buildPredicate, BuildSortDirection sortDirection) {
         String order = sortDirection == BuildSortDirection.FROM_NEWEST ? "DESC" : "ASC";
@@ -208,12 +315,13 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
                 params("projectId", project.id()),
                 ps -> {
                     ResultSet rs = ps.executeQuery();
+                    Map<ID, Branch> branches = new HashMap<>();
                     boolean goingOn = true;
                     while (rs.next() && goingOn) {
                         // Gets the builds
                         Build build = toBuild(
                                 rs,
-                                this::getBranch
+                                id -> branches.computeIfAbsent(id, this::getBranch)
                         );
                         // Dealing with this build
                         goingOn = buildPredicate.test(build);
@@ -224,6 +332,103 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
     }
 
 
+    @Override
+    public List<Build> buildSearch(Project project, BuildSearchForm form, int offset, int count) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT B.* FROM BUILDS B " +
+                        "INNER JOIN BRANCHES BR ON BR.ID = B.BRANCHID " +
+                        "WHERE BR.PROJECTID = :projectId"
+        );
+        MapSqlParameterSource params = params("projectId", project.id());
+        // Branch name
+        if (StringUtils.isNotBlank(form.getBranchName())) {
+            if (!isValidPattern(form.getBranchName())) {
+                return Collections.emptyList();
+            }
+            sql.append(" AND BR.NAME REGEXP :branchName");
+            params.addValue("branchName", fullMatchPattern(form.getBranchName()));
+        }
+        // Build name
+        if (StringUtils.isNotBlank(form.getBuildName())) {
+            if (form.isBuildExactMatch()) {
+                sql.append(" AND B.NAME = :buildName");
+                params.addValue("buildName", form.getBuildName());
+            } else if (isValidPattern(form.getBuildName())) {
+                sql.append(" AND B.NAME REGEXP :buildName");
+                params.addValue("buildName", fullMatchPattern(form.getBuildName()));
+            } else {
+                return Collections.emptyList();
+            }
+        }
+        // Promotion
+        if (StringUtils.isNotBlank(form.getPromotionName())) {
+            sql.append(" AND EXISTS (" +
+                    "SELECT PR.ID FROM PROMOTION_RUNS PR " +
+                    "INNER JOIN PROMOTION_LEVELS PL ON PL.ID = PR.PROMOTIONLEVELID " +
+                    "WHERE PR.BUILDID = B.ID AND PL.NAME = :promotionName)");
+            params.addValue("promotionName", form.getPromotionName());
+        }
+        // Validation stamp, whose last run must be passed
+        if (StringUtils.isNotBlank(form.getValidationStampName())) {
+            sql.append(" AND EXISTS (" +
+                    "SELECT VR.ID FROM VALIDATION_RUNS VR " +
+                    "INNER JOIN VALIDATION_STAMPS VS ON VS.ID = VR.VALIDATIONSTAMPID " +
+                    "WHERE VR.BUILDID = B.ID AND VS.NAME = :validationStampName " +
+                    "AND VR.ID = (SELECT MAX(LR.ID) FROM VALIDATION_RUNS LR WHERE LR.BUILDID = B.ID AND LR.VALIDATIONSTAMPID = VS.ID) " +
+                    "AND (SELECT S.VALIDATIONRUNSTATUSID FROM VALIDATION_RUN_STATUSES S WHERE S.VALIDATIONRUNID = VR.ID ORDER BY S.CREATION DESC, S.ID DESC LIMIT 1) = :validationRunStatus" +
+                    ")");
+            params.addValue("validationStampName", form.getValidationStampName());
+            params.addValue("validationRunStatus", ValidationRunStatusID.PASSED);
+        }
+        // Newest first
+        sql.append(" ORDER BY B.ID DESC LIMIT :count OFFSET :offset");
+        params.addValue("count", count).addValue("offset", offset);
+        // Branches are loaded only once
+        Map<ID, Branch> branches = new HashMap<>();
+        return getNamedParameterJdbcTemplate().query(
+                sql.toString(),
+                params,
+                (rs, rowNum) -> toBuild(rs, id -> branches.computeIfAbsent(id, this::getBranch))
+        );
+    }
+
+    @Override
+    public List<Build> findBuildsByName(String buildName, Collection<Project> projects) {
+        if (projects.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<ID, Branch> branches = new HashMap<>();
+        return getNamedParameterJdbcTemplate().query(
+                "SELECT B.* FROM BUILDS B " +
+                        "INNER JOIN BRANCHES BR ON BR.ID = B.BRANCHID " +
+                        "WHERE B.NAME = :buildName AND BR.PROJECTID IN (:projectIds) " +
+                        "ORDER BY B.ID DESC",
+                params("buildName", buildName)
+                        .addValue("projectIds", projects.stream().map(Project::id).collect(Collectors.toSet())),
+                (rs, rowNum) -> toBuild(rs, id -> branches.computeIfAbsent(id, this::getBranch))
+        );
+    }
+
+    /**
+     * Checks that a pattern is a valid regular expression before sending it to the database.
+     */
+    private static boolean isValidPattern(String pattern) {
+        try {
+            Pattern.compile(pattern);
+            return true;
+        } catch (PatternSyntaxException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * <code>REGEXP</code> finds the pattern anywhere in the value, while the search
+     * patterns must match the whole value.
+     */
+    private static String fullMatchPattern(String pattern) {
+        return "^(?:" + pattern + ")$";
+    }
+
     @Override
     public Build getLastBuildForBranch(Branch branch) {
         return getFirstItem(
@@ -252,6 +457,18 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public void addBuildLinks(ID fromBuildId, Collection<ID> toBuildIds) {
+        if (!toBuildIds.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(
+                    "MERGE INTO BUILD_LINKS(BUILDID, TARGETBUILDID) KEY (BUILDID, TARGETBUILDID) VALUES (:fromBuildId, :toBuildId)",
+                    toBuildIds.stream()
+                            .map(toBuildId -> params("fromBuildId", fromBuildId.get()).addValue("toBuildId", toBuildId.get()))
+                            .toArray(MapSqlParameterSource[]::new)
+            );
+        }
+    }
+
     @Override
     public void deleteBuildLink(ID fromBuildId, ID toBuildId) {
         getNamedParameterJdbcTemplate().update(
@@ -262,29 +479,32 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
 
     @Override
     public List<Build> getBuildLinksFrom(ID buildId) {
+        Map<ID, Branch> branches = new HashMap<>();
         return getNamedParameterJdbcTemplate().query(
                 "SELECT T.* FROM BUILDS T " +
                         "INNER JOIN BUILD_LINKS BL ON BL.TARGETBUILDID = T.ID " +
                         "WHERE BL.BUILDID = :buildId",
                 params("buildId", buildId.get()),
-                (rs, num) -> toBuild(rs, this::getBranch)
+                (rs, num) -> toBuild(rs, id -> branches.computeIfAbsent(id, this::getBranch))
         );
     }
 
     @Override
     public List<Build> getBuildLinksTo(ID buildId) {
+        Map<ID, Branch> branches = new HashMap<>();
         return getNamedParameterJdbcTemplate().query(
                 "SELECT F.* FROM BUILDS F " +
                         "INNER JOIN BUILD_LINKS BL ON BL.BUILDID = F.ID " +
                         "WHERE BL.TARGETBUILDID = :buildId " +
                         "ORDER BY F.ID DESC",
                 params("buildId", buildId.get()),
-                (rs, num) -> toBuild(rs, this::getBranch)
+                (rs, num) -> toBuild(rs, id -> branches.computeIfAbsent(id, this::getBranch))
         );
     }
 
     @Override
     public List<Build> searchBuildsLinkedTo(String projectName, String buildPattern) {
+        Map<ID, Branch> branches = new HashMap<>();
         return getNamedParameterJdbcTemplate().query(
                 "SELECT F.* FROM BUILDS F " +
                         "INNER JOIN BUILD_LINKS BL ON BL.BUILDID = F.ID " +
@@ -294,7 +514,7 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
                         "WHERE T.NAME LIKE :buildNamePattern AND P.NAME = :projectName " +
                         "ORDER BY F.ID DESC",
                 params("buildNamePattern", expandBuildPattern(buildPattern)).addValue("projectName", projectName),
-                (rs, num) -> toBuild(rs, this::getBranch)
+                (rs, num) -> toBuild(rs, id -> branches.computeIfAbsent(id, this::getBranch))
         );
     }
 
@@ -338,6 +558,86 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         ).isPresent();
     }
 
+    @Override
+    public BuildLinkGraph getBuildLinkGraph(Build build, BuildLinkDirection direction, int depth, int maxSize, Collection<ID> projectIds, ID leafProjectId) {
+        // Column to start from and column to reach
+        String fromColumn = direction == BuildLinkDirection.DOWNSTREAM ? "BUILDID" : "TARGETBUILDID";
+        String toColumn = direction == BuildLinkDirection.DOWNSTREAM ? "TARGETBUILDID" : "BUILDID";
+        String sql = String.format(
+                "SELECT BL.%1$s AS FROMID, BL.%2$s AS TOID, BR.PROJECTID AS PROJECTID FROM BUILD_LINKS BL " +
+                        "INNER JOIN BUILDS B ON B.ID = BL.%2$s " +
+                        "INNER JOIN BRANCHES BR ON BR.ID = B.BRANCHID " +
+                        "WHERE BL.%1$s IN (:ids) AND BR.PROJECTID IN (:projectIds) " +
+                        "ORDER BY BL.%1$s, BL.%2$s DESC " +
+                        "LIMIT :limit",
+                fromColumn,
+                toColumn
+        );
+        Set<Integer> projects = projectIds.stream().map(ID::get).collect(Collectors.toSet());
+        // Depth of each reached build, in the order of exploration
+        Map<Integer, Integer> depths = new LinkedHashMap<>();
+        List<BuildLinkGraphEdge> edges = new ArrayList<>();
+        Set<Integer> frontier = Collections.singleton(build.id());
+        boolean truncated = false;
+        int level = 0;
+        while (level < depth && !frontier.isEmpty() && !projects.isEmpty() && !truncated) {
+            level++;
+            // Each reached build comes with at least one edge, so bounding the edges bounds the builds as
+            // well. One more row than the remaining room tells if the graph is truncated.
+            List<int[]> links = getNamedParameterJdbcTemplate().query(
+                    sql,
+                    params("ids", frontier)
+                            .addValue("projectIds", projects)
+                            .addValue("limit", maxSize - edges.size() + 1),
+                    (rs, num) -> new int[]{rs.getInt("FROMID"), rs.getInt("TOID"), rs.getInt("PROJECTID")}
+            );
+            Set<Integer> next = new LinkedHashSet<>();
+            for (int[] link : links) {
+                if (edges.size() >= maxSize) {
+                    truncated = true;
+                    break;
+                }
+                int id = link[1];
+                if (id != build.id() && !depths.containsKey(id)) {
+                    depths.put(id, level);
+                    if (leafProjectId == null || leafProjectId.get() != link[2]) {
+                        next.add(id);
+                    }
+                }
+                edges.add(direction == BuildLinkDirection.DOWNSTREAM ?
+                        new BuildLinkGraphEdge(ID.of(link[0]), ID.of(id)) :
+                        new BuildLinkGraphEdge(ID.of(id), ID.of(link[0]))
+                );
+            }
+            frontier = next;
+        }
+        // Loads all the reached builds at once
+        Map<Integer, Build> builds = new HashMap<>();
+        if (!depths.isEmpty()) {
+            Map<ID, Branch> branches = new HashMap<>();
+            branches.put(build.getBranch().getId(), build.getBranch());
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT * FROM BUILDS WHERE ID IN (:ids)",
+                    params("ids", depths.keySet()),
+                    (RowCallbackHandler) rs -> {
+                        Build b = toBuild(rs, id -> branches.computeIfAbsent(id, this::getBranch));
+                        builds.put(b.id(), b);
+                    }
+            );
+        }
+        return new BuildLinkGraph(
+                build,
+                direction,
+                level,
+                depths.entrySet().stream()
+                        .filter(entry -> builds.containsKey(entry.getKey()))
+                        .map(entry -> new BuildLinkGraphNode(builds.get(entry.getKey()), entry.getValue()))
+                        .collect(Collectors.toList()),
+                edges,
+                truncated
+        );
+    }
+
     protected Build toBuild(ResultSet rs, Function<ID, Branch> branchSupplier) throws SQLException {
         return Build.of(
                 branchSupplier.apply(id(rs, "branchId")),
@@ -601,12 +901,18 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
 
     @Override
     public List<PromotionRun> getPromotionRunsForBuild(Build build) {
+        // Promotion levels of the branch, loaded at once
+        Map<ID, PromotionLevel> promotionLevels = getPromotionLevelListForBranch(build.getBranch().getId()).stream()
+                .collect(Collectors.toMap(PromotionLevel::getId, Function.identity()));
         return getNamedParameterJdbcTemplate().query(
                 "SELECT * FROM PROMOTION_RUNS WHERE BUILDID = :buildId ORDER BY CREATION DESC",
                 params("buildId", build.id()),
                 (rs, rowNum) -> toPromotionRun(rs,
                         (id) -> build,
-                        this::getPromotionLevel
+                        (id) -> {
+                            PromotionLevel promotionLevel = promotionLevels.get(id);
+                            return promotionLevel != null ? promotionLevel : getPromotionLevel(id);
+                        }
                 )
         );
     }
@@ -692,6 +998,43 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public Map<ID, List<PromotionRun>> getEarliestPromotionRunsAfterBuilds(Collection<Build> builds, Collection<PromotionLevel> promotionLevels) {
+        if (builds.isEmpty() || promotionLevels.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<ID, PromotionLevel> levels = promotionLevels.stream()
+                .collect(Collectors.toMap(PromotionLevel::getId, Function.identity(), (a, b) -> a));
+        Map<ID, List<PromotionRun>> runs = new HashMap<>();
+        // One row per build and promotion level of its branch, with the promoted build
+        getNamedParameterJdbcTemplate().query(
+                "SELECT B.ID AS REFBUILDID, PR.ID AS RUNID, PR.PROMOTIONLEVELID, " +
+                        "PR.CREATION AS RUNCREATION, PR.CREATOR AS RUNCREATOR, PR.DESCRIPTION AS RUNDESCRIPTION, RB.* " +
+                        "FROM BUILDS B " +
+                        "INNER JOIN PROMOTION_LEVELS PL ON PL.BRANCHID = B.BRANCHID " +
+                        "INNER JOIN PROMOTION_RUNS PR ON PR.ID = (" +
+                        "  SELECT R.ID FROM PROMOTION_RUNS R " +
+                        "  WHERE R.PROMOTIONLEVELID = PL.ID AND R.BUILDID >= B.ID " +
+                        "  ORDER BY R.CREATION ASC, R.ID ASC LIMIT 1" +
+                        ") " +
+                        "INNER JOIN BUILDS RB ON RB.ID = PR.BUILDID " +
+                        "WHERE B.ID IN (:buildIds) AND PL.ID IN (:promotionLevelIds)",
+                params("buildIds", builds.stream().map(Entity::id).collect(Collectors.toSet()))
+                        .addValue("promotionLevelIds", levels.keySet().stream().map(ID::getValue).collect(Collectors.toSet())),
+                (RowCallbackHandler) rs -> {
+                    PromotionLevel promotionLevel = levels.get(id(rs, "promotionLevelId"));
+                    PromotionRun run = PromotionRun.of(
+                            toBuild(rs, id -> promotionLevel.getBranch()),
+                            promotionLevel,
+                            readSignature(rs, "runCreation", "runCreator"),
+                            rs.getString("runDescription")
+                    ).withId(id(rs, "runId"));
+                    runs.computeIfAbsent(id(rs, "refBuildId"), id -> new ArrayList<>()).add(run);
+                }
+        );
+        return runs;
+    }
+
     protected PromotionRun toPromotionRun(ResultSet rs,
                                           Function<ID, Build> buildLoader,
                                           Function<ID, PromotionLevel> promotionLevelLoader) throws SQLException {
@@ -818,12 +1161,8 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
     @Override
     public ValidationRun newValidationRun(ValidationRun validationRun, Function<String, ValidationRunStatusID> validationRunStatusService) {
 
-        // Validation run itself (parent)
-        int id = dbCreate(
-                "INSERT INTO VALIDATION_RUNS(BUILDID, VALIDATIONSTAMPID) VALUES (:buildId, :validationStampId)",
-                params("buildId", validationRun.getBuild().id())
-                        .addValue("validationStampId", validationRun.getValidationStamp().id())
-        );
+        // Validation run itself (parent), with its run order computed at creation
+        int id = newValidationRunWithOrder(validationRun);
 
         // Statuses
         validationRun.getValidationRunStatuses().stream()
@@ -833,61 +1172,133 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         return getValidationRun(ID.of(id), validationRunStatusService);
     }
 
+    /**
+     * Inserts a validation run with the next run order for its build and validation stamp. Two
+     * concurrent runs may compute the same order: the unique constraint rejects the second one,
+     * which is then inserted again with the next order.
+     */
+    private int newValidationRunWithOrder(ValidationRun validationRun) {
+        MapSqlParameterSource params = params("buildId", validationRun.getBuild().id())
+                .addValue("validationStampId", validationRun.getValidationStamp().id());
+        int attempt = 1;
+        while (true) {
+            try {
+                return dbCreate(
+                        "INSERT INTO VALIDATION_RUNS(BUILDID, VALIDATIONSTAMPID, RUNORDER) " +
+                                "SELECT :buildId, :validationStampId, COALESCE(MAX(RUNORDER), 0) + 1 " +
+                                "FROM VALIDATION_RUNS " +
+                                "WHERE BUILDID = :buildId AND VALIDATIONSTAMPID = :validationStampId",
+                        params
+                );
+            } catch (DuplicateKeyException ex) {
+                if (attempt++ >= MAX_RUN_ORDER_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
     @Override
     public ValidationRun getValidationRun(ID validationRunId, Function<String, ValidationRunStatusID> validationRunStatusService) {
-        return getNamedParameterJdbcTemplate().queryForObject(
+        ValidationRun validationRun = getNamedParameterJdbcTemplate().queryForObject(
                 "SELECT * FROM VALIDATION_RUNS WHERE ID = :id",
                 params("id", validationRunId.getValue()),
                 (rs, rowNum) -> toValidationRun(
                         rs,
                         this::getBuild,
-                        this::getValidationStamp,
-                        validationRunStatusService
+                        this::getValidationStamp
                 )
         );
+        return withValidationRunStatuses(Collections.singletonList(validationRun), validationRunStatusService).get(0);
     }
 
     @Override
     public List<ValidationRun> getValidationRunsForBuild(Build build, Function<String, ValidationRunStatusID> validationRunStatusService) {
-        return getNamedParameterJdbcTemplate().query(
-                "SELECT * FROM VALIDATION_RUNS WHERE BUILDID = :buildId",
-                params("buildId", build.id()),
-                (rs, rowNum) -> toValidationRun(
-                        rs,
-                        id -> build,
-                        this::getValidationStamp,
-                        validationRunStatusService
-                )
+        // Validation stamps of the branch, loaded at once
+        Map<ID, ValidationStamp> validationStamps = getValidationStampListForBranch(build.getBranch().getId()).stream()
+                .collect(Collectors.toMap(ValidationStamp::getId, Function.identity()));
+        return withValidationRunStatuses(
+                getNamedParameterJdbcTemplate().query(
+                        "SELECT * FROM VALIDATION_RUNS WHERE BUILDID = :buildId",
+                        params("buildId", build.id()),
+                        (rs, rowNum) -> toValidationRun(
+                                rs,
+                                id -> build,
+                                id -> validationStamps.computeIfAbsent(id, this::getValidationStamp)
+                        )
+                ),
+                validationRunStatusService
         );
     }
 
     @Override
     public List<ValidationRun> getValidationRunsForBuildAndValidationStamp(Build build, ValidationStamp validationStamp, Function<String, ValidationRunStatusID> validationRunStatusService) {
-        return getNamedParameterJdbcTemplate().query(
-                "SELECT * FROM VALIDATION_RUNS WHERE BUILDID = :buildId AND VALIDATIONSTAMPID = :validationStampId ORDER BY ID DESC",
-                params("buildId", build.id()).addValue("validationStampId", validationStamp.id()),
-                (rs, rowNum) -> toValidationRun(
-                        rs,
-                        id -> build,
-                        id -> validationStamp,
-                        validationRunStatusService
+        return withValidationRunStatuses(
+                getNamedParameterJdbcTemplate().query(
+                        "SELECT * FROM VALIDATION_RUNS WHERE BUILDID = :buildId AND VALIDATIONSTAMPID = :validationStampId ORDER BY ID DESC",
+                        params("buildId", build.id()).addValue("validationStampId", validationStamp.id()),
+                        (rs, rowNum) -> toValidationRun(
+                                rs,
+                                id -> build,
+                                id -> validationStamp
+                        )
+                ),
+                validationRunStatusService
+        );
+    }
+
+    @Override
+    public Map<ID, ValidationRunStatusID> getLastValidationRunStatusesForBuild(Build build, Function<String, ValidationRunStatusID> validationRunStatusService) {
+        Map<ID, ValidationRunStatusID> statuses = new HashMap<>();
+        // Last run per validation stamp, with all its statuses, the most recent first
+        getNamedParameterJdbcTemplate().query(
+                "SELECT VR.VALIDATIONSTAMPID, S.VALIDATIONRUNSTATUSID " +
+                        "FROM VALIDATION_RUNS VR " +
+                        "INNER JOIN VALIDATION_RUN_STATUSES S ON S.VALIDATIONRUNID = VR.ID " +
+                        "WHERE VR.ID IN (" +
+                        "   SELECT MAX(R.ID) FROM VALIDATION_RUNS R WHERE R.BUILDID = :buildId GROUP BY R.VALIDATIONSTAMPID" +
+                        ") " +
+                        "ORDER BY VR.VALIDATIONSTAMPID, S.CREATION DESC, S.ID DESC",
+                params("buildId", build.id()),
+                (RowCallbackHandler) rs -> statuses.putIfAbsent(
+                        id(rs, "validationStampId"),
+                        validationRunStatusService.apply(rs.getString("validationRunStatusId"))
                 )
         );
+        return statuses;
     }
 
     @Override
     public List<ValidationRun> getValidationRunsForValidationStamp(ValidationStamp validationStamp, int offset, int count, Function<String, ValidationRunStatusID> validationRunStatusService) {
-        return getNamedParameterJdbcTemplate().query(
-                "SELECT * FROM VALIDATION_RUNS WHERE VALIDATIONSTAMPID = :validationStampId ORDER BY BUILDID DESC, ID DESC LIMIT :limit OFFSET :offset",
-                params("validationStampId", validationStamp.id())
-                        .addValue("limit", count)
-                        .addValue("offset", offset),
-                (rs, rowNum) -> toValidationRun(
-                        rs,
-                        this::getBuild,
-                        id -> validationStamp,
-                        validationRunStatusService
-                )
+        // Builds are read together with the runs, they all belong to the branch of the validation stamp
+        return withValidationRunStatuses(
+                getNamedParameterJdbcTemplate().query(
+                        "SELECT VR.*, B.NAME AS BUILD_NAME, B.DESCRIPTION AS BUILD_DESCRIPTION, B.CREATION AS BUILD_CREATION, B.CREATOR AS BUILD_CREATOR " +
+                                "FROM VALIDATION_RUNS VR " +
+                                "INNER JOIN BUILDS B ON B.ID = VR.BUILDID " +
+                                "WHERE VR.VALIDATIONSTAMPID = :validationStampId " +
+                                "ORDER BY VR.BUILDID DESC, VR.ID DESC " +
+                                "LIMIT :limit OFFSET :offset",
+                        params("validationStampId", validationStamp.id())
+                                .addValue("limit", count)
+                                .addValue("offset", offset),
+                        (rs, rowNum) -> {
+                            Build build = Build.of(
+                                    validationStamp.getBranch(),
+                                    new NameDescription(
+                                            rs.getString("build_name"),
+                                            rs.getString("build_description")
+                                    ),
+                                    readSignature(rs, "build_creation", "build_creator")
+                            ).withId(id(rs, "buildId"));
+                            return toValidationRun(
+                                    rs,
+                                    id -> build,
+                                    id -> validationStamp
+                            );
+                        }
+                ),
+                validationRunStatusService
         );
     }
 
@@ -911,37 +1322,161 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    /**
+     * Maps a validation run row, without its statuses. See {@link #withValidationRunStatuses(List, Function)}.
+     */
     protected ValidationRun toValidationRun(ResultSet rs,
                                             Function<ID, Build> buildSupplier,
-                                            Function<ID, ValidationStamp> validationStampSupplier,
-                                            Function<String, ValidationRunStatusID> validationRunStatusService) throws SQLException {
-        int id = rs.getInt("id");
-        // Statuses
-        List<ValidationRunStatus> statuses = getNamedParameterJdbcTemplate().query(
-                "SELECT * FROM VALIDATION_RUN_STATUSES WHERE VALIDATIONRUNID = :validationRunId ORDER BY CREATION DESC",
-                params("validationRunId", id),
-                (rs1, rowNum) -> ValidationRunStatus.of(
-                        readSignature(rs1),
-                        validationRunStatusService.apply(rs1.getString("validationRunStatusId")),
-                        rs1.getString("description")
+                                            Function<ID, ValidationStamp> validationStampSupplier) throws SQLException {
+        return ValidationRun.of(
+                buildSupplier.apply(id(rs, "buildId")),
+                validationStampSupplier.apply(id(rs, "validationStampId")),
+                rs.getInt("runOrder"),
+                Collections.emptyList()
+        ).withId(id(rs));
+    }
+
+    /**
+     * Loads the statuses of a list of validation runs in one query.
+     *
+     * @param runs                       Validation runs without their statuses
+     * @param validationRunStatusService Conversion of status IDs
+     * @return Validation runs with their statuses, in the same order
+     */
+    protected List<ValidationRun> withValidationRunStatuses(List<ValidationRun> runs, Function<String, ValidationRunStatusID> validationRunStatusService) {
+        if (runs.isEmpty()) {
+            return runs;
+        }
+        // Statuses of all the runs, the most recent first
+        Map<Integer, List<ValidationRunStatus>> statuses = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                "SELECT * FROM VALIDATION_RUN_STATUSES WHERE VALIDATIONRUNID IN (:validationRunIds) ORDER BY VALIDATIONRUNID, CREATION DESC",
+                params("validationRunIds", runs.stream().map(ValidationRun::id).collect(Collectors.toSet())),
+                (RowCallbackHandler) rs -> statuses.computeIfAbsent(rs.getInt("validationRunId"), id -> new ArrayList<>()).add(
+                        ValidationRunStatus.of(
+                                readSignature(rs),
+                                validationRunStatusService.apply(rs.getString("validationRunStatusId")),
+                                rs.getString("description")
+                        )
                 )
         );
-        // Build & validation stamp
-        ID buildId = id(rs, "buildId");
-        ID validationStampId = id(rs, "validationStampId");
-        // Run order
-        int runOrder = getNamedParameterJdbcTemplate().queryForObject(
-                "SELECT COUNT(*) FROM VALIDATION_RUNS WHERE BUILDID=:buildId AND VALIDATIONSTAMPID=:validationStampId AND ID <= :id",
-                params("id", id).addValue("buildId", buildId.getValue()).addValue("validationStampId", validationStampId.getValue()),
-                Integer.class
+        // Runs with their statuses
+        return runs.stream()
+                .map(run -> ValidationRun.of(
+                        run.getBuild(),
+                        run.getValidationStamp(),
+                        run.getRunOrder(),
+                        statuses.getOrDefault(run.id(), Collections.emptyList())
+                ).withId(run.getId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<ID, ProjectEntity> getEntities(ProjectEntityType type, Collection<ID> ids, Function<String, ValidationRunStatusID> validationRunStatusService) {
+        Map<ID, ProjectEntity> entities = new HashMap<>();
+        if (ids.isEmpty()) {
+            return entities;
+        }
+        MapSqlParameterSource params = params("ids", ids.stream().map(ID::get).collect(Collectors.toSet()));
+        String idQuery = ":ids";
+        switch (type) {
+            case PROJECT:
+                entities.putAll(loadProjects(idQuery, params));
+                break;
+            case BRANCH:
+                entities.putAll(loadBranches(idQuery, params));
+                break;
+            case PROMOTION_LEVEL:
+                entities.putAll(loadPromotionLevels(idQuery, params));
+                break;
+            case VALIDATION_STAMP:
+                entities.putAll(loadValidationStamps(idQuery, params));
+                break;
+            case BUILD:
+                entities.putAll(loadBuilds(idQuery, params));
+                break;
+            case PROMOTION_RUN: {
+                Map<ID, Build> builds = loadBuilds("SELECT BUILDID FROM PROMOTION_RUNS WHERE ID IN (:ids)", params);
+                Map<ID, PromotionLevel> promotionLevels = loadPromotionLevels("SELECT PROMOTIONLEVELID FROM PROMOTION_RUNS WHERE ID IN (:ids)", params);
+                getNamedParameterJdbcTemplate().query(
+                        "SELECT * FROM PROMOTION_RUNS WHERE ID IN (:ids)",
+                        params,
+                        (RowCallbackHandler) rs -> entities.put(id(rs), toPromotionRun(rs, builds::get, promotionLevels::get))
+                );
+                break;
+            }
+            case VALIDATION_RUN: {
+                Map<ID, Build> builds = loadBuilds("SELECT BUILDID FROM VALIDATION_RUNS WHERE ID IN (:ids)", params);
+                Map<ID, ValidationStamp> validationStamps = loadValidationStamps("SELECT VALIDATIONSTAMPID FROM VALIDATION_RUNS WHERE ID IN (:ids)", params);
+                List<ValidationRun> runs = getNamedParameterJdbcTemplate().query(
+                        "SELECT * FROM VALIDATION_RUNS WHERE ID IN (:ids)",
+                        params,
+                        (rs, rowNum) -> toValidationRun(rs, builds::get, validationStamps::get)
+                );
+                withValidationRunStatuses(runs, validationRunStatusService).forEach(run -> entities.put(run.getId(), run));
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unsupported entity type: " + type);
+        }
+        return entities;
+    }
+
+    /**
+     * Loads the projects whose IDs are given by a sub-query or a list parameter.
+     */
+    private Map<ID, Project> loadProjects(String idQuery, MapSqlParameterSource params) {
+        Map<ID, Project> projects = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                String.format("SELECT * FROM PROJECTS WHERE ID IN (%s)", idQuery),
+                params,
+                (RowCallbackHandler) rs -> projects.put(id(rs), toProject(rs))
         );
-        // Run itself
-        return ValidationRun.of(
-                buildSupplier.apply(buildId),
-                validationStampSupplier.apply(validationStampId),
-                runOrder,
-                statuses
-        ).withId(ID.of(id));
+        return projects;
+    }
+
+    private Map<ID, Branch> loadBranches(String idQuery, MapSqlParameterSource params) {
+        Map<ID, Project> projects = loadProjects(String.format("SELECT PROJECTID FROM BRANCHES WHERE ID IN (%s)", idQuery), params);
+        Map<ID, Branch> branches = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                String.format("SELECT * FROM BRANCHES WHERE ID IN (%s)", idQuery),
+                params,
+                (RowCallbackHandler) rs -> branches.put(id(rs), toBranch(rs, projects::get))
+        );
+        return branches;
+    }
+
+    private Map<ID, PromotionLevel> loadPromotionLevels(String idQuery, MapSqlParameterSource params) {
+        Map<ID, Branch> branches = loadBranches(String.format("SELECT BRANCHID FROM PROMOTION_LEVELS WHERE ID IN (%s)", idQuery), params);
+        Map<ID, PromotionLevel> promotionLevels = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                String.format("SELECT * FROM PROMOTION_LEVELS WHERE ID IN (%s)", idQuery),
+                params,
+                (RowCallbackHandler) rs -> promotionLevels.put(id(rs), toPromotionLevel(rs, branches::get))
+        );
+        return promotionLevels;
+    }
+
+    private Map<ID, ValidationStamp> loadValidationStamps(String idQuery, MapSqlParameterSource params) {
+        Map<ID, Branch> branches = loadBranches(String.format("SELECT BRANCHID FROM VALIDATION_STAMPS WHERE ID IN (%s)", idQuery), params);
+        Map<ID, ValidationStamp> validationStamps = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                String.format("SELECT * FROM VALIDATION_STAMPS WHERE ID IN (%s)", idQuery),
+                params,
+                (RowCallbackHandler) rs -> validationStamps.put(id(rs), toValidationStamp(rs, branches::get))
+        );
+        return validationStamps;
+    }
+
+    private Map<ID, Build> loadBuilds(String idQuery, MapSqlParameterSource params) {
+        Map<ID, Branch> branches = loadBranches(String.format("SELECT BRANCHID FROM BUILDS WHERE ID IN (%s)", idQuery), params);
+        Map<ID, Build> builds = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                String.format("SELECT * FROM BUILDS WHERE ID IN (%s)", idQuery),
+                params,
+                (RowCallbackHandler) rs -> builds.put(id(rs), toBuild(rs, branches::get))
+        );
+        return builds;
     }
 
     protected PromotionLevel toPromotionLevel(ResultSet rs, Function<ID, Branch> branchSupplier) throws SQLException {
@@ -965,6 +1500,10 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
     }
 
     protected Branch toBranch(ResultSet rs, Function<ID, Project> projectSupplier) throws SQLException {
+        return toBranch(rs, projectSupplier, getBranchType(id(rs)));
+    }
+
+    protected Branch toBranch(ResultSet rs, Function<ID, Project> projectSupplier, BranchType branchType) throws SQLException {
         ID projectId = id(rs, "projectId");
         ID branchId = id(rs);
         return Branch.of(
@@ -975,7 +1514,7 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
                 )
         )
                 .withId(branchId)
-                .withType(getBranchType(branchId))
+                .withType(branchType)
                 .withDisabled(rs.getBoolean("disabled"));
     }
 
@@ -0,0 +1,47 @@
+package net.nemerosa.ontrack.repository.support;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the <code>ENTITY_COUNTS</code> table up to date when rows are inserted in or deleted from
+ * a counted table, including the rows deleted in cascade.
+ * <p>
+ * Each table has {@link #SLOTS} counter rows, one of them being chosen randomly at each change,
+ * so that concurrent transactions seldom wait for the same row. The count for a table is the
+ * sum of its slots.
+ */
+public class EntityCountTrigger implements Trigger {
+
+    public static final int SLOTS = 16;
+
+    private String tableName;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before, int type) {
+        this.tableName = tableName;
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        int delta = newRow != null ? 1 : -1;
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE ENTITY_COUNTS SET COUNTER = COUNTER + ? WHERE NAME = ? AND SLOT = ?")) {
+            ps.setInt(1, delta);
+            ps.setString(2, tableName);
+            ps.setInt(3, ThreadLocalRandom.current().nextInt(SLOTS));
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void remove() {
+    }
+}
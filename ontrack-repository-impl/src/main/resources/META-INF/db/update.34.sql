@@ -0,0 +1,15 @@
+-- 34. Run order stored for the validation runs
+
+ALTER TABLE VALIDATION_RUNS ADD RUNORDER INTEGER NOT NULL DEFAULT 0;
+
+-- Created before the backfill, which looks the runs up by build and validation stamp
+CREATE INDEX IF NOT EXISTS VALIDATION_RUNS_IX_BUILD_STAMP ON VALIDATION_RUNS(BUILDID, VALIDATIONSTAMPID);
+
+UPDATE VALIDATION_RUNS VR SET RUNORDER = (
+  SELECT COUNT(*)
+  FROM VALIDATION_RUNS R
+  WHERE R.BUILDID = VR.BUILDID AND R.VALIDATIONSTAMPID = VR.VALIDATIONSTAMPID AND R.ID <= VR.ID
+);
+
+-- One run per order for a build and a validation stamp
+ALTER TABLE VALIDATION_RUNS ADD CONSTRAINT VALIDATION_RUNS_UQ_ORDER UNIQUE (BUILDID, VALIDATIONSTAMPID, RUNORDER);
@@ -0,0 +1,18 @@
+-- 35. Search index
+
+CREATE TABLE SEARCH_INDEX (
+  ID          INTEGER       NOT NULL AUTO_INCREMENT,
+  CATEGORY    VARCHAR(40)   NOT NULL,
+  ENTRY_KEY   VARCHAR(200)  NOT NULL,
+  PROJECTID   INTEGER       NULL,
+  TOKEN       VARCHAR(400)  NOT NULL,
+  TITLE       VARCHAR(400)  NOT NULL,
+  DESCRIPTION VARCHAR(500)  NULL,
+  DATA        VARCHAR(2000) NULL,
+  GENERATION  INTEGER       NOT NULL DEFAULT 0,
+  CONSTRAINT SEARCH_INDEX_PK PRIMARY KEY (ID),
+  CONSTRAINT SEARCH_INDEX_UQ UNIQUE (CATEGORY, ENTRY_KEY),
+  CONSTRAINT SEARCH_INDEX_FK_PROJECT FOREIGN KEY (PROJECTID) REFERENCES PROJECTS (ID) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS SEARCH_INDEX_IX_TOKEN ON SEARCH_INDEX(TOKEN);
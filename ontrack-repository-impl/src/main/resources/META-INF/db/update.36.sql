@@ -0,0 +1,16 @@
+-- 36. Unique entity data per entity and name, for single statement upserts
+
+DELETE FROM ENTITY_DATA
+WHERE ID NOT IN (
+  SELECT MAX(ID)
+  FROM ENTITY_DATA
+  GROUP BY NAME, PROJECT, BRANCH, PROMOTION_LEVEL, VALIDATION_STAMP, BUILD, PROMOTION_RUN, VALIDATION_RUN
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_PROJECT ON ENTITY_DATA(PROJECT, NAME);
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_BRANCH ON ENTITY_DATA(BRANCH, NAME);
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_PROMOTION_LEVEL ON ENTITY_DATA(PROMOTION_LEVEL, NAME);
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_VALIDATION_STAMP ON ENTITY_DATA(VALIDATION_STAMP, NAME);
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_BUILD ON ENTITY_DATA(BUILD, NAME);
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_PROMOTION_RUN ON ENTITY_DATA(PROMOTION_RUN, NAME);
+CREATE UNIQUE INDEX IF NOT EXISTS ENTITY_DATA_UQ_VALIDATION_RUN ON ENTITY_DATA(VALIDATION_RUN, NAME);
@@ -0,0 +1,40 @@
+-- 37. Entity counters
+
+CREATE TABLE ENTITY_COUNTS (
+  NAME    VARCHAR(40) NOT NULL,
+  SLOT    INTEGER     NOT NULL,
+  COUNTER INTEGER     NOT NULL,
+  CONSTRAINT ENTITY_COUNTS_PK PRIMARY KEY (NAME, SLOT)
+);
+
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'PROJECTS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM PROJECTS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'BRANCHES', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM BRANCHES) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'BUILDS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM BUILDS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'PROMOTION_LEVELS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM PROMOTION_LEVELS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'PROMOTION_RUNS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM PROMOTION_RUNS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'VALIDATION_STAMPS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM VALIDATION_STAMPS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'VALIDATION_RUNS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM VALIDATION_RUNS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'VALIDATION_RUN_STATUSES', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM VALIDATION_RUN_STATUSES) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'PROPERTIES', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM PROPERTIES) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+INSERT INTO ENTITY_COUNTS(NAME, SLOT, COUNTER)
+  SELECT 'EVENTS', X, CASE WHEN X = 0 THEN (SELECT COUNT(*) FROM EVENTS) ELSE 0 END FROM SYSTEM_RANGE(0, 15);
+
+CREATE TRIGGER IF NOT EXISTS PROJECTS_COUNT AFTER INSERT, DELETE ON PROJECTS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS BRANCHES_COUNT AFTER INSERT, DELETE ON BRANCHES FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS BUILDS_COUNT AFTER INSERT, DELETE ON BUILDS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS PROMOTION_LEVELS_COUNT AFTER INSERT, DELETE ON PROMOTION_LEVELS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS PROMOTION_RUNS_COUNT AFTER INSERT, DELETE ON PROMOTION_RUNS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS VALIDATION_STAMPS_COUNT AFTER INSERT, DELETE ON VALIDATION_STAMPS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS VALIDATION_RUNS_COUNT AFTER INSERT, DELETE ON VALIDATION_RUNS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS VALIDATION_RUN_STATUSES_COUNT AFTER INSERT, DELETE ON VALIDATION_RUN_STATUSES FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS PROPERTIES_COUNT AFTER INSERT, DELETE ON PROPERTIES FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
+CREATE TRIGGER IF NOT EXISTS EVENTS_COUNT AFTER INSERT, DELETE ON EVENTS FOR EACH ROW CALL "net.nemerosa.ontrack.repository.support.EntityCountTrigger";
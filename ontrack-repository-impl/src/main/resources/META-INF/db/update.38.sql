@@ -0,0 +1,3 @@
+-- 38. Index on the targets of the build links, for the upstream queries
+
+CREATE INDEX IF NOT EXISTS BUILD_LINKS_IX_TARGET ON BUILD_LINKS(TARGETBUILDID, BUILDID);
@@ -0,0 +1,7 @@
+-- 39. Composite indexes for the most frequent queries on the builds and their runs
+
+-- Builds of a branch, in ID order (build view, previous & next builds)
+CREATE INDEX IF NOT EXISTS BUILDS_IX_BRANCH_ID ON BUILDS(BRANCHID, ID);
+
+-- Promotion runs of a build for a promotion level
+CREATE INDEX IF NOT EXISTS PROMOTION_RUNS_IX_LEVEL_BUILD ON PROMOTION_RUNS(PROMOTIONLEVELID, BUILDID, CREATION);
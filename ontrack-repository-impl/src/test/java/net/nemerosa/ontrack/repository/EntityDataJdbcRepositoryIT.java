@@ -6,6 +6,9 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
@@ -46,4 +49,26 @@ public class EntityDataJdbcRepositoryIT extends AbstractRepositoryTestSupport {
         assertEquals(repository.retrieve(project, key).get(), "Value 2");
     }
 
+    @Test
+    public void store_all_data() {
+        repository.store(project, "Test 3", "Value 3");
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("Test 3", "Value 3*");
+        values.put("Test 4", "Value 4");
+        repository.storeAll(project, values);
+
+        assertEquals("Value 3*", repository.retrieve(project, "Test 3").get());
+        assertEquals("Value 4", repository.retrieve(project, "Test 4").get());
+    }
+
+    @Test
+    public void same_key_for_different_entities() {
+        Project other = do_create_project();
+        repository.store(project, "Test 5", "Value 1");
+        repository.store(other, "Test 5", "Value 2");
+        assertEquals("Value 1", repository.retrieve(project, "Test 5").get());
+        assertEquals("Value 2", repository.retrieve(other, "Test 5").get());
+    }
+
 }
@@ -0,0 +1,316 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.json.JsonUtils;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.SQLStatementMonitor;
+import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd;
+import static net.nemerosa.ontrack.test.TestUtils.uid;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the statements of the repositories through <code>EXPLAIN</code> on a seeded database and
+ * fails when one of them falls back to a full scan of a table.
+ * <p>
+ * The statements are not listed by hand: they are collected using a {@link SQLStatementMonitor}
+ * while the repositories are exercised, so that new or changed queries are checked automatically
+ * as long as they are called below.
+ */
+public class QueryPlanIT extends AbstractRepositoryTestSupport {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+
+    private static final Pattern INDEX = Pattern.compile("PUBLIC\\.(\\w+):");
+
+    /**
+     * Statements for which a full scan is expected, with the reason why. Each of them must still
+     * lead to a full scan, so that an entry does not outlive the statement it was added for.
+     */
+    private static final Map<String, String> ALLOWED_SCANS;
+
+    static {
+        Map<String, String> allowed = new LinkedHashMap<>();
+        allowed.put("PROJECT IS NULL OR PROJECT IN", "Root event list, paginated on the primary key in descending order");
+        ALLOWED_SCANS = Collections.unmodifiableMap(allowed);
+    }
+
+    /**
+     * Indexes which must be used by at least one of the statements.
+     */
+    private static final List<String> EXPECTED_INDEXES = Arrays.asList(
+            // update.35
+            "SEARCH_INDEX_IX_TOKEN",
+            // update.39
+            "BUILDS_IX_BRANCH_ID",
+            "PROMOTION_RUNS_IX_LEVEL_BUILD"
+    );
+
+    private static final Function<String, ValidationRunStatusID> STATUSES =
+            id -> ValidationRunStatusID.of(id, id, true, ValidationRunStatusID.PASSED.equals(id));
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SearchIndexRepository searchIndexRepository;
+
+    private final Set<String> statements = Collections.synchronizedSet(new LinkedHashSet<>());
+
+    @Before
+    public void record() {
+        SQLStatementMonitor recorder = (repository, sql, durationNanos) -> {
+            if (sql != null) {
+                statements.add(sql);
+            }
+        };
+        repositories().forEach(repository -> repository.setStatementMonitor(recorder));
+    }
+
+    @After
+    public void restore() {
+        SQLStatementMonitor monitor = applicationContext.getBeansOfType(SQLStatementMonitor.class).values().stream()
+                .findFirst()
+                .orElse(null);
+        repositories().forEach(repository -> repository.setStatementMonitor(monitor));
+    }
+
+    private Collection<AbstractJdbcRepository> repositories() {
+        return applicationContext.getBeansOfType(AbstractJdbcRepository.class).values();
+    }
+
+    @Test
+    public void no_table_scan() throws Exception {
+        exercise();
+        // Stops recording before running the plans
+        restore();
+        // Tables of the application (the plans give them in upper case)
+        Set<String> tables = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'TABLE'",
+                String.class
+        ).stream().map(String::toUpperCase).collect(Collectors.toSet());
+        // Checks all the recorded statements
+        assertFalse("Statements have been recorded", statements.isEmpty());
+        List<String> failures = new ArrayList<>();
+        Set<String> allowedScans = new HashSet<>();
+        Set<String> usedIndexes = new HashSet<>();
+        for (String sql : new ArrayList<>(statements)) {
+            if (isChecked(sql)) {
+                String plan = explain(sql);
+                Set<String> scanned = new TreeSet<>();
+                Matcher m = TABLE_SCAN.matcher(plan);
+                while (m.find()) {
+                    if (tables.contains(m.group(1))) {
+                        scanned.add(m.group(1));
+                    }
+                }
+                Matcher i = INDEX.matcher(plan);
+                while (i.find()) {
+                    usedIndexes.add(i.group(1));
+                }
+                Optional<String> allowed = ALLOWED_SCANS.keySet().stream().filter(sql::contains).findFirst();
+                if (allowed.isPresent()) {
+                    if (!scanned.isEmpty()) {
+                        allowedScans.add(allowed.get());
+                    }
+                } else if (!scanned.isEmpty()) {
+                    failures.add(String.format("Full scan on %s for:%n%s%n", scanned, plan));
+                }
+            }
+        }
+        for (String allowed : ALLOWED_SCANS.keySet()) {
+            if (!allowedScans.contains(allowed)) {
+                failures.add(String.format("No full scan any longer for \"%s\", the exception can be removed", allowed));
+            }
+        }
+        for (String index : EXPECTED_INDEXES) {
+            if (!usedIndexes.contains(index)) {
+                failures.add(String.format("Index %s is not used by any statement", index));
+            }
+        }
+        assertTrue(String.join("\n", failures), failures.isEmpty());
+    }
+
+    /**
+     * Only the statements which filter the rows can use an index. Statements which return
+     * a whole table are scans by design.
+     */
+    private static boolean isChecked(String sql) {
+        String upper = sql.trim().toUpperCase();
+        return (upper.startsWith("SELECT") || upper.startsWith("UPDATE") || upper.startsWith("DELETE"))
+                && upper.contains(" WHERE ");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) ps -> {
+            ParameterMetaData metaData = ps.getParameterMetaData();
+            for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                bind(ps, i, metaData.getParameterType(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append("\n");
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Binds a representative value, so that H2 does not fold the conditions on the parameter
+     * (<code>LIKE NULL</code> for example) and the plan is the one of an actual call.
+     */
+    private static void bind(PreparedStatement ps, int index, int type) throws SQLException {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                ps.setInt(index, 1);
+                break;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+                ps.setString(index, "1");
+                break;
+            default:
+                ps.setNull(index, type);
+        }
+    }
+
+    /**
+     * Seeds the database and calls the repositories.
+     */
+    private void exercise() {
+        // Structure
+        Project project = do_create_project();
+        Branch branch = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        Branch other = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        PromotionLevel pl = structureRepository.newPromotionLevel(PromotionLevel.of(branch, nd("PL", "")));
+        ValidationStamp vs = structureRepository.newValidationStamp(ValidationStamp.of(branch, nd("VS", "")));
+        List<Build> builds = new ArrayList<>();
+        List<ValidationRun> runs = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Build build = structureRepository.newBuild(Build.of(branch, nd(String.valueOf(i), ""), Signature.of("test")));
+            builds.add(build);
+            structureRepository.newBuild(Build.of(other, nd(String.valueOf(i), ""), Signature.of("test")));
+            runs.add(structureRepository.newValidationRun(
+                    ValidationRun.of(build, vs, 0, Signature.of("test"), ValidationRunStatusID.STATUS_PASSED, ""),
+                    STATUSES
+            ));
+            if (i % 3 == 0) {
+                structureRepository.newPromotionRun(PromotionRun.of(build, pl, Signature.of("test"), ""));
+            }
+        }
+        Build first = builds.get(0);
+        Build build = builds.get(4);
+        structureRepository.addBuildLinks(build.getId(), Arrays.asList(first.getId(), builds.get(1).getId()));
+
+        // Projects & branches
+        structureRepository.getProjectList();
+        structureRepository.getProject(project.getId());
+        structureRepository.getProjectByName(project.getName());
+        structureRepository.getBranch(branch.getId());
+        structureRepository.getBranchByName(project.getName(), branch.getName());
+        structureRepository.getBranchesForProject(project.getId());
+        structureRepository.getBranchActivities(project, Collections.singletonList("PL"));
+
+        // Builds
+        structureRepository.getBuild(build.getId());
+        structureRepository.getBuildByName(project.getName(), branch.getName(), build.getName());
+        structureRepository.findBuildAfterUsingNumericForm(branch.getId(), "3");
+        structureRepository.getBuildCount(branch);
+        structureRepository.getPreviousBuild(build);
+        structureRepository.getNextBuild(build);
+        structureRepository.builds(branch, b -> true);
+        structureRepository.builds(project, b -> true);
+        structureRepository.buildSearch(project, new BuildSearchForm().withPromotionName("PL"), 0, 10);
+        structureRepository.findBuildsByName(build.getName(), Collections.singletonList(project));
+        structureRepository.getLastBuildForBranch(branch);
+
+        // Build links
+        structureRepository.getBuildLinksFrom(build.getId());
+        structureRepository.getBuildLinksTo(first.getId());
+        structureRepository.isLinkedFrom(first.getId(), project.getName(), "*");
+        structureRepository.isLinkedTo(build.getId(), project.getName(), "*");
+        structureRepository.getBuildLinkGraph(build, BuildLinkDirection.DOWNSTREAM, 2, 100, Collections.singletonList(project.getId()));
+        structureRepository.getBuildLinkGraph(first, BuildLinkDirection.UPSTREAM, 2, 100, Collections.singletonList(project.getId()));
+
+        // Promotions
+        structureRepository.getPromotionLevelListForBranch(branch.getId());
+        structureRepository.getPromotionLevel(pl.getId());
+        structureRepository.getPromotionLevelByName(project.getName(), branch.getName(), "PL");
+        structureRepository.getPromotionRunsForBuild(builds.get(2));
+        structureRepository.getLastPromotionRunsForBuild(builds.get(2));
+        structureRepository.getLastPromotionRunForPromotionLevel(pl);
+        structureRepository.getLastPromotionRun(builds.get(2), pl);
+        structureRepository.getPromotionRunsForBuildAndPromotionLevel(builds.get(2), pl);
+        structureRepository.getPromotionRunsForPromotionLevel(pl);
+        structureRepository.getEarliestPromotionRunAfterBuild(pl, first);
+        structureRepository.getEarliestPromotionRunsAfterBuilds(Arrays.asList(first, build), Collections.singletonList(pl));
+
+        // Validations
+        structureRepository.getValidationStampListForBranch(branch.getId());
+        structureRepository.getValidationStamp(vs.getId());
+        structureRepository.getValidationStampByName(project.getName(), branch.getName(), "VS");
+        structureRepository.getValidationRunsForBuild(build, STATUSES);
+        structureRepository.getValidationRunsForBuildAndValidationStamp(build, vs, STATUSES);
+        structureRepository.getLastValidationRunStatusesForBuild(build, STATUSES);
+        structureRepository.getValidationRunsForValidationStamp(vs, 0, 10, STATUSES);
+
+        // Entities in bulk
+        structureRepository.getEntities(ProjectEntityType.BUILD,
+                builds.stream().map(Build::getId).collect(Collectors.toList()), STATUSES);
+        structureRepository.getEntities(ProjectEntityType.VALIDATION_RUN,
+                runs.stream().map(ValidationRun::getId).collect(Collectors.toList()), STATUSES);
+
+        // Properties
+        String type = "test.Property";
+        propertyRepository.saveProperty(type, ProjectEntityType.BUILD, build.getId(),
+                JsonUtils.object().with("value", "test").end(), "test");
+        propertyRepository.loadProperty(type, ProjectEntityType.BUILD, build.getId());
+        propertyRepository.loadProperties(type, ProjectEntityType.BUILD,
+                builds.stream().map(Build::getId).collect(Collectors.toList()));
+        propertyRepository.deleteProperty(type, ProjectEntityType.BUILD, build.getId());
+
+        // Events - no event has been posted, so the loaders are never called
+        List<Integer> projects = Collections.singletonList(project.id());
+        eventRepository.query(projects, 0, 10, null, null);
+        eventRepository.query(projects, ProjectEntityType.BUILD, build.getId(), 0, 10, null, null);
+        eventRepository.query(projects, EventFactory.NEW_BUILD, ProjectEntityType.BUILD, build.getId(), 0, 10, null, null);
+        eventRepository.getLastEventSignature(ProjectEntityType.BUILD, build.getId(), EventFactory.NEW_BUILD);
+
+        // Search index
+        String category = uid("C");
+        searchIndexRepository.save(Collections.singletonList(
+                new SearchIndexEntry(category, "1", project.getId(), build.getName(), "", "", null)
+        ), 1);
+        searchIndexRepository.search(build.getName() + "*", projects, 0, 10);
+        searchIndexRepository.exists(category, "1");
+        searchIndexRepository.getExistingKeys(category, Arrays.asList("1", "2"));
+        searchIndexRepository.deleteOlderGenerations(category, 1);
+    }
+
+}
@@ -0,0 +1,194 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.structure.Project;
+import net.nemerosa.ontrack.model.structure.SearchIndexEntry;
+import net.nemerosa.ontrack.model.structure.SearchIndexMatch;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static net.nemerosa.ontrack.test.TestUtils.uid;
+import static org.junit.Assert.*;
+
+@Transactional
+public class SearchIndexJdbcRepositoryIT extends AbstractRepositoryTestSupport {
+
+    @Autowired
+    private SearchIndexRepository repository;
+
+    private SearchIndexEntry entry(String category, String key, Project project, String token) {
+        return new SearchIndexEntry(category, key, project.getId(), token, "Title " + token, "Description " + token, null);
+    }
+
+    private List<String> keys(List<SearchIndexMatch> matches) {
+        return matches.stream().map(match -> match.getEntry().getKey()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void search_sorted_by_accuracy() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "contains", project, "X" + token),
+                entry(category, "prefix", project, token + "X"),
+                entry(category, "exact", project, token)
+        ), 0);
+        List<SearchIndexMatch> matches = repository.search(token, Collections.singletonList(project.id()), 0, 10);
+        // Only the exact and prefix matches
+        assertEquals(Arrays.asList("exact", "prefix"), keys(matches));
+        assertEquals(
+                Arrays.asList(100, 80),
+                matches.stream().map(SearchIndexMatch::getAccuracy).collect(Collectors.toList())
+        );
+        // Case insensitive
+        assertEquals(2, repository.search(token.toLowerCase(), Collections.singletonList(project.id()), 0, 10).size());
+    }
+
+    @Test
+    public void search_ignores_leading_wildcards() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "contains", project, "X" + token),
+                entry(category, "prefix", project, token + "X")
+        ), 0);
+        List<Integer> projectIds = Collections.singletonList(project.id());
+        assertEquals(Collections.singletonList("prefix"), keys(repository.search("*" + token, projectIds, 0, 10)));
+        assertEquals(Collections.emptyList(), repository.search("**", projectIds, 0, 10));
+    }
+
+    @Test
+    public void search_with_wildcard_in_the_middle() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "1", project, token + "-A-1"),
+                entry(category, "2", project, token + "-B-1"),
+                entry(category, "3", project, token + "-B-2")
+        ), 0);
+        assertEquals(
+                Arrays.asList("2", "1"),
+                keys(repository.search(token + "-*-1", Collections.singletonList(project.id()), 0, 10))
+        );
+    }
+
+    @Test
+    public void search_with_wildcard_and_pagination() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "1", project, token + "-1"),
+                entry(category, "2", project, token + "-2"),
+                entry(category, "3", project, token + "-3")
+        ), 0);
+        List<Integer> projectIds = Collections.singletonList(project.id());
+        assertEquals(Arrays.asList("3", "2"), keys(repository.search(token + "-*", projectIds, 0, 2)));
+        assertEquals(Collections.singletonList("1"), keys(repository.search(token + "-*", projectIds, 2, 2)));
+    }
+
+    @Test
+    public void search_escapes_like_characters() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "underscore", project, token + "_1"),
+                entry(category, "other", project, token + "X1")
+        ), 0);
+        assertEquals(
+                Collections.singletonList("underscore"),
+                keys(repository.search(token + "_1", Collections.singletonList(project.id()), 0, 10))
+        );
+    }
+
+    @Test
+    public void search_restricted_to_projects() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project1 = do_create_project();
+        Project project2 = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "1", project1, token),
+                entry(category, "2", project2, token),
+                new SearchIndexEntry(category, "none", null, token, token, "", null)
+        ), 0);
+        assertEquals(Arrays.asList("none", "1"), keys(repository.search(token, Collections.singletonList(project1.id()), 0, 10)));
+        assertEquals(Collections.singletonList("none"), keys(repository.search(token, Collections.emptyList(), 0, 10)));
+    }
+
+    @Test
+    public void save_updates_existing_entry() {
+        String category = uid("C");
+        String token = uid("T");
+        Project project = do_create_project();
+        repository.save(Collections.singletonList(entry(category, "1", project, token + "A")), 0);
+        repository.save(Collections.singletonList(entry(category, "1", project, token + "B")), 0);
+        List<SearchIndexMatch> matches = repository.search(token, Collections.singletonList(project.id()), 0, 10);
+        assertEquals(1, matches.size());
+        assertEquals("Title " + token + "B", matches.get(0).getEntry().getTitle());
+    }
+
+    @Test
+    public void delete_entries() {
+        String category = uid("C");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "BUILD:1:a", project, uid("T")),
+                entry(category, "BUILD:1:b", project, uid("T")),
+                entry(category, "BUILD:10:a", project, uid("T")),
+                entry(category, "BUILD:2:a", project, uid("T"))
+        ), 0);
+        assertTrue(repository.exists(category, "BUILD:1:a"));
+        repository.deleteByKeyPrefix(category, "BUILD:1:");
+        assertFalse(repository.exists(category, "BUILD:1:a"));
+        assertFalse(repository.exists(category, "BUILD:1:b"));
+        assertTrue(repository.exists(category, "BUILD:10:a"));
+        repository.delete(category, "BUILD:2:a");
+        assertFalse(repository.exists(category, "BUILD:2:a"));
+        repository.deleteCategory(category);
+        assertFalse(repository.exists(category, "BUILD:10:a"));
+    }
+
+    @Test
+    public void older_generations_deleted() {
+        String category = uid("C");
+        Project project = do_create_project();
+        int generation = repository.getLastGeneration() + 1;
+        repository.save(Arrays.asList(
+                entry(category, "1", project, uid("T")),
+                entry(category, "2", project, uid("T"))
+        ), generation);
+        // Only the first entry is indexed again
+        repository.save(Collections.singletonList(entry(category, "1", project, uid("T"))), generation + 1);
+        assertEquals(generation + 1, repository.getLastGeneration());
+        repository.deleteOlderGenerations(category, generation + 1);
+        assertTrue(repository.exists(category, "1"));
+        assertFalse(repository.exists(category, "2"));
+    }
+
+    @Test
+    public void existing_keys() {
+        String category = uid("C");
+        Project project = do_create_project();
+        repository.save(Arrays.asList(
+                entry(category, "1", project, uid("T")),
+                entry(category, "2", project, uid("T"))
+        ), repository.getLastGeneration());
+        assertEquals(
+                new HashSet<>(Arrays.asList("1", "2")),
+                repository.getExistingKeys(category, Arrays.asList("1", "2", "3"))
+        );
+        assertTrue(repository.getExistingKeys(category, Collections.emptyList()).isEmpty());
+    }
+
+}
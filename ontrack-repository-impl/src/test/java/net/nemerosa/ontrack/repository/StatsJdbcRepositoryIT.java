@@ -0,0 +1,79 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.structure.Branch;
+import net.nemerosa.ontrack.model.structure.Build;
+import net.nemerosa.ontrack.model.structure.Signature;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@Transactional
+public class StatsJdbcRepositoryIT extends AbstractRepositoryTestSupport {
+
+    @Autowired
+    private StatsRepository repository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private int count(String table) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    public void counts_on_creation() {
+        int projects = repository.getProjectCount();
+        int branches = repository.getBranchCount();
+        int builds = repository.getBuildCount();
+
+        Branch branch = do_create_branch();
+        structureRepository.newBuild(Build.of(branch, nameDescription(), Signature.of("test")));
+
+        assertEquals(projects + 1, repository.getProjectCount());
+        assertEquals(branches + 1, repository.getBranchCount());
+        assertEquals(builds + 1, repository.getBuildCount());
+    }
+
+    @Test
+    public void counts_on_cascaded_deletion() {
+        Branch branch = do_create_branch();
+        structureRepository.newBuild(Build.of(branch, nameDescription(), Signature.of("test")));
+        structureRepository.newBuild(Build.of(branch, nameDescription(), Signature.of("test")));
+
+        int projects = repository.getProjectCount();
+        int branches = repository.getBranchCount();
+        int builds = repository.getBuildCount();
+
+        structureRepository.deleteProject(branch.getProject().getId());
+
+        assertEquals(projects - 1, repository.getProjectCount());
+        assertEquals(branches - 1, repository.getBranchCount());
+        assertEquals(builds - 2, repository.getBuildCount());
+    }
+
+    @Test
+    public void counts_match_the_tables() {
+        do_create_branch();
+        Map<String, Integer> counts = repository.getCounts();
+        assertEquals(count("PROJECTS"), counts.get("PROJECTS").intValue());
+        assertEquals(count("BRANCHES"), counts.get("BRANCHES").intValue());
+        assertEquals(count("BUILDS"), counts.get("BUILDS").intValue());
+        assertEquals(count("EVENTS"), counts.get("EVENTS").intValue());
+    }
+
+    @Test
+    public void reconciliation() {
+        do_create_branch();
+        repository.reconcileCounts();
+        assertEquals(count("PROJECTS"), repository.getProjectCount());
+        assertEquals(count("BRANCHES"), repository.getBranchCount());
+        assertEquals(count("VALIDATION_RUNS"), repository.getValidationRunCount());
+    }
+
+}
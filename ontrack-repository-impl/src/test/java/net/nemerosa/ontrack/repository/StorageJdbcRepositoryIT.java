@@ -8,7 +8,10 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -83,4 +86,34 @@ public class StorageJdbcRepositoryIT extends AbstractRepositoryTestSupport {
         assertJsonEquals(data2, data.get("2"));
     }
 
+    @Test
+    public void store_overrides_existing_data() throws JsonProcessingException {
+        String store = uid("C");
+        repository.storeJson(store, "1", JsonUtils.object().with("name", "1").end());
+        ObjectNode data = JsonUtils.object().with("name", "2").end();
+        repository.storeJson(store, "1", data);
+        assertEquals(Collections.singletonList("1"), repository.getKeys(store));
+        assertJsonEquals(data, repository.retrieveJson(store, "1").get());
+    }
+
+    @Test
+    public void store_all() throws JsonProcessingException {
+        String store = uid("C");
+        repository.storeJson(store, "1", JsonUtils.object().with("name", "1").end());
+        repository.storeJson(store, "2", JsonUtils.object().with("name", "2").end());
+
+        ObjectNode data1 = JsonUtils.object().with("name", "1*").end();
+        ObjectNode data3 = JsonUtils.object().with("name", "3").end();
+        Map<String, JsonNode> data = new LinkedHashMap<>();
+        data.put("1", data1);
+        data.put("2", null);
+        data.put("3", data3);
+        repository.storeAllJson(store, data);
+
+        Map<String, JsonNode> stored = repository.getData(store);
+        assertEquals(Arrays.asList("1", "3"), new ArrayList<>(stored.keySet()));
+        assertJsonEquals(data1, stored.get("1"));
+        assertJsonEquals(data3, stored.get("3"));
+    }
+
 }
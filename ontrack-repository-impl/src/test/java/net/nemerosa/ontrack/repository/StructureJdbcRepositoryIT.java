@@ -4,6 +4,14 @@ import net.nemerosa.ontrack.model.structure.*;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import static net.nemerosa.ontrack.test.TestUtils.uid;
 import static org.junit.Assert.*;
 
@@ -96,4 +104,175 @@ public class StructureJdbcRepositoryIT extends AbstractRepositoryTestSupport {
         assertTrue("Project must be disabled", p.isDisabled());
     }
 
+    @Test
+    public void branch_activities() {
+        Project project = do_create_project();
+        // Branch without any build
+        Branch b1 = structureRepository.newBranch(Branch.of(project, NameDescription.nd("B1", "")));
+        // Branch with builds
+        Branch b2 = structureRepository.newBranch(Branch.of(project, NameDescription.nd("B2", "")));
+        LocalDateTime time = LocalDateTime.of(2016, 5, 1, 12, 0);
+        structureRepository.newBuild(Build.of(b2, NameDescription.nd("1", ""), Signature.of(time.minusDays(1), "test")));
+        Build build = structureRepository.newBuild(Build.of(b2, NameDescription.nd("2", ""), Signature.of(time, "test")));
+        // Promoted branch
+        PromotionLevel pl = structureRepository.newPromotionLevel(PromotionLevel.of(b2, NameDescription.nd("PRODUCTION", "")));
+        structureRepository.newPromotionRun(PromotionRun.of(build, pl, Signature.of("test"), ""));
+        // Gets the activities without promotions
+        List<BranchActivity> activities = structureRepository.getBranchActivities(project, Collections.emptyList());
+        assertEquals(2, activities.size());
+        assertEquals(b1.getId(), activities.get(0).getBranch().getId());
+        assertNull(activities.get(0).getLastBuildTime());
+        assertFalse(activities.get(0).isPromoted());
+        assertEquals(b2.getId(), activities.get(1).getBranch().getId());
+        assertEquals(time, activities.get(1).getLastBuildTime());
+        assertFalse(activities.get(1).isPromoted());
+        // Gets the activities with promotions
+        activities = structureRepository.getBranchActivities(project, Collections.singletonList("PRODUCTION"));
+        assertFalse(activities.get(0).isPromoted());
+        assertTrue(activities.get(1).isPromoted());
+        // Promotion to keep not matching
+        activities = structureRepository.getBranchActivities(project, Collections.singletonList("OTHER"));
+        assertFalse(activities.get(1).isPromoted());
+    }
+
+    @Test
+    public void disable_and_delete_branches() {
+        Project project = do_create_project();
+        Branch b1 = structureRepository.newBranch(Branch.of(project, NameDescription.nd("B1", "")));
+        Branch b2 = structureRepository.newBranch(Branch.of(project, NameDescription.nd("B2", "")));
+        Branch b3 = structureRepository.newBranch(Branch.of(project, NameDescription.nd("B3", "")));
+        // Disabling
+        structureRepository.disableBranches(Arrays.asList(b1.getId(), b2.getId()));
+        assertTrue(structureRepository.getBranch(b1.getId()).isDisabled());
+        assertTrue(structureRepository.getBranch(b2.getId()).isDisabled());
+        assertFalse(structureRepository.getBranch(b3.getId()).isDisabled());
+        // Deletion
+        assertTrue(structureRepository.deleteBranches(Arrays.asList(b1.getId(), b3.getId())).isSuccess());
+        List<Branch> branches = structureRepository.getBranchesForProject(project.getId());
+        assertEquals(1, branches.size());
+        assertEquals(b2.getId(), branches.get(0).getId());
+    }
+
+    @Test
+    public void last_validation_run_statuses_for_build() {
+        Branch branch = do_create_branch();
+        Build build = structureRepository.newBuild(Build.of(branch, NameDescription.nd("1", ""), Signature.of("test")));
+        ValidationStamp vs1 = structureRepository.newValidationStamp(ValidationStamp.of(branch, NameDescription.nd("VS1", "")));
+        ValidationStamp vs2 = structureRepository.newValidationStamp(ValidationStamp.of(branch, NameDescription.nd("VS2", "")));
+        ValidationStamp vs3 = structureRepository.newValidationStamp(ValidationStamp.of(branch, NameDescription.nd("VS3", "")));
+        Function<String, ValidationRunStatusID> statuses = id -> ValidationRunStatusID.of(id, id, true, ValidationRunStatusID.PASSED.equals(id));
+        LocalDateTime time = LocalDateTime.of(2016, 5, 1, 12, 0);
+        // VS1: failed, then passed in a second run
+        structureRepository.newValidationRun(ValidationRun.of(build, vs1, 0, Signature.of(time, "test"), ValidationRunStatusID.STATUS_FAILED, ""), statuses);
+        structureRepository.newValidationRun(ValidationRun.of(build, vs1, 0, Signature.of(time.plusMinutes(1), "test"), ValidationRunStatusID.STATUS_PASSED, ""), statuses);
+        // VS2: failed, then investigated
+        ValidationRun run = structureRepository.newValidationRun(ValidationRun.of(build, vs2, 0, Signature.of(time, "test"), ValidationRunStatusID.STATUS_FAILED, ""), statuses);
+        structureRepository.newValidationRunStatus(run, ValidationRunStatus.of(Signature.of(time.plusMinutes(2), "test"), ValidationRunStatusID.STATUS_INVESTIGATING, ""));
+        // VS3: not run
+        Map<ID, ValidationRunStatusID> result = structureRepository.getLastValidationRunStatusesForBuild(build, statuses);
+        assertEquals(2, result.size());
+        assertEquals(ValidationRunStatusID.PASSED, result.get(vs1.getId()).getId());
+        assertEquals(ValidationRunStatusID.INVESTIGATING, result.get(vs2.getId()).getId());
+        assertNull(result.get(vs3.getId()));
+    }
+
+    @Test
+    public void validation_run_order_and_statuses() {
+        Branch branch = do_create_branch();
+        Build build1 = structureRepository.newBuild(Build.of(branch, NameDescription.nd("1", ""), Signature.of("test")));
+        Build build2 = structureRepository.newBuild(Build.of(branch, NameDescription.nd("2", ""), Signature.of("test")));
+        ValidationStamp vs = structureRepository.newValidationStamp(ValidationStamp.of(branch, NameDescription.nd("VS", "")));
+        Function<String, ValidationRunStatusID> statuses = id -> ValidationRunStatusID.of(id, id, true, ValidationRunStatusID.PASSED.equals(id));
+        LocalDateTime time = LocalDateTime.of(2016, 5, 1, 12, 0);
+        // Runs for the first build
+        ValidationRun run11 = structureRepository.newValidationRun(ValidationRun.of(build1, vs, 0, Signature.of(time, "test"), ValidationRunStatusID.STATUS_FAILED, ""), statuses);
+        structureRepository.newValidationRunStatus(run11, ValidationRunStatus.of(Signature.of(time.plusMinutes(1), "test"), ValidationRunStatusID.STATUS_INVESTIGATING, ""));
+        ValidationRun run12 = structureRepository.newValidationRun(ValidationRun.of(build1, vs, 0, Signature.of(time.plusMinutes(2), "test"), ValidationRunStatusID.STATUS_PASSED, ""), statuses);
+        // Run for the second build
+        ValidationRun run21 = structureRepository.newValidationRun(ValidationRun.of(build2, vs, 0, Signature.of(time.plusMinutes(3), "test"), ValidationRunStatusID.STATUS_PASSED, ""), statuses);
+        // Run orders are computed per build and validation stamp
+        assertEquals(1, run11.getRunOrder());
+        assertEquals(2, run12.getRunOrder());
+        assertEquals(1, run21.getRunOrder());
+        // History of the validation stamp, with builds and statuses
+        List<ValidationRun> runs = structureRepository.getValidationRunsForValidationStamp(vs, 0, 10, statuses);
+        assertEquals(3, runs.size());
+        assertEquals(run21.getId(), runs.get(0).getId());
+        assertEquals("2", runs.get(0).getBuild().getName());
+        assertEquals(run12.getId(), runs.get(1).getId());
+        assertEquals(2, runs.get(1).getRunOrder());
+        assertEquals(run11.getId(), runs.get(2).getId());
+        assertEquals(1, runs.get(2).getRunOrder());
+        assertEquals("1", runs.get(2).getBuild().getName());
+        assertEquals(2, runs.get(2).getValidationRunStatuses().size());
+        assertEquals(ValidationRunStatusID.INVESTIGATING, runs.get(2).getLastStatus().getStatusID().getId());
+        // Runs of a build
+        runs = structureRepository.getValidationRunsForBuild(build1, statuses);
+        assertEquals(2, runs.size());
+        assertTrue(runs.stream().allMatch(run -> run.getValidationStamp().getId().equals(vs.getId())));
+    }
+
+    @Test
+    public void earliest_promotion_runs_after_builds() {
+        Branch branch = do_create_branch();
+        Branch other = do_create_branch();
+        Build build1 = structureRepository.newBuild(Build.of(branch, NameDescription.nd("1", ""), Signature.of("test")));
+        Build build2 = structureRepository.newBuild(Build.of(branch, NameDescription.nd("2", ""), Signature.of("test")));
+        Build build3 = structureRepository.newBuild(Build.of(branch, NameDescription.nd("3", ""), Signature.of("test")));
+        Build build4 = structureRepository.newBuild(Build.of(branch, NameDescription.nd("4", ""), Signature.of("test")));
+        Build otherBuild = structureRepository.newBuild(Build.of(other, NameDescription.nd("1", ""), Signature.of("test")));
+        PromotionLevel pl1 = structureRepository.newPromotionLevel(PromotionLevel.of(branch, NameDescription.nd("PL1", "")));
+        PromotionLevel pl2 = structureRepository.newPromotionLevel(PromotionLevel.of(branch, NameDescription.nd("PL2", "")));
+        PromotionLevel pl3 = structureRepository.newPromotionLevel(PromotionLevel.of(branch, NameDescription.nd("PL3", "")));
+        PromotionLevel otherPl = structureRepository.newPromotionLevel(PromotionLevel.of(other, NameDescription.nd("PL1", "")));
+        LocalDateTime time = LocalDateTime.of(2016, 5, 1, 12, 0);
+        // PL1: build 3 promoted before build 2
+        PromotionRun run13 = structureRepository.newPromotionRun(PromotionRun.of(build3, pl1, Signature.of(time, "test"), ""));
+        structureRepository.newPromotionRun(PromotionRun.of(build2, pl1, Signature.of(time.plusMinutes(1), "test"), ""));
+        // PL2: build 4 only
+        PromotionRun run24 = structureRepository.newPromotionRun(PromotionRun.of(build4, pl2, Signature.of(time.plusMinutes(2), "test"), ""));
+        // PL3: no promotion
+        // Other branch
+        PromotionRun otherRun = structureRepository.newPromotionRun(PromotionRun.of(otherBuild, otherPl, Signature.of(time, "test"), ""));
+
+        List<Build> builds = Arrays.asList(build1, build2, build4, otherBuild);
+        List<PromotionLevel> promotionLevels = Arrays.asList(pl1, pl2, pl3, otherPl);
+        Map<ID, List<PromotionRun>> runs = structureRepository.getEarliestPromotionRunsAfterBuilds(builds, promotionLevels);
+
+        assertEquals(Arrays.asList(run13.getId(), run24.getId()), runIds(runs, build1, pl1, pl2, pl3));
+        // Earliest promotion, not the one on the closest build
+        assertEquals(Arrays.asList(run13.getId(), run24.getId()), runIds(runs, build2, pl1, pl2, pl3));
+        assertEquals(Collections.singletonList(run24.getId()), runIds(runs, build4, pl1, pl2, pl3));
+        assertEquals(Collections.singletonList(otherRun.getId()), runIds(runs, otherBuild, otherPl));
+        // Promoted builds are loaded
+        PromotionRun run = runs.get(build1.getId()).stream().filter(r -> r.getId().equals(run13.getId())).findFirst().orElse(null);
+        assertNotNull(run);
+        assertEquals("3", run.getBuild().getName());
+        assertEquals(branch.getId(), run.getBuild().getBranch().getId());
+        assertEquals("PL1", run.getPromotionLevel().getName());
+        assertEquals(time, run.getSignature().getTime());
+        // Same result than one promotion level and one build at a time
+        for (Build build : builds) {
+            for (PromotionLevel promotionLevel : promotionLevels) {
+                if (promotionLevel.getBranch().getId().equals(build.getBranch().getId())) {
+                    assertEquals(
+                            structureRepository.getEarliestPromotionRunAfterBuild(promotionLevel, build).map(PromotionRun::getId),
+                            runs.getOrDefault(build.getId(), Collections.emptyList()).stream()
+                                    .filter(r -> r.getPromotionLevel().getId().equals(promotionLevel.getId()))
+                                    .map(PromotionRun::getId)
+                                    .findFirst()
+                    );
+                }
+            }
+        }
+    }
+
+    private static List<ID> runIds(Map<ID, List<PromotionRun>> runs, Build build, PromotionLevel... promotionLevels) {
+        List<PromotionRun> buildRuns = runs.getOrDefault(build.getId(), Collections.emptyList());
+        return Arrays.stream(promotionLevels)
+                .flatMap(promotionLevel -> buildRuns.stream().filter(r -> r.getPromotionLevel().getId().equals(promotionLevel.getId())))
+                .map(PromotionRun::getId)
+                .collect(Collectors.toList());
+    }
+
 }
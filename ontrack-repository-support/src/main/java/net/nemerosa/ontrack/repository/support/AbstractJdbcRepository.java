@@ -10,7 +10,10 @@ import net.nemerosa.ontrack.model.exceptions.JsonParsingException;
 import net.nemerosa.ontrack.model.exceptions.JsonWritingException;
 import net.nemerosa.ontrack.model.structure.ID;
 import net.nemerosa.ontrack.model.structure.Signature;
+import net.nemerosa.ontrack.model.support.SQLStatementMonitor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
@@ -33,6 +36,23 @@ public abstract class AbstractJdbcRepository extends NamedParameterJdbcDaoSuppor
         setDataSource(dataSource);
     }
 
+    /**
+     * The statements are timed using a {@link MonitoredJdbcTemplate}, which reports to the
+     * {@link SQLStatementMonitor} once it is injected.
+     */
+    @Override
+    protected JdbcTemplate createJdbcTemplate(DataSource dataSource) {
+        return new MonitoredJdbcTemplate(dataSource, getClass());
+    }
+
+    @Autowired(required = false)
+    public void setStatementMonitor(SQLStatementMonitor statementMonitor) {
+        JdbcTemplate jdbcTemplate = getJdbcTemplate();
+        if (jdbcTemplate instanceof MonitoredJdbcTemplate) {
+            ((MonitoredJdbcTemplate) jdbcTemplate).setMonitor(statementMonitor);
+        }
+    }
+
     protected MapSqlParameterSource params(String name, Object value) {
         return new MapSqlParameterSource(name, value);
     }
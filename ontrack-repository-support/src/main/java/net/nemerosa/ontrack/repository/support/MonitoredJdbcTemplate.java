@@ -0,0 +1,67 @@
+package net.nemerosa.ontrack.repository.support;
+
+import net.nemerosa.ontrack.model.support.SQLStatementMonitor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.*;
+
+import javax.sql.DataSource;
+
+/**
+ * {@link JdbcTemplate} which reports the execution time of its statements to a {@link SQLStatementMonitor}.
+ * <p>
+ * All the query, update and batch operations of the {@link JdbcTemplate}, including the ones
+ * issued through a {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate},
+ * end up in one of the two <code>execute</code> methods being overridden here. The measured
+ * time includes the mapping of the rows.
+ */
+class MonitoredJdbcTemplate extends JdbcTemplate {
+
+    private final Class<?> repository;
+    private volatile SQLStatementMonitor monitor;
+
+    MonitoredJdbcTemplate(DataSource dataSource, Class<?> repository) {
+        super(dataSource);
+        this.repository = repository;
+    }
+
+    void setMonitor(SQLStatementMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action) throws DataAccessException {
+        SQLStatementMonitor m = monitor;
+        if (m == null) {
+            return super.execute(psc, action);
+        }
+        long start = System.nanoTime();
+        try {
+            return super.execute(psc, action);
+        } finally {
+            m.record(repository, getSql(psc), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        SQLStatementMonitor m = monitor;
+        if (m == null) {
+            return super.execute(action);
+        }
+        long start = System.nanoTime();
+        try {
+            return super.execute(action);
+        } finally {
+            m.record(repository, getSql(action), System.nanoTime() - start);
+        }
+    }
+
+    private static String getSql(Object sqlProvider) {
+        if (sqlProvider instanceof SqlProvider) {
+            return ((SqlProvider) sqlProvider).getSql();
+        } else {
+            return null;
+        }
+    }
+
+}
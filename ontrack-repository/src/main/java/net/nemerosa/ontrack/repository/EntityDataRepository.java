@@ -2,6 +2,7 @@ package net.nemerosa.ontrack.repository;
 
 import net.nemerosa.ontrack.model.structure.ProjectEntity;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -14,6 +15,11 @@ public interface EntityDataRepository {
      */
     void store(ProjectEntity entity, String key, String value);
 
+    /**
+     * Stores several values at once
+     */
+    void storeAll(ProjectEntity entity, Map<String, String> values);
+
     /**
      * Retrieve
      */
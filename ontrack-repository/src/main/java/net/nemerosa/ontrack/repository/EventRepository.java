@@ -16,6 +16,11 @@ public interface EventRepository {
 
     void post(Event event);
 
+    /**
+     * Records several events at once, in the given order.
+     */
+    void post(List<Event> events);
+
     List<Event> query(
             List<Integer> allowedProjects,
             int offset,
@@ -46,4 +51,9 @@ public interface EventRepository {
     );
 
     Optional<Signature> getLastEventSignature(ProjectEntityType entityType, ID entityId, EventType eventType);
+
+    /**
+     * Gets the ID of the last posted event, or 0 if there is no event yet.
+     */
+    int getLastEventId();
 }
@@ -7,6 +7,7 @@ import net.nemerosa.ontrack.model.structure.ProjectEntity;
 import net.nemerosa.ontrack.model.structure.ProjectEntityType;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
@@ -17,6 +18,13 @@ public interface PropertyRepository {
 
     TProperty loadProperty(String typeName, ProjectEntityType entityType, ID entityId);
 
+    /**
+     * Loads a property for several entities of the same type at once.
+     *
+     * @return Properties which are defined, in no particular order
+     */
+    List<TProperty> loadProperties(String typeName, ProjectEntityType entityType, Collection<ID> entityIds);
+
     void saveProperty(String typeName, ProjectEntityType entityType, ID entityId, JsonNode data, String searchKey);
 
     Ack deleteProperty(String typeName, ProjectEntityType entityType, ID entityId);
@@ -0,0 +1,78 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.structure.SearchIndexEntry;
+import net.nemerosa.ontrack.model.structure.SearchIndexMatch;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage of the search index.
+ */
+public interface SearchIndexRepository {
+
+    /**
+     * Creates or updates entries, identified by their category and key.
+     *
+     * @param entries    Entries to save
+     * @param generation Generation of the index the entries belong to
+     */
+    void save(Collection<SearchIndexEntry> entries, int generation);
+
+    /**
+     * Gets the most recent generation of the entries, <code>0</code> if the index is empty.
+     */
+    int getLastGeneration();
+
+    /**
+     * Deletes the entries of a category which have not been saved in the given generation
+     * or in a later one.
+     */
+    void deleteOlderGenerations(String category, int generation);
+
+    /**
+     * Checks if an entry exists
+     */
+    boolean exists(String category, String key);
+
+    /**
+     * Among the given keys, gets the ones which exist in a category
+     */
+    Set<String> getExistingKeys(String category, Collection<String> keys);
+
+    /**
+     * Deletes an entry
+     */
+    void delete(String category, String key);
+
+    /**
+     * Deletes all the entries of a category whose key starts with the given prefix
+     */
+    void deleteByKeyPrefix(String category, String keyPrefix);
+
+    /**
+     * Deletes all the entries of a category
+     */
+    void deleteCategory(String category);
+
+    /**
+     * Total number of entries in the index
+     */
+    int count();
+
+    /**
+     * Looks for the entries whose token starts with the given token, the exact matches first. The token
+     * is case insensitive and <code>*</code> is accepted as a wildcard after the first character. Leading
+     * wildcards are ignored, so that the search always uses the index on the tokens.
+     *
+     * @param token      Token to look for
+     * @param projectIds Projects to restrict the search to. Entries which are not associated
+     *                   with any project are always returned.
+     * @param offset     Number of matches to skip
+     * @param count      Maximum number of matches to return
+     * @return Matches, sorted by decreasing accuracy
+     */
+    List<SearchIndexMatch> search(String token, Collection<Integer> projectIds, int offset, int count);
+
+}
@@ -1,7 +1,11 @@
 package net.nemerosa.ontrack.repository;
 
+import java.util.Map;
+
 /**
  * Collection of statistics about the data.
+ * <p>
+ * The counts are read from counters which are maintained when rows are created or deleted.
  */
 public interface StatsRepository {
     int getProjectCount();
@@ -23,4 +27,14 @@ public interface StatsRepository {
     int getPropertyCount();
 
     int getEventCount();
+
+    /**
+     * Gets all the counters at once, indexed by table name.
+     */
+    Map<String, Integer> getCounts();
+
+    /**
+     * Resets the counters from the actual content of the counted tables.
+     */
+    void reconcileCounts();
 }
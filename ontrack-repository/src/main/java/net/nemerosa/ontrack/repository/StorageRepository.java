@@ -20,6 +20,14 @@ public interface StorageRepository {
      */
     void storeJson(String store, String key, JsonNode node);
 
+    /**
+     * Stores several JSON data at once
+     *
+     * @param store Store (typically an extension class name)
+     * @param data  Data to store, indexed by key (null values to delete)
+     */
+    void storeAllJson(String store, Map<String, JsonNode> data);
+
     /**
      * Retrieves some JSON using a key
      *
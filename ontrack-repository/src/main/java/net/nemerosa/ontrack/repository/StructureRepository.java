@@ -4,7 +4,9 @@ import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.structure.*;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -39,6 +41,25 @@ public interface StructureRepository {
 
     Ack deleteBranch(ID branchId);
 
+    /**
+     * Gets the activity indicators for all the branches of a project, using one query.
+     *
+     * @param project             Project to scan
+     * @param promotionLevelNames Names of the promotion levels to check for each branch (can be empty)
+     * @return List of activity indicators, one per branch
+     */
+    List<BranchActivity> getBranchActivities(Project project, Collection<String> promotionLevelNames);
+
+    /**
+     * Disables a list of branches in one statement.
+     */
+    void disableBranches(Collection<ID> branchIds);
+
+    /**
+     * Deletes a list of branches in one statement.
+     */
+    Ack deleteBranches(Collection<ID> branchIds);
+
     // Builds
 
     Build newBuild(Build build);
@@ -76,6 +97,28 @@ public interface StructureRepository {
      */
     void builds(Project project, Predicate<Build> buildPredicate);
 
+    /**
+     * Gets a page of builds of a project, from the newest to the oldest, matching the branch name, build name,
+     * promotion and validation criteria of a search form. Property and build link criteria are not taken into
+     * account. Invalid branch or build name patterns do not match any build.
+     *
+     * @param project Project to search into
+     * @param form    Search criteria
+     * @param offset  Number of matching builds to skip
+     * @param count   Maximum number of builds to return
+     * @return List of matching builds
+     */
+    List<Build> buildSearch(Project project, BuildSearchForm form, int offset, int count);
+
+    /**
+     * Gets all the builds with the given name among a list of projects.
+     *
+     * @param buildName Exact name of the builds
+     * @param projects  Projects to look into
+     * @return List of builds, the newest first
+     */
+    List<Build> findBuildsByName(String buildName, Collection<Project> projects);
+
     Build getLastBuildForBranch(Branch branch);
 
     Ack deleteBuild(ID buildId);
@@ -86,6 +129,11 @@ public interface StructureRepository {
 
     void addBuildLink(ID fromBuildId, ID toBuildId);
 
+    /**
+     * Adds several links at once, existing links being kept.
+     */
+    void addBuildLinks(ID fromBuildId, Collection<ID> toBuildIds);
+
     void deleteBuildLink(ID fromBuildId, ID toBuildId);
 
     List<Build> getBuildLinksFrom(ID buildId);
@@ -98,6 +146,37 @@ public interface StructureRepository {
 
     boolean isLinkedTo(ID id, String project, String buildPattern);
 
+    /**
+     * Walks the build links from a build, using one query per level of depth.
+     *
+     * @param build      Origin of the graph
+     * @param direction  Direction of the links to follow
+     * @param depth      Maximum number of levels to explore
+     * @param maxSize    Maximum number of links to collect, and therefore of builds
+     * @param projectIds Projects whose builds can be part of the graph - the links going through
+     *                   builds of other projects are not followed
+     * @return Graph of builds
+     */
+    default BuildLinkGraph getBuildLinkGraph(Build build, BuildLinkDirection direction, int depth, int maxSize, Collection<ID> projectIds) {
+        return getBuildLinkGraph(build, direction, depth, maxSize, projectIds, null);
+    }
+
+    /**
+     * Walks the build links from a build, using one query per level of depth, without following
+     * the links of the builds of a given project.
+     *
+     * @param build         Origin of the graph
+     * @param direction     Direction of the links to follow
+     * @param depth         Maximum number of levels to explore
+     * @param maxSize       Maximum number of links to collect, and therefore of builds
+     * @param projectIds    Projects whose builds can be part of the graph - the links going through
+     *                      builds of other projects are not followed
+     * @param leafProjectId Project whose builds are part of the graph, but whose links are not followed,
+     *                      or <code>null</code> to follow the links of all the builds
+     * @return Graph of builds
+     */
+    BuildLinkGraph getBuildLinkGraph(Build build, BuildLinkDirection direction, int depth, int maxSize, Collection<ID> projectIds, ID leafProjectId);
+
     // Promotion levels
 
     List<PromotionLevel> getPromotionLevelListForBranch(ID branchId);
@@ -140,6 +219,16 @@ public interface StructureRepository {
 
     Optional<PromotionRun> getEarliestPromotionRunAfterBuild(PromotionLevel promotionLevel, Build build);
 
+    /**
+     * Gets, for several builds at once, the earliest promotion run of each promotion level of their branch,
+     * on the build itself or on a later build.
+     *
+     * @param builds          Builds to get the promotions for, possibly on different branches
+     * @param promotionLevels Promotion levels to consider
+     * @return Earliest promotion runs indexed by build ID. The promotion levels without any run are absent.
+     */
+    Map<ID, List<PromotionRun>> getEarliestPromotionRunsAfterBuilds(Collection<Build> builds, Collection<PromotionLevel> promotionLevels);
+
     // Validation stamps
 
     List<ValidationStamp> getValidationStampListForBranch(ID branchId);
@@ -170,7 +259,31 @@ public interface StructureRepository {
 
     List<ValidationRun> getValidationRunsForBuildAndValidationStamp(Build build, ValidationStamp validationStamp, Function<String, ValidationRunStatusID> validationRunStatusService);
 
+    /**
+     * Gets, in one query, the last status of the last validation run of each validation stamp
+     * which has been run for the given build.
+     *
+     * @param build                      Build to get the statuses for
+     * @param validationRunStatusService Conversion of status IDs
+     * @return Map of validation stamp IDs to the status of their last run. Validation stamps which have not been
+     * run for this build are not present in the map.
+     */
+    Map<ID, ValidationRunStatusID> getLastValidationRunStatusesForBuild(Build build, Function<String, ValidationRunStatusID> validationRunStatusService);
+
     List<ValidationRun> getValidationRunsForValidationStamp(ValidationStamp validationStamp, int offset, int count, Function<String, ValidationRunStatusID> validationRunStatusService);
 
     ValidationRun newValidationRunStatus(ValidationRun validationRun, ValidationRunStatus runStatus);
+
+    // Entities
+
+    /**
+     * Loads a list of entities of the same type, together with their parents, using one query
+     * per level of the hierarchy.
+     *
+     * @param type                       Type of the entities to load
+     * @param ids                        IDs of the entities to load
+     * @param validationRunStatusService Conversion of status IDs, used for the validation runs
+     * @return Map of the loaded entities, indexed by ID. Entities which do not exist are not present in the map.
+     */
+    Map<ID, ProjectEntity> getEntities(ProjectEntityType type, Collection<ID> ids, Function<String, ValidationRunStatusID> validationRunStatusService);
 }
@@ -12,8 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -25,6 +25,11 @@ public class DecorationServiceImpl implements DecorationService {
     private final ExtensionManager extensionManager;
     private final SecurityService securityService;
 
+    /**
+     * Decorator classes, indexed by the fact they override {@link Decorator#getDecorations(Collection)}
+     */
+    private final Map<Class<?>, Boolean> batchDecorators = new ConcurrentHashMap<>();
+
     @Autowired
     public DecorationServiceImpl(ExtensionManager extensionManager, SecurityService securityService) {
         this.extensionManager = extensionManager;
@@ -48,6 +53,74 @@ public class DecorationServiceImpl implements DecorationService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<ProjectEntity, List<Decoration<?>>> getDecorations(Collection<? extends ProjectEntity> entities) {
+        Map<ProjectEntity, List<Decoration<?>>> decorations = new LinkedHashMap<>();
+        entities.forEach(entity -> decorations.put(entity, new ArrayList<>()));
+        // Downloading the decorations with the current security context
+        Function<DecorationExtension, Map<ProjectEntity, List<Decoration<?>>>> securedDecoratorFunction = securityService.runner(
+                decorator -> getDecorations(
+                        decorations.keySet().stream()
+                                .filter(entity -> decorator.getScope().contains(entity.getProjectEntityType()))
+                                .collect(Collectors.toList()),
+                        decorator
+                )
+        );
+        // One decorator after the other, so that the decorations are in the same order as for a single entity
+        for (DecorationExtension decorator : extensionManager.getExtensions(DecorationExtension.class)) {
+            securedDecoratorFunction.apply(decorator).forEach((entity, entityDecorations) -> {
+                List<Decoration<?>> list = decorations.get(entity);
+                if (list != null && entityDecorations != null) {
+                    list.addAll(entityDecorations);
+                }
+            });
+        }
+        // OK
+        return decorations;
+    }
+
+    /**
+     * Gets the decorations for several entities at once.
+     * <p>
+     * When the decorator can decorate several entities in one go and fails, all the entities get an
+     * "error" decoration for this decorator only. When the decorator does not override
+     * {@link Decorator#getDecorations(Collection)}, the entities are decorated one by one here, so that
+     * an error on one entity does not affect the other ones.
+     */
+    protected <T> Map<ProjectEntity, List<Decoration<T>>> getDecorations(Collection<ProjectEntity> entities, Decorator<T> decorator) {
+        if (entities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<ProjectEntity, List<Decoration<T>>> decorations = new LinkedHashMap<>();
+        if (isBatchDecorator(decorator)) {
+            try {
+                return decorator.getDecorations(entities);
+            } catch (Exception ex) {
+                List<Decoration<T>> error = Collections.singletonList(Decoration.error(decorator, getErrorMessage(ex)));
+                entities.forEach(entity -> decorations.put(entity, error));
+            }
+        } else {
+            for (ProjectEntity entity : entities) {
+                //noinspection unchecked
+                decorations.put(entity, (List<Decoration<T>>) getDecorations(entity, decorator));
+            }
+        }
+        return decorations;
+    }
+
+    /**
+     * Checks if a decorator overrides {@link Decorator#getDecorations(Collection)}.
+     */
+    protected boolean isBatchDecorator(Decorator<?> decorator) {
+        return batchDecorators.computeIfAbsent(decorator.getClass(), type -> {
+            try {
+                return !type.getMethod("getDecorations", Collection.class).isDefault();
+            } catch (NoSuchMethodException ex) {
+                return false;
+            }
+        });
+    }
+
     /**
      * Gets the decoration for an entity, and returns an "error" decoration in case of problem.
      */
@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -58,6 +59,12 @@ public class EntityDataServiceImpl implements EntityDataService {
         repository.store(entity, key, value);
     }
 
+    @Override
+    public void storeAll(ProjectEntity entity, Map<String, String> values) {
+        securityService.checkProjectFunction(entity, ProjectConfig.class);
+        repository.storeAll(entity, values);
+    }
+
     @Override
     public Optional<Boolean> retrieveBoolean(ProjectEntity entity, String key) {
         return retrieve(entity, key, Boolean::valueOf);
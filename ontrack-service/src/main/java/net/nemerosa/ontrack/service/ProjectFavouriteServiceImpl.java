@@ -4,6 +4,7 @@ import net.nemerosa.ontrack.model.security.ProjectView;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.Project;
 import net.nemerosa.ontrack.model.structure.ProjectFavouriteService;
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
 import net.nemerosa.ontrack.repository.ProjectFavouriteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,11 +16,13 @@ public class ProjectFavouriteServiceImpl implements ProjectFavouriteService {
 
     private final ProjectFavouriteRepository repository;
     private final SecurityService securityService;
+    private final ChangeMarkerService changeMarkerService;
 
     @Autowired
-    public ProjectFavouriteServiceImpl(ProjectFavouriteRepository repository, SecurityService securityService) {
+    public ProjectFavouriteServiceImpl(ProjectFavouriteRepository repository, SecurityService securityService, ChangeMarkerService changeMarkerService) {
         this.repository = repository;
         this.securityService = securityService;
+        this.changeMarkerService = changeMarkerService;
     }
 
     @Override
@@ -34,9 +37,11 @@ public class ProjectFavouriteServiceImpl implements ProjectFavouriteService {
     @Override
     public void setProjectFavourite(Project project, boolean favourite) {
         if (securityService.isProjectFunctionGranted(project, ProjectView.class)) {
-            securityService.getAccount().ifPresent(account ->
-                    repository.setProjectFavourite(account.id(), project.id(), favourite)
-            );
+            securityService.getAccount().ifPresent(account -> {
+                repository.setProjectFavourite(account.id(), project.id(), favourite);
+                // Favourites are not recorded as events
+                changeMarkerService.changed();
+            });
         }
     }
 }
@@ -20,7 +20,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -198,6 +200,24 @@ public class PropertyServiceImpl implements PropertyService {
         return type.fromStorage(t.getJson());
     }
 
+    @Override
+    public <T> Map<ProjectEntity, T> getPropertyValues(Collection<? extends ProjectEntity> entities, Class<? extends PropertyType<T>> propertyTypeClass) {
+        PropertyType<T> type = getPropertyTypeByName(propertyTypeClass.getName());
+        Map<ProjectEntity, T> values = new LinkedHashMap<>();
+        // One query per type of entity
+        entities.stream()
+                .filter(entity -> type.getSupportedEntityTypes().contains(entity.getProjectEntityType()))
+                .filter(entity -> type.canView(entity, securityService))
+                .collect(Collectors.groupingBy(ProjectEntity::getProjectEntityType))
+                .forEach((entityType, list) -> {
+                    Map<ID, ProjectEntity> index = list.stream()
+                            .collect(Collectors.toMap(ProjectEntity::getId, Function.identity(), (a, b) -> a));
+                    propertyRepository.loadProperties(type.getClass().getName(), entityType, index.keySet())
+                            .forEach(t -> values.put(index.get(t.getEntityId()), type.fromStorage(t.getJson())));
+                });
+        return values;
+    }
+
     @Override
     public Form getPropertyEditionForm(ProjectEntity entity, String propertyTypeName) {
         // Gets the property using its fully qualified type name
@@ -0,0 +1,323 @@
+package net.nemerosa.ontrack.service;
+
+import net.nemerosa.ontrack.job.*;
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventListener;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.JobProvider;
+import net.nemerosa.ontrack.model.support.StartupService;
+import net.nemerosa.ontrack.repository.SearchIndexRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the search index using the {@link SearchIndexer}s: incrementally on events and
+ * completely using the rebuild job.
+ * <p>
+ * The rebuild saves the entries in a new generation of the index, batch by batch, and removes the
+ * entries of the previous generations only once a category has been completely indexed, so that the
+ * index remains usable while being rebuilt.
+ */
+@Service
+@Transactional
+public class SearchIndexServiceImpl implements SearchIndexService, EventListener, JobProvider, StartupService {
+
+    private static final JobType SEARCH_INDEX_REBUILD_JOB =
+            JobCategory.of("search").withName("Search")
+                    .getType("search-index-rebuild").withName("Search index rebuild");
+
+    private static final JobType SEARCH_INDEX_CLEANUP_JOB =
+            JobCategory.of("search").withName("Search")
+                    .getType("search-index-cleanup").withName("Search index cleanup");
+
+    /**
+     * Number of entries saved at once when rebuilding the index
+     */
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private final ApplicationContext applicationContext;
+    private final SearchIndexRepository searchIndexRepository;
+    private final StructureService structureService;
+    private final JobScheduler jobScheduler;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Current generation of the index, loaded lazily.
+     */
+    private AtomicInteger generation;
+
+    /**
+     * Entries found in the index while their item is not available any longer, to be removed
+     * by the cleanup job.
+     */
+    private final Set<SearchIndexEntry> staleEntries = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * Indexers, collected lazily since they may depend on this service.
+     */
+    private Map<String, SearchIndexer> indexers;
+
+    @Autowired
+    public SearchIndexServiceImpl(ApplicationContext applicationContext, SearchIndexRepository searchIndexRepository, StructureService structureService, JobScheduler jobScheduler, PlatformTransactionManager transactionManager) {
+        this.applicationContext = applicationContext;
+        this.searchIndexRepository = searchIndexRepository;
+        this.structureService = structureService;
+        this.jobScheduler = jobScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    protected synchronized Map<String, SearchIndexer> getIndexers() {
+        if (indexers == null) {
+            indexers = applicationContext.getBeansOfType(SearchIndexer.class).values().stream()
+                    .collect(Collectors.toMap(SearchIndexer::getCategory, indexer -> indexer));
+        }
+        return indexers;
+    }
+
+    protected synchronized AtomicInteger getGeneration() {
+        if (generation == null) {
+            generation = new AtomicInteger(searchIndexRepository.getLastGeneration());
+        }
+        return generation;
+    }
+
+    @Override
+    public void index(SearchIndexEntry entry) {
+        index(Collections.singletonList(entry));
+    }
+
+    @Override
+    public void index(Collection<SearchIndexEntry> entries) {
+        searchIndexRepository.save(entries, getGeneration().get());
+    }
+
+    @Override
+    public Set<String> getIndexedKeys(String category, Collection<String> keys) {
+        return searchIndexRepository.getExistingKeys(category, keys);
+    }
+
+    @Override
+    public void remove(String category, String key) {
+        searchIndexRepository.delete(category, key);
+    }
+
+    @Override
+    public void removeAll(String category, String keyPrefix) {
+        searchIndexRepository.deleteByKeyPrefix(category, keyPrefix);
+    }
+
+    @Override
+    public SearchResults search(SearchRequest request) {
+        int offset = Math.max(0, request.getOffset());
+        int count = Math.min(Math.max(1, request.getCount()), SearchRequest.MAX_COUNT);
+        // Projects the user is authorised to see
+        List<Integer> projectIds = structureService.getProjectList().stream()
+                .map(Entity::id)
+                .collect(Collectors.toList());
+        // Looks into the index, one more match telling if there is a next page
+        List<SearchIndexMatch> matches = searchIndexRepository.search(
+                request.getToken(),
+                projectIds,
+                offset,
+                count + 1
+        );
+        boolean hasMore = matches.size() > count;
+        if (hasMore) {
+            matches = matches.subList(0, count);
+        }
+        // Conversion into results, category by category
+        Map<String, List<SearchIndexMatch>> matchesPerCategory = matches.stream()
+                .collect(Collectors.groupingBy(match -> match.getEntry().getCategory()));
+        Map<SearchIndexEntry, SearchResult> results = new HashMap<>();
+        matchesPerCategory.forEach((category, categoryMatches) -> {
+            SearchIndexer indexer = getIndexers().get(category);
+            if (indexer == null) {
+                categoryMatches.forEach(match -> staleEntries.add(match.getEntry()));
+            } else {
+                List<Optional<SearchResult>> categoryResults = indexer.toSearchResults(categoryMatches);
+                for (int i = 0; i < categoryMatches.size(); i++) {
+                    SearchIndexEntry entry = categoryMatches.get(i).getEntry();
+                    Optional<SearchResult> result = categoryResults.get(i);
+                    if (result.isPresent()) {
+                        results.put(entry, result.get());
+                    } else {
+                        // The indexed item is gone
+                        staleEntries.add(entry);
+                    }
+                }
+            }
+        });
+        // Removal of the stale entries outside of the search
+        if (!staleEntries.isEmpty()) {
+            jobScheduler.fireImmediately(SEARCH_INDEX_CLEANUP_JOB.getKey("main"));
+        }
+        // Results in the order of the matches
+        return new SearchResults(
+                matches.stream()
+                        .map(match -> results.get(match.getEntry()))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()),
+                hasMore
+        );
+    }
+
+    /**
+     * Removes the stale entries found by the searches.
+     *
+     * @return Number of removed entries
+     */
+    protected int cleanup() {
+        int count = 0;
+        Iterator<SearchIndexEntry> iterator = staleEntries.iterator();
+        while (iterator.hasNext()) {
+            SearchIndexEntry entry = iterator.next();
+            iterator.remove();
+            searchIndexRepository.delete(entry.getCategory(), entry.getKey());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Not run in a transaction of its own: each batch is saved in its own transaction, unless the
+     * caller already runs in one.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public synchronized int rebuild() {
+        int rebuildGeneration = getGeneration().incrementAndGet();
+        int total = 0;
+        for (SearchIndexer indexer : getIndexers().values()) {
+            String category = indexer.getCategory();
+            List<SearchIndexEntry> batch = new ArrayList<>();
+            int[] count = {0};
+            indexer.indexAll(entry -> {
+                batch.add(entry);
+                count[0]++;
+                if (batch.size() >= REBUILD_BATCH_SIZE) {
+                    save(batch, rebuildGeneration);
+                    batch.clear();
+                }
+            });
+            save(batch, rebuildGeneration);
+            // Entries which have not been found again
+            transactionTemplate.execute(status -> {
+                searchIndexRepository.deleteOlderGenerations(category, rebuildGeneration);
+                return null;
+            });
+            logger.info("[search] {} entries indexed for {}", count[0], category);
+            total += count[0];
+        }
+        return total;
+    }
+
+    /**
+     * Saves a batch of entries in its own transaction
+     */
+    private void save(List<SearchIndexEntry> batch, int rebuildGeneration) {
+        transactionTemplate.execute(status -> {
+            searchIndexRepository.save(batch, rebuildGeneration);
+            return null;
+        });
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        getIndexers().values().forEach(indexer -> indexer.onEvent(event, this));
+    }
+
+    @Override
+    public Collection<JobRegistration> getStartingJobs() {
+        return Arrays.asList(
+                JobRegistration.of(createRebuildJob()).withSchedule(Schedule.EVERY_DAY.after(1)),
+                // Fired by the searches only
+                JobRegistration.of(createCleanupJob()).withSchedule(Schedule.NONE)
+        );
+    }
+
+    private Job createRebuildJob() {
+        return new Job() {
+            @Override
+            public JobKey getKey() {
+                return SEARCH_INDEX_REBUILD_JOB.getKey("main");
+            }
+
+            @Override
+            public JobRun getTask() {
+                return runListener -> {
+                    int count = rebuild();
+                    runListener.message("%d entries indexed.", count);
+                };
+            }
+
+            @Override
+            public String getDescription() {
+                return "Rebuilding the search index";
+            }
+
+            @Override
+            public boolean isDisabled() {
+                return false;
+            }
+        };
+    }
+
+    private Job createCleanupJob() {
+        return new Job() {
+            @Override
+            public JobKey getKey() {
+                return SEARCH_INDEX_CLEANUP_JOB.getKey("main");
+            }
+
+            @Override
+            public JobRun getTask() {
+                return runListener -> {
+                    int count = cleanup();
+                    runListener.message("%d stale entries removed.", count);
+                };
+            }
+
+            @Override
+            public String getDescription() {
+                return "Removing the stale entries from the search index";
+            }
+
+            @Override
+            public boolean isDisabled() {
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return "Search index initialisation";
+    }
+
+    @Override
+    public int startupOrder() {
+        // After the registration of the rebuild job
+        return JOB_REGISTRATION + 1;
+    }
+
+    @Override
+    public void start() {
+        if (searchIndexRepository.count() == 0) {
+            jobScheduler.fireImmediately(SEARCH_INDEX_REBUILD_JOB.getKey("main"));
+        }
+    }
+}
@@ -1,30 +1,37 @@
 package net.nemerosa.ontrack.service;
 
-import net.nemerosa.ontrack.model.structure.SearchProvider;
-import net.nemerosa.ontrack.model.structure.SearchRequest;
-import net.nemerosa.ontrack.model.structure.SearchResult;
-import net.nemerosa.ontrack.model.structure.SearchService;
+import net.nemerosa.ontrack.model.structure.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service
 public class SearchServiceImpl implements SearchService {
 
+    private final SearchIndexService searchIndexService;
     private final Collection<SearchProvider> providers;
 
     @Autowired
-    public SearchServiceImpl(Collection<SearchProvider> providers) {
+    public SearchServiceImpl(SearchIndexService searchIndexService, Collection<SearchProvider> providers) {
+        this.searchIndexService = searchIndexService;
         this.providers = providers;
     }
 
     @Override
-    public Collection<SearchResult> search(SearchRequest request) {
-        return providers.stream()
-                .filter(provider -> provider.isTokenSearchable(request.getToken()))
-                .flatMap(provider -> provider.search(request.getToken()).stream())
-                .collect(Collectors.toList());
+    public SearchResults search(SearchRequest request) {
+        // Ranked & paginated results from the index
+        SearchResults indexResults = searchIndexService.search(request);
+        List<SearchResult> results = new ArrayList<>(indexResults.getResults());
+        // Results of the providers which are not indexed, for the first page only
+        if (request.getOffset() == 0) {
+            providers.stream()
+                    .filter(provider -> provider.isTokenSearchable(request.getToken()))
+                    .flatMap(provider -> provider.search(request.getToken()).stream())
+                    .forEach(results::add);
+        }
+        return new SearchResults(results, indexResults.isHasMore());
     }
 }
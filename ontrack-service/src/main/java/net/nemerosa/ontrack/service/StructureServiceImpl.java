@@ -4,13 +4,11 @@ import com.google.common.collect.Iterables;
 import net.nemerosa.ontrack.common.CachedSupplier;
 import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.common.Time;
-import net.nemerosa.ontrack.common.Utils;
 import net.nemerosa.ontrack.extension.api.BuildValidationExtension;
 import net.nemerosa.ontrack.extension.api.ExtensionManager;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.buildfilter.BuildFilter;
 import net.nemerosa.ontrack.model.buildfilter.BuildFilterResult;
-import net.nemerosa.ontrack.model.buildfilter.DefaultBuildFilter;
 import net.nemerosa.ontrack.model.events.EventFactory;
 import net.nemerosa.ontrack.model.events.EventPostService;
 import net.nemerosa.ontrack.model.exceptions.*;
@@ -21,6 +19,8 @@ import net.nemerosa.ontrack.model.settings.PredefinedPromotionLevelService;
 import net.nemerosa.ontrack.model.settings.PredefinedValidationStampService;
 import net.nemerosa.ontrack.model.settings.SecuritySettings;
 import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
 import net.nemerosa.ontrack.model.support.PropertyServiceHelper;
 import net.nemerosa.ontrack.repository.StructureRepository;
 import org.apache.commons.lang3.StringUtils;
@@ -34,7 +34,6 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static net.nemerosa.ontrack.model.structure.Entity.isEntityDefined;
@@ -46,6 +45,11 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 @Transactional
 public class StructureServiceImpl implements StructureService {
 
+    /**
+     * Number of builds read at once by the build search when some criteria must be checked build by build
+     */
+    private static final int BUILD_SEARCH_PAGE_SIZE = 100;
+
     private final SecurityService securityService;
     private final EventPostService eventPostService;
     private final EventFactory eventFactory;
@@ -57,9 +61,11 @@ public class StructureServiceImpl implements StructureService {
     private final PredefinedValidationStampService predefinedValidationStampService;
     private final DecorationService decorationService;
     private final ProjectFavouriteService projectFavouriteService;
+    private final OntrackConfigProperties ontrackConfigProperties;
+    private final ChangeMarkerService changeMarkerService;
 
     @Autowired
-    public StructureServiceImpl(SecurityService securityService, EventPostService eventPostService, EventFactory eventFactory, ValidationRunStatusService validationRunStatusService, StructureRepository structureRepository, ExtensionManager extensionManager, PropertyService propertyService, PredefinedPromotionLevelService predefinedPromotionLevelService, PredefinedValidationStampService predefinedValidationStampService, DecorationService decorationService, ProjectFavouriteService projectFavouriteService) {
+    public StructureServiceImpl(SecurityService securityService, EventPostService eventPostService, EventFactory eventFactory, ValidationRunStatusService validationRunStatusService, StructureRepository structureRepository, ExtensionManager extensionManager, PropertyService propertyService, PredefinedPromotionLevelService predefinedPromotionLevelService, PredefinedValidationStampService predefinedValidationStampService, DecorationService decorationService, ProjectFavouriteService projectFavouriteService, OntrackConfigProperties ontrackConfigProperties, ChangeMarkerService changeMarkerService) {
         this.securityService = securityService;
         this.eventPostService = eventPostService;
         this.eventFactory = eventFactory;
@@ -71,6 +77,8 @@ public class StructureServiceImpl implements StructureService {
         this.predefinedValidationStampService = predefinedValidationStampService;
         this.decorationService = decorationService;
         this.projectFavouriteService = projectFavouriteService;
+        this.ontrackConfigProperties = ontrackConfigProperties;
+        this.changeMarkerService = changeMarkerService;
     }
 
     @Override
@@ -216,6 +224,42 @@ public class StructureServiceImpl implements StructureService {
         return structureRepository.deleteBranch(branchId);
     }
 
+    @Override
+    public List<BranchActivity> getBranchActivities(Project project, Collection<String> promotionLevelNames) {
+        securityService.checkProjectFunction(project.id(), ProjectView.class);
+        return structureRepository.getBranchActivities(project, promotionLevelNames);
+    }
+
+    @Override
+    public void disableBranches(List<Branch> branches) {
+        // Security, once per project
+        branches.stream()
+                .map(Branch::projectId)
+                .distinct()
+                .forEach(projectId -> securityService.checkProjectFunction(projectId, BranchEdit.class));
+        // Disabling
+        structureRepository.disableBranches(
+                branches.stream().map(Branch::getId).collect(Collectors.toList())
+        );
+        // Events
+        branches.forEach(branch -> eventPostService.post(eventFactory.updateBranch(branch.withDisabled(true))));
+    }
+
+    @Override
+    public Ack deleteBranches(List<Branch> branches) {
+        // Security, once per project
+        branches.stream()
+                .map(Branch::projectId)
+                .distinct()
+                .forEach(projectId -> securityService.checkProjectFunction(projectId, BranchDelete.class));
+        // Events
+        branches.forEach(branch -> eventPostService.post(eventFactory.deleteBranch(branch)));
+        // Deletion
+        return structureRepository.deleteBranches(
+                branches.stream().map(Branch::getId).collect(Collectors.toList())
+        );
+    }
+
     protected PromotionView toPromotionView(PromotionLevel promotionLevel) {
         // Gets the last build having this promotion level
         PromotionRun promotionRun = getLastPromotionRunForPromotionLevel(promotionLevel);
@@ -316,6 +360,64 @@ public class StructureServiceImpl implements StructureService {
         return newBuild;
     }
 
+    @Override
+    public Build newBuildBatch(Branch branch, BuildBatchRequest request) {
+        return eventPostService.batch(() -> {
+            Signature signature = securityService.getCurrentSignature();
+            // Existing or new build
+            Build build = findBuildByName(branch.getProject().getName(), branch.getName(), request.getName())
+                    .orElseGet(() -> newBuild(Build.of(branch, request.asNameDescription(), signature)));
+            // Properties
+            editProperties(build, request.getProperties());
+            // Links
+            if (!request.getLinks().isEmpty()) {
+                securityService.checkProjectFunction(build, BuildConfig.class);
+                structureRepository.addBuildLinks(
+                        build.getId(),
+                        request.getLinks().stream()
+                                .map(this::getBuildLinkTarget)
+                                .map(Build::getId)
+                                .collect(Collectors.toCollection(LinkedHashSet::new))
+                );
+                buildLinksChanged();
+            }
+            // Validation runs
+            for (ValidationRunRequest validationRunRequest : request.getValidationRuns()) {
+                ValidationRun validationRun = newValidationRun(ValidationRun.of(
+                        build,
+                        getOrCreateValidationStamp(branch, validationRunRequest.getValidationStampId(), validationRunRequest.getValidationStampName()),
+                        0,
+                        signature,
+                        validationRunStatusService.getValidationRunStatus(validationRunRequest.getValidationRunStatusId()),
+                        validationRunRequest.getDescription()
+                ));
+                editProperties(validationRun, validationRunRequest.getProperties());
+            }
+            // Promotion runs
+            for (PromotionRunRequest promotionRunRequest : request.getPromotionRuns()) {
+                PromotionRun promotionRun = newPromotionRun(PromotionRun.of(
+                        build,
+                        getOrCreatePromotionLevel(branch, promotionRunRequest.getPromotionLevelId(), promotionRunRequest.getPromotionLevelName()),
+                        signature.withTime(promotionRunRequest.getDateTime()),
+                        promotionRunRequest.getDescription()
+                ));
+                editProperties(promotionRun, promotionRunRequest.getProperties());
+            }
+            // OK
+            return build;
+        });
+    }
+
+    private void editProperties(ProjectEntity entity, List<PropertyCreationRequest> properties) {
+        for (PropertyCreationRequest propertyCreationRequest : properties) {
+            propertyService.editProperty(
+                    entity,
+                    propertyCreationRequest.getPropertyTypeName(),
+                    propertyCreationRequest.getPropertyData()
+            );
+        }
+    }
+
     @Override
     public Build saveBuild(Build build) {
         // Validation
@@ -403,42 +505,14 @@ public class StructureServiceImpl implements StructureService {
     public List<Build> buildSearch(ID projectId, BuildSearchForm form) {
         // Gets the project
         Project project = getProject(projectId);
-        // Collects the builds for this project
-        final List<Build> builds = new ArrayList<>();
-        // Filter for the builds
+        // Names, promotion & validation are filtered by the query, the other criteria are checked for each build
+        String linkedFrom = form.getLinkedFrom();
+        String linkedTo = form.getLinkedTo();
+        boolean filtered = StringUtils.isNotBlank(form.getProperty()) || isNotBlank(linkedFrom) || isNotBlank(linkedTo);
         Predicate<Build> buildPredicate = build -> {
-            // Build view
-            Supplier<BuildView> buildViewSupplier = CachedSupplier.of(() -> getBuildView(build, false));
-            // Branch name
-            boolean accept;
-            accept = !StringUtils.isNotBlank(form.getBranchName())
-                    || Utils.safeRegexMatch(form.getBranchName(), build.getBranch().getName());
-            // Build name
-            if (accept && StringUtils.isNotBlank(form.getBuildName())) {
-                if (form.isBuildExactMatch()) {
-                    accept = StringUtils.equals(form.getBuildName(), build.getName());
-                } else {
-                    accept = Utils.safeRegexMatch(form.getBuildName(), build.getName());
-                }
-            }
-            // Promotion name
-            if (accept && StringUtils.isNotBlank(form.getPromotionName())) {
-                BuildView buildView = buildViewSupplier.get();
-                accept = buildView.getPromotionRuns().stream()
-                        .filter(run -> form.getPromotionName().equals(run.getPromotionLevel().getName()))
-                        .findAny()
-                        .isPresent();
-            }
-            // Validation stamp name
-            if (accept && StringUtils.isNotBlank(form.getValidationStampName())) {
-                BuildView buildView = buildViewSupplier.get();
-                accept = buildView.getValidationStampRunViews().stream()
-                        .filter(validationStampRunView -> validationStampRunView.hasValidationStamp(form.getValidationStampName(), ValidationRunStatusID.PASSED))
-                        .findAny()
-                        .isPresent();
-            }
+            boolean accept = true;
             // Property & property value
-            if (accept && StringUtils.isNotBlank(form.getProperty())) {
+            if (StringUtils.isNotBlank(form.getProperty())) {
                 accept = PropertyServiceHelper.hasProperty(
                         propertyService,
                         build,
@@ -446,28 +520,37 @@ public class StructureServiceImpl implements StructureService {
                         form.getPropertyValue());
             }
             // Linked from
-            String linkedFrom = form.getLinkedFrom();
             if (accept && isNotBlank(linkedFrom)) {
                 String projectName = StringUtils.substringBefore(linkedFrom, ":");
                 String buildPattern = StringUtils.substringAfter(linkedFrom, ":");
                 accept = isLinkedFrom(build, projectName, buildPattern);
             }
             // Linked to
-            String linkedTo = form.getLinkedTo();
             if (accept && isNotBlank(linkedTo)) {
                 String projectName = StringUtils.substringBefore(linkedTo, ":");
                 String buildPattern = StringUtils.substringAfter(linkedTo, ":");
                 accept = isLinkedTo(build, projectName, buildPattern);
             }
-            // Accepting the build into the list?
-            if (accept) {
-                builds.add(build);
-            }
-            // Maximum count reached?
-            return builds.size() < form.getMaximumCount();
+            return accept;
         };
-        // Query
-        structureRepository.builds(project, buildPredicate);
+        // Reads the matching builds page by page until the maximum count is reached
+        int maximumCount = form.getMaximumCount();
+        int pageSize = filtered ? Math.max(maximumCount, BUILD_SEARCH_PAGE_SIZE) : maximumCount;
+        List<Build> builds = new ArrayList<>();
+        int offset = 0;
+        List<Build> page;
+        do {
+            page = structureRepository.buildSearch(project, form, offset, pageSize);
+            for (Build build : page) {
+                if (buildPredicate.test(build)) {
+                    builds.add(build);
+                    if (builds.size() >= maximumCount) {
+                        return builds;
+                    }
+                }
+            }
+            offset += pageSize;
+        } while (page.size() == pageSize);
         // OK
         return builds;
     }
@@ -495,11 +578,20 @@ public class StructureServiceImpl implements StructureService {
         return result.isGoingOn();
     }
 
+    /**
+     * Build links are not recorded as events, so the change marker must be changed explicitly
+     * for the ETags of the resources to take the links into account.
+     */
+    private void buildLinksChanged() {
+        changeMarkerService.changed();
+    }
+
     @Override
     public void addBuildLink(Build fromBuild, Build toBuild) {
         securityService.checkProjectFunction(fromBuild, BuildConfig.class);
         securityService.checkProjectFunction(toBuild, ProjectView.class);
         structureRepository.addBuildLink(fromBuild.getId(), toBuild.getId());
+        buildLinksChanged();
     }
 
     @Override
@@ -507,6 +599,7 @@ public class StructureServiceImpl implements StructureService {
         securityService.checkProjectFunction(fromBuild, BuildConfig.class);
         securityService.checkProjectFunction(toBuild, ProjectView.class);
         structureRepository.deleteBuildLink(fromBuild.getId(), toBuild.getId());
+        buildLinksChanged();
     }
 
     @Override
@@ -544,23 +637,10 @@ public class StructureServiceImpl implements StructureService {
         Set<ID> addedLinks = new HashSet<>();
         // Loops through the new links
         form.getLinks().forEach(item -> {
-            // Gets the project if possible
-            Project project = findProjectByName(item.getProject())
-                    .orElseThrow(() -> new ProjectNotFoundException(item.getProject()));
-            // Finds the build if possible (exact match - no regex)
-            List<Build> builds = buildSearch(project.getId(), new BuildSearchForm()
-                    .withMaximumCount(1)
-                    .withBuildName(item.getBuild())
-                    .withBuildExactMatch(true)
-            );
-            if (!builds.isEmpty()) {
-                Build target = builds.get(0);
-                // Adds the link
-                addBuildLink(build, target);
-                addedLinks.add(target.getId());
-            } else {
-                throw new BuildNotFoundException(item.getProject(), item.getBuild());
-            }
+            Build target = getBuildLinkTarget(item);
+            // Adds the link
+            addBuildLink(build, target);
+            addedLinks.add(target.getId());
         });
         // Deletes all authorised links which were not added again
         if (!form.isAddOnly()) {
@@ -574,6 +654,69 @@ public class StructureServiceImpl implements StructureService {
         }
     }
 
+    /**
+     * Gets the target of a link, using an exact match on the build name
+     */
+    private Build getBuildLinkTarget(BuildLinkFormItem item) {
+        // Gets the project if possible
+        Project project = findProjectByName(item.getProject())
+                .orElseThrow(() -> new ProjectNotFoundException(item.getProject()));
+        // Finds the build if possible (exact match - no regex)
+        List<Build> builds = buildSearch(project.getId(), new BuildSearchForm()
+                .withMaximumCount(1)
+                .withBuildName(item.getBuild())
+                .withBuildExactMatch(true)
+        );
+        if (!builds.isEmpty()) {
+            return builds.get(0);
+        } else {
+            throw new BuildNotFoundException(item.getProject(), item.getBuild());
+        }
+    }
+
+    @Override
+    public BuildLinkGraph getBuildLinkGraph(Build build, BuildLinkDirection direction, int depth) {
+        return getBuildLinkGraph(build, direction, depth, null);
+    }
+
+    private BuildLinkGraph getBuildLinkGraph(Build build, BuildLinkDirection direction, int depth, ID leafProjectId) {
+        securityService.checkProjectFunction(build, ProjectView.class);
+        return structureRepository.getBuildLinkGraph(
+                build,
+                direction,
+                Math.max(1, Math.min(depth, ontrackConfigProperties.getBuildLinkGraphMaxDepth())),
+                ontrackConfigProperties.getBuildLinkGraphMaxSize(),
+                getProjectList().stream().map(Project::getId).collect(Collectors.toList()),
+                leafProjectId
+        );
+    }
+
+    /**
+     * The links of the builds of the project are not followed any further. If the graph is truncated
+     * before all the builds of the project have been found, the call fails instead of returning
+     * a partial list.
+     */
+    @Override
+    public List<Build> getBuildsUsing(Build build, String project, int depth) {
+        Optional<Project> target = findProjectByName(project);
+        if (!target.isPresent()) {
+            return Collections.emptyList();
+        }
+        ID projectId = target.get().getId();
+        BuildLinkGraph graph = getBuildLinkGraph(build, BuildLinkDirection.UPSTREAM, depth, projectId);
+        if (graph.isTruncated()) {
+            throw new BuildLinkGraphTruncatedException(
+                    project,
+                    build.getEntityDisplayName(),
+                    ontrackConfigProperties.getBuildLinkGraphMaxSize()
+            );
+        }
+        return graph.getNodes().stream()
+                .map(BuildLinkGraphNode::getBuild)
+                .filter(b -> projectId.equals(b.getProject().getId()))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public boolean isLinkedFrom(Build build, String project, String buildPattern) {
         securityService.checkProjectFunction(build, ProjectView.class);
@@ -891,24 +1034,49 @@ public class StructureServiceImpl implements StructureService {
                 .filter(b -> securityService.isProjectFunctionGranted(b, ProjectView.class));
     }
 
+    @Override
+    public List<Build> findBuildsByName(String buildName) {
+        return structureRepository.findBuildsByName(buildName, getProjectList());
+    }
+
     @Override
     public BranchStatusView getEarliestPromotionsAfterBuild(Build build) {
-        return new BranchStatusView(
-                build.getBranch(),
-                decorationService.getDecorations(build.getBranch()),
-                getFilteredBuilds(
-                        build.getBranch().getId(),
-                        new DefaultBuildFilter(1)
-                ).get(0),
-                getPromotionLevelListForBranch(build.getBranch().getId()).stream()
-                        .map(promotionLevel ->
-                                new PromotionView(
-                                        promotionLevel,
-                                        getEarliestPromotionRunAfterBuild(promotionLevel, build).orElse(null)
-                                )
-                        )
-                        .collect(Collectors.toList())
+        return getEarliestPromotionsAfterBuilds(Collections.singletonList(build)).get(0);
+    }
+
+    @Override
+    public List<BranchStatusView> getEarliestPromotionsAfterBuilds(List<Build> builds) {
+        // Promotion levels, once per branch
+        Map<ID, List<PromotionLevel>> promotionLevels = new LinkedHashMap<>();
+        for (Build build : builds) {
+            securityService.checkProjectFunction(build.projectId(), ProjectView.class);
+            promotionLevels.computeIfAbsent(build.getBranch().getId(), structureRepository::getPromotionLevelListForBranch);
+        }
+        // Earliest promotion runs for all the builds at once
+        Map<ID, List<PromotionRun>> runs = structureRepository.getEarliestPromotionRunsAfterBuilds(
+                builds,
+                promotionLevels.values().stream().flatMap(List::stream).collect(Collectors.toList())
         );
+        // Views
+        Map<ID, Build> lastBuilds = new HashMap<>();
+        return builds.stream()
+                .map(build -> {
+                    Branch branch = build.getBranch();
+                    Map<ID, PromotionRun> buildRuns = runs.getOrDefault(build.getId(), Collections.emptyList()).stream()
+                            .collect(Collectors.toMap(run -> run.getPromotionLevel().getId(), run -> run));
+                    return new BranchStatusView(
+                            branch,
+                            decorationService.getDecorations(branch),
+                            lastBuilds.computeIfAbsent(branch.getId(), id -> structureRepository.getLastBuildForBranch(branch)),
+                            promotionLevels.get(branch.getId()).stream()
+                                    .map(promotionLevel -> new PromotionView(
+                                            promotionLevel,
+                                            buildRuns.get(promotionLevel.getId())
+                                    ))
+                                    .collect(Collectors.toList())
+                    );
+                })
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -1101,6 +1269,12 @@ public class StructureServiceImpl implements StructureService {
         return structureRepository.getValidationRunsForBuildAndValidationStamp(build, validationStamp, validationRunStatusService::getValidationRunStatus);
     }
 
+    @Override
+    public Map<ID, ValidationRunStatusID> getLastValidationRunStatusesForBuild(Build build) {
+        securityService.checkProjectFunction(build.getBranch().getProject().id(), ProjectView.class);
+        return structureRepository.getLastValidationRunStatusesForBuild(build, validationRunStatusService::getValidationRunStatus);
+    }
+
     @Override
     public List<ValidationRun> getValidationRunsForValidationStamp(ID validationStampId, int offset, int count) {
         ValidationStamp validationStamp = getValidationStamp(validationStampId);
@@ -1144,4 +1318,11 @@ public class StructureServiceImpl implements StructureService {
                 .filter(pl -> securityService.isProjectFunctionGranted(pl.projectId(), ProjectView.class));
     }
 
+    @Override
+    public Map<ID, ProjectEntity> getEntities(ProjectEntityType type, Collection<ID> ids) {
+        Map<ID, ProjectEntity> entities = structureRepository.getEntities(type, ids, validationRunStatusService::getValidationRunStatus);
+        entities.values().removeIf(entity -> !securityService.isProjectFunctionGranted(entity, ProjectView.class));
+        return entities;
+    }
+
 }
@@ -9,6 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
 @Service
 @Transactional
 public class EventPostServiceImpl implements EventPostService {
@@ -17,6 +21,11 @@ public class EventPostServiceImpl implements EventPostService {
     private final EventRepository eventRepository;
     private final EventListenerService eventListenerService;
 
+    /**
+     * Events being held back by {@link #batch(Supplier)} for the current thread
+     */
+    private final ThreadLocal<List<Event>> batch = new ThreadLocal<>();
+
     @Autowired
     public EventPostServiceImpl(SecurityService securityService, EventRepository eventRepository, EventListenerService eventListenerService) {
         this.securityService = securityService;
@@ -30,9 +39,35 @@ public class EventPostServiceImpl implements EventPostService {
         if (e.getSignature() == null) {
             e = e.withSignature(securityService.getCurrentSignature());
         }
-        eventRepository.post(e);
-        // Notification to the listeners
-        eventListenerService.onEvent(event);
+        List<Event> events = batch.get();
+        if (events != null) {
+            events.add(e);
+        } else {
+            eventRepository.post(e);
+            // Notification to the listeners
+            eventListenerService.onEvent(event);
+        }
+    }
+
+    @Override
+    public <T> T batch(Supplier<T> code) {
+        if (batch.get() != null) {
+            return code.get();
+        }
+        List<Event> events = new ArrayList<>();
+        T result;
+        batch.set(events);
+        try {
+            result = code.get();
+        } finally {
+            batch.remove();
+        }
+        if (!events.isEmpty()) {
+            eventRepository.post(events);
+            // Notification to the listeners - any event they post is recorded directly
+            events.forEach(eventListenerService::onEvent);
+        }
+        return result;
     }
 
 }
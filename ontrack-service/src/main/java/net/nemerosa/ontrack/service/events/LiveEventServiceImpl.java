@@ -0,0 +1,207 @@
+package net.nemerosa.ontrack.service.events;
+
+import net.nemerosa.ontrack.model.events.*;
+import net.nemerosa.ontrack.model.events.EventListener;
+import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches the live events on a single background thread, so that the threads posting events
+ * are never blocked by the clients. The queue of events to dispatch is bounded: when it is full,
+ * the oldest events are dropped.
+ * <p>
+ * The dispatching thread does not call the listeners itself: each subscription has its own bounded
+ * queue, drained by at most one sender thread at a time, so that a slow client never delays the
+ * other ones. A subscription whose queue is full is dropped.
+ * <p>
+ * As an {@link EventListener}, this service publishes a live event for each entity
+ * an {@link Event} refers to.
+ */
+@Service
+public class LiveEventServiceImpl implements LiveEventService, EventListener {
+
+    /**
+     * Maximum number of events waiting to be dispatched
+     */
+    static final int MAX_QUEUE_SIZE = 1000;
+
+    /**
+     * Maximum number of events waiting to be sent to a subscriber
+     */
+    static final int MAX_SUBSCRIPTION_QUEUE_SIZE = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(LiveEventService.class);
+
+    private final ConcurrentMap<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<Subscription> allSubscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = new ThreadPoolExecutor(
+            1, 1,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUE_SIZE),
+            new BasicThreadFactory.Builder()
+                    .daemon(true)
+                    .namingPattern("live-events-%s")
+                    .build(),
+            new ThreadPoolExecutor.DiscardOldestPolicy()
+    );
+
+    private final ExecutorService senders = Executors.newCachedThreadPool(
+            new BasicThreadFactory.Builder()
+                    .daemon(true)
+                    .namingPattern("live-events-sender-%s")
+                    .build()
+    );
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        String type = event.getEventType().getId();
+        for (ProjectEntity entity : event.getEntities().values()) {
+            publish(new LiveEvent(LiveEvent.topic(entity.getProjectEntityType(), entity.id()), type));
+        }
+    }
+
+    @Override
+    public void publish(LiveEvent event) {
+        if (subscriptions.containsKey(event.getTopic())) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        dispatch(event);
+                    }
+                });
+            } else {
+                dispatch(event);
+            }
+        }
+    }
+
+    private void dispatch(LiveEvent event) {
+        executor.execute(() -> {
+            Set<Subscription> listeners = subscriptions.get(event.getTopic());
+            if (listeners != null) {
+                listeners.forEach(subscription -> subscription.offer(event));
+            }
+        });
+    }
+
+    @Override
+    public LiveEventSubscription subscribe(Collection<String> topics, Consumer<LiveEvent> listener, Runnable onDropped) {
+        Subscription subscription = new Subscription(new LinkedHashSet<>(topics), listener, onDropped);
+        allSubscriptions.add(subscription);
+        for (String topic : subscription.topics) {
+            subscriptions.compute(topic, (ignored, set) -> {
+                Set<Subscription> topicSubscriptions = set != null ? set : ConcurrentHashMap.newKeySet();
+                topicSubscriptions.add(subscription);
+                return topicSubscriptions;
+            });
+        }
+        return subscription;
+    }
+
+    @Override
+    public int getSubscriptionCount() {
+        return allSubscriptions.size();
+    }
+
+    private class Subscription implements LiveEventSubscription {
+
+        private final Set<String> topics;
+        private final Consumer<LiveEvent> listener;
+        private final Runnable onDropped;
+        private final BlockingQueue<LiveEvent> queue = new ArrayBlockingQueue<>(MAX_SUBSCRIPTION_QUEUE_SIZE);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscription(Set<String> topics, Consumer<LiveEvent> listener, Runnable onDropped) {
+            this.topics = topics;
+            this.listener = listener;
+            this.onDropped = onDropped;
+        }
+
+        /**
+         * Queues an event for this subscriber, without blocking.
+         */
+        private void offer(LiveEvent event) {
+            if (queue.offer(event)) {
+                scheduleSending();
+            } else {
+                logger.debug("[live] Subscriber does not keep up with the events, dropping the subscription");
+                drop();
+            }
+        }
+
+        private void scheduleSending() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::send);
+                } catch (RejectedExecutionException ex) {
+                    // Shutting down
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                LiveEvent event;
+                while ((event = queue.poll()) != null && allSubscriptions.contains(this)) {
+                    listener.accept(event);
+                }
+            } catch (Exception ex) {
+                logger.debug("[live] Cannot send event to subscriber, dropping the subscription", ex);
+                drop();
+            } finally {
+                sending.set(false);
+            }
+            // Events queued while the sending was ending
+            if (!queue.isEmpty() && allSubscriptions.contains(this)) {
+                scheduleSending();
+            }
+        }
+
+        private void drop() {
+            if (remove()) {
+                queue.clear();
+                onDropped.run();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            remove();
+        }
+
+        private boolean remove() {
+            if (allSubscriptions.remove(this)) {
+                for (String topic : topics) {
+                    subscriptions.computeIfPresent(topic, (ignored, set) -> {
+                        set.remove(this);
+                        return set.isEmpty() ? null : set;
+                    });
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+
+}
@@ -5,6 +5,8 @@ import net.nemerosa.ontrack.job.JobKey;
 import net.nemerosa.ontrack.job.JobListener;
 import net.nemerosa.ontrack.job.JobRunProgress;
 import net.nemerosa.ontrack.job.JobStatus;
+import net.nemerosa.ontrack.model.events.LiveEvent;
+import net.nemerosa.ontrack.model.events.LiveEventService;
 import net.nemerosa.ontrack.model.structure.NameDescription;
 import net.nemerosa.ontrack.model.support.ApplicationLogEntry;
 import net.nemerosa.ontrack.model.support.ApplicationLogService;
@@ -20,12 +22,21 @@ public class DefaultJobListener implements JobListener {
     private final MetricRegistry metricRegistry;
     private final CounterService counterService;
     private final SettingsRepository settingsRepository;
+    private final LiveEventService liveEventService;
 
-    public DefaultJobListener(ApplicationLogService logService, MetricRegistry metricRegistry, CounterService counterService, SettingsRepository settingsRepository) {
+    public DefaultJobListener(ApplicationLogService logService, MetricRegistry metricRegistry, CounterService counterService, SettingsRepository settingsRepository, LiveEventService liveEventService) {
         this.logService = logService;
         this.metricRegistry = metricRegistry;
         this.counterService = counterService;
         this.settingsRepository = settingsRepository;
+        this.liveEventService = liveEventService;
+    }
+
+    /**
+     * Notifies the clients following the jobs
+     */
+    protected void notifyJobs(String type) {
+        liveEventService.publish(new LiveEvent(LiveEvent.JOBS, type));
     }
 
     protected String getJobTypeMetric(JobKey key) {
@@ -36,18 +47,21 @@ public class DefaultJobListener implements JobListener {
     public void onJobStart(JobKey key) {
         counterService.increment("job");
         counterService.increment(getJobTypeMetric(key));
+        notifyJobs("job_start");
     }
 
     @Override
     @Transactional
     public void onJobPaused(JobKey key) {
         settingsRepository.setBoolean(JobListener.class, key.toString(), true);
+        notifyJobs("job_paused");
     }
 
     @Override
     @Transactional
     public void onJobResumed(JobKey key) {
         settingsRepository.delete(JobListener.class, key.toString());
+        notifyJobs("job_resumed");
     }
 
     @Override
@@ -72,12 +86,14 @@ public class DefaultJobListener implements JobListener {
                 ).withDetail("job.key", key.getId())
                         .withDetail("job.progress", status.getProgressText())
         );
+        notifyJobs("job_error");
     }
 
     @Override
     public void onJobComplete(JobKey key) {
         counterService.decrement("job");
         counterService.decrement(getJobTypeMetric(key));
+        notifyJobs("job_complete");
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.codahale.metrics.MetricRegistry;
 import net.nemerosa.ontrack.job.JobListener;
 import net.nemerosa.ontrack.job.JobScheduler;
 import net.nemerosa.ontrack.job.support.DefaultJobScheduler;
+import net.nemerosa.ontrack.model.events.LiveEventService;
 import net.nemerosa.ontrack.model.support.ApplicationLogService;
 import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
 import net.nemerosa.ontrack.model.support.SettingsRepository;
@@ -37,13 +38,17 @@ public class JobConfig {
     @Autowired
     private SettingsRepository settingsRepository;
 
+    @Autowired
+    private LiveEventService liveEventService;
+
     @Bean
     public JobListener jobListener() {
         return new DefaultJobListener(
                 logService,
                 metricRegistry,
                 counterService,
-                settingsRepository
+                settingsRepository,
+                liveEventService
         );
     }
 
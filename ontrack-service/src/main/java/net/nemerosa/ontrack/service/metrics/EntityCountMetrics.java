@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
 
 @Component
 public class EntityCountMetrics implements OntrackMetrics {
@@ -23,17 +24,18 @@ public class EntityCountMetrics implements OntrackMetrics {
     @Override
     @Transactional(readOnly = true)
     public Collection<Metric<?>> metrics() {
+        Map<String, Integer> counts = repository.getCounts();
         return Arrays.asList(
-                new Metric<>("gauge.entity.project", repository.getProjectCount()),
-                new Metric<>("gauge.entity.branch", repository.getBranchCount()),
-                new Metric<>("gauge.entity.build", repository.getBuildCount()),
-                new Metric<>("gauge.entity.promotionLevel", repository.getPromotionLevelCount()),
-                new Metric<>("gauge.entity.promotionRun", repository.getPromotionRunCount()),
-                new Metric<>("gauge.entity.validationStamp", repository.getValidationStampCount()),
-                new Metric<>("gauge.entity.validationRun", repository.getValidationRunCount()),
-                new Metric<>("gauge.entity.validationRunStatus", repository.getValidationRunStatusCount()),
-                new Metric<>("gauge.entity.property", repository.getPropertyCount()),
-                new Metric<>("gauge.entity.event", repository.getEventCount())
+                new Metric<>("gauge.entity.project", counts.getOrDefault("PROJECTS", 0)),
+                new Metric<>("gauge.entity.branch", counts.getOrDefault("BRANCHES", 0)),
+                new Metric<>("gauge.entity.build", counts.getOrDefault("BUILDS", 0)),
+                new Metric<>("gauge.entity.promotionLevel", counts.getOrDefault("PROMOTION_LEVELS", 0)),
+                new Metric<>("gauge.entity.promotionRun", counts.getOrDefault("PROMOTION_RUNS", 0)),
+                new Metric<>("gauge.entity.validationStamp", counts.getOrDefault("VALIDATION_STAMPS", 0)),
+                new Metric<>("gauge.entity.validationRun", counts.getOrDefault("VALIDATION_RUNS", 0)),
+                new Metric<>("gauge.entity.validationRunStatus", counts.getOrDefault("VALIDATION_RUN_STATUSES", 0)),
+                new Metric<>("gauge.entity.property", counts.getOrDefault("PROPERTIES", 0)),
+                new Metric<>("gauge.entity.event", counts.getOrDefault("EVENTS", 0))
         );
     }
 
@@ -0,0 +1,63 @@
+package net.nemerosa.ontrack.service.metrics;
+
+import net.nemerosa.ontrack.job.*;
+import net.nemerosa.ontrack.model.support.JobProvider;
+import net.nemerosa.ontrack.repository.StatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Registers the job which resets the entity counters from the actual content of the database.
+ * The job is not scheduled and must be launched on demand.
+ */
+@Component
+public class EntityCountReconciliation implements JobProvider {
+
+    private static final JobType ENTITY_COUNT_RECONCILIATION_JOB =
+            JobCategory.of("metrics").withName("Metrics")
+                    .getType("entity-count-reconciliation").withName("Entity count reconciliation");
+
+    private final StatsRepository repository;
+
+    @Autowired
+    public EntityCountReconciliation(StatsRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Collection<JobRegistration> getStartingJobs() {
+        return Collections.singletonList(
+                JobRegistration.of(createReconciliationJob())
+        );
+    }
+
+    private Job createReconciliationJob() {
+        return new Job() {
+            @Override
+            public JobKey getKey() {
+                return ENTITY_COUNT_RECONCILIATION_JOB.getKey("main");
+            }
+
+            @Override
+            public JobRun getTask() {
+                return runListener -> {
+                    repository.reconcileCounts();
+                    runListener.message("Entity counts: %s", repository.getCounts());
+                };
+            }
+
+            @Override
+            public String getDescription() {
+                return "Reconciliation of the entity counters";
+            }
+
+            @Override
+            public boolean isDisabled() {
+                return false;
+            }
+        };
+    }
+}
@@ -7,12 +7,19 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.Base64;
 
+/**
+ * AES key, whose ciphers are reused per thread by {@link #encrypt(String)} and {@link #decrypt(String)},
+ * since creating and initialising a {@link Cipher} is much more expensive than using it.
+ */
 public class CryptoConfidentialKey implements ConfidentialKey {
 
     private final ConfidentialStore confidentialStore;
     private final String id;
     private volatile SecretKey secret;
 
+    private final ThreadLocal<Cipher> encryptionCipher = ThreadLocal.withInitial(this::encrypt);
+    private final ThreadLocal<Cipher> decryptionCipher = ThreadLocal.withInitial(this::decrypt);
+
     public CryptoConfidentialKey(ConfidentialStore confidentialStore, String id) {
         this.confidentialStore = confidentialStore;
         this.id = id;
@@ -47,9 +54,8 @@ public class CryptoConfidentialKey implements ConfidentialKey {
     @Override
     public String encrypt(String plain) {
         try {
-            // Creates a cipher
-            Cipher cipher = encrypt();
-            cipher.init(Cipher.ENCRYPT_MODE, getKey());
+            // Cipher for this thread, reset by the previous call to doFinal
+            Cipher cipher = encryptionCipher.get();
             // Message as bytes
             byte[] bytes = plain.getBytes("UTF-8");
             // Encryption
@@ -57,6 +63,8 @@ public class CryptoConfidentialKey implements ConfidentialKey {
             // Base64 encoding
             return Base64.getEncoder().encodeToString(encryptedBytes);
         } catch (GeneralSecurityException | IOException ex) {
+            // The state of the cipher is unknown after a failure
+            encryptionCipher.remove();
             throw new EncryptionException(ex);
         }
     }
@@ -64,9 +72,8 @@ public class CryptoConfidentialKey implements ConfidentialKey {
     @Override
     public String decrypt(String crypted) {
         try {
-            // Creates a cipher
-            Cipher cipher = decrypt();
-            cipher.init(Cipher.DECRYPT_MODE, getKey());
+            // Cipher for this thread, reset by the previous call to doFinal
+            Cipher cipher = decryptionCipher.get();
             // Decodes from Base64
             byte[] encryptedBytes = Base64.getDecoder().decode(crypted);
             // Decrypts
@@ -74,6 +81,8 @@ public class CryptoConfidentialKey implements ConfidentialKey {
             // As UTF-8 string
             return new String(bytes, "UTF-8");
         } catch (GeneralSecurityException | IOException ex) {
+            // The state of the cipher is unknown after a failure
+            decryptionCipher.remove();
             throw new EncryptionException(ex);
         }
     }
@@ -1,6 +1,9 @@
 package net.nemerosa.ontrack.service.support;
 
+import net.nemerosa.ontrack.common.RingBuffer;
 import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.model.events.LiveEvent;
+import net.nemerosa.ontrack.model.events.LiveEventService;
 import net.nemerosa.ontrack.model.security.Account;
 import net.nemerosa.ontrack.model.security.ApplicationManagement;
 import net.nemerosa.ontrack.model.security.SecurityService;
@@ -14,28 +17,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.metrics.CounterService;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * The entries are kept in a lock-free {@link RingBuffer}, so that threads logging errors
+ * do not contend with each other, and are never blocked by readers.
+ */
 @Service
 public class ApplicationLogServiceImpl implements ApplicationLogService {
 
     private final Logger logger = LoggerFactory.getLogger(ApplicationLogService.class);
 
     private final SecurityService securityService;
-    private final int maxEntries;
-    private final LinkedList<ApplicationLogEntry> entries;
+    private final RingBuffer<ApplicationLogEntry> entries;
     private final CounterService counterService;
+    private final LiveEventService liveEventService;
 
     @Autowired
-    public ApplicationLogServiceImpl(OntrackConfigProperties ontrackConfigProperties, SecurityService securityService, CounterService counterService) {
+    public ApplicationLogServiceImpl(OntrackConfigProperties ontrackConfigProperties, SecurityService securityService, CounterService counterService, LiveEventService liveEventService) {
         this.securityService = securityService;
         this.counterService = counterService;
-        this.maxEntries = ontrackConfigProperties.getApplicationLogMaxEntries();
-        this.entries = new LinkedList<>();
+        this.liveEventService = liveEventService;
+        this.entries = new RingBuffer<>(ontrackConfigProperties.getApplicationLogMaxEntries());
     }
 
     @Override
@@ -46,7 +50,7 @@ public class ApplicationLogServiceImpl implements ApplicationLogService {
         doLog(signedEntry);
     }
 
-    private synchronized void doLog(ApplicationLogEntry entry) {
+    private void doLog(ApplicationLogEntry entry) {
         // Logging
         logger.error(
                 String.format(
@@ -62,33 +66,34 @@ public class ApplicationLogServiceImpl implements ApplicationLogService {
                 entry.getException()
         );
         // Storage
-        entries.addFirst(entry);
-        // Pruning
-        while (entries.size() > maxEntries) {
-            entries.removeLast();
-        }
+        entries.add(entry);
         // Metrics
         counterService.increment("error");
         counterService.increment(String.format("error.%s", entry.getType().getName()));
+        // Notification
+        liveEventService.publish(new LiveEvent(LiveEvent.LOGS, "log"));
     }
 
     @Override
-    public synchronized int getLogEntriesTotal() {
+    public int getLogEntriesTotal() {
         return entries.size();
     }
 
     @Override
-    public synchronized List<ApplicationLogEntry> getLogEntries(Page page) {
+    public List<ApplicationLogEntry> getLogEntries(Page page) {
         securityService.checkGlobalFunction(ApplicationManagement.class);
-        int total = entries.size();
-        int offset = page.getOffset();
-        int count = page.getCount();
-        if (offset >= total) {
-            return Collections.emptyList();
-        } else {
-            List<ApplicationLogEntry> list = new ArrayList<>(entries);
-            list = list.subList(offset, Math.min(offset + count, total));
-            return list;
-        }
+        return toEntries(entries.page(page.getOffset(), page.getCount()));
+    }
+
+    @Override
+    public List<ApplicationLogEntry> getLogEntriesBefore(long sequence, int count) {
+        securityService.checkGlobalFunction(ApplicationManagement.class);
+        return toEntries(entries.before(sequence, count));
+    }
+
+    private List<ApplicationLogEntry> toEntries(List<RingBuffer.Sequenced<ApplicationLogEntry>> items) {
+        return items.stream()
+                .map(item -> item.getValue().withSequence(item.getSequence()))
+                .collect(Collectors.toList());
     }
 }
@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.service.support;
 import net.nemerosa.ontrack.common.Caches;
 import net.nemerosa.ontrack.model.settings.CachedSettingsService;
 import net.nemerosa.ontrack.model.settings.SettingsProvider;
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -16,9 +17,11 @@ import java.util.stream.Collectors;
 public class CachedSettingsServiceImpl implements CachedSettingsService {
 
     private final Map<Class<?>, SettingsProvider<?>> settingsProviders;
+    private final ChangeMarkerService changeMarkerService;
 
     @Autowired
-    public CachedSettingsServiceImpl(Collection<SettingsProvider<?>> settingsProviders) {
+    public CachedSettingsServiceImpl(Collection<SettingsProvider<?>> settingsProviders, ChangeMarkerService changeMarkerService) {
+        this.changeMarkerService = changeMarkerService;
         this.settingsProviders = settingsProviders.stream()
                 .collect(Collectors.toMap(
                         settingsProvider -> settingsProvider.getSettingsClass(),
@@ -37,6 +40,8 @@ public class CachedSettingsServiceImpl implements CachedSettingsService {
     @Override
     @CacheEvict(value = Caches.SETTINGS, key = "#type")
     public <T> void invalidate(Class<T> type) {
+        // Settings are not recorded as events
+        changeMarkerService.changed();
     }
 
 }
@@ -0,0 +1,70 @@
+package net.nemerosa.ontrack.service.support;
+
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import net.nemerosa.ontrack.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The marker is made of:
+ * <ul>
+ * <li>the start time of this instance, so that no marker survives a restart or an upgrade</li>
+ * <li>a local generation, incremented for each change which does not post any event</li>
+ * <li>the ID of the last posted event</li>
+ * <li>the current period, if any (see {@link OntrackConfigProperties#getEtagPeriod()})</li>
+ * </ul>
+ */
+@Service
+public class ChangeMarkerServiceImpl implements ChangeMarkerService {
+
+    private final EventRepository eventRepository;
+    private final OntrackConfigProperties config;
+    private final LongSupplier clock;
+
+    private final String epoch;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public ChangeMarkerServiceImpl(EventRepository eventRepository, OntrackConfigProperties config) {
+        this(eventRepository, config, System::currentTimeMillis);
+    }
+
+    ChangeMarkerServiceImpl(EventRepository eventRepository, OntrackConfigProperties config, LongSupplier clock) {
+        this.eventRepository = eventRepository;
+        this.config = config;
+        this.clock = clock;
+        this.epoch = Long.toHexString(clock.getAsLong());
+    }
+
+    @Override
+    public String getMarker() {
+        StringBuilder marker = new StringBuilder()
+                .append(epoch)
+                .append("-").append(generation.get())
+                .append("-").append(eventRepository.getLastEventId());
+        int period = config.getEtagPeriod();
+        if (period > 0) {
+            marker.append("-").append(clock.getAsLong() / (period * 1000L));
+        }
+        return marker.toString();
+    }
+
+    @Override
+    public void changed() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package net.nemerosa.ontrack.service.support;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import net.nemerosa.ontrack.common.RingBuffer;
+import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.model.metrics.OntrackMetrics;
+import net.nemerosa.ontrack.model.support.*;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Times the SQL statements using one Dropwizard {@link Timer} per statement, named
+ * <code>sql.&lt;Repository&gt;.&lt;method&gt;</code>, and keeps the slowest ones in a bounded log.
+ * <p>
+ * The statement identifier is resolved from the call stack only the first time a given SQL
+ * is seen for a repository, and then cached, so the cost of the timing is a couple of map
+ * look-ups per statement. The SQL is cached without the expansion of its list parameters,
+ * so that an <code>IN</code> clause is one statement whatever the size of its list. The number
+ * of cached statements is bounded, so that dynamically built SQL cannot make the cache grow
+ * indefinitely.
+ * <p>
+ * Note that this service must not depend on any repository, since all repositories depend on it.
+ */
+@Service
+public class SQLMonitoringServiceImpl implements SQLMonitoringService, SQLStatementMonitor, OntrackMetrics {
+
+    /**
+     * Maximum number of distinct statements being cached
+     */
+    static final int MAX_STATEMENTS = 1000;
+
+    /**
+     * Maximum length of the SQL kept in the slow query log
+     */
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    /**
+     * Placeholders of an expanded list parameter
+     */
+    private static final Pattern EXPANDED_LIST = Pattern.compile("\\?(,\\s*\\?)+");
+
+    private final Logger logger = LoggerFactory.getLogger(SQLMonitoringService.class);
+
+    private final MetricRegistry metricRegistry;
+    private final OntrackConfigProperties config;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<String, Timer>> statements = new ConcurrentHashMap<>();
+    private final AtomicInteger statementCount = new AtomicInteger();
+
+    private final RingBuffer<SlowQuery> slowQueries;
+    private final AtomicLong slowQueryCount = new AtomicLong();
+
+    @Autowired
+    public SQLMonitoringServiceImpl(MetricRegistry metricRegistry, OntrackConfigProperties config) {
+        this.metricRegistry = metricRegistry;
+        this.config = config;
+        this.slowQueries = new RingBuffer<>(config.getSqlSlowQueryMaxEntries());
+    }
+
+    @Override
+    public void record(Class<?> repository, String sql, long durationNanos) {
+        if (!config.isSqlMonitoring()) {
+            return;
+        }
+        String key = getStatementKey(sql);
+        // Gets the timer for this statement
+        ConcurrentMap<String, Timer> repositoryStatements = statements.get(repository);
+        if (repositoryStatements == null) {
+            repositoryStatements = statements.computeIfAbsent(repository, ignored -> new ConcurrentHashMap<>());
+        }
+        Timer timer = repositoryStatements.get(key);
+        String statement = null;
+        if (timer == null) {
+            if (statementCount.get() < MAX_STATEMENTS) {
+                statement = getStatement(repository);
+                timer = metricRegistry.timer(getMetricName(statement));
+                if (repositoryStatements.putIfAbsent(key, timer) == null) {
+                    statementCount.incrementAndGet();
+                }
+            } else {
+                // Too many statements, not looking into the stack any longer
+                statement = repository.getSimpleName() + ".other";
+                timer = metricRegistry.timer(getMetricName(statement));
+            }
+        }
+        timer.update(durationNanos, TimeUnit.NANOSECONDS);
+        // Slow query
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        if (durationMs >= config.getSqlSlowQueryThreshold()) {
+            if (statement == null) {
+                statement = getStatement(repository);
+            }
+            logSlowQuery(new SlowQuery(
+                    statement,
+                    StringUtils.abbreviate(sql, MAX_SQL_LENGTH),
+                    durationMs,
+                    Time.now()
+            ));
+        }
+    }
+
+    /**
+     * Gets the SQL without the expansion of its list parameters.
+     */
+    static String getStatementKey(String sql) {
+        if (sql == null) {
+            return "";
+        } else if (sql.contains("?,")) {
+            return EXPANDED_LIST.matcher(sql).replaceAll("?");
+        } else {
+            return sql;
+        }
+    }
+
+    private void logSlowQuery(SlowQuery slowQuery) {
+        logger.warn("[sql] Slow query {} in {} ms", slowQuery.getStatement(), slowQuery.getDurationMs());
+        slowQueryCount.incrementAndGet();
+        slowQueries.add(slowQuery);
+    }
+
+    /**
+     * Gets the identifier of the statement being executed, using the first method of the
+     * repository found in the current call stack.
+     */
+    static String getStatement(Class<?> repository) {
+        String className = repository.getName();
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (className.equals(element.getClassName())) {
+                return repository.getSimpleName() + "." + getMethodName(element.getMethodName());
+            }
+        }
+        return repository.getSimpleName() + ".unknown";
+    }
+
+    /**
+     * For a lambda, gets the name of the enclosing method.
+     */
+    static String getMethodName(String methodName) {
+        if (methodName.startsWith("lambda$")) {
+            String name = StringUtils.substringBetween(methodName, "$");
+            return StringUtils.isNotBlank(name) ? name : methodName;
+        } else {
+            return methodName;
+        }
+    }
+
+    static String getMetricName(String statement) {
+        return "sql." + statement;
+    }
+
+    @Override
+    public int getSlowQueriesTotal() {
+        return slowQueries.size();
+    }
+
+    @Override
+    public List<SlowQuery> getSlowQueries(Page page) {
+        return slowQueries.page(page.getOffset(), page.getCount()).stream()
+                .map(RingBuffer.Sequenced::getValue)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clearSlowQueries() {
+        slowQueries.clear();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Arrays.asList(
+                new Metric<>("gauge.sql.statements", statementCount.get()),
+                new Metric<>("gauge.sql.slow", slowQueryCount.get()),
+                new Metric<>("gauge.sql.slow.log", getSlowQueriesTotal())
+        );
+    }
+}
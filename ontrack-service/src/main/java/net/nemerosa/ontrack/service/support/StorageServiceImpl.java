@@ -27,6 +27,11 @@ public class StorageServiceImpl implements StorageService {
         repository.storeJson(store, key, node);
     }
 
+    @Override
+    public void storeAllJson(String store, Map<String, JsonNode> data) {
+        repository.storeAllJson(store, data);
+    }
+
     @Override
     public Optional<JsonNode> retrieveJson(String store, String key) {
         return repository.retrieveJson(store, key);
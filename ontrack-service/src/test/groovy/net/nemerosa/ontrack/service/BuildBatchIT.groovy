@@ -0,0 +1,154 @@
+package net.nemerosa.ontrack.service
+
+import net.nemerosa.ontrack.extension.api.support.TestSimpleProperty
+import net.nemerosa.ontrack.extension.api.support.TestSimplePropertyType
+import net.nemerosa.ontrack.it.AbstractServiceTestSupport
+import net.nemerosa.ontrack.json.JsonUtils
+import net.nemerosa.ontrack.model.events.EventFactory
+import net.nemerosa.ontrack.model.events.EventQueryService
+import net.nemerosa.ontrack.model.exceptions.BuildNotFoundException
+import net.nemerosa.ontrack.model.security.*
+import net.nemerosa.ontrack.model.structure.*
+import org.junit.Test
+import org.springframework.beans.factory.annotation.Autowired
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+
+class BuildBatchIT extends AbstractServiceTestSupport {
+
+    @Autowired
+    private PropertyService propertyService
+
+    @Autowired
+    private EventQueryService eventQueryService
+
+    private static PropertyCreationRequest property(String value) {
+        new PropertyCreationRequest(
+                TestSimplePropertyType.class.name,
+                JsonUtils.object().with('value', value).end()
+        )
+    }
+
+    private Object batch(Branch branch, Closure code) {
+        asUser()
+                .with(branch, BuildCreate)
+                .with(branch, BuildConfig)
+                .with(branch, ProjectEdit)
+                .with(branch, ValidationRunCreate)
+                .with(branch, PromotionRunCreate)
+                .call(code)
+    }
+
+    @Test
+    void 'Build with properties, links, validations and promotions'() {
+        def target = doCreateBuild()
+        def branch = doCreateBranch()
+        def vs = doCreateValidationStamp(branch, nd('VS', ''))
+        def pl = doCreatePromotionLevel(branch, nd('PL', ''))
+
+        Build build = batch(branch) {
+            structureService.newBuildBatch(branch, new BuildBatchRequest(
+                    '1',
+                    'Build 1',
+                    [property('build')],
+                    [new BuildLinkFormItem(target.project.name, target.name)],
+                    [new ValidationRunRequest(null, 'VS', ValidationRunStatusID.PASSED, 'Tests OK', [property('run')])],
+                    [new PromotionRunRequest(null, 'PL', null, 'Promoted', [])]
+            ))
+        } as Build
+
+        asUserWithView(branch, target).call {
+            assert build.id.set
+            assert build.name == '1'
+            assert propertyService.getProperty(build, TestSimplePropertyType).value.value == 'build'
+            assert structureService.getBuildLinksFrom(build).collect { it.id } == [target.id]
+            def runs = structureService.getValidationRunsForBuild(build.id)
+            assert runs.size() == 1
+            assert runs[0].validationStamp.id == vs.id
+            assert runs[0].passed
+            assert propertyService.getProperty(runs[0], TestSimplePropertyType).value.value == 'run'
+            def promotions = structureService.getPromotionRunsForBuild(build.id)
+            assert promotions.size() == 1
+            assert promotions[0].promotionLevel.id == pl.id
+        }
+    }
+
+    @Test
+    void 'Existing build is completed'() {
+        def branch = doCreateBranch()
+        def existing = doCreateBuild(branch, nd('1', ''))
+        doCreateValidationStamp(branch, nd('VS', ''))
+
+        Build build = batch(branch) {
+            structureService.newBuildBatch(branch, new BuildBatchRequest(
+                    '1',
+                    '',
+                    [],
+                    [],
+                    [new ValidationRunRequest(null, 'VS', ValidationRunStatusID.PASSED, '', [])],
+                    []
+            ))
+        } as Build
+
+        assert build.id == existing.id
+        asUserWithView(branch).call {
+            assert structureService.getBuildCount(branch) == 1
+            assert structureService.getValidationRunsForBuild(build.id).size() == 1
+        }
+    }
+
+    @Test
+    void 'Events are recorded in order'() {
+        def branch = doCreateBranch()
+        doCreateValidationStamp(branch, nd('VS', ''))
+        doCreatePromotionLevel(branch, nd('PL', ''))
+
+        Build build = batch(branch) {
+            structureService.newBuildBatch(branch, new BuildBatchRequest(
+                    '1',
+                    '',
+                    [],
+                    [],
+                    [new ValidationRunRequest(null, 'VS', ValidationRunStatusID.PASSED, '', [])],
+                    [new PromotionRunRequest(null, 'PL', null, '', [])]
+            ))
+        } as Build
+
+        asUserWithView(branch).call {
+            def events = eventQueryService.getEvents(ProjectEntityType.BUILD, build.id, 0, 10)
+            // Most recent first
+            assert events.collect { it.eventType } == [
+                    EventFactory.NEW_PROMOTION_RUN,
+                    EventFactory.NEW_VALIDATION_RUN,
+                    EventFactory.NEW_BUILD,
+            ]
+        }
+    }
+
+    @Test
+    void 'Nothing is created when one item fails'() {
+        def branch = doCreateBranch()
+        doCreateValidationStamp(branch, nd('VS', ''))
+        try {
+            batch(branch) {
+                structureService.newBuildBatch(branch, new BuildBatchRequest(
+                        '1',
+                        '',
+                        [],
+                        [new BuildLinkFormItem(branch.project.name, 'xxx')],
+                        [new ValidationRunRequest(null, 'VS', ValidationRunStatusID.PASSED, '', [])],
+                        []
+                ))
+            }
+            assert false: 'The batch should have failed'
+        } catch (BuildNotFoundException ignored) {
+            // Expected
+        }
+        asUserWithView(branch).call {
+            assert !structureService.findBuildByName(branch.project.name, branch.name, '1').present
+            assert eventQueryService.getEvents(ProjectEntityType.BRANCH, branch.id, 0, 10)
+                    .every { it.eventType != EventFactory.NEW_BUILD }
+        }
+    }
+
+}
@@ -2,12 +2,14 @@ package net.nemerosa.ontrack.service
 
 import net.nemerosa.ontrack.it.AbstractServiceTestSupport
 import net.nemerosa.ontrack.model.buildfilter.BuildFilterService
+import net.nemerosa.ontrack.model.exceptions.BuildLinkGraphTruncatedException
 import net.nemerosa.ontrack.model.exceptions.BuildNotFoundException
 import net.nemerosa.ontrack.model.exceptions.ProjectNotFoundException
 import net.nemerosa.ontrack.model.security.BuildConfig
 import net.nemerosa.ontrack.model.security.BuildCreate
 import net.nemerosa.ontrack.model.security.BuildEdit
 import net.nemerosa.ontrack.model.structure.*
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties
 import org.junit.Test
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.security.access.AccessDeniedException
@@ -20,6 +22,9 @@ class BuildLinkIT extends AbstractServiceTestSupport {
     @Autowired
     private BuildFilterService buildFilterService
 
+    @Autowired
+    private OntrackConfigProperties ontrackConfigProperties
+
     @Test(expected = ProjectNotFoundException)
     void 'Edition of links - project not found at all'() {
         def source = doCreateBuild()
@@ -588,4 +593,167 @@ class BuildLinkIT extends AbstractServiceTestSupport {
         }
     }
 
+    private void link(Build from, Build to) {
+        asUser().withView(to).with(from, BuildConfig).call {
+            structureService.addBuildLink(from, to)
+        }
+    }
+
+    @Test
+    void 'Graph of links - downstream with depth'() {
+        def a = doCreateBuild()
+        def b = doCreateBuild()
+        def c = doCreateBuild()
+        def d = doCreateBuild()
+        link(a, b)
+        link(b, c)
+        link(c, d)
+        asUserWithView(a, b, c, d).call {
+            def graph = structureService.getBuildLinkGraph(a, BuildLinkDirection.DOWNSTREAM, 2)
+            assert graph.depth == 2
+            assert !graph.truncated
+            assert graph.nodes.collect { [it.build.id, it.depth] } == [[b.id, 1], [c.id, 2]]
+            assert graph.edges == [
+                    new BuildLinkGraphEdge(a.id, b.id),
+                    new BuildLinkGraphEdge(b.id, c.id),
+            ]
+            graph = structureService.getBuildLinkGraph(a, BuildLinkDirection.DOWNSTREAM, 10)
+            assert graph.nodes.collect { it.build.id } == [b.id, c.id, d.id]
+        }
+    }
+
+    @Test
+    void 'Graph of links - upstream with cycle'() {
+        def a = doCreateBuild()
+        def b = doCreateBuild()
+        def c = doCreateBuild()
+        link(b, a)
+        link(a, b)
+        link(c, a)
+        asUserWithView(a, b, c).call {
+            def graph = structureService.getBuildLinkGraph(a, BuildLinkDirection.UPSTREAM, 5)
+            assert graph.nodes.collect { it.build.id } as Set == [b.id, c.id] as Set
+            assert graph.nodes.every { it.depth == 1 }
+            // Edges are always oriented from the consumer to the consumed build
+            assert graph.edges as Set == [
+                    new BuildLinkGraphEdge(b.id, a.id),
+                    new BuildLinkGraphEdge(c.id, a.id),
+                    new BuildLinkGraphEdge(a.id, b.id),
+            ] as Set
+        }
+    }
+
+    @Test
+    void 'Graph of links - links through hidden builds are not followed'() {
+        def a = doCreateBuild()
+        def b = doCreateBuild()
+        def c = doCreateBuild()
+        link(a, b)
+        link(b, c)
+        withNoGrantViewToAll {
+            asUserWithView(a, c).call {
+                def graph = structureService.getBuildLinkGraph(a, BuildLinkDirection.DOWNSTREAM, 5)
+                assert graph.nodes.empty
+                assert graph.edges.empty
+            }
+        }
+    }
+
+    @Test
+    void 'Graph of links - maximum size'() {
+        def a = doCreateBuild()
+        def targets = (1..5).collect { doCreateBuild() }
+        targets.each { link(a, it) }
+        int maxSize = ontrackConfigProperties.buildLinkGraphMaxSize
+        ontrackConfigProperties.buildLinkGraphMaxSize = 3
+        try {
+            asUserWithView([a] + targets as ProjectEntity[]).call {
+                def graph = structureService.getBuildLinkGraph(a, BuildLinkDirection.DOWNSTREAM, 5)
+                assert graph.truncated
+                assert graph.nodes.size() == 3
+                assert graph.edges.size() == 3
+            }
+        } finally {
+            ontrackConfigProperties.buildLinkGraphMaxSize = maxSize
+        }
+    }
+
+    @Test
+    void 'Graph of links - maximum size applies to the links between reached builds'() {
+        def a = doCreateBuild()
+        def targets = (1..3).collect { doCreateBuild() }
+        targets.each { link(a, it) }
+        // Every target uses all the other builds
+        targets.each { source ->
+            ([a] + targets).findAll { it.id != source.id }.each { link(source, it) }
+        }
+        int maxSize = ontrackConfigProperties.buildLinkGraphMaxSize
+        ontrackConfigProperties.buildLinkGraphMaxSize = 5
+        try {
+            asUserWithView([a] + targets as ProjectEntity[]).call {
+                def graph = structureService.getBuildLinkGraph(a, BuildLinkDirection.DOWNSTREAM, 5)
+                assert graph.truncated
+                assert graph.nodes.size() == 3
+                assert graph.edges.size() == 5
+            }
+        } finally {
+            ontrackConfigProperties.buildLinkGraphMaxSize = maxSize
+        }
+    }
+
+    @Test
+    void 'Builds of a project using a build transitively'() {
+        def y = doCreateBuild()
+        def m = doCreateBuild()
+        def x = doCreateBuild()
+        def other = doCreateBuild()
+        link(x, m)
+        link(m, y)
+        link(other, y)
+        asUserWithView(x, m, y, other).call {
+            assert structureService.getBuildsUsing(y, x.project.name, 5).collect { it.id } == [x.id]
+            assert structureService.getBuildsUsing(y, x.project.name, 1).empty
+            assert structureService.getBuildsUsing(y, m.project.name, 1).collect { it.id } == [m.id]
+        }
+    }
+
+    @Test
+    void 'Builds of a project using a build - links of the builds of the project are not followed'() {
+        def y = doCreateBuild()
+        def x1 = doCreateBuild()
+        def x2 = doCreateBuild(x1.branch, nd('2', ''))
+        def other = doCreateBuild()
+        link(x1, y)
+        // Only reachable through a build of the project
+        link(other, x1)
+        link(x2, other)
+        int maxSize = ontrackConfigProperties.buildLinkGraphMaxSize
+        ontrackConfigProperties.buildLinkGraphMaxSize = 2
+        try {
+            asUserWithView(x1, y, other).call {
+                assert structureService.getBuildsUsing(y, x1.project.name, 5).collect { it.id } == [x1.id]
+            }
+        } finally {
+            ontrackConfigProperties.buildLinkGraphMaxSize = maxSize
+        }
+    }
+
+    @Test(expected = BuildLinkGraphTruncatedException)
+    void 'Builds of a project using a build - fails when the graph is truncated'() {
+        def y = doCreateBuild()
+        def x = doCreateBuild()
+        def others = (1..3).collect { doCreateBuild() }
+        others.each { link(it, y) }
+        link(x, others[2])
+        int maxSize = ontrackConfigProperties.buildLinkGraphMaxSize
+        ontrackConfigProperties.buildLinkGraphMaxSize = 2
+        try {
+            asUserWithView([x, y] + others as ProjectEntity[]).call {
+                structureService.getBuildsUsing(y, x.project.name, 5)
+            }
+        } finally {
+            ontrackConfigProperties.buildLinkGraphMaxSize = maxSize
+        }
+    }
+
 }
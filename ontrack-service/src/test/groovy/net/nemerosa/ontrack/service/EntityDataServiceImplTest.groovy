@@ -1,6 +1,7 @@
 package net.nemerosa.ontrack.service
 
 import net.nemerosa.ontrack.json.JsonUtils
+import net.nemerosa.ontrack.model.security.ProjectConfig
 import net.nemerosa.ontrack.model.security.SecurityService
 import net.nemerosa.ontrack.model.structure.ID
 import net.nemerosa.ontrack.model.structure.NameDescription
@@ -121,6 +122,13 @@ class EntityDataServiceImplTest {
         verify(repository).store(project, "Test", """{"name":"Name","value":"Value"}""")
     }
 
+    @Test
+    void 'Store several strings'() {
+        service.storeAll(project, [Test1: "Value 1", Test2: "Value 2"])
+        verify(securityService).checkProjectFunction(project, ProjectConfig)
+        verify(repository).storeAll(project, [Test1: "Value 1", Test2: "Value 2"])
+    }
+
     @Test
     void 'Deleting an object'() {
         service.delete(project, "Test")
@@ -0,0 +1,143 @@
+package net.nemerosa.ontrack.service
+
+import net.nemerosa.ontrack.job.JobKey
+import net.nemerosa.ontrack.job.JobScheduler
+import net.nemerosa.ontrack.model.exceptions.BuildNotFoundException
+import net.nemerosa.ontrack.model.structure.*
+import net.nemerosa.ontrack.repository.SearchIndexRepository
+import org.junit.Before
+import org.junit.Test
+import org.springframework.context.ApplicationContext
+import org.springframework.transaction.PlatformTransactionManager
+
+import java.util.function.Consumer
+
+import static org.mockito.Matchers.any
+import static org.mockito.Matchers.eq
+import static org.mockito.Mockito.*
+
+class SearchIndexServiceImplTest {
+
+    private SearchIndexServiceImpl service
+    private SearchIndexRepository repository
+    private StructureService structureService
+    private SearchIndexer indexer
+    private JobScheduler jobScheduler
+
+    @Before
+    void 'Setup'() {
+        repository = mock(SearchIndexRepository)
+        structureService = mock(StructureService)
+        indexer = mock(SearchIndexer)
+        when(indexer.category).thenReturn('test')
+        def applicationContext = mock(ApplicationContext)
+        when(applicationContext.getBeansOfType(SearchIndexer)).thenReturn([test: indexer])
+        jobScheduler = mock(JobScheduler)
+        service = new SearchIndexServiceImpl(applicationContext, repository, structureService, jobScheduler, mock(PlatformTransactionManager))
+    }
+
+    private static SearchIndexEntry entry(String key) {
+        new SearchIndexEntry('test', key, ID.of(1), key, key, '', null)
+    }
+
+    @Test
+    void 'Search restricted to the authorised projects'() {
+        when(structureService.projectList).thenReturn([
+                Project.of(NameDescription.nd('P1', '')).withId(ID.of(1)),
+                Project.of(NameDescription.nd('P2', '')).withId(ID.of(2)),
+        ])
+        when(repository.search('x', [1, 2], 0, 51)).thenReturn([])
+        assert service.search(new SearchRequest('x')).results.empty
+        verify(repository).search('x', [1, 2], 0, 51)
+    }
+
+    @Test
+    void 'Number of results is capped'() {
+        when(structureService.projectList).thenReturn([])
+        when(repository.search('x', [], 0, SearchRequest.MAX_COUNT + 1)).thenReturn([])
+        assert !service.search(new SearchRequest('x').with { count = 10000; it }).hasMore
+        verify(repository).search('x', [], 0, SearchRequest.MAX_COUNT + 1)
+    }
+
+    @Test
+    void 'More results'() {
+        when(structureService.projectList).thenReturn([])
+        def e1 = entry('1')
+        def e2 = entry('2')
+        when(repository.search('x', [], 0, 2)).thenReturn([
+                new SearchIndexMatch(e1, 100),
+                new SearchIndexMatch(e2, 80),
+        ])
+        def result = new SearchResult('1', '', URI.create('urn:1'), URI.create('urn:1'), 100)
+        when(indexer.toSearchResults([new SearchIndexMatch(e1, 100)])).thenReturn([Optional.of(result)])
+
+        def results = service.search(new SearchRequest('x').with { count = 1; it })
+        assert results.results == [result]
+        assert results.hasMore
+    }
+
+    @Test
+    void 'Stale entries are removed from the index'() {
+        when(structureService.projectList).thenReturn([])
+        def e1 = entry('1')
+        def e2 = entry('2')
+        def matches = [
+                new SearchIndexMatch(e1, 100),
+                new SearchIndexMatch(e2, 80),
+        ]
+        when(repository.search('x', [], 0, 51)).thenReturn(matches)
+        def result = new SearchResult('1', '', URI.create('urn:1'), URI.create('urn:1'), 100)
+        when(indexer.toSearchResults(matches)).thenReturn([Optional.of(result), Optional.empty()])
+
+        assert service.search(new SearchRequest('x')).results == [result]
+        // Removed asynchronously
+        verify(repository, never()).delete(any(String), any(String))
+        verify(jobScheduler).fireImmediately(any(JobKey))
+        assert service.cleanup() == 1
+        verify(repository).delete('test', '2')
+        verify(repository, never()).delete('test', '1')
+    }
+
+    @Test
+    void 'Entries converted one by one by default'() {
+        def e1 = entry('1')
+        def e2 = entry('2')
+        def result = new SearchResult('1', '', URI.create('urn:1'), URI.create('urn:1'), 100)
+        SearchIndexer defaultIndexer = new SearchIndexer() {
+            @Override
+            String getCategory() { 'test' }
+
+            @Override
+            void indexAll(Consumer<SearchIndexEntry> consumer) {}
+
+            @Override
+            Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy) {
+                if (entry == e1) {
+                    Optional.of(result)
+                } else {
+                    throw new BuildNotFoundException(ID.of(2))
+                }
+            }
+        }
+        assert defaultIndexer.toSearchResults([new SearchIndexMatch(e1, 100), new SearchIndexMatch(e2, 80)]) ==
+                [Optional.of(result), Optional.empty()]
+    }
+
+    @Test
+    void 'Rebuilding the index by batches'() {
+        doAnswer({ invocation ->
+            Consumer<SearchIndexEntry> consumer = invocation.arguments[0] as Consumer<SearchIndexEntry>
+            (1..501).each { consumer.accept(entry(it as String)) }
+            null
+        }).when(indexer).indexAll(any(Consumer))
+
+        when(repository.lastGeneration).thenReturn(3)
+
+        assert service.rebuild() == 501
+        // New generation saved by batches, the previous ones being removed at the end only
+        verify(repository, times(2)).save(any(Collection), eq(4))
+        verify(repository).deleteOlderGenerations('test', 4)
+        verify(repository, never()).deleteCategory('test')
+    }
+
+}
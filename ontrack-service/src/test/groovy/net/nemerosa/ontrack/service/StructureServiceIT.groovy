@@ -1,11 +1,15 @@
 package net.nemerosa.ontrack.service
 
 import net.nemerosa.ontrack.it.AbstractServiceTestSupport
+import net.nemerosa.ontrack.model.security.BuildConfig
 import net.nemerosa.ontrack.model.security.BuildEdit
 import net.nemerosa.ontrack.model.security.ProjectEdit
 import net.nemerosa.ontrack.model.security.ProjectView
+import net.nemerosa.ontrack.model.security.ValidationRunCreate
 import net.nemerosa.ontrack.model.structure.BuildSearchForm
 import net.nemerosa.ontrack.model.structure.Signature
+import net.nemerosa.ontrack.model.structure.ValidationRun
+import net.nemerosa.ontrack.model.structure.ValidationRunStatusID
 import net.nemerosa.ontrack.model.structure.StructureService
 import net.nemerosa.ontrack.test.TestUtils
 import org.junit.Test
@@ -167,4 +171,70 @@ class StructureServiceIT extends AbstractServiceTestSupport {
         assert builds.empty: "No match, but no failure"
     }
 
+    @Test
+    void 'Build search based on promotion'() {
+        def promotionLevel = doCreatePromotionLevel()
+        def branch = promotionLevel.branch
+        def build1 = doCreateBuild(branch, nd('1', ''))
+        doCreateBuild(branch, nd('2', ''))
+        def build3 = doCreateBuild(branch, nd('3', ''))
+        doPromote(build1, promotionLevel, '')
+        doPromote(build3, promotionLevel, '')
+        def builds = asUser().withView(branch).call {
+            structureService.buildSearch(branch.project.id, new BuildSearchForm().withPromotionName(promotionLevel.name))
+        }
+        assert builds*.id == [build3.id, build1.id]
+        // Maximum count
+        builds = asUser().withView(branch).call {
+            structureService.buildSearch(branch.project.id, new BuildSearchForm().withPromotionName(promotionLevel.name).withMaximumCount(1))
+        }
+        assert builds*.id == [build3.id]
+    }
+
+    @Test
+    void 'Build search based on the last run of a validation stamp'() {
+        def branch = doCreateBranch()
+        def vs = doCreateValidationStamp(branch, nd('VS', ''))
+        def build1 = doCreateBuild(branch, nd('1', ''))
+        def build2 = doCreateBuild(branch, nd('2', ''))
+        doCreateBuild(branch, nd('3', ''))
+        asUser().with(branch, ValidationRunCreate).call {
+            // Build 1 passed
+            structureService.newValidationRun(ValidationRun.of(build1, vs, 0, Signature.of('test'), ValidationRunStatusID.STATUS_PASSED, ''))
+            // Build 2 passed, then failed
+            structureService.newValidationRun(ValidationRun.of(build2, vs, 0, Signature.of('test'), ValidationRunStatusID.STATUS_PASSED, ''))
+            structureService.newValidationRun(ValidationRun.of(build2, vs, 0, Signature.of('test'), ValidationRunStatusID.STATUS_FAILED, ''))
+        }
+        def builds = asUser().withView(branch).call {
+            structureService.buildSearch(branch.project.id, new BuildSearchForm().withValidationStampName('VS'))
+        }
+        assert builds*.id == [build1.id]
+    }
+
+    @Test
+    void 'Build search with link criteria reads several pages'() {
+        def branch = doCreateBranch()
+        def builds = (1..150).collect { doCreateBuild(branch, nd("${it}", '')) }
+        def oldest = builds.first()
+        asUser().with(branch, BuildConfig).call {
+            structureService.addBuildLink(oldest, builds.last())
+        }
+        def result = asUser().withView(branch).call {
+            structureService.buildSearch(branch.project.id, new BuildSearchForm().withLinkedTo("${branch.project.name}:*"))
+        }
+        assert result*.id == [oldest.id]
+    }
+
+    @Test
+    void 'Builds found by name across projects'() {
+        def name = TestUtils.uid('B')
+        def build1 = doCreateBuild(doCreateBranch(), nd(name, ''))
+        def build2 = doCreateBuild(doCreateBranch(), nd(name, ''))
+        doCreateBuild(doCreateBranch(), nd(TestUtils.uid('B'), ''))
+        def builds = asUser().withView(build1).withView(build2).call {
+            structureService.findBuildsByName(name)
+        }
+        assert builds*.id == [build2.id, build1.id]
+    }
+
 }
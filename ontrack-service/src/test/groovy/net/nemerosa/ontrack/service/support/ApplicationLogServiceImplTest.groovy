@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.service.support
 
+import net.nemerosa.ontrack.model.events.LiveEventService
 import net.nemerosa.ontrack.model.security.SecurityService
 import net.nemerosa.ontrack.model.structure.NameDescription
 import net.nemerosa.ontrack.model.support.ApplicationLogEntry
@@ -8,6 +9,11 @@ import net.nemerosa.ontrack.model.support.Page
 import org.junit.Test
 import org.springframework.boot.actuate.metrics.CounterService
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
 import static org.mockito.Mockito.mock
 import static org.mockito.Mockito.when
 
@@ -25,7 +31,8 @@ class ApplicationLogServiceImplTest {
         ApplicationLogServiceImpl service = new ApplicationLogServiceImpl(
                 ontrackConfigProperties,
                 securityService,
-                counterService
+                counterService,
+                mock(LiveEventService)
         )
         // Creates two entries
         service.log(ApplicationLogEntry.error(
@@ -48,4 +55,90 @@ class ApplicationLogServiceImplTest {
         assert entries[1].information == "Test 1"
     }
 
-}
\ No newline at end of file
+    private static ApplicationLogServiceImpl createService(int maxEntries) {
+        OntrackConfigProperties ontrackConfigProperties = new OntrackConfigProperties()
+        ontrackConfigProperties.applicationLogMaxEntries = maxEntries
+        SecurityService securityService = mock(SecurityService)
+        when(securityService.getAccount()).thenReturn(Optional.empty())
+        return new ApplicationLogServiceImpl(
+                ontrackConfigProperties,
+                securityService,
+                mock(CounterService),
+                mock(LiveEventService)
+        )
+    }
+
+    private static ApplicationLogEntry entry(String information) {
+        ApplicationLogEntry.error(
+                new RuntimeException(information),
+                NameDescription.nd("test", "Test"),
+                information
+        )
+    }
+
+    @Test
+    void 'Log entries paged by sequence number'() {
+        def service = createService(10)
+        (0..5).each { service.log(entry("Test ${it}")) }
+        def first = service.getLogEntries(new Page(0, 3))
+        assert first.collect { it.information } == ['Test 5', 'Test 4', 'Test 3']
+        assert first.collect { it.sequence } == [5L, 4L, 3L]
+        // New entries do not shift the pages
+        service.log(entry("Test 6"))
+        def next = service.getLogEntriesBefore(first.last().sequence, 3)
+        assert next.collect { it.information } == ['Test 2', 'Test 1', 'Test 0']
+    }
+
+    @Test
+    void 'Log entries are bounded'() {
+        def service = createService(3)
+        (0..9).each { service.log(entry("Test ${it}")) }
+        assert service.logEntriesTotal == 3
+        assert service.getLogEntries(new Page()).collect { it.information } == ['Test 9', 'Test 8', 'Test 7']
+    }
+
+    @Test
+    void 'Concurrent logging and reading'() {
+        int maxEntries = 50
+        int writers = 8
+        int entriesPerWriter = 2000
+        def service = createService(maxEntries)
+        def executor = Executors.newFixedThreadPool(writers + 2)
+        try {
+            def start = new CountDownLatch(1)
+            def writing = new AtomicBoolean(true)
+            def writerFutures = (1..writers).collect { w ->
+                executor.submit({
+                    start.await()
+                    entriesPerWriter.times { i -> service.log(entry("${w}:${i}")) }
+                    return null
+                } as java.util.concurrent.Callable)
+            }
+            def readerFutures = (1..2).collect {
+                executor.submit({
+                    start.await()
+                    int reads = 0
+                    while (writing.get()) {
+                        def entries = service.getLogEntries(new Page(0, 20))
+                        assert entries.size() <= 20
+                        def sequences = entries.collect { it.sequence }
+                        assert sequences == sequences.sort(false).reverse()
+                        assert sequences.unique(false).size() == sequences.size()
+                        reads++
+                    }
+                    return reads
+                } as java.util.concurrent.Callable)
+            }
+            start.countDown()
+            writerFutures.each { it.get(30, TimeUnit.SECONDS) }
+            writing.set(false)
+            readerFutures.each { assert it.get(30, TimeUnit.SECONDS) > 0 }
+        } finally {
+            executor.shutdownNow()
+        }
+        assert service.logEntriesTotal == maxEntries
+        def entries = service.getLogEntries(new Page(0, maxEntries))
+        assert entries.collect { it.sequence } == ((writers * entriesPerWriter - 1)..(writers * entriesPerWriter - maxEntries)).collect { it as long }
+    }
+
+}
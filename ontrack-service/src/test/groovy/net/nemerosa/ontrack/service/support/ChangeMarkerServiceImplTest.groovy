@@ -0,0 +1,92 @@
+package net.nemerosa.ontrack.service.support
+
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties
+import net.nemerosa.ontrack.repository.EventRepository
+import org.junit.Before
+import org.junit.Test
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+
+import java.util.function.LongSupplier
+
+import static org.mockito.Mockito.mock
+import static org.mockito.Mockito.when
+
+class ChangeMarkerServiceImplTest {
+
+    private EventRepository eventRepository
+    private OntrackConfigProperties config
+    private long time
+    private ChangeMarkerServiceImpl service
+
+    @Before
+    void before() {
+        eventRepository = mock(EventRepository)
+        when(eventRepository.lastEventId).thenReturn(10)
+        config = new OntrackConfigProperties()
+        config.etagPeriod = 60
+        // Start of a 60s period
+        time = 1_200_000L
+        service = new ChangeMarkerServiceImpl(eventRepository, config, { time } as LongSupplier)
+    }
+
+    @Test
+    void 'Marker is stable when nothing changes'() {
+        assert service.marker == service.marker
+    }
+
+    @Test
+    void 'Marker changes with a new event'() {
+        def marker = service.marker
+        when(eventRepository.lastEventId).thenReturn(11)
+        assert service.marker != marker
+    }
+
+    @Test
+    void 'Marker changes on notification'() {
+        def marker = service.marker
+        service.changed()
+        assert service.marker != marker
+    }
+
+    @Test
+    void 'Marker changes again after the commit'() {
+        TransactionSynchronizationManager.initSynchronization()
+        try {
+            service.changed()
+            def marker = service.marker
+            TransactionSynchronizationManager.synchronizations.each {
+                it.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+            }
+            assert service.marker != marker
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+    }
+
+    @Test
+    void 'Marker changes with the period'() {
+        def marker = service.marker
+        time += 30_000L
+        assert service.marker == marker
+        time += 30_000L
+        assert service.marker != marker
+    }
+
+    @Test
+    void 'No period'() {
+        config.etagPeriod = 0
+        def marker = service.marker
+        time += 3_600_000L
+        assert service.marker == marker
+    }
+
+    @Test
+    void 'Marker changes on restart'() {
+        config.etagPeriod = 0
+        time += 1L
+        def restarted = new ChangeMarkerServiceImpl(eventRepository, config, { time } as LongSupplier)
+        assert restarted.marker != service.marker
+    }
+
+}
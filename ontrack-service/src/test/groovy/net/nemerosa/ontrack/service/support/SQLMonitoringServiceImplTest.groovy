@@ -0,0 +1,104 @@
+package net.nemerosa.ontrack.service.support
+
+import com.codahale.metrics.MetricRegistry
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties
+import net.nemerosa.ontrack.model.support.Page
+import org.junit.Before
+import org.junit.Test
+
+import java.util.concurrent.TimeUnit
+
+class SQLMonitoringServiceImplTest {
+
+    private MetricRegistry metricRegistry
+    private OntrackConfigProperties config
+    private SQLMonitoringServiceImpl service
+
+    @Before
+    void before() {
+        metricRegistry = new MetricRegistry()
+        config = new OntrackConfigProperties()
+        config.sqlSlowQueryThreshold = 100
+        config.sqlSlowQueryMaxEntries = 3
+        service = new SQLMonitoringServiceImpl(metricRegistry, config)
+    }
+
+    private void getItems(long ms) {
+        service.record(SQLMonitoringServiceImplTest, "SELECT * FROM ITEMS", TimeUnit.MILLISECONDS.toNanos(ms))
+    }
+
+    private void getOther(long ms) {
+        service.record(SQLMonitoringServiceImplTest, "SELECT * FROM OTHER", TimeUnit.MILLISECONDS.toNanos(ms))
+    }
+
+    @Test
+    void 'One timer per statement, named after the repository method'() {
+        getItems(1)
+        getItems(2)
+        getOther(1)
+        assert metricRegistry.timer('sql.SQLMonitoringServiceImplTest.getItems').count == 2
+        assert metricRegistry.timer('sql.SQLMonitoringServiceImplTest.getOther').count == 1
+        assert service.metrics().find { it.name == 'gauge.sql.statements' }.value == 2
+    }
+
+    @Test
+    void 'One timer per statement whatever the size of its lists'() {
+        service.record(SQLMonitoringServiceImplTest, "SELECT * FROM ITEMS WHERE ID IN (?)", 1000)
+        service.record(SQLMonitoringServiceImplTest, "SELECT * FROM ITEMS WHERE ID IN (?, ?, ?)", 1000)
+        service.record(SQLMonitoringServiceImplTest, "SELECT * FROM ITEMS WHERE ID IN (?,?) AND NAME = ?", 1000)
+        assert service.metrics().find { it.name == 'gauge.sql.statements' }.value == 2
+    }
+
+    @Test
+    void 'Statement keys'() {
+        assert SQLMonitoringServiceImpl.getStatementKey(null) == ''
+        assert SQLMonitoringServiceImpl.getStatementKey('SELECT * FROM ITEMS WHERE ID = ?') == 'SELECT * FROM ITEMS WHERE ID = ?'
+        assert SQLMonitoringServiceImpl.getStatementKey('SELECT * FROM ITEMS WHERE ID IN (?, ?, ?) AND A = ?') == 'SELECT * FROM ITEMS WHERE ID IN (?) AND A = ?'
+        assert SQLMonitoringServiceImpl.getStatementKey('SELECT * FROM ITEMS WHERE ID IN (?,?)') == 'SELECT * FROM ITEMS WHERE ID IN (?)'
+    }
+
+    @Test
+    void 'Fast statements are not logged'() {
+        getItems(99)
+        assert service.slowQueriesTotal == 0
+        assert service.getSlowQueries(new Page()).empty
+    }
+
+    @Test
+    void 'Slow query log is bounded and sorted from the most recent'() {
+        getItems(100)
+        getOther(200)
+        getItems(300)
+        getOther(400)
+        assert service.slowQueriesTotal == 3
+        def queries = service.getSlowQueries(new Page())
+        assert queries.collect { it.durationMs } == [400L, 300L, 200L]
+        assert queries[0].statement == 'SQLMonitoringServiceImplTest.getOther'
+        assert queries[0].sql == 'SELECT * FROM OTHER'
+        assert service.getSlowQueries(new Page(1, 1)).collect { it.durationMs } == [300L]
+        assert service.metrics().find { it.name == 'gauge.sql.slow' }.value == 4L
+    }
+
+    @Test
+    void 'Clearing the slow query log'() {
+        getItems(500)
+        service.clearSlowQueries()
+        assert service.slowQueriesTotal == 0
+    }
+
+    @Test
+    void 'No timing when disabled'() {
+        config.sqlMonitoring = false
+        getItems(500)
+        assert metricRegistry.timers.isEmpty()
+        assert service.slowQueriesTotal == 0
+    }
+
+    @Test
+    void 'Lambda method names'() {
+        assert SQLMonitoringServiceImpl.getMethodName('getBuild') == 'getBuild'
+        assert SQLMonitoringServiceImpl.getMethodName('lambda$getBuild$12') == 'getBuild'
+        assert SQLMonitoringServiceImpl.getMethodName('lambda$') == 'lambda$'
+    }
+
+}
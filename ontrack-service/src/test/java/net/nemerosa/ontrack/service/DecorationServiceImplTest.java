@@ -3,18 +3,20 @@ package net.nemerosa.ontrack.service;
 import net.nemerosa.ontrack.common.BaseException;
 import net.nemerosa.ontrack.extension.api.DecorationExtension;
 import net.nemerosa.ontrack.extension.api.ExtensionManager;
+import net.nemerosa.ontrack.model.extension.ExtensionFeature;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.Decoration;
+import net.nemerosa.ontrack.model.structure.DecorationService;
 import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
 import org.junit.Test;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class DecorationServiceImplTest {
 
@@ -68,6 +70,119 @@ public class DecorationServiceImplTest {
         assertNull(decoration.getData());
     }
 
+    private static ProjectEntity entity(ProjectEntityType type) {
+        ProjectEntity entity = mock(ProjectEntity.class);
+        when(entity.getProjectEntityType()).thenReturn(type);
+        return entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DecorationService service(DecorationExtension... decorators) {
+        ExtensionManager extensionManager = mock(ExtensionManager.class);
+        when(extensionManager.getExtensions(DecorationExtension.class)).thenReturn(Arrays.asList(decorators));
+        SecurityService securityService = mock(SecurityService.class);
+        when(securityService.runner(any(Function.class))).then(invocation -> invocation.getArguments()[0]);
+        return new DecorationServiceImpl(extensionManager, securityService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batch_decorations_one_call_per_decorator() {
+        ProjectEntity p1 = entity(ProjectEntityType.PROJECT);
+        ProjectEntity p2 = entity(ProjectEntityType.PROJECT);
+        ProjectEntity b1 = entity(ProjectEntityType.BUILD);
+
+        DecorationExtension projectDecorator = mock(DecorationExtension.class);
+        when(projectDecorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.PROJECT));
+        Map<ProjectEntity, List<Decoration>> projectDecorations = new HashMap<>();
+        projectDecorations.put(p1, Collections.singletonList(Decoration.of(projectDecorator, "p1")));
+        when(projectDecorator.getDecorations(anyCollection())).thenReturn(projectDecorations);
+
+        DecorationExtension allDecorator = mock(DecorationExtension.class);
+        when(allDecorator.getScope()).thenReturn(EnumSet.allOf(ProjectEntityType.class));
+        Map<ProjectEntity, List<Decoration>> allDecorations = new HashMap<>();
+        allDecorations.put(p1, Collections.singletonList(Decoration.of(allDecorator, "all1")));
+        allDecorations.put(b1, Collections.singletonList(Decoration.of(allDecorator, "allb1")));
+        when(allDecorator.getDecorations(anyCollection())).thenReturn(allDecorations);
+
+        Map<ProjectEntity, List<Decoration<?>>> decorations = service(projectDecorator, allDecorator).getDecorations(Arrays.asList(p1, p2, b1));
+
+        assertEquals(Arrays.asList(p1, p2, b1), new ArrayList<>(decorations.keySet()));
+        assertEquals(Arrays.asList("p1", "all1"), data(decorations.get(p1)));
+        assertEquals(Collections.emptyList(), data(decorations.get(p2)));
+        assertEquals(Collections.singletonList("allb1"), data(decorations.get(b1)));
+        // Only the entities in scope, in one call
+        verify(projectDecorator, times(1)).getDecorations(Arrays.asList(p1, p2));
+        verify(allDecorator, times(1)).getDecorations(Arrays.asList(p1, p2, b1));
+        verify(projectDecorator, never()).getDecorations(any(ProjectEntity.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batch_decorations_error_only_for_the_failed_decorator() {
+        ProjectEntity p1 = entity(ProjectEntityType.PROJECT);
+        ProjectEntity p2 = entity(ProjectEntityType.PROJECT);
+
+        DecorationExtension decorator = mock(DecorationExtension.class);
+        when(decorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.PROJECT));
+        when(decorator.getDecorations(anyCollection())).thenThrow(new TestBaseException());
+
+        DecorationExtension otherDecorator = mock(DecorationExtension.class);
+        when(otherDecorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.PROJECT));
+        Map<ProjectEntity, List<Decoration>> otherDecorations = new HashMap<>();
+        otherDecorations.put(p1, Collections.singletonList(Decoration.of(otherDecorator, "p1")));
+        when(otherDecorator.getDecorations(anyCollection())).thenReturn(otherDecorations);
+
+        Map<ProjectEntity, List<Decoration<?>>> decorations = service(decorator, otherDecorator).getDecorations(Arrays.asList(p1, p2));
+
+        assertEquals(2, decorations.get(p1).size());
+        assertEquals("Known exception", decorations.get(p1).get(0).getError());
+        assertEquals("p1", decorations.get(p1).get(1).getData());
+        assertEquals(1, decorations.get(p2).size());
+        assertEquals("Known exception", decorations.get(p2).get(0).getError());
+        // Not decorated again entity by entity
+        verify(decorator, never()).getDecorations(any(ProjectEntity.class));
+    }
+
+    @Test
+    public void batch_decorations_one_by_one_for_the_default_implementation() {
+        ProjectEntity p1 = entity(ProjectEntityType.PROJECT);
+        ProjectEntity p2 = entity(ProjectEntityType.PROJECT);
+
+        DecorationExtension<String> decorator = new DecorationExtension<String>() {
+            @Override
+            public EnumSet<ProjectEntityType> getScope() {
+                return EnumSet.of(ProjectEntityType.PROJECT);
+            }
+
+            @Override
+            public List<Decoration<String>> getDecorations(ProjectEntity entity) {
+                if (entity == p1) {
+                    return Collections.singletonList(Decoration.of(this, "p1"));
+                } else {
+                    throw new TestBaseException();
+                }
+            }
+
+            @Override
+            public ExtensionFeature getFeature() {
+                return null;
+            }
+        };
+
+        Map<ProjectEntity, List<Decoration<?>>> decorations = service(decorator).getDecorations(Arrays.asList(p1, p2));
+
+        assertEquals(Collections.singletonList("p1"), data(decorations.get(p1)));
+        assertEquals(1, decorations.get(p2).size());
+        assertEquals("Known exception", decorations.get(p2).get(0).getError());
+    }
+
+    private static List<Object> data(List<Decoration<?>> decorations) {
+        List<Object> data = new ArrayList<>();
+        decorations.forEach(decoration -> data.add(decoration.getData()));
+        return data;
+    }
+
     public static class TestBaseException extends BaseException {
 
         public TestBaseException() {
@@ -7,6 +7,8 @@ import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.settings.PredefinedPromotionLevelService;
 import net.nemerosa.ontrack.model.settings.PredefinedValidationStampService;
 import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
 import net.nemerosa.ontrack.repository.StructureRepository;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,7 +51,9 @@ public class StructureServiceImplTest {
                 predefinedPromotionLevelService,
                 predefinedValidationStampService,
                 decorationService,
-                projectFavouriteService);
+                projectFavouriteService,
+                new OntrackConfigProperties(),
+                mock(ChangeMarkerService.class));
         // Model
         Project project = Project.of(nd("P", "Project")).withId(ID.of(1));
         Branch branch = Branch.of(project, nd("B", "Branch")).withId(ID.of(1));
@@ -0,0 +1,115 @@
+package net.nemerosa.ontrack.service.events;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.events.LiveEvent;
+import net.nemerosa.ontrack.model.events.LiveEventSubscription;
+import net.nemerosa.ontrack.model.structure.Branch;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.structure.Project;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LiveEventServiceImplTest {
+
+    private static final Runnable NO_OP = () -> {
+    };
+
+    private final LiveEventServiceImpl service = new LiveEventServiceImpl();
+
+    @After
+    public void shutdown() {
+        service.shutdown();
+    }
+
+    private static Branch branch() {
+        Project project = Project.of(nd("P", "")).withId(ID.of(1));
+        return Branch.of(project, nd("B", "")).withId(ID.of(2));
+    }
+
+    @Test
+    public void events_are_dispatched_to_the_subscribers_of_their_entities() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<LiveEvent> received = new CopyOnWriteArrayList<>();
+        service.subscribe(Collections.singletonList("BRANCH/2"), event -> {
+            received.add(event);
+            latch.countDown();
+        }, NO_OP);
+        List<LiveEvent> others = new CopyOnWriteArrayList<>();
+        service.subscribe(Collections.singletonList("BRANCH/3"), others::add, NO_OP);
+
+        service.onEvent(Event.of(EventFactory.NEW_BRANCH).withBranch(branch()).get());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(new LiveEvent("BRANCH/2", "new_branch")), received);
+        CountDownLatch done = new CountDownLatch(1);
+        service.subscribe(Collections.singletonList("jobs"), event -> done.countDown(), NO_OP);
+        service.publish(new LiveEvent(LiveEvent.JOBS, "job_start"));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(others.isEmpty());
+    }
+
+    @Test
+    public void cancelled_subscriptions() {
+        LiveEventSubscription subscription = service.subscribe(Collections.singletonList("BRANCH/2"), event -> {
+        }, NO_OP);
+        service.subscribe(Collections.singletonList("BRANCH/2"), event -> {
+        }, NO_OP);
+        assertEquals(2, service.getSubscriptionCount());
+        subscription.cancel();
+        subscription.cancel();
+        assertEquals(1, service.getSubscriptionCount());
+    }
+
+    @Test
+    public void failing_subscriber_is_dropped() throws InterruptedException {
+        CountDownLatch dropped = new CountDownLatch(1);
+        service.subscribe(Collections.singletonList(LiveEvent.JOBS), event -> {
+            throw new IllegalStateException("Client is gone");
+        }, dropped::countDown);
+        CountDownLatch done = new CountDownLatch(1);
+        service.subscribe(Collections.singletonList(LiveEvent.LOGS), event -> done.countDown(), NO_OP);
+        service.publish(new LiveEvent(LiveEvent.JOBS, "job_start"));
+        service.publish(new LiveEvent(LiveEvent.LOGS, "log"));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(dropped.await(5, TimeUnit.SECONDS));
+        assertEquals(1, service.getSubscriptionCount());
+    }
+
+    @Test
+    public void slow_subscriber_does_not_block_the_other_ones_and_is_dropped() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch dropped = new CountDownLatch(1);
+        service.subscribe(Collections.singletonList(LiveEvent.JOBS), event -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+                // Shutting down
+            }
+        }, dropped::countDown);
+        CountDownLatch done = new CountDownLatch(LiveEventServiceImpl.MAX_SUBSCRIPTION_QUEUE_SIZE + 2);
+        service.subscribe(Collections.singletonList(LiveEvent.JOBS), event -> done.countDown(), NO_OP);
+        try {
+            // The first event blocks the slow subscriber, the next ones fill its queue
+            for (int i = 0; i < LiveEventServiceImpl.MAX_SUBSCRIPTION_QUEUE_SIZE + 2; i++) {
+                service.publish(new LiveEvent(LiveEvent.JOBS, "job_start"));
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(dropped.await(5, TimeUnit.SECONDS));
+            assertEquals(1, service.getSubscriptionCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+}
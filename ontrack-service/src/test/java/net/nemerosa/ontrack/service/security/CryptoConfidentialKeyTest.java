@@ -0,0 +1,76 @@
+package net.nemerosa.ontrack.service.security;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class CryptoConfidentialKeyTest {
+
+    private CryptoConfidentialKey key;
+
+    @Before
+    public void before() throws Exception {
+        ConfidentialStore store = mock(ConfidentialStore.class);
+        byte[] payload = new byte[256];
+        new Random(1L).nextBytes(payload);
+        when(store.load(any(ConfidentialKey.class))).thenReturn(payload);
+        key = new CryptoConfidentialKey(store, "test");
+    }
+
+    @Test
+    public void round_trips_with_the_same_ciphers() {
+        for (int i = 0; i < 100; i++) {
+            String plain = "secret" + i;
+            String crypted = key.encrypt(plain);
+            assertNotEquals(plain, crypted);
+            assertEquals(plain, key.decrypt(crypted));
+        }
+    }
+
+    @Test
+    public void cipher_usable_after_failure() {
+        String crypted = key.encrypt("secret");
+        try {
+            key.decrypt("AAAA");
+            fail("Decryption should have failed");
+        } catch (EncryptionException ignored) {
+            // Expected
+        }
+        assertEquals("secret", key.decrypt(crypted));
+    }
+
+    @Test
+    public void concurrent_round_trips() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String plain = thread + ":" + i;
+                        assertEquals(plain, key.decrypt(key.encrypt(plain)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
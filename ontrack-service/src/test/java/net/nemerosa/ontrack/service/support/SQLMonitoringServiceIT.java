@@ -0,0 +1,35 @@
+package net.nemerosa.ontrack.service.support;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import net.nemerosa.ontrack.it.AbstractServiceTestSupport;
+import net.nemerosa.ontrack.model.structure.Project;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class SQLMonitoringServiceIT extends AbstractServiceTestSupport {
+
+    @Autowired
+    private StructureRepository structureRepository;
+
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    @Test
+    public void repository_statements_are_timed() throws Exception {
+        Project project = doCreateProject();
+        Timer timer = metricRegistry.getTimers().get("sql.StructureJdbcRepository.getProject");
+        long count = timer != null ? timer.getCount() : 0;
+        structureRepository.getProject(project.getId());
+        structureRepository.getProjectList();
+        timer = metricRegistry.getTimers().get("sql.StructureJdbcRepository.getProject");
+        assertNotNull(timer);
+        assertTrue(timer.getCount() > count);
+        assertNotNull(metricRegistry.getTimers().get("sql.StructureJdbcRepository.getProjectList"));
+    }
+
+}
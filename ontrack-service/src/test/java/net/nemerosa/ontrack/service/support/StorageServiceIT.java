@@ -5,6 +5,7 @@ import net.nemerosa.ontrack.model.support.StorageService;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -50,4 +51,25 @@ public class StorageServiceIT extends AbstractServiceTestSupport {
         assertEquals(stored2, data.get("2"));
     }
 
+    @Test
+    public void store_all() {
+        StoredValue stored1 = new StoredValue("test-1");
+        StoredValue stored2 = new StoredValue("test-2");
+        String store = uid("C");
+
+        storageService.store(store, "0", new StoredValue("test-0"));
+
+        Map<String, StoredValue> values = new LinkedHashMap<>();
+        values.put("0", null);
+        values.put("1", stored1);
+        values.put("2", stored2);
+        storageService.storeAll(store, values);
+
+        Map<String, StoredValue> data = storageService.getData(store, StoredValue.class);
+
+        assertEquals(2, data.size());
+        assertEquals(stored1, data.get("1"));
+        assertEquals(stored2, data.get("2"));
+    }
+
 }
@@ -4,6 +4,7 @@ import net.nemerosa.ontrack.extension.api.ActionExtension;
 import net.nemerosa.ontrack.model.extension.Extension;
 import net.nemerosa.ontrack.model.support.Action;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 
@@ -12,6 +13,9 @@ public abstract class AbstractResourceController {
     @Autowired
     private URIBuilder uriBuilder;
 
+    @Autowired
+    private ResourceETagService resourceETagService;
+
     /**
      * @see org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder#fromMethodCall(Object)
      */
@@ -19,6 +23,17 @@ public abstract class AbstractResourceController {
         return uriBuilder.build(methodInvocation);
     }
 
+    /**
+     * Checks the <code>If-None-Match</code> header of the request against the ETag of the resource.
+     * If <code>true</code> is returned, the controller must return <code>null</code> without
+     * computing the resource.
+     *
+     * @see ResourceETagService#checkNotModified(WebRequest)
+     */
+    protected boolean notModified(WebRequest request) {
+        return request != null && resourceETagService.checkNotModified(request);
+    }
+
     protected Action resolveExtensionAction(ActionExtension actionExtension) {
         return resolveExtensionAction(actionExtension, actionExtension.getAction());
     }
@@ -0,0 +1,29 @@
+package net.nemerosa.ontrack.ui.controller;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Computes strong ETags for the REST resources, so that clients can issue conditional
+ * requests using the <code>If-None-Match</code> header.
+ * <p>
+ * The ETag is computed from the current {@linkplain net.nemerosa.ontrack.model.support.ChangeMarkerService change marker},
+ * the current account and the request, without having to compute the resource itself.
+ */
+public interface ResourceETagService {
+
+    /**
+     * Gets the ETag for the given request
+     */
+    String getETag(WebRequest request);
+
+    /**
+     * Checks the ETag of the current request against the <code>If-None-Match</code> header.
+     * The <code>ETag</code> header is set on the response.
+     *
+     * @param request Current request
+     * @return <code>true</code> if the resource has not been modified, in which case the status
+     * of the response is already set to 304 and the controller must return <code>null</code>
+     */
+    boolean checkNotModified(WebRequest request);
+
+}
@@ -0,0 +1,66 @@
+package net.nemerosa.ontrack.ui.controller;
+
+import net.nemerosa.ontrack.model.security.Account;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class ResourceETagServiceImpl implements ResourceETagService {
+
+    private final ChangeMarkerService changeMarkerService;
+    private final SecurityService securityService;
+    private final OntrackConfigProperties config;
+
+    @Autowired
+    public ResourceETagServiceImpl(ChangeMarkerService changeMarkerService, SecurityService securityService, OntrackConfigProperties config) {
+        this.changeMarkerService = changeMarkerService;
+        this.securityService = securityService;
+        this.config = config;
+    }
+
+    @Override
+    public String getETag(WebRequest request) {
+        StringBuilder key = new StringBuilder(changeMarkerService.getMarker());
+        // Current account, including its permissions
+        Account account = securityService.getCurrentAccount();
+        if (account != null) {
+            key.append("|").append(account.id()).append(":").append(account.hashCode());
+        } else {
+            key.append("|-");
+        }
+        // Path and parameters
+        key.append("|").append(request.getDescription(false));
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            key.append("|").append(parameter.getKey()).append("=").append(String.join(",", parameter.getValue()));
+        }
+        // Strong ETag
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @Override
+    public boolean checkNotModified(WebRequest request) {
+        if (!config.isEtag()) {
+            return false;
+        }
+        // Browsers must always revalidate the resource, and must not share it between users
+        if (request instanceof NativeWebRequest) {
+            HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            }
+        }
+        return request.checkNotModified(getETag(request));
+    }
+}
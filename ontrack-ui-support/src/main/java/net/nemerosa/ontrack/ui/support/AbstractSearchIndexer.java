@@ -0,0 +1,69 @@
+package net.nemerosa.ontrack.ui.support;
+
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.ui.controller.URIBuilder;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public abstract class AbstractSearchIndexer implements SearchIndexer {
+
+    protected final URIBuilder uriBuilder;
+
+    protected AbstractSearchIndexer(URIBuilder uriBuilder) {
+        this.uriBuilder = uriBuilder;
+    }
+
+    protected URI uri(Object methodInvocation) {
+        return uriBuilder.build(methodInvocation);
+    }
+
+    /**
+     * Search result pointing to the page of an entity
+     */
+    protected SearchResult toEntitySearchResult(ProjectEntity entity, String description, int accuracy) {
+        return new SearchResult(
+                entity.getEntityDisplayName(),
+                description,
+                uriBuilder.getEntityURI(entity),
+                uriBuilder.getEntityPage(entity),
+                accuracy
+        );
+    }
+
+    /**
+     * Search results pointing to the pages of entities, the entities of the same type being loaded at once.
+     *
+     * @param structureService Service used to load the entities
+     * @param matches          Matches to convert
+     * @param entityRef        Entity an entry points to
+     * @param description      Description of the result, from the entry and its entity
+     * @return Search results, in the same order as the matches, empty for the entities which are gone
+     */
+    protected List<Optional<SearchResult>> toEntitySearchResults(
+            StructureService structureService,
+            List<SearchIndexMatch> matches,
+            Function<SearchIndexEntry, ProjectEntityRef> entityRef,
+            BiFunction<SearchIndexEntry, ProjectEntity, String> description) {
+        // Entities to load, per type
+        Map<ProjectEntityType, Set<ID>> ids = new EnumMap<>(ProjectEntityType.class);
+        for (SearchIndexMatch match : matches) {
+            ProjectEntityRef ref = entityRef.apply(match.getEntry());
+            ids.computeIfAbsent(ref.getType(), type -> new HashSet<>()).add(ID.of(ref.getId()));
+        }
+        Map<ProjectEntityType, Map<ID, ProjectEntity>> entities = new EnumMap<>(ProjectEntityType.class);
+        ids.forEach((type, typeIds) -> entities.put(type, structureService.getEntities(type, typeIds)));
+        // Conversion
+        return matches.stream()
+                .map(match -> {
+                    SearchIndexEntry entry = match.getEntry();
+                    ProjectEntityRef ref = entityRef.apply(entry);
+                    return Optional.ofNullable(entities.get(ref.getType()).get(ID.of(ref.getId())))
+                            .map(entity -> toEntitySearchResult(entity, description.apply(entry, entity), match.getAccuracy()));
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package net.nemerosa.ontrack.ui.controller;
+
+import net.nemerosa.ontrack.model.security.Account;
+import net.nemerosa.ontrack.model.security.AuthenticationSource;
+import net.nemerosa.ontrack.model.security.SecurityRole;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.support.ChangeMarkerService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResourceETagServiceImplTest {
+
+    private ChangeMarkerService changeMarkerService;
+    private SecurityService securityService;
+    private OntrackConfigProperties config;
+    private ResourceETagServiceImpl service;
+
+    @Before
+    public void before() {
+        changeMarkerService = mock(ChangeMarkerService.class);
+        when(changeMarkerService.getMarker()).thenReturn("1");
+        securityService = mock(SecurityService.class);
+        config = new OntrackConfigProperties();
+        service = new ResourceETagServiceImpl(changeMarkerService, securityService, config);
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+
+    private String etag(MockHttpServletRequest request) {
+        return service.getETag(new ServletWebRequest(request));
+    }
+
+    private static Account account(int id, String name) {
+        return Account.of(name, name, name + "@test.com", SecurityRole.USER, AuthenticationSource.none()).withId(ID.of(id));
+    }
+
+    @Test
+    public void strong_etag() {
+        String etag = etag(get("/structure/projects"));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, etag(get("/structure/projects")));
+    }
+
+    @Test
+    public void etag_depends_on_path_and_parameters() {
+        MockHttpServletRequest r1 = get("/structure/branches/1/view/filter");
+        r1.addParameter("count", "10");
+        MockHttpServletRequest r2 = get("/structure/branches/1/view/filter");
+        r2.addParameter("count", "20");
+        assertNotEquals(etag(r1), etag(r2));
+        assertNotEquals(etag(get("/structure/projects/1/view")), etag(get("/structure/projects/2/view")));
+    }
+
+    @Test
+    public void etag_depends_on_marker() {
+        String etag = etag(get("/structure/projects"));
+        when(changeMarkerService.getMarker()).thenReturn("2");
+        assertNotEquals(etag, etag(get("/structure/projects")));
+    }
+
+    @Test
+    public void etag_depends_on_account() {
+        String anonymous = etag(get("/structure/projects"));
+        when(securityService.getCurrentAccount()).thenReturn(account(1, "user1"));
+        String user1 = etag(get("/structure/projects"));
+        when(securityService.getCurrentAccount()).thenReturn(account(2, "user2"));
+        String user2 = etag(get("/structure/projects"));
+        assertNotEquals(anonymous, user1);
+        assertNotEquals(user1, user2);
+    }
+
+    @Test
+    public void not_modified() {
+        String etag = etag(get("/structure/projects"));
+        MockHttpServletRequest request = get("/structure/projects");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(service.checkNotModified(new ServletWebRequest(request, response)));
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    public void modified() {
+        MockHttpServletRequest request = get("/structure/projects");
+        request.addHeader("If-None-Match", "\"old\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(service.checkNotModified(new ServletWebRequest(request, response)));
+        assertEquals(200, response.getStatus());
+        assertEquals(etag(get("/structure/projects")), response.getHeader("ETag"));
+        assertEquals("private, no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void disabled() {
+        config.setEtag(false);
+        String etag = etag(get("/structure/projects"));
+        MockHttpServletRequest request = get("/structure/projects");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(service.checkNotModified(new ServletWebRequest(request, response)));
+        assertNull(response.getHeader("ETag"));
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.nemerosa.ontrack.boot;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.ui.controller.URIBuilder;
+import net.nemerosa.ontrack.ui.support.AbstractSearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Component
+public class BranchSearchIndexer extends AbstractSearchIndexer {
+
+    public static final String CATEGORY = "branch";
+
+    private final StructureService structureService;
+
+    @Autowired
+    public BranchSearchIndexer(URIBuilder uriBuilder, StructureService structureService) {
+        super(uriBuilder);
+        this.structureService = structureService;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public void indexAll(Consumer<SearchIndexEntry> consumer) {
+        structureService.getProjectList().forEach(project ->
+                structureService.getBranchesForProject(project.getId()).forEach(branch ->
+                        consumer.accept(toEntry(branch))
+                )
+        );
+    }
+
+    @Override
+    public void onEvent(Event event, SearchIndexService searchIndexService) {
+        if (event.getEventType() == EventFactory.NEW_BRANCH || event.getEventType() == EventFactory.UPDATE_BRANCH) {
+            searchIndexService.index(toEntry(event.getEntity(ProjectEntityType.BRANCH)));
+        } else if (event.getEventType() == EventFactory.DELETE_BRANCH) {
+            searchIndexService.remove(CATEGORY, event.getValue("branch_id"));
+        }
+    }
+
+    @Override
+    public Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy) {
+        Branch branch = structureService.getBranch(ID.of(Integer.parseInt(entry.getKey(), 10)));
+        return Optional.of(toEntitySearchResult(branch, branch.getDescription(), accuracy));
+    }
+
+    @Override
+    public List<Optional<SearchResult>> toSearchResults(List<SearchIndexMatch> matches) {
+        return toEntitySearchResults(
+                structureService,
+                matches,
+                entry -> new ProjectEntityRef(ProjectEntityType.BRANCH, Integer.parseInt(entry.getKey(), 10)),
+                (entry, entity) -> ((Branch) entity).getDescription()
+        );
+    }
+
+    protected SearchIndexEntry toEntry(Branch branch) {
+        return new SearchIndexEntry(
+                CATEGORY,
+                String.valueOf(branch.id()),
+                branch.getProject().getId(),
+                branch.getName(),
+                branch.getEntityDisplayName(),
+                branch.getDescription(),
+                null
+        );
+    }
+}
@@ -0,0 +1,87 @@
+package net.nemerosa.ontrack.boot;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.ui.controller.URIBuilder;
+import net.nemerosa.ontrack.ui.support.AbstractSearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Component
+public class BuildSearchIndexer extends AbstractSearchIndexer {
+
+    public static final String CATEGORY = "build";
+
+    private final StructureService structureService;
+
+    @Autowired
+    public BuildSearchIndexer(URIBuilder uriBuilder, StructureService structureService) {
+        super(uriBuilder);
+        this.structureService = structureService;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public void indexAll(Consumer<SearchIndexEntry> consumer) {
+        structureService.getProjectList().forEach(project ->
+                structureService.getBranchesForProject(project.getId()).forEach(branch ->
+                        // Streams all the builds of the branch
+                        structureService.findBuild(
+                                branch.getId(),
+                                build -> {
+                                    consumer.accept(toEntry(build));
+                                    return false;
+                                },
+                                BuildSortDirection.FROM_NEWEST
+                        )
+                )
+        );
+    }
+
+    @Override
+    public void onEvent(Event event, SearchIndexService searchIndexService) {
+        if (event.getEventType() == EventFactory.NEW_BUILD || event.getEventType() == EventFactory.UPDATE_BUILD) {
+            searchIndexService.index(toEntry(event.getEntity(ProjectEntityType.BUILD)));
+        } else if (event.getEventType() == EventFactory.DELETE_BUILD) {
+            searchIndexService.remove(CATEGORY, event.getValue("build_id"));
+        }
+        // Builds of deleted branches are removed from the index when they are found again
+    }
+
+    @Override
+    public Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy) {
+        Build build = structureService.getBuild(ID.of(Integer.parseInt(entry.getKey(), 10)));
+        return Optional.of(toEntitySearchResult(build, build.getDescription(), accuracy));
+    }
+
+    @Override
+    public List<Optional<SearchResult>> toSearchResults(List<SearchIndexMatch> matches) {
+        return toEntitySearchResults(
+                structureService,
+                matches,
+                entry -> new ProjectEntityRef(ProjectEntityType.BUILD, Integer.parseInt(entry.getKey(), 10)),
+                (entry, entity) -> ((Build) entity).getDescription()
+        );
+    }
+
+    protected SearchIndexEntry toEntry(Build build) {
+        return new SearchIndexEntry(
+                CATEGORY,
+                String.valueOf(build.id()),
+                build.getProject().getId(),
+                build.getName(),
+                build.getEntityDisplayName(),
+                build.getDescription(),
+                null
+        );
+    }
+}
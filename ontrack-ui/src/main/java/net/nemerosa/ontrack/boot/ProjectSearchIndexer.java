@@ -0,0 +1,73 @@
+package net.nemerosa.ontrack.boot;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.ui.controller.URIBuilder;
+import net.nemerosa.ontrack.ui.support.AbstractSearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Component
+public class ProjectSearchIndexer extends AbstractSearchIndexer {
+
+    public static final String CATEGORY = "project";
+
+    private final StructureService structureService;
+
+    @Autowired
+    public ProjectSearchIndexer(URIBuilder uriBuilder, StructureService structureService) {
+        super(uriBuilder);
+        this.structureService = structureService;
+    }
+
+    @Override
+    public String getCategory() {
+        return CATEGORY;
+    }
+
+    @Override
+    public void indexAll(Consumer<SearchIndexEntry> consumer) {
+        structureService.getProjectList().forEach(project -> consumer.accept(toEntry(project)));
+    }
+
+    @Override
+    public void onEvent(Event event, SearchIndexService searchIndexService) {
+        if (event.getEventType() == EventFactory.NEW_PROJECT || event.getEventType() == EventFactory.UPDATE_PROJECT) {
+            searchIndexService.index(toEntry(event.getEntity(ProjectEntityType.PROJECT)));
+        }
+        // Deleted projects are removed from the index together with all their entries
+    }
+
+    @Override
+    public Optional<SearchResult> toSearchResult(SearchIndexEntry entry, int accuracy) {
+        Project project = structureService.getProject(ID.of(Integer.parseInt(entry.getKey(), 10)));
+        return Optional.of(toEntitySearchResult(project, project.getDescription(), accuracy));
+    }
+
+    @Override
+    public List<Optional<SearchResult>> toSearchResults(List<SearchIndexMatch> matches) {
+        return toEntitySearchResults(
+                structureService,
+                matches,
+                entry -> new ProjectEntityRef(ProjectEntityType.PROJECT, Integer.parseInt(entry.getKey(), 10)),
+                (entry, entity) -> ((Project) entity).getDescription()
+        );
+    }
+
+    protected SearchIndexEntry toEntry(Project project) {
+        return new SearchIndexEntry(
+                CATEGORY,
+                String.valueOf(project.id()),
+                project.getId(),
+                project.getName(),
+                project.getEntityDisplayName(),
+                project.getDescription(),
+                null
+        );
+    }
+}
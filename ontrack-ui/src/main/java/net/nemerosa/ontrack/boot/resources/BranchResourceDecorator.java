@@ -71,7 +71,7 @@ public class BranchResourceDecorator extends AbstractResourceDecorator<Branch> {
                 // All branches for the same project
                 .link(
                         "_branches",
-                        on(BranchController.class).getBranchListForProject(branch.getProjectId())
+                        on(BranchController.class).getBranchListForProject(branch.getProjectId(), null)
                 )
                 // Actual properties for this build
                 .link("_properties", on(PropertyController.class).getProperties(ProjectEntityType.BRANCH, branch.getId()))
@@ -90,7 +90,7 @@ public class BranchResourceDecorator extends AbstractResourceDecorator<Branch> {
                 // View link
                 .link("_status", on(BranchController.class).getBranchStatusView(branch.getId()))
                 // Builds link
-                .link("_view", on(BranchController.class).buildView(branch.getId()))
+                .link("_view", on(BranchController.class).buildView(branch.getId(), null))
                 // Decorations
                 .link("_decorations", on(DecorationsController.class).getDecorations(branch.getProjectEntityType(), branch.getId()))
                 // Build filters
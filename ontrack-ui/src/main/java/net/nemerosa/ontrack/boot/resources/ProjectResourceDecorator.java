@@ -32,7 +32,7 @@ public class ProjectResourceDecorator extends AbstractResourceDecorator<Project>
         LinksBuilder linksBuilder = resourceContext.links()
                 .self(on(ProjectController.class).getProject(project.getId()))
                 // List of branches for this project
-                .link("_branches", on(BranchController.class).getBranchListForProject(project.getId()))
+                .link("_branches", on(BranchController.class).getBranchListForProject(project.getId(), null))
                 // Creates a branch for this project
                 .link(
                         "_createBranch",
@@ -40,7 +40,7 @@ public class ProjectResourceDecorator extends AbstractResourceDecorator<Project>
                         BranchCreate.class, project
                 )
                 // List of branches and their views
-                .link("_branchStatusViews", on(ProjectController.class).getBranchStatusViews(project.getId()))
+                .link("_branchStatusViews", on(ProjectController.class).getBranchStatusViews(project.getId(), null))
                 // Build search
                 .link("_buildSearch", on(BuildController.class).buildSearchForm(project.getId()))
                 // Build diff actions
@@ -8,6 +8,8 @@ import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.support.ApplicationLogEntry;
 import net.nemerosa.ontrack.model.support.ApplicationLogService;
 import net.nemerosa.ontrack.model.support.Page;
+import net.nemerosa.ontrack.model.support.SQLMonitoringService;
+import net.nemerosa.ontrack.model.support.SlowQuery;
 import net.nemerosa.ontrack.ui.controller.AbstractResourceController;
 import net.nemerosa.ontrack.ui.resource.Pagination;
 import net.nemerosa.ontrack.ui.resource.Resource;
@@ -18,6 +20,7 @@ import org.springframework.boot.actuate.health.Health;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -32,13 +35,15 @@ public class AdminController extends AbstractResourceController {
     private final ApplicationLogService applicationLogService;
     private final HealthEndpoint healthEndpoint;
     private final SecurityService securityService;
+    private final SQLMonitoringService sqlMonitoringService;
 
     @Autowired
-    public AdminController(JobScheduler jobScheduler, ApplicationLogService applicationLogService, HealthEndpoint healthEndpoint, SecurityService securityService) {
+    public AdminController(JobScheduler jobScheduler, ApplicationLogService applicationLogService, HealthEndpoint healthEndpoint, SecurityService securityService, SQLMonitoringService sqlMonitoringService) {
         this.jobScheduler = jobScheduler;
         this.applicationLogService = applicationLogService;
         this.healthEndpoint = healthEndpoint;
         this.securityService = securityService;
+        this.sqlMonitoringService = sqlMonitoringService;
     }
 
     /**
@@ -53,16 +58,22 @@ public class AdminController extends AbstractResourceController {
     }
 
     /**
-     * Gets the list of application log entries
+     * Gets the list of application log entries.
+     * <p>
+     * If <code>before</code> is set, the entries are paged using their sequence number, and the
+     * offset of the page is ignored.
      */
     @RequestMapping(value = "logs", method = RequestMethod.GET)
-    public Resources<ApplicationLogEntry> getLogEntries(Page page) {
+    public Resources<ApplicationLogEntry> getLogEntries(Page page, @RequestParam(required = false) Long before) {
+        if (before != null) {
+            return getLogEntriesBefore(before, page.getCount());
+        }
         // Gets the entries
         List<ApplicationLogEntry> entries = applicationLogService.getLogEntries(page);
         // Builds the resources
         Resources<ApplicationLogEntry> resources = Resources.of(
                 entries,
-                uri(on(getClass()).getLogEntries(page))
+                uri(on(getClass()).getLogEntries(page, null))
         );
         // Pagination information
         int offset = page.getOffset();
@@ -77,7 +88,8 @@ public class AdminController extends AbstractResourceController {
                             new Page(
                                     Math.max(0, offset - count),
                                     count
-                            )
+                            ),
+                            null
                     ))
             );
         }
@@ -85,6 +97,73 @@ public class AdminController extends AbstractResourceController {
         if (offset + count < total) {
             pagination = pagination.withNext(
                     uri(on(AdminController.class).getLogEntries(
+                            new Page(
+                                    offset + count,
+                                    count
+                            ),
+                            null
+                    ))
+            );
+        }
+        // OK
+        return resources.withPagination(pagination);
+    }
+
+    private Resources<ApplicationLogEntry> getLogEntriesBefore(long before, int count) {
+        // Gets the entries
+        List<ApplicationLogEntry> entries = applicationLogService.getLogEntriesBefore(before, count);
+        // Builds the resources
+        Resources<ApplicationLogEntry> resources = Resources.of(
+                entries,
+                uri(on(getClass()).getLogEntries(new Page(0, count), before))
+        );
+        // Next page, starting after the last returned entry
+        Pagination pagination = Pagination.of(0, entries.size(), applicationLogService.getLogEntriesTotal());
+        if (entries.size() == count) {
+            long last = entries.get(entries.size() - 1).getSequence();
+            if (last > 0) {
+                pagination = pagination.withNext(
+                        uri(on(AdminController.class).getLogEntries(new Page(0, count), last))
+                );
+            }
+        }
+        // OK
+        return resources.withPagination(pagination);
+    }
+
+    /**
+     * Gets the slow query log
+     */
+    @RequestMapping(value = "slow-queries", method = RequestMethod.GET)
+    public Resources<SlowQuery> getSlowQueries(Page page) {
+        securityService.checkGlobalFunction(ApplicationManagement.class);
+        // Gets the entries
+        List<SlowQuery> entries = sqlMonitoringService.getSlowQueries(page);
+        // Builds the resources
+        Resources<SlowQuery> resources = Resources.of(
+                entries,
+                uri(on(getClass()).getSlowQueries(page))
+        );
+        // Pagination information
+        int offset = page.getOffset();
+        int count = page.getCount();
+        int total = sqlMonitoringService.getSlowQueriesTotal();
+        Pagination pagination = Pagination.of(offset, entries.size(), total);
+        // Previous page
+        if (offset > 0) {
+            pagination = pagination.withPrev(
+                    uri(on(AdminController.class).getSlowQueries(
+                            new Page(
+                                    Math.max(0, offset - count),
+                                    count
+                            )
+                    ))
+            );
+        }
+        // Next page
+        if (offset + count < total) {
+            pagination = pagination.withNext(
+                    uri(on(AdminController.class).getSlowQueries(
                             new Page(
                                     offset + count,
                                     count
@@ -96,6 +175,16 @@ public class AdminController extends AbstractResourceController {
         return resources.withPagination(pagination);
     }
 
+    /**
+     * Clears the slow query log
+     */
+    @RequestMapping(value = "slow-queries", method = RequestMethod.DELETE)
+    public Ack clearSlowQueries() {
+        securityService.checkGlobalFunction(ApplicationManagement.class);
+        sqlMonitoringService.clearSlowQueries();
+        return Ack.OK;
+    }
+
     /**
      * Gets the list of jobs and their status
      */
@@ -58,10 +58,13 @@ public class BranchController extends AbstractResourceController {
     }
 
     @RequestMapping(value = "projects/{projectId}/branches", method = RequestMethod.GET)
-    public Resources<Branch> getBranchListForProject(@PathVariable ID projectId) {
+    public Resources<Branch> getBranchListForProject(@PathVariable ID projectId, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return Resources.of(
                 structureService.getBranchesForProject(projectId),
-                uri(on(BranchController.class).getBranchListForProject(projectId))
+                uri(on(BranchController.class).getBranchListForProject(projectId, null))
         )
                 // Create
                 .with(
@@ -144,7 +147,10 @@ public class BranchController extends AbstractResourceController {
     }
 
     @RequestMapping(value = "branches/{branchId}/view", method = RequestMethod.GET)
-    public BranchBuildView buildView(@PathVariable ID branchId) {
+    public BranchBuildView buildView(@PathVariable ID branchId, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         // Using the default filter
         BuildFilter buildFilter = buildFilterService.defaultFilter();
         return buildViewWithFilter(branchId, buildFilter);
@@ -153,6 +159,9 @@ public class BranchController extends AbstractResourceController {
 
     @RequestMapping(value = "branches/{branchId}/view/{filterType:.*}", method = RequestMethod.GET)
     public BranchBuildView buildViewWithFilter(@PathVariable ID branchId, @PathVariable String filterType, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         JsonNode jsonParameters = requestParametersToJson(request);
         // Defines the filter using a service
         BuildFilter buildFilter = buildFilterService.computeFilter(branchId, filterType, jsonParameters);
@@ -163,6 +163,18 @@ public class BuildController extends AbstractResourceController {
         return build;
     }
 
+    /**
+     * Creates or gets a build, and registers its properties, links, validation runs and promotion
+     * runs in one call.
+     */
+    @RequestMapping(value = "branches/{branchId}/builds/batch", method = RequestMethod.POST)
+    public Build newBuildBatch(@PathVariable ID branchId, @RequestBody @Valid BuildBatchRequest request) {
+        return structureService.newBuildBatch(
+                structureService.getBranch(branchId),
+                request
+        );
+    }
+
     @RequestMapping(value = "builds/{buildId}/update", method = RequestMethod.GET)
     public Form updateBuildForm(@PathVariable ID buildId) {
         return structureService.getBuild(buildId).asForm();
@@ -265,6 +277,42 @@ public class BuildController extends AbstractResourceController {
         ).forView(Build.class);
     }
 
+    /**
+     * Gets the builds which can be reached from this build by following its links.
+     *
+     * @param buildId   Origin of the graph
+     * @param direction {@link BuildLinkDirection#DOWNSTREAM} for the builds used by this build,
+     *                  {@link BuildLinkDirection#UPSTREAM} for the builds using this build
+     * @param depth     Maximum number of levels to explore
+     * @return Graph of builds
+     */
+    @RequestMapping(value = "builds/{buildId}/links/graph", method = RequestMethod.GET)
+    public BuildLinkGraph getBuildLinkGraph(
+            @PathVariable ID buildId,
+            @RequestParam(required = false, defaultValue = "DOWNSTREAM") BuildLinkDirection direction,
+            @RequestParam(required = false, defaultValue = "3") int depth) {
+        return structureService.getBuildLinkGraph(structureService.getBuild(buildId), direction, depth);
+    }
+
+    /**
+     * Gets the builds of a project which use this build, directly or not.
+     *
+     * @param buildId Build being used
+     * @param project Name of the project to get the builds from
+     * @param depth   Maximum number of levels to explore
+     * @return List of builds
+     */
+    @RequestMapping(value = "builds/{buildId}/links/usedBy", method = RequestMethod.GET)
+    public Resources<Build> getBuildsUsing(
+            @PathVariable ID buildId,
+            @RequestParam String project,
+            @RequestParam(required = false, defaultValue = "3") int depth) {
+        return Resources.of(
+                structureService.getBuildsUsing(structureService.getBuild(buildId), project, depth),
+                uri(on(getClass()).getBuildsUsing(buildId, project, depth))
+        ).forView(Build.class);
+    }
+
     /**
      * Form to create a link between a build and another
      *
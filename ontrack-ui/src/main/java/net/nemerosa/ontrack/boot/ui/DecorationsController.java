@@ -1,16 +1,16 @@
 package net.nemerosa.ontrack.boot.ui;
 
+import net.nemerosa.ontrack.model.exceptions.DecorationsBatchSizeException;
 import net.nemerosa.ontrack.model.structure.*;
 import net.nemerosa.ontrack.ui.resource.Resources;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestMethod;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
 
@@ -18,6 +18,11 @@ import static org.springframework.web.servlet.mvc.method.annotation.MvcUriCompon
 @RequestMapping("/decorations")
 public class DecorationsController extends AbstractProjectEntityController {
 
+    /**
+     * Maximum number of entities whose decorations can be requested at once
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
     private final DecorationService decorationService;
 
     @Autowired
@@ -46,4 +51,58 @@ public class DecorationsController extends AbstractProjectEntityController {
         };
     }
 
+    /**
+     * Decorations for several entities at once, up to {@link #MAX_BATCH_SIZE}. The entities which
+     * cannot be found or accessed are not part of the response.
+     */
+    @RequestMapping(value = "batch", method = RequestMethod.POST)
+    public Callable<Resources<EntityDecorations>> getDecorationsBatch(@RequestBody List<ProjectEntityRef> refs) {
+        if (refs != null && refs.size() > MAX_BATCH_SIZE) {
+            throw new DecorationsBatchSizeException(refs.size(), MAX_BATCH_SIZE);
+        }
+        // Gets the current request attributes
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        return () -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                // Loads the entities
+                List<ProjectEntity> entities = refs != null ? getEntities(refs) : Collections.emptyList();
+                // Decorations
+                return Resources.of(
+                        decorationService.getDecorations(entities).entrySet().stream()
+                                .map(entry -> new EntityDecorations(
+                                        entry.getKey().getProjectEntityType(),
+                                        entry.getKey().id(),
+                                        entry.getValue()
+                                ))
+                                .collect(Collectors.toList()),
+                        uri(on(getClass()).getDecorationsBatch(null))
+                );
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+
+    /**
+     * Loads the entities with one call per type, in the order of the references.
+     */
+    private List<ProjectEntity> getEntities(List<ProjectEntityRef> refs) {
+        List<ProjectEntityRef> validRefs = refs.stream()
+                .filter(ref -> ref.getType() != null && ref.getId() > 0)
+                .collect(Collectors.toList());
+        Map<ProjectEntityType, Map<ID, ProjectEntity>> entitiesPerType = new EnumMap<>(ProjectEntityType.class);
+        validRefs.stream()
+                .collect(Collectors.groupingBy(
+                        ProjectEntityRef::getType,
+                        Collectors.mapping(ref -> ID.of(ref.getId()), Collectors.toSet())
+                ))
+                .forEach((type, ids) -> entitiesPerType.put(type, structureService.getEntities(type, ids)));
+        return validRefs.stream()
+                .map(ref -> entitiesPerType.get(ref.getType()).get(ID.of(ref.getId())))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
 }
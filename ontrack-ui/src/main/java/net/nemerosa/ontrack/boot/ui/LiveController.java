@@ -0,0 +1,95 @@
+package net.nemerosa.ontrack.boot.ui;
+
+import net.nemerosa.ontrack.model.events.LiveEvent;
+import net.nemerosa.ontrack.model.events.LiveEventService;
+import net.nemerosa.ontrack.model.events.LiveEventSubscription;
+import net.nemerosa.ontrack.model.exceptions.LiveEventTopicException;
+import net.nemerosa.ontrack.model.security.ApplicationManagement;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Sent Events channel, used by the clients to be notified of the changes
+ * in the entities they display.
+ */
+@RestController
+@RequestMapping("/live")
+public class LiveController extends AbstractProjectEntityController {
+
+    private final LiveEventService liveEventService;
+    private final SecurityService securityService;
+    private final OntrackConfigProperties ontrackConfigProperties;
+
+    @Autowired
+    public LiveController(StructureService structureService, LiveEventService liveEventService, SecurityService securityService, OntrackConfigProperties ontrackConfigProperties) {
+        super(structureService);
+        this.liveEventService = liveEventService;
+        this.securityService = securityService;
+        this.ontrackConfigProperties = ontrackConfigProperties;
+    }
+
+    /**
+     * Subscribes to a list of topics. A topic is either <code>{entityType}/{id}</code> for the events
+     * about an entity, or <code>jobs</code> and <code>logs</code> for the administrators.
+     * <p>
+     * The events do not carry any data, only their topic and type. A client which does not keep
+     * up with its events is disconnected, and reconnects by itself.
+     */
+    @RequestMapping(value = "", method = RequestMethod.GET, produces = "text/event-stream")
+    public SseEmitter subscribe(@RequestParam List<String> topic) {
+        // Checks the access to the topics before subscribing
+        topic.forEach(this::checkTopic);
+        // Emitter
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(ontrackConfigProperties.getLiveEventsTimeout()));
+        LiveEventSubscription subscription = liveEventService.subscribe(topic, event -> send(emitter, event), emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        // OK
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, LiveEvent event) {
+        try {
+            emitter.send(SseEmitter.event().data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void checkTopic(String topic) {
+        if (LiveEvent.JOBS.equals(topic) || LiveEvent.LOGS.equals(topic)) {
+            securityService.checkGlobalFunction(ApplicationManagement.class);
+        } else {
+            String type = StringUtils.substringBefore(topic, "/");
+            String id = StringUtils.substringAfter(topic, "/");
+            ProjectEntityType entityType;
+            try {
+                entityType = ProjectEntityType.valueOf(type);
+            } catch (IllegalArgumentException ex) {
+                throw new LiveEventTopicException(topic);
+            }
+            if (!StringUtils.isNumeric(id) || id.isEmpty()) {
+                throw new LiveEventTopicException(topic);
+            }
+            // Checks the entity can be accessed
+            getEntity(entityType, ID.of(Integer.parseInt(id, 10)));
+        }
+    }
+
+}
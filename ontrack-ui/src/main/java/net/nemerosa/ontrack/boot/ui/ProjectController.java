@@ -16,6 +16,7 @@ import net.nemerosa.ontrack.ui.support.APIMethod;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
@@ -40,29 +41,38 @@ public class ProjectController extends AbstractResourceController {
     }
 
     @RequestMapping(value = "", method = RequestMethod.GET)
-    public Resources<Project> getProjectList() {
+    public Resources<Project> getProjectList(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return Resources.of(
                 structureService.getProjectList(),
-                uri(on(ProjectController.class).getProjectList())
+                uri(on(ProjectController.class).getProjectList(null))
         )
                 .with(Link.CREATE, uri(on(ProjectController.class).newProject(null)), securityService.isGlobalFunctionGranted(ProjectCreation.class));
     }
 
     @RequestMapping(value = "view", method = RequestMethod.GET)
-    public Resources<ProjectStatusView> getProjectStatusViews() {
+    public Resources<ProjectStatusView> getProjectStatusViews(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return Resources.of(
                 structureService.getProjectStatusViews(),
-                uri(on(ProjectController.class).getProjectStatusViews())
+                uri(on(ProjectController.class).getProjectStatusViews(null))
         )
                 .forView(ProjectStatusView.class)
                 .with(Link.CREATE, uri(on(ProjectController.class).newProject(null)), securityService.isGlobalFunctionGranted(ProjectCreation.class));
     }
 
     @RequestMapping(value = "favourites", method = RequestMethod.GET)
-    public Resources<ProjectStatusView> getProjectStatusViewsForFavourites() {
+    public Resources<ProjectStatusView> getProjectStatusViewsForFavourites(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return Resources.of(
                 structureService.getProjectStatusViewsForFavourites(),
-                uri(on(ProjectController.class).getProjectStatusViewsForFavourites())
+                uri(on(ProjectController.class).getProjectStatusViewsForFavourites(null))
         )
                 .forView(ProjectStatusView.class)
                 .with(Link.CREATE, uri(on(ProjectController.class).newProject(null)), securityService.isGlobalFunctionGranted(ProjectCreation.class));
@@ -85,10 +95,13 @@ public class ProjectController extends AbstractResourceController {
     }
 
     @RequestMapping(value = "{projectId}/view", method = RequestMethod.GET)
-    public Resources<BranchStatusView> getBranchStatusViews(@PathVariable ID projectId) {
+    public Resources<BranchStatusView> getBranchStatusViews(@PathVariable ID projectId, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return Resources.of(
                 structureService.getBranchStatusViews(projectId),
-                uri(on(ProjectController.class).getBranchStatusViews(projectId))
+                uri(on(ProjectController.class).getBranchStatusViews(projectId, null))
         )
                 .forView(BranchStatusView.class)
                 .with(
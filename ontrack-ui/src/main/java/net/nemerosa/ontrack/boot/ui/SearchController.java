@@ -2,6 +2,7 @@ package net.nemerosa.ontrack.boot.ui;
 
 import net.nemerosa.ontrack.model.structure.SearchRequest;
 import net.nemerosa.ontrack.model.structure.SearchResult;
+import net.nemerosa.ontrack.model.structure.SearchResults;
 import net.nemerosa.ontrack.model.structure.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -26,6 +27,14 @@ public class SearchController {
 
     @RequestMapping(value = "/search", method = RequestMethod.POST)
     public Collection<SearchResult> search(@RequestBody SearchRequest request) {
+        return searchService.search(request).getResults();
+    }
+
+    /**
+     * Same as {@link #search(SearchRequest)}, but telling if more results are available.
+     */
+    @RequestMapping(value = "/search/page", method = RequestMethod.POST)
+    public SearchResults searchPage(@RequestBody SearchRequest request) {
         return searchService.search(request);
     }
 
@@ -1,20 +1,17 @@
 package net.nemerosa.ontrack.boot.ui
 
-import net.nemerosa.ontrack.boot.BranchSearchProvider
 import net.nemerosa.ontrack.model.security.ProjectView
-import net.nemerosa.ontrack.model.security.SecurityService
 import net.nemerosa.ontrack.model.structure.Branch
 import net.nemerosa.ontrack.model.structure.NameDescription
+import net.nemerosa.ontrack.model.structure.SearchRequest
+import net.nemerosa.ontrack.model.structure.SearchService
 import org.junit.Test
 import org.springframework.beans.factory.annotation.Autowired
 
-class BranchSearchProviderIT extends AbstractWebTestSupport {
+class BranchSearchIndexerIT extends AbstractWebTestSupport {
 
     @Autowired
-    private BranchSearchProvider provider
-
-    @Autowired
-    private SecurityService securityService
+    private SearchService searchService
 
     @Test
     void 'Branch search results'() {
@@ -26,10 +23,12 @@ class BranchSearchProviderIT extends AbstractWebTestSupport {
         // ... and a branch with the same name
         Branch branch2 = doCreateBranch(project2, NameDescription.nd(branchName, ''))
         // Searches for the branch name
-        def results = asUser().with(branch1, ProjectView).with(branch2, ProjectView).call { provider.search(branchName) }
-        // Checks the results
+        def results = asUser().with(branch1, ProjectView).with(branch2, ProjectView).call {
+            searchService.search(new SearchRequest(branchName)).results
+        }
+        // Checks the results, the most recent first
         assert results.size() == 2
-        assert results[0].title == branch1.entityDisplayName
-        assert results[1].title == branch2.entityDisplayName
+        assert results[0].title == branch2.entityDisplayName
+        assert results[1].title == branch1.entityDisplayName
     }
 }
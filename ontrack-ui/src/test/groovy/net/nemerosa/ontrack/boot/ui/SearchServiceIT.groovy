@@ -1,20 +1,29 @@
 package net.nemerosa.ontrack.boot.ui
 
+import net.nemerosa.ontrack.boot.BuildSearchIndexer
 import net.nemerosa.ontrack.it.AbstractServiceTestSupport
+import net.nemerosa.ontrack.model.security.BuildDelete
+import net.nemerosa.ontrack.model.structure.SearchIndexEntry
+import net.nemerosa.ontrack.model.structure.SearchIndexService
 import net.nemerosa.ontrack.model.structure.SearchRequest
 import net.nemerosa.ontrack.model.structure.SearchService
 import org.junit.Test
 import org.springframework.beans.factory.annotation.Autowired
 
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+
 class SearchServiceIT extends AbstractServiceTestSupport {
 
     @Autowired
     private SearchService searchService
 
+    @Autowired
+    private SearchIndexService searchIndexService
+
     @Test
     void 'Looking for a build'() {
         def build = doCreateBuild()
-        def results = asUser().call { searchService.search(new SearchRequest(build.name)) }
+        def results = asUser().call { searchService.search(new SearchRequest(build.name)).results }
         assert results.size() == 1
         assert results[0].title == "Build ${build.project.name}/${build.branch.name}/${build.name}" as String
     }
@@ -24,7 +33,7 @@ class SearchServiceIT extends AbstractServiceTestSupport {
         def build = doCreateBuild()
         grantViewToAll false
         try {
-            def results = asUser().withView(build).call { searchService.search(new SearchRequest(build.name)) }
+            def results = asUser().withView(build).call { searchService.search(new SearchRequest(build.name)).results }
             assert results.size() == 1
             assert results[0].title == "Build ${build.project.name}/${build.branch.name}/${build.name}" as String
         } finally {
@@ -37,11 +46,85 @@ class SearchServiceIT extends AbstractServiceTestSupport {
         def build = doCreateBuild()
         grantViewToAll false
         try {
-            def results = asUser().call { searchService.search(new SearchRequest(build.name)) }
+            def results = asUser().call { searchService.search(new SearchRequest(build.name)).results }
             assert results.empty
         } finally {
             grantViewToAll true
         }
     }
 
+    @Test
+    void 'Looking for a project'() {
+        def project = doCreateProject()
+        def results = asUser().call { searchService.search(new SearchRequest(project.name)).results }
+        assert results.size() == 1
+        assert results[0].title == "Project ${project.name}" as String
+        assert results[0].accuracy == 100
+    }
+
+    @Test
+    void 'Exact matches before partial matches'() {
+        def branch = doCreateBranch()
+        def build = doCreateBuild(branch, nd("${branch.name}-1", ""))
+        def results = asUser().call { searchService.search(new SearchRequest(branch.name)).results }
+        assert results.collect { it.title } == [
+                "Branch ${branch.project.name}/${branch.name}" as String,
+                "Build ${branch.project.name}/${branch.name}/${build.name}" as String,
+        ]
+        assert results.collect { it.accuracy } == [100, 80]
+    }
+
+    @Test
+    void 'Wildcard and paginated results'() {
+        def branch = doCreateBranch()
+        def builds = (1..5).collect { doCreateBuild(branch, nd("${branch.name}-${it}", "")) }
+        def token = "${branch.name}-*" as String
+        // First page
+        def results = asUser().call {
+            searchService.search(new SearchRequest(token).with { count = 3; it })
+        }
+        assert results.results.collect { it.title } == builds.reverse().take(3).collect { it.entityDisplayName }
+        assert results.hasMore
+        // Second page
+        results = asUser().call {
+            searchService.search(new SearchRequest(token).with { offset = 3; count = 3; it })
+        }
+        assert results.results.collect { it.title } == builds.reverse().drop(3).collect { it.entityDisplayName }
+        assert !results.hasMore
+    }
+
+    @Test
+    void 'Number of results is capped'() {
+        def branch = doCreateBranch()
+        def token = "${branch.name}-*" as String
+        (1..(SearchRequest.MAX_COUNT + 1)).each {
+            searchIndexService.index(new SearchIndexEntry('test', "${branch.name}-${it}", null, "${branch.name}-${it}", '', '', null))
+        }
+        def results = asUser().call {
+            searchIndexService.search(new SearchRequest(token).with { count = 1000; it })
+        }
+        assert results.hasMore
+    }
+
+    @Test
+    void 'Deleted build is not found any longer'() {
+        def build = doCreateBuild()
+        asUser().with(build, BuildDelete).call { structureService.deleteBuild(build.id) }
+        def results = asUser().call { searchService.search(new SearchRequest(build.name)).results }
+        assert results.empty
+    }
+
+    @Test
+    void 'Rebuilding the index'() {
+        def build = doCreateBuild()
+        searchIndexService.remove(BuildSearchIndexer.CATEGORY, build.id.toString())
+        assert asUser().call { searchService.search(new SearchRequest(build.name)).results }.empty
+        // Rebuilding
+        asUser().call { searchIndexService.rebuild() }
+        // Found again
+        def results = asUser().call { searchService.search(new SearchRequest(build.name)).results }
+        assert results.size() == 1
+        assert results[0].title == "Build ${build.project.name}/${build.branch.name}/${build.name}" as String
+    }
+
 }
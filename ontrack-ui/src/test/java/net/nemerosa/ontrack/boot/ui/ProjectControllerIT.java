@@ -1,13 +1,16 @@
 package net.nemerosa.ontrack.boot.ui;
 
+import net.nemerosa.ontrack.model.security.BranchCreate;
 import net.nemerosa.ontrack.model.security.ProjectCreation;
 import net.nemerosa.ontrack.model.security.ProjectEdit;
-import net.nemerosa.ontrack.model.structure.ID;
-import net.nemerosa.ontrack.model.structure.NameDescriptionState;
-import net.nemerosa.ontrack.model.structure.Project;
+import net.nemerosa.ontrack.model.security.ProjectView;
+import net.nemerosa.ontrack.model.structure.*;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.junit.Assert.*;
 
@@ -52,6 +55,35 @@ public class ProjectControllerIT extends AbstractWebTestSupport {
         });
     }
 
+    @Test
+    public void branchStatusViews_not_modified() throws Exception {
+        Project project = doCreateProject();
+        asUser().with(project, ProjectView.class).with(project, BranchCreate.class).call(() -> {
+            String path = "/structure/projects/" + project.id() + "/view";
+            // First call
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertNotNull(controller.getBranchStatusViews(project.getId(), new ServletWebRequest(new MockHttpServletRequest("GET", path), response)));
+            String etag = response.getHeader("ETag");
+            assertNotNull("ETag is set", etag);
+            // Same call using the ETag
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            request.addHeader("If-None-Match", etag);
+            response = new MockHttpServletResponse();
+            assertNull(controller.getBranchStatusViews(project.getId(), new ServletWebRequest(request, response)));
+            assertEquals(304, response.getStatus());
+            // Change
+            structureService.newBranch(Branch.of(project, nameDescription()));
+            // Call again using the previous ETag
+            request = new MockHttpServletRequest("GET", path);
+            request.addHeader("If-None-Match", etag);
+            response = new MockHttpServletResponse();
+            assertNotNull(controller.getBranchStatusViews(project.getId(), new ServletWebRequest(request, response)));
+            assertEquals(200, response.getStatus());
+            assertNotEquals(etag, response.getHeader("ETag"));
+            return null;
+        });
+    }
+
     private void checkProject(Project project, NameDescriptionState nameDescription) {
         assertNotNull("Project not null", project);
         assertNotNull("Project ID not null", project.getId());
@@ -18,8 +18,10 @@ var ontrack = angular.module('ontrack', [
         'ot.service.user',
         'ot.service.info',
         'ot.service.task',
+        'ot.service.live',
         'ot.service.form',
         'ot.service.configuration',
+        'ot.service.decoration',
         // Views
         'ot.view.api',
         'ot.view.api-doc',
@@ -143,7 +145,7 @@ var ontrack = angular.module('ontrack', [
             otInfoService.init();
         })
         // Main controller
-        .controller('AppCtrl', function ($log, $scope, $rootScope, $state, $http, ot, otUserService, otInfoService, otTaskService, otFormService) {
+        .controller('AppCtrl', function ($log, $scope, $rootScope, $state, $http, ot, otUserService, otInfoService, otTaskService, otLiveService, otFormService) {
 
             $log.debug('[app] Initialising the app controller...');
 
@@ -223,6 +225,7 @@ var ontrack = angular.module('ontrack', [
              */
 
             $scope.$on('$stateChangeStart', function () {
+                otLiveService.unsubscribeAll();
                 otTaskService.stopAll();
             });
 
@@ -1,7 +1,8 @@
 angular.module('ot.directive.entity', [
     'ot.service.core',
     'ot.service.event',
-    'ot.service.task'
+    'ot.service.live',
+    'ot.service.decoration'
 ])
     .directive('otEntityImage', function () {
         return {
@@ -32,7 +33,7 @@ angular.module('ot.directive.entity', [
             }
         };
     })
-    .directive('otEntityEvents', function ($http, ot, otEventService, otTaskService) {
+    .directive('otEntityEvents', function ($http, ot, otEventService, otLiveService) {
         return {
             restrict: 'E',
             templateUrl: 'app/directive/directive.entityEvents.tpl.html',
@@ -48,22 +49,22 @@ angular.module('ot.directive.entity', [
                     if (scope.entity) {
                         scope.events = [];
                         loadEvents(scope.entity._events);
+                        // Reloads the events when the entity changes, or every minute if not available
+                        otLiveService.subscribe('events', [otLiveService.entityTopic(scope.entity._events)], function () {
+                            if (scope.entity) {
+                                scope.events = [];
+                                loadEvents(scope.entity._events);
+                            }
+                        }, 60000);
                     }
                 });
                 scope.moreEvents = function () {
                     if (scope.eventsResource.pagination.next) {
-                        otTaskService.stop('events');
+                        otLiveService.unsubscribe('events');
                         loadEvents(scope.eventsResource.pagination.next);
                     }
                 };
 
-                otTaskService.register('events', function () {
-                    if (scope.entity) {
-                        scope.events = [];
-                        loadEvents(scope.entity._events);
-                    }
-                }, 60000);
-
                 function loadEvents(uri) {
                     ot.call($http.get(uri)).then(function (events) {
                         scope.eventsResource = events;
@@ -74,10 +75,10 @@ angular.module('ot.directive.entity', [
             }
         };
     })
-    .directive('otEntityDecorations', function ($http, ot) {
+    .directive('otEntityDecorations', function (otDecorationService) {
         function updateEntityDecorations(scope, entity) {
-            ot.call($http.get(entity._decorations)).then(function (decorations) {
-                scope.decorations = decorations.resources;
+            otDecorationService.getDecorations(entity).then(function (decorations) {
+                scope.decorations = decorations;
             });
         }
 
@@ -0,0 +1,81 @@
+var DECORATIONS_BATCH_SIZE = 100;
+
+angular.module('ot.service.decoration', [
+    'ot.service.core'
+])
+/**
+ * Collects the decoration requests made during the same digest cycle and
+ * loads them using one call per batch of entities.
+ */
+    .service('otDecorationService', function ($q, $http, $timeout, ot) {
+        var self = {};
+
+        // Pending requests, indexed by batch URL
+        var pending = {};
+        var scheduled = false;
+
+        /**
+         * Gets the batch URL, the type and the ID of an entity from its `_decorations` link
+         * (`.../decorations/{type}/{id}`).
+         */
+        function parseLink(link) {
+            var parts = link.split('/');
+            var id = parts.pop();
+            var type = parts.pop();
+            return {
+                url: parts.join('/') + '/batch',
+                type: type,
+                id: Number(id)
+            };
+        }
+
+        function loadBatch(url, requests) {
+            ot.call($http.post(url, requests.map(function (request) {
+                return {type: request.type, id: request.id};
+            }))).then(function (result) {
+                var index = {};
+                angular.forEach(result.resources, function (entityDecorations) {
+                    index[entityDecorations.type + '/' + entityDecorations.id] = entityDecorations.decorations;
+                });
+                angular.forEach(requests, function (request) {
+                    request.deferred.resolve(index[request.type + '/' + request.id] || []);
+                });
+            }, function (error) {
+                angular.forEach(requests, function (request) {
+                    request.deferred.reject(error);
+                });
+            });
+        }
+
+        function flush() {
+            var batches = pending;
+            pending = {};
+            scheduled = false;
+            angular.forEach(batches, function (requests, url) {
+                for (var i = 0; i < requests.length; i += DECORATIONS_BATCH_SIZE) {
+                    loadBatch(url, requests.slice(i, i + DECORATIONS_BATCH_SIZE));
+                }
+            });
+        }
+
+        /**
+         * Gets the list of decorations for an entity.
+         */
+        self.getDecorations = function (entity) {
+            var deferred = $q.defer();
+            var request = parseLink(entity._decorations);
+            request.deferred = deferred;
+            if (!pending[request.url]) {
+                pending[request.url] = [];
+            }
+            pending[request.url].push(request);
+            if (!scheduled) {
+                scheduled = true;
+                $timeout(flush, 0, false);
+            }
+            return deferred.promise;
+        };
+
+        return self;
+    })
+;
@@ -0,0 +1,186 @@
+var LIVE_EVENTS_DEBOUNCE = 1000; // 1 second
+
+angular.module('ot.service.live', [
+    'ot.service.task'
+])
+/**
+ * Listens to the live events sent by the server for some topics, and runs a function
+ * when some of them are received. When the browser does not support the Server-Sent Events,
+ * or when the server refuses the connection, the function is run at regular intervals instead.
+ *
+ * All the subscriptions of the page share one connection, for the union of their topics, so that
+ * the connections the browser allows per server remain available for the other calls.
+ */
+    .service('otLiveService', function ($log, $timeout, otTaskService) {
+        var self = {
+            subscriptions: {}
+        };
+
+        // Shared connection and its topics
+        var source;
+        var sourceTopics = '';
+        var connecting;
+
+        function fallback(subscription) {
+            $log.debug('[live] Polling for "' + subscription.name + '" with interval ' + subscription.interval);
+            subscription.polling = true;
+            otTaskService.register(subscription.name, subscription.fn, subscription.interval);
+        }
+
+        function close() {
+            if (source) {
+                source.close();
+                source = undefined;
+            }
+            sourceTopics = '';
+        }
+
+        function getTopics() {
+            var topics = [];
+            angular.forEach(self.subscriptions, function (subscription) {
+                if (!subscription.polling) {
+                    angular.forEach(subscription.topics, function (topic) {
+                        if (topics.indexOf(topic) < 0) {
+                            topics.push(topic);
+                        }
+                    });
+                }
+            });
+            topics.sort();
+            return topics;
+        }
+
+        function notify(topic) {
+            angular.forEach(self.subscriptions, function (subscription) {
+                if (!subscription.polling && !subscription.pending && subscription.topics.indexOf(topic) >= 0) {
+                    subscription.pending = $timeout(function () {
+                        subscription.pending = undefined;
+                        subscription.fn();
+                    }, LIVE_EVENTS_DEBOUNCE);
+                }
+            });
+        }
+
+        function connect() {
+            connecting = undefined;
+            var topics = getTopics();
+            var key = topics.join('&');
+            if (key == sourceTopics) {
+                return;
+            }
+            close();
+            if (topics.length == 0) {
+                return;
+            }
+            $log.debug('[live] Connecting for ' + topics.join(', '));
+            var current = new EventSource('live?' + topics.map(function (topic) {
+                    return 'topic=' + encodeURIComponent(topic);
+                }).join('&'));
+            current.onmessage = function (message) {
+                var event;
+                try {
+                    event = JSON.parse(message.data);
+                } catch (ex) {
+                    $log.error('[live] Cannot parse event: ', message.data);
+                    return;
+                }
+                notify(event.topic);
+            };
+            current.onerror = function () {
+                // The browser reconnects by itself, unless the connection has been refused
+                if (current.readyState == EventSource.CLOSED && current === source) {
+                    close();
+                    angular.forEach(self.subscriptions, function (subscription) {
+                        if (!subscription.polling) {
+                            fallback(subscription);
+                        }
+                    });
+                }
+            };
+            source = current;
+            sourceTopics = key;
+        }
+
+        /**
+         * Subscriptions made one after the other lead to only one connection.
+         */
+        function scheduleConnect() {
+            if (!connecting) {
+                connecting = $timeout(connect, 0);
+            }
+        }
+
+        /**
+         * Subscribes to some topics
+         * @param name Name of the subscription
+         * @param topics List of topics, like `BRANCH/12` or `jobs`
+         * @param fn Function to run when some events are received. The events received within the
+         * same second lead to only one call.
+         * @param interval Interval (in milliseconds) to use when the live events are not available
+         */
+        self.subscribe = function (name, topics, fn, interval) {
+            self.unsubscribe(name);
+            var subscription = {
+                name: name,
+                topics: topics,
+                fn: fn,
+                interval: interval
+            };
+            self.subscriptions[name] = subscription;
+            if (!window.EventSource) {
+                fallback(subscription);
+            } else {
+                $log.debug('[live] Subscribing "' + name + '" to ' + topics.join(', '));
+                scheduleConnect();
+            }
+        };
+
+        /**
+         * Stopping one subscription
+         */
+        self.unsubscribe = function (name) {
+            var subscription = self.subscriptions[name];
+            if (subscription) {
+                $log.debug('[live] Unsubscribing ' + name);
+                if (subscription.pending) {
+                    $timeout.cancel(subscription.pending);
+                }
+                delete self.subscriptions[name];
+                scheduleConnect();
+            }
+            otTaskService.stop(name);
+        };
+
+        /**
+         * Stops all the subscriptions
+         */
+        self.unsubscribeAll = function () {
+            angular.forEach(self.subscriptions, function (subscription) {
+                self.unsubscribe(subscription.name);
+            });
+            close();
+        };
+
+        /**
+         * Checks if the shared connection is open, for test purposes
+         */
+        self.isConnected = function () {
+            return source !== undefined && source.readyState == EventSource.OPEN;
+        };
+
+        /**
+         * Topic for an entity, computed from one of its links like `_events` or `_decorations`,
+         * whose path ends with `{type}/{id}`. The query parameters, like the paging of the
+         * `_events` link, are ignored.
+         */
+        self.entityTopic = function (link) {
+            var parts = link.split(/[?#]/)[0].split('/');
+            var id = parts.pop();
+            var type = parts.pop();
+            return type + '/' + id;
+        };
+
+        // OK
+        return self;
+    })
+;
@@ -1,7 +1,8 @@
 angular.module('ot.view.admin.console', [
         'ui.router',
         'ot.service.core',
-        'ot.service.task'
+        'ot.service.task',
+        'ot.service.live'
     ])
     .config(function ($stateProvider) {
         $stateProvider.state('admin-console', {
@@ -10,7 +11,7 @@ angular.module('ot.view.admin.console', [
             controller: 'AdminConsoleCtrl'
         });
     })
-    .controller('AdminConsoleCtrl', function ($scope, $http, ot, otAlertService, otTaskService, otNotificationService) {
+    .controller('AdminConsoleCtrl', function ($scope, $http, ot, otAlertService, otTaskService, otLiveService, otNotificationService) {
         var view = ot.view();
         view.title = "Administration console";
         view.description = "Tools for the general management of ontrack";
@@ -91,15 +92,34 @@ angular.module('ot.view.admin.console', [
             });
         }
 
+        // Loads the slow queries
+        function loadSlowQueries() {
+            ot.call($http.get('admin/slow-queries', {
+                params: {
+                    offset: 0,
+                    count: 20
+                }
+            })).then(function (slowQueries) {
+                $scope.slowQueries = slowQueries;
+            });
+        }
+
+        // Clears the slow queries
+        $scope.clearSlowQueries = function () {
+            ot.pageCall($http.delete('admin/slow-queries')).then(loadSlowQueries);
+        };
+
         // Initialisation
         loadJobs();
         loadLogs();
+        loadSlowQueries();
         loadHealth();
         loadExtensions();
 
         var interval = 10 * 1000; // 10 seconds
-        otTaskService.register('Admin Console Load Jobs', loadJobs, interval);
-        otTaskService.register('Admin Console Load Logs', loadLogs, interval);
+        otLiveService.subscribe('Admin Console Load Jobs', ['jobs'], loadJobs, interval);
+        otLiveService.subscribe('Admin Console Load Logs', ['logs'], loadLogs, interval);
+        otTaskService.register('Admin Console Load Slow Queries', loadSlowQueries, interval);
 
         // Showing the details of a log entry
         $scope.showLogDetails = function (log) {
@@ -1,7 +1,7 @@
 angular.module('ot.view.branch', [
     'ui.router',
     'ot.service.core',
-    'ot.service.task',
+    'ot.service.live',
     'ot.service.form',
     'ot.service.structure',
     'ot.service.buildfilter',
@@ -19,7 +19,7 @@ angular.module('ot.view.branch', [
         });
     })
     .controller('BranchCtrl', function ($state, $scope, $stateParams, $http, $modal, $location,
-                                        ot, otFormService, otStructureService, otAlertService, otTaskService, otNotificationService, otCopyService, otTemplateService,
+                                        ot, otFormService, otStructureService, otAlertService, otLiveService, otNotificationService, otCopyService, otTemplateService,
                                         otBuildFilterService, otValidationStampFilterService) {
         var view = ot.view();
         // Branch's id
@@ -36,10 +36,10 @@ angular.module('ot.view.branch', [
         var refreshTaskName = 'Branch build view refresh';
         $scope.$watch('autoRefresh', function () {
             if ($scope.autoRefresh) {
-                // 1 minute interval
-                otTaskService.register(refreshTaskName, refreshBuildView, 60 * 1000);
+                // On any event on the branch, or every minute if not available
+                otLiveService.subscribe(refreshTaskName, ['BRANCH/' + branchId], refreshBuildView, 60 * 1000);
             } else {
-                otTaskService.stop(refreshTaskName);
+                otLiveService.unsubscribe(refreshTaskName);
             }
         });
         $scope.autoRefresh = localStorage.getItem('autoRefresh');
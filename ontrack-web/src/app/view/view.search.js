@@ -19,10 +19,16 @@ angular.module('ot.view.search', [
         view.title = "Search results for \"" + $scope.token + "\"";
         view.commands = [ot.viewCloseCommand('/home')];
 
+        // Page size
+        var pageSize = 50;
+        $scope.offset = 0;
+
         // Launching the search
-        ot.pageCall($http.post('search', {token: $scope.token})).then(function (results) {
+        ot.pageCall($http.post('search/page', {token: $scope.token, offset: 0, count: pageSize})).then(function (searchResults) {
+            var results = searchResults.results;
             $scope.searchDone = true;
             $scope.results = results;
+            $scope.moreResults = searchResults.hasMore;
             // If only one result, switches directly to the correct page
             if (results.length == 1) {
                 var result = results[0];
@@ -35,5 +41,14 @@ angular.module('ot.view.search', [
             }
         });
 
+        // Next page of results
+        $scope.loadMoreResults = function () {
+            $scope.offset += pageSize;
+            ot.pageCall($http.post('search/page', {token: $scope.token, offset: $scope.offset, count: pageSize})).then(function (searchResults) {
+                $scope.results = $scope.results.concat(searchResults.results);
+                $scope.moreResults = searchResults.hasMore;
+            });
+        };
+
     })
 ;
\ No newline at end of file